@@ -0,0 +1,99 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.common.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Readable channel decorator computing the CRC32C checksum of the bytes passing through it,
+ * in the same pass as the reader consumes them.
+ *
+ * <p>The checksum is the raw CRC32C value truncated to an {@code int}. An optional
+ * callback receives it as soon as the expected number of bytes has been read, which lets
+ * a reader that stops at the blob size, rather than at end-of-stream, still have the blob
+ * verified.
+ */
+public final class ChecksumChannel implements ReadableByteChannel {
+
+  private final ReadableByteChannel _source;
+  private final long _size;
+  private final IntConsumer _onComplete;
+  private final CRC32C _crc = new CRC32C();
+  private long _read;
+
+  /**
+   * @param source the channel to read from
+   */
+  public ChecksumChannel(ReadableByteChannel source) {
+    this(source, Long.MAX_VALUE, checksum -> {});
+  }
+
+  /**
+   * @param source     the channel to read from
+   * @param size       the number of bytes after which the checksum is complete
+   * @param onComplete receives the checksum once {@code size} bytes have been read;
+   *                   may throw to fail the read
+   */
+  public ChecksumChannel(
+    ReadableByteChannel source,
+    long size,
+    IntConsumer onComplete
+  ) {
+    _source = Objects.requireNonNull(source, "source cannot be null");
+    _size = size;
+    _onComplete = Objects.requireNonNull(
+      onComplete,
+      "onComplete cannot be null"
+    );
+  }
+
+  @Override
+  public int read(ByteBuffer target) throws IOException {
+    int start = target.position();
+    int count = _source.read(target);
+    if (count > 0) {
+      _crc.update(target.slice(start, count));
+      boolean completed = _read < _size && _read + count >= _size;
+      _read += count;
+      if (completed) {
+        _onComplete.accept(checksum());
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the CRC32C checksum of the bytes read so far.
+   */
+  public int checksum() {
+    return (int) _crc.getValue();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return _source.isOpen();
+  }
+
+  @Override
+  public void close() throws IOException {
+    _source.close();
+  }
+}
@@ -4,7 +4,7 @@
  * <p>
  * This package contains small, framework-free utilities that support domain
  * objects and ports without introducing external dependencies. Utilities here
- * are intentionally minimal and focused on two main concerns:
+ * are intentionally minimal and focused on three main concerns:
  * </p>
  *
  * <ul>
@@ -16,10 +16,13 @@
  *       providing convenience routines to copy, compare, and explicitly clear memory
  *       for byte arrays and other mutable containers so that sensitive secrets do
  *       not linger on the heap.</li>
+ *   <li>Integrity of streamed blobs (for example {@link ChecksumChannel}), computing
+ *       checksums inline with the transfer instead of in a separate pass.</li>
  * </ul>
  *
  * @see com.voltzug.cinder.core.common.utils.Assert
  * @see com.voltzug.cinder.core.common.utils.SafeArrays
+ * @see com.voltzug.cinder.core.common.utils.ChecksumChannel
  * @see com.voltzug.cinder.core.common.contract.IResolvable
  * @see com.voltzug.cinder.core.common.valueobject
  */
@@ -17,7 +17,9 @@ package com.voltzug.cinder.core.common.valueobject;
 
 import com.voltzug.cinder.core.common.utils.SafeArrays;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Objects;
 
 /**
  * Regular immutable blob. Use for:
@@ -26,14 +28,39 @@ import java.util.Base64;
  *   <li>Non-sensitive binary data</li>
  *   <li>When you don't need automatic memory wiping</li>
  * </ul>
+ * A blob can also be a read-only view over an existing buffer (e.g. a memory-mapped file),
+ * see {@link #view(ByteBuffer)}.
  */
 public class Blob {
 
   protected final byte[] buffer;
+  private final ByteBuffer _view;
 
   public Blob(final byte[] value) {
     SafeArrays.assertNotEmpty(value);
     buffer = value;
+    _view = null;
+  }
+
+  private Blob(final ByteBuffer view) {
+    buffer = null;
+    _view = view;
+  }
+
+  /**
+   * Creates a Blob viewing the remaining bytes of the given buffer, without copying them.
+   * The contents are shared with the buffer, so it must not be modified afterwards.
+   *
+   * @param source the buffer to view (e.g. a {@link java.nio.MappedByteBuffer})
+   * @return a read-only Blob view
+   * @throws IllegalArgumentException if the buffer has no remaining bytes
+   */
+  public static Blob view(final ByteBuffer source) {
+    Objects.requireNonNull(source, "source must not be null");
+    if (!source.hasRemaining()) {
+      throw new IllegalArgumentException("buffer must have content");
+    }
+    return new Blob(source.slice().asReadOnlyBuffer());
   }
 
   /**
@@ -57,6 +84,9 @@ public class Blob {
    * @return a read-only {@link ByteBuffer} containing the blob data
    */
   public ByteBuffer getBuffer() {
+    if (_view != null) {
+      return _view.duplicate();
+    }
     return ByteBuffer.wrap(buffer).asReadOnlyBuffer();
   }
 
@@ -66,6 +96,10 @@ public class Blob {
    * @return Base64 encoded blob
    */
   public CharSequence toBase64() {
+    if (_view != null) {
+      ByteBuffer encoded = Base64.getEncoder().encode(_view.duplicate());
+      return new String(encoded.array(), StandardCharsets.US_ASCII);
+    }
     return Base64.getEncoder().encodeToString(buffer);
   }
 
@@ -75,6 +109,9 @@ public class Blob {
    * @return the size in bytes
    */
   public int size() {
+    if (_view != null) {
+      return _view.remaining();
+    }
     return buffer.length;
   }
 }
@@ -0,0 +1,76 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.common.valueobject;
+
+import java.util.Objects;
+
+/**
+ * A byte range of a stored blob opened for streamed reading.
+ * Couples the stream of the range contents with the range's position in the blob, as
+ * needed to answer partial content requests.
+ *
+ * Always use try-with-resources or explicit close()
+ *
+ * @param stream    the stream over the bytes of the range
+ * @param offset    the position of the first byte of the range in the blob
+ * @param totalSize the size of the whole blob in bytes
+ */
+public record BlobRange(BlobStream stream, long offset, long totalSize)
+  implements AutoCloseable {
+  public BlobRange {
+    Objects.requireNonNull(stream, "stream must not be null");
+    if (offset < 0) {
+      throw new IllegalArgumentException(
+        "offset cannot be negative, got " + offset
+      );
+    }
+    if (stream.size() > totalSize - offset) {
+      throw new IllegalArgumentException(
+        "range of " +
+          stream.size() +
+          " bytes at " +
+          offset +
+          " exceeds blob size " +
+          totalSize
+      );
+    }
+  }
+
+  /** Returns the number of bytes in the range. */
+  public long length() {
+    return stream.size();
+  }
+
+  /** Returns the position of the last byte of the range in the blob. */
+  public long lastPosition() {
+    return offset + stream.size() - 1;
+  }
+
+  /** Tells whether the range covers the whole blob. */
+  public boolean isWhole() {
+    return offset == 0 && stream.size() == totalSize;
+  }
+
+  /**
+   * Closes the underlying stream.
+   *
+   * @throws java.io.UncheckedIOException if the stream cannot be closed
+   */
+  @Override
+  public void close() {
+    stream.close();
+  }
+}
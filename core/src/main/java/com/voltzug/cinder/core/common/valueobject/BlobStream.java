@@ -0,0 +1,63 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.common.valueobject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Streamed counterpart of {@link Blob}: a readable channel over blob contents of a known size.
+ * Use when the blob must not be materialized in heap (e.g. large encrypted files).
+ *
+ * Always use try-with-resources or explicit close()
+ *
+ * @param channel the channel to read the blob contents from
+ * @param size    the total size of the blob in bytes
+ * @param file    the local file the channel reads, as resolved by the store, if the store
+ *                guarantees the blob stays at that path until the transfer completes, so it
+ *                may be reopened by name; null otherwise
+ */
+public record BlobStream(ReadableByteChannel channel, long size, Path file)
+  implements AutoCloseable {
+  public BlobStream {
+    Objects.requireNonNull(channel, "channel must not be null");
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be positive, got " + size);
+    }
+  }
+
+  /** Creates a stream that is not read straight from a local file. */
+  public BlobStream(ReadableByteChannel channel, long size) {
+    this(channel, size, null);
+  }
+
+  /**
+   * Closes the underlying channel.
+   *
+   * @throws UncheckedIOException if the channel cannot be closed
+   */
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+  }
+}
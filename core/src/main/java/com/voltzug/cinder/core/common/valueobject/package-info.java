@@ -4,7 +4,7 @@
  * <p>
  * This package provides small, immutable and serializable value objects that
  * are shared by domain entities and ports. It contains both simple, non-sensitive
- * wrappers (for example {@link Blob} and {@link Id}) and "safe" variants that
+ * wrappers (for example {@link Blob}, {@link BlobStream}, {@link BlobRange} and {@link Id}) and "safe" variants that
  * hold sensitive data and offer explicit lifecycle management (see
  * {@link com.voltzug.cinder.core.common.valueobject.safe.SafeBlob},
  * {@link com.voltzug.cinder.core.common.valueobject.safe.SafeBlobSized} and
@@ -25,6 +25,8 @@
  * </p>
  *
  * @see Blob
+ * @see BlobStream
+ * @see BlobRange
  * @see Id
  * @see com.voltzug.cinder.core.common.valueobject.safe.SafeBlob
  * @see com.voltzug.cinder.core.common.valueobject.safe.SafeBlobSized
@@ -16,6 +16,7 @@
 package com.voltzug.cinder.core.domain.entity;
 
 import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
 import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
 import com.voltzug.cinder.core.domain.valueobject.GateHash;
 import com.voltzug.cinder.core.domain.valueobject.PathReference;
@@ -32,6 +33,7 @@ import java.util.Objects;
  * @param fileId             Unique file identifier
  * @param linkId             Unique link identifier
  * @param blobPath           Reference to the file's storage location
+ * @param blobChecksum       Checksum of the stored blob, or null if none was recorded
  * @param sealedEnvelope     Server-sealed envelope containing file key and nonce
  * @param sealedSalt         Server-sealed salt for key derivation
  * @param gateHash           Hash for quiz/answer verification
@@ -44,6 +46,7 @@ public record SecureFile(
   FileId fileId,
   LinkId linkId,
   PathReference blobPath,
+  BlobChecksum blobChecksum,
   SealedBlob sealedEnvelope,
   SealedBlob sealedSalt,
   GateHash gateHash,
@@ -56,6 +59,7 @@ public record SecureFile(
     Objects.requireNonNull(fileId, "fileId must not be null");
     Objects.requireNonNull(linkId, "linkId must not be null");
     Objects.requireNonNull(blobPath, "blobPath must not be null");
+    // blobChecksum may be null (optional)
     Objects.requireNonNull(sealedEnvelope, "sealedEnvelope must not be null");
     Objects.requireNonNull(sealedSalt, "sealedSalt must not be null");
     Objects.requireNonNull(gateHash, "gateHash must not be null");
@@ -67,6 +71,36 @@ public record SecureFile(
     Objects.requireNonNull(createdAt, "createdAt must not be null");
   }
 
+  /**
+   * Creates a secure file without a recorded blob checksum.
+   */
+  public SecureFile(
+    FileId fileId,
+    LinkId linkId,
+    PathReference blobPath,
+    SealedBlob sealedEnvelope,
+    SealedBlob sealedSalt,
+    GateHash gateHash,
+    Blob encryptedQuestions,
+    FileSpecs specs,
+    int remainingAttempts,
+    Instant createdAt
+  ) {
+    this(
+      fileId,
+      linkId,
+      blobPath,
+      null,
+      sealedEnvelope,
+      sealedSalt,
+      gateHash,
+      encryptedQuestions,
+      specs,
+      remainingAttempts,
+      createdAt
+    );
+  }
+
   @Override
   public Instant getExpiryDate() {
     return specs.getExpiryDate();
@@ -83,6 +117,7 @@ public record SecureFile(
       fileId,
       linkId,
       blobPath,
+      blobChecksum,
       sealedEnvelope,
       sealedSalt,
       gateHash,
@@ -105,6 +140,7 @@ public record SecureFile(
       Objects.equals(fileId, o.fileId) &&
       Objects.equals(linkId, o.linkId) &&
       Objects.equals(blobPath, o.blobPath) &&
+      Objects.equals(blobChecksum, o.blobChecksum) &&
       Objects.equals(gateHash, o.gateHash) &&
       Objects.equals(sealedSalt, o.sealedSalt) &&
       Objects.equals(sealedEnvelope, o.sealedEnvelope) &&
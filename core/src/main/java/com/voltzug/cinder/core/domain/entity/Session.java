@@ -26,6 +26,8 @@ import java.util.Objects;
  * Tracks session state, expiration, and associated secrets.
  * For upload sessions, linkId is null until upload completes.
  * For download sessions, linkId references the target file.
+ * A download session carries the instant its access was verified, which consumed a
+ * download attempt; it is null after the handshake alone.
  */
 public record Session(
   SessionId id,
@@ -33,7 +35,8 @@ public record Session(
   LinkId linkId,
   Mode mode,
   Instant createdAt,
-  Instant expiresAt
+  Instant expiresAt,
+  Instant verifiedAt
 ) implements IExpirable {
   public Session {
     Objects.requireNonNull(id, "id cannot be null");
@@ -42,6 +45,46 @@ public record Session(
     // linkId may be null for upload sessions
     Objects.requireNonNull(createdAt, "createdAt cannot be null");
     Objects.requireNonNull(expiresAt, "expiresAt cannot be null");
+    // verifiedAt is null until the access of a download session is verified
+  }
+
+  public Session(
+    SessionId id,
+    SessionSecret sessionSecret,
+    LinkId linkId,
+    Mode mode,
+    Instant createdAt,
+    Instant expiresAt
+  ) {
+    this(id, sessionSecret, linkId, mode, createdAt, expiresAt, null);
+  }
+
+  /**
+   * Returns whether the access of this session was verified.
+   *
+   * @return true once {@link #verified} marked the session
+   */
+  public boolean isVerified() {
+    return verifiedAt != null;
+  }
+
+  /**
+   * Returns a copy of this session marked as verified, sharing its secret.
+   *
+   * @param now the instant the access was verified
+   * @return the verified session
+   */
+  public Session verified(Instant now) {
+    Objects.requireNonNull(now, "now cannot be null");
+    return new Session(
+      id,
+      sessionSecret,
+      linkId,
+      mode,
+      createdAt,
+      expiresAt,
+      now
+    );
   }
 
   @Override
@@ -74,13 +117,23 @@ public record Session(
       createdAt +
       ", expiresAt=" +
       expiresAt +
+      ", verifiedAt=" +
+      verifiedAt +
       '}'
     );
   }
 
   @Override
   public final int hashCode() {
-    return Objects.hash(id, sessionSecret, linkId, mode, createdAt, expiresAt);
+    return Objects.hash(
+      id,
+      sessionSecret,
+      linkId,
+      mode,
+      createdAt,
+      expiresAt,
+      verifiedAt
+    );
   }
 
   @Override
@@ -92,6 +145,7 @@ public record Session(
       mode == o.mode &&
       Objects.equals(createdAt, o.createdAt) &&
       Objects.equals(expiresAt, o.expiresAt) &&
+      Objects.equals(verifiedAt, o.verifiedAt) &&
       Objects.equals(id, o.id) &&
       Objects.equals(linkId, o.linkId) &&
       Objects.equals(sessionSecret, o.sessionSecret)
@@ -0,0 +1,67 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.domain.valueobject;
+
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+import java.util.zip.CRC32C;
+
+/**
+ * CRC32C checksum of a stored blob, used to detect silent corruption of blobs at rest.
+ * CRC32C is hardware-accelerated on common CPUs, so it can be computed inline with
+ * writes and verified on reads at a negligible cost compared to a cryptographic hash.
+ *
+ * @param value the CRC32C value
+ */
+public record BlobChecksum(int value) {
+  /**
+   * Computes the checksum of the remaining bytes of a buffer without consuming them.
+   *
+   * @param data the data to checksum
+   * @return the checksum
+   */
+  public static BlobChecksum of(ByteBuffer data) {
+    CRC32C crc = new CRC32C();
+    crc.update(data.duplicate());
+    return new BlobChecksum((int) crc.getValue());
+  }
+
+  /**
+   * Parses a checksum from its hexadecimal form.
+   *
+   * @param hex 8 hexadecimal digits
+   * @return the checksum
+   * @throws IllegalArgumentException if the string is not a valid checksum
+   */
+  public static BlobChecksum fromHex(String hex) {
+    if (hex == null || hex.length() != 8) {
+      throw new IllegalArgumentException("checksum must be 8 hex digits");
+    }
+    return new BlobChecksum((int) HexFormat.fromHexDigitsToLong(hex));
+  }
+
+  /**
+   * Returns the hexadecimal form of the checksum.
+   */
+  public String toHex() {
+    return HexFormat.of().toHexDigits(value);
+  }
+
+  @Override
+  public String toString() {
+    return "crc32c:" + toHex();
+  }
+}
@@ -1,16 +1,21 @@
 package com.voltzug.cinder.core.domain.valueobject;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 
 /**
  * Value object representing a file storage path reference.
  * This could be a local file path, S3 URI, or other storage location identifier.
  */
 public record PathReference(String value) {
+  /** Maximum number of hex fan-out directory levels for local files. */
+  public static final int FANOUT_MAX_LEVELS = 4;
+
   private static final Pattern S3_PATTERN = Pattern.compile(
     "^s3://[\\w\\-\\.]+/.+"
   );
@@ -52,6 +57,41 @@ public record PathReference(String value) {
     return new PathReference(path.toString());
   }
 
+  /**
+   * Creates a PathReference for local file storage sharded into hex fan-out directories.
+   * Each level is a two hex digit directory derived from a CRC32 of the file name,
+   * e.g. {@code directory/3f/a1/filename} for two levels.
+   *
+   * @param directory    the base directory
+   * @param filename     the file name
+   * @param fanoutLevels number of directory levels, from 0 (flat) to {@link #FANOUT_MAX_LEVELS}
+   * @return a PathReference instance
+   */
+  public static PathReference forLocalFile(
+    String directory,
+    String filename,
+    int fanoutLevels
+  ) {
+    Objects.requireNonNull(directory, "Directory must not be null");
+    Objects.requireNonNull(filename, "Filename must not be null");
+    if (fanoutLevels < 0 || fanoutLevels > FANOUT_MAX_LEVELS) {
+      throw new IllegalArgumentException(
+        "fanoutLevels must be between 0 and " +
+          FANOUT_MAX_LEVELS +
+          ", got " +
+          fanoutLevels
+      );
+    }
+    CRC32 crc = new CRC32();
+    crc.update(filename.getBytes(StandardCharsets.UTF_8));
+    String hash = String.format("%08x", crc.getValue());
+    Path path = Paths.get(directory);
+    for (int level = 0; level < fanoutLevels; level++) {
+      path = path.resolve(hash.substring(level * 2, level * 2 + 2));
+    }
+    return new PathReference(path.resolve(filename).toString());
+  }
+
   /**
    * Checks if this is a local file system path.
    *
@@ -0,0 +1,31 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.domain.valueobject;
+
+import java.util.Objects;
+
+/**
+ * Outcome of saving a blob: where it was stored and the checksum of the stored bytes.
+ *
+ * @param path     the reference path to the stored blob
+ * @param checksum the checksum of the blob contents
+ */
+public record StoredBlob(PathReference path, BlobChecksum checksum) {
+  public StoredBlob {
+    Objects.requireNonNull(path, "path cannot be null");
+    Objects.requireNonNull(checksum, "checksum cannot be null");
+  }
+}
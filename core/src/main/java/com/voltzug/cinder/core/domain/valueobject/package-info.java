@@ -12,6 +12,7 @@
  *   <li>{@link Blob} – Immutable binary data (non-sensitive)</li>
  *   <li>{@link SafeBlob} – Secure binary data with automatic memory zeroing</li>
  *   <li>{@link PathReference} – File or cloud storage path abstraction</li>
+ *   <li>{@link BlobChecksum}, {@link StoredBlob} – Blob integrity checksum and save outcome</li>
  *   <li>{@link GateHash}, {@link AccessHash}, {@link Hmac}, {@link Salt}, {@link SessionSecret} – Cryptographic primitives</li>
  *   <li>{@link FileSpecs}, {@link Timestamp} – Domain-specific value objects</li>
  * </ul>
@@ -0,0 +1,49 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.exception;
+
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+
+/**
+ * Exception thrown when a stored blob no longer matches the checksum recorded when it
+ * was saved, e.g. after bit rot on the storage medium.
+ */
+public final class BlobCorruptedException extends FileStorageException {
+
+  private final PathReference path;
+
+  public BlobCorruptedException(
+    PathReference path,
+    BlobChecksum expected,
+    BlobChecksum actual
+  ) {
+    super(
+      "Blob corrupted: " +
+        path.value() +
+        " (expected " +
+        expected +
+        ", got " +
+        actual +
+        ")"
+    );
+    this.path = path;
+  }
+
+  public PathReference getPath() {
+    return path;
+  }
+}
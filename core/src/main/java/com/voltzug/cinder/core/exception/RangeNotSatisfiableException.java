@@ -0,0 +1,43 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.exception;
+
+/**
+ * Exception thrown when a requested byte range starts beyond the end of a blob.
+ */
+public final class RangeNotSatisfiableException extends FileStorageException {
+
+  private final long blobSize;
+
+  /**
+   * @param offset   the requested start of the range
+   * @param blobSize the size of the blob, or -1 if the storage did not report it
+   */
+  public RangeNotSatisfiableException(long offset, long blobSize) {
+    super(
+      "Range starting at " +
+        offset +
+        " lies beyond the end of the blob" +
+        (blobSize < 0 ? "" : " (" + blobSize + " bytes)")
+    );
+    this.blobSize = blobSize;
+  }
+
+  /** Returns the size of the blob, or -1 if unknown. */
+  public long getBlobSize() {
+    return blobSize;
+  }
+}
@@ -0,0 +1,38 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.exception;
+
+/**
+ * Exception thrown when a persistence operation on file metadata fails.
+ * This includes errors while reading, writing or deleting repository records.
+ */
+public class RepositoryException extends CinderException {
+
+  public static final String TYPE = "repository";
+
+  public RepositoryException(String message) {
+    super(message);
+  }
+
+  public RepositoryException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  @Override
+  String getType() {
+    return TYPE;
+  }
+}
@@ -12,6 +12,9 @@
  *   <li>{@link CinderException} – Abstract base for all domain exceptions</li>
  *   <li>{@link CryptoOperationException} – Cryptographic errors (encryption, HMAC, etc.)</li>
  *   <li>{@link FileStorageException} – File storage and retrieval failures</li>
+ *   <li>{@link RepositoryException} – File metadata persistence failures</li>
+ *   <li>{@link RangeNotSatisfiableException} – Byte range requested beyond the end of a blob</li>
+ *   <li>{@link BlobCorruptedException} – Stored blob not matching its recorded checksum</li>
  *   <li>{@link InvalidLinkException}, {@link FileExpiredException}, {@link MaxAttemptsExceededException} – Link access violations</li>
  *   <li>{@link InvalidSessionException}, {@link TimestampSkewException} – Session and timestamp errors</li>
  *   <li>{@link IAbuseException} – Marker for abuse/misuse detection</li>
@@ -0,0 +1,47 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.model.upload;
+
+import com.voltzug.cinder.core.domain.valueobject.Hmac;
+import com.voltzug.cinder.core.domain.valueobject.Timestamp;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.util.Objects;
+
+/**
+ * Request payload starting a chunked upload within an upload session.
+ * Declares the size of the encrypted file, so that completion of the upload can be
+ * detected and the upload rejected early if it exceeds the allowed size.
+ *
+ * @param sessionId the session identifier established during handshake
+ * @param totalSize the size of the complete encrypted file in bytes
+ * @param hmac      HMAC signature of the payload for integrity verification
+ * @param timestamp timestamp of the request for replay protection
+ */
+public record ChunkedUploadInit(
+  SessionId sessionId,
+  long totalSize,
+  Hmac hmac,
+  Timestamp timestamp
+) {
+  public ChunkedUploadInit {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    if (totalSize <= 0) {
+      throw new IllegalArgumentException("totalSize must be positive");
+    }
+    Objects.requireNonNull(hmac, "hmac must not be null");
+    Objects.requireNonNull(timestamp, "timestamp must not be null");
+  }
+}
@@ -0,0 +1,51 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.model.upload;
+
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.util.Objects;
+
+/**
+ * Progress of a chunked upload.
+ * A client resuming an interrupted upload continues sending chunks from {@code receivedBytes}.
+ *
+ * @param sessionId     the session identifier of the upload
+ * @param receivedBytes the number of bytes stored so far
+ * @param totalSize     the declared size of the encrypted file
+ */
+public record ChunkedUploadStatus(
+  SessionId sessionId,
+  long receivedBytes,
+  long totalSize
+) {
+  public ChunkedUploadStatus {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    if (receivedBytes < 0 || receivedBytes > totalSize) {
+      throw new IllegalArgumentException(
+        "receivedBytes must be between 0 and totalSize"
+      );
+    }
+  }
+
+  /**
+   * Checks whether all chunks were received and the upload can be finalized.
+   *
+   * @return true if the whole file was received
+   */
+  public boolean isComplete() {
+    return receivedBytes == totalSize;
+  }
+}
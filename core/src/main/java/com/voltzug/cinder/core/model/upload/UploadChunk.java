@@ -0,0 +1,51 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.model.upload;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.Hmac;
+import com.voltzug.cinder.core.domain.valueobject.Timestamp;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.util.Objects;
+
+/**
+ * A signed chunk of an encrypted file in a chunked upload.
+ * The HMAC covers the session ID, the offset and the chunk data, so a chunk cannot be
+ * replayed into another upload or at another position.
+ *
+ * @param sessionId the session identifier established during handshake
+ * @param offset    the position of the chunk in the encrypted file
+ * @param data      the chunk content
+ * @param hmac      HMAC signature of the chunk for integrity verification
+ * @param timestamp timestamp of the request for replay protection
+ */
+public record UploadChunk(
+  SessionId sessionId,
+  long offset,
+  Blob data,
+  Hmac hmac,
+  Timestamp timestamp
+) {
+  public UploadChunk {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    if (offset < 0) {
+      throw new IllegalArgumentException("offset cannot be negative");
+    }
+    Objects.requireNonNull(data, "data must not be null");
+    Objects.requireNonNull(hmac, "hmac must not be null");
+    Objects.requireNonNull(timestamp, "timestamp must not be null");
+  }
+}
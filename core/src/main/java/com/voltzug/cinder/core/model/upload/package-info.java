@@ -10,6 +10,10 @@
  *   <li>{@link com.voltzug.cinder.core.model.upload.UploadHandshakeChallenge} — Server challenge containing session ID and secret</li>
  *   <li>{@link com.voltzug.cinder.core.model.upload.UploadRequest} — The main upload payload with encrypted file and metadata</li>
  *   <li>{@link com.voltzug.cinder.core.model.upload.UploadResult} — Result containing the generated access link ID</li>
+ *   <li>{@link com.voltzug.cinder.core.model.upload.ChunkedUploadInit} — Start of a chunked upload declaring the file size</li>
+ *   <li>{@link com.voltzug.cinder.core.model.upload.UploadChunk} — A signed chunk of the encrypted file</li>
+ *   <li>{@link com.voltzug.cinder.core.model.upload.ChunkedUploadStatus} — Progress of a chunked upload, used to resume it</li>
+ *   <li>{@link com.voltzug.cinder.core.model.upload.ChunkedUploadFinalizeRequest} — Metadata completing a chunked upload</li>
  * </ul>
  */
 package com.voltzug.cinder.core.model.upload;
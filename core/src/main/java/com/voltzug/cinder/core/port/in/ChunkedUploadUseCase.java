@@ -0,0 +1,65 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.port.in;
+
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.model.upload.ChunkedUploadFinalizeRequest;
+import com.voltzug.cinder.core.model.upload.ChunkedUploadInit;
+import com.voltzug.cinder.core.model.upload.ChunkedUploadStatus;
+import com.voltzug.cinder.core.model.upload.UploadChunk;
+import com.voltzug.cinder.core.model.upload.UploadResult;
+
+/**
+ * Use case for uploading an encrypted file in chunks.
+ * Alternative to {@link ProcessUploadUseCase} for large files and unreliable links: within
+ * an upload session established by {@link InitUploadHandshakeUseCase}, the client declares
+ * the file size, sends HMAC-signed chunks that are stored as they arrive, and finalizes the
+ * upload with the file metadata. An interrupted upload is resumed from the status.
+ */
+public interface ChunkedUploadUseCase {
+  /**
+   * Starts a chunked upload in the given upload session.
+   *
+   * @param request the declaration of the upload
+   * @return the initial status, with no bytes received
+   */
+  ChunkedUploadStatus initChunkedUpload(ChunkedUploadInit request);
+
+  /**
+   * Verifies and stores a chunk of the encrypted file.
+   *
+   * @param chunk the signed chunk
+   * @return the status after the chunk
+   */
+  ChunkedUploadStatus appendChunk(UploadChunk chunk);
+
+  /**
+   * Returns the progress of a chunked upload, e.g. to resume it after a broken connection.
+   *
+   * @param sessionId the upload session identifier
+   * @return the current status
+   */
+  ChunkedUploadStatus getStatus(SessionId sessionId);
+
+  /**
+   * Completes a chunked upload once all chunks are received: stores the file metadata
+   * and generates the public access link.
+   *
+   * @param request the file metadata
+   * @return the result containing the generated access link ID
+   */
+  UploadResult finalizeChunkedUpload(ChunkedUploadFinalizeRequest request);
+}
@@ -23,6 +23,9 @@ import com.voltzug.cinder.core.model.download.DownloadVerifyResult;
  * Use case for verifying the downloader's access (eg. solving the quiz).
  * This step authenticates the downloader, enforces download limits,
  * and if successful, returns the encrypted file and cryptographic metadata.
+ * Once a download attempt is consumed, implementations save the session marked with
+ * {@link com.voltzug.cinder.core.domain.entity.Session#verified}; later transfers
+ * within the session are refused without that mark.
  *
  * @param A mode-agnostic access key type provided by the downloader
  */
@@ -0,0 +1,38 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.port.out;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Outbound port for asynchronous binary file storage.
+ * Lets the caller hand a blob over without waiting for the write to reach the disk.
+ */
+public interface AsyncFileStorePort extends FileStorePort {
+  /**
+   * Queues the encrypted blob for storage.
+   * The returned future completes only once the blob is durably stored, and
+   * completes exceptionally with a {@code FileStorageException} if storing it fails.
+   *
+   * @param fileId the unique file identifier (can be used to generate path)
+   * @param data the encrypted data to store
+   * @return a future of the reference path to the stored blob
+   */
+  CompletableFuture<PathReference> saveAsync(FileId fileId, Blob data);
+}
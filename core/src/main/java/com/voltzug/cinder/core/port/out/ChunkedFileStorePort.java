@@ -0,0 +1,66 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.port.out;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+
+/**
+ * Outbound port for binary file storage of blobs uploaded in chunks.
+ * Chunks are written to storage as they arrive, so neither the heap nor a single
+ * request has to hold the whole blob, and an interrupted upload can be resumed from
+ * the staged size.
+ */
+public interface ChunkedFileStorePort extends FileStorePort {
+  /**
+   * Stages a chunk of a blob being uploaded.
+   * A chunk may start before the end of the already staged data, replacing everything
+   * from its offset on, so a client can resend chunks whose acknowledgement it missed.
+   *
+   * @param fileId the unique file identifier
+   * @param offset the position of the chunk in the blob; must not exceed the staged size
+   * @param chunk  the encrypted chunk data
+   * @return the number of bytes staged after the chunk
+   * @throws com.voltzug.cinder.core.exception.FileStorageException if the offset leaves a gap
+   */
+  long appendChunk(FileId fileId, long offset, Blob chunk);
+
+  /**
+   * Returns the number of bytes staged so far.
+   *
+   * @param fileId the unique file identifier
+   * @return the staged size, 0 if nothing was staged
+   */
+  long stagedSize(FileId fileId);
+
+  /**
+   * Durably stores the staged chunks as the blob of the file.
+   *
+   * @param fileId    the unique file identifier
+   * @param totalSize the expected size of the complete blob
+   * @return the reference path to the stored blob
+   * @throws com.voltzug.cinder.core.exception.FileStorageException if the staged size differs
+   */
+  PathReference completeChunks(FileId fileId, long totalSize);
+
+  /**
+   * Discards the staged chunks of an abandoned upload. Does nothing if none were staged.
+   *
+   * @param fileId the unique file identifier
+   */
+  void discardChunks(FileId fileId);
+}
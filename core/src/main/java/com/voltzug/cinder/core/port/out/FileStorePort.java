@@ -16,8 +16,13 @@
 package com.voltzug.cinder.core.port.out;
 
 import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
 import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
 import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -42,10 +47,62 @@ public interface FileStorePort {
    */
   Optional<Blob> load(PathReference path);
 
+  /**
+   * Saves the encrypted blob to storage along with its checksum, which is meant to be
+   * kept with the file metadata and passed back to
+   * {@link StreamingFileStorePort#open(PathReference, BlobChecksum)}.
+   *
+   * <p>The default implementation checksums the blob in a separate pass before saving
+   * it; adapters override it to checksum the bytes as they write them.
+   *
+   * @param fileId the unique file identifier (can be used to generate path)
+   * @param data the encrypted data to store
+   * @return the reference path to the stored blob and its checksum
+   */
+  default StoredBlob saveChecksummed(FileId fileId, Blob data) {
+    BlobChecksum checksum = BlobChecksum.of(data.getBuffer());
+    return new StoredBlob(save(fileId, data), checksum);
+  }
+
   /**
    * Deletes the blob from storage.
    *
    * @param path the reference path to the blob
    */
   void delete(PathReference path);
+
+  /**
+   * Deletes many blobs at once, e.g. for the cleanup of expired files.
+   * A failure to delete one blob does not stop the others.
+   * The default implementation deletes the blobs one by one and cannot tell
+   * a missing blob apart, reporting it as {@link DeleteOutcome#DELETED};
+   * adapters override it with a parallel or batched implementation.
+   *
+   * @param paths the reference paths to the blobs
+   * @return the outcome per reference path, in iteration order of {@code paths}
+   */
+  default Map<PathReference, DeleteOutcome> deleteAll(
+    Collection<PathReference> paths
+  ) {
+    Map<PathReference, DeleteOutcome> outcomes = new LinkedHashMap<>();
+    for (PathReference path : paths) {
+      try {
+        delete(path);
+        outcomes.put(path, DeleteOutcome.DELETED);
+      } catch (RuntimeException exc) {
+        outcomes.put(path, DeleteOutcome.FAILED);
+      }
+    }
+    return outcomes;
+  }
+
+  /** Outcome of deleting a single blob in {@link #deleteAll(Collection)}. */
+  enum DeleteOutcome {
+    /** The blob was deleted. */
+    DELETED,
+    /** The blob did not exist. */
+    NOT_FOUND,
+    /** The blob could not be deleted and may still exist. */
+    FAILED,
+  }
 }
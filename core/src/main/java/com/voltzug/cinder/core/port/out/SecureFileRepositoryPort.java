@@ -16,11 +16,14 @@
 package com.voltzug.cinder.core.port.out;
 
 import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
 import com.voltzug.cinder.core.domain.valueobject.id.FileId;
 import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Outbound port for SecureFile persistence.
@@ -42,6 +45,16 @@ public interface SecureFileRepositoryPort {
    */
   Optional<SecureFile> findByLinkId(LinkId linkId);
 
+  /**
+   * Points a secure file at a new storage location of its blob,
+   * e.g. after the blob was migrated to another storage tier.
+   * Does nothing if the file no longer exists.
+   *
+   * @param fileId the file identifier
+   * @param blobPath the new reference path to the blob
+   */
+  void updateBlobPath(FileId fileId, PathReference blobPath);
+
   /**
    * Deletes a secure file by its internal file identifier.
    *
@@ -51,10 +64,78 @@ public interface SecureFileRepositoryPort {
 
   /**
    * Finds all files that have expired before the given timestamp.
-   * Used for cleanup jobs.
+   * Loads every matching file with all its sealed metadata at once;
+   * cleanup jobs should page through {@link #streamExpiredBefore(Instant, int)} instead.
    *
    * @param timestamp the cutoff timestamp
    * @return a list of expired files
    */
   List<SecureFile> findExpiredBefore(Instant timestamp);
+
+  /**
+   * Finds one page of files that have expired before the given timestamp,
+   * ordered by expiry date and file identifier.
+   * Only the references needed to remove a file are loaded.
+   *
+   * @param timestamp the cutoff timestamp
+   * @param after the last file of the previous page, or null for the first page
+   * @param limit the maximum number of files in the page
+   * @return the next page of expired files, empty when there are no more
+   */
+  List<ExpiredFile> findExpiredBefore(
+    Instant timestamp,
+    ExpiredFile after,
+    int limit
+  );
+
+  /**
+   * Streams the files that have expired before the given timestamp, fetching
+   * them page by page with {@link #findExpiredBefore(Instant, ExpiredFile, int)}
+   * as the stream is consumed.
+   * Memory use is bounded by the page size, and files deleted while the stream is
+   * consumed do not shift later pages.
+   *
+   * @param timestamp the cutoff timestamp
+   * @param pageSize the number of files fetched per page
+   * @return the expired files, oldest expiry first
+   */
+  default Stream<ExpiredFile> streamExpiredBefore(
+    Instant timestamp,
+    int pageSize
+  ) {
+    Objects.requireNonNull(timestamp, "timestamp must not be null");
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be positive");
+    }
+    return Stream.iterate(
+      findExpiredBefore(timestamp, null, pageSize),
+      page -> !page.isEmpty(),
+      page ->
+        page.size() < pageSize
+          ? List.of()
+          : findExpiredBefore(timestamp, page.getLast(), pageSize)
+    ).flatMap(List::stream);
+  }
+
+  /**
+   * References of an expired file, as needed by cleanup jobs to delete its blob and record.
+   *
+   * @param fileId     Unique file identifier
+   * @param linkId     Unique link identifier
+   * @param blobPath   Reference to the file's storage location
+   * @param expiryDate Expiry date of the file, the paging key together with the file identifier
+   */
+  record ExpiredFile(
+    FileId fileId,
+    LinkId linkId,
+    PathReference blobPath,
+    Instant expiryDate
+  ) {
+    public ExpiredFile {
+      Objects.requireNonNull(fileId, "fileId must not be null");
+      Objects.requireNonNull(linkId, "linkId must not be null");
+      Objects.requireNonNull(blobPath, "blobPath must not be null");
+      Objects.requireNonNull(expiryDate, "expiryDate must not be null");
+    }
+  }
 }
@@ -0,0 +1,182 @@
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+package com.voltzug.cinder.core.port.out;
+
+import com.voltzug.cinder.core.common.utils.ChecksumChannel;
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.BlobCorruptedException;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.exception.RangeNotSatisfiableException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Outbound port for streamed binary file storage.
+ * Moves encrypted blobs through channels instead of whole in-memory {@code Blob}s,
+ * so the heap used per transfer is bounded by the adapter's buffer, not by the file size.
+ */
+public interface StreamingFileStorePort extends FileStorePort {
+  /**
+   * Saves the encrypted blob read from the given channel.
+   * The channel is read until end-of-stream and is not closed by this method.
+   *
+   * @param fileId the unique file identifier (can be used to generate path)
+   * @param source the channel providing the encrypted data
+   * @param size   the exact number of bytes the channel provides
+   * @return the reference path to the stored blob
+   */
+  PathReference save(FileId fileId, ReadableByteChannel source, long size);
+
+  /**
+   * Opens the encrypted blob for streamed reading.
+   * The caller owns the returned stream and must close it.
+   *
+   * @param path the reference path to the blob
+   * @return an Optional containing the opened blob stream if found
+   */
+  Optional<BlobStream> open(PathReference path);
+
+  /**
+   * Saves the encrypted blob read from the given channel along with its checksum,
+   * computed inline as the adapter reads the channel, without a second pass.
+   *
+   * @param fileId the unique file identifier (can be used to generate path)
+   * @param source the channel providing the encrypted data
+   * @param size   the exact number of bytes the channel provides
+   * @return the reference path to the stored blob and its checksum
+   */
+  default StoredBlob saveChecksummed(
+    FileId fileId,
+    ReadableByteChannel source,
+    long size
+  ) {
+    ChecksumChannel checksummed = new ChecksumChannel(source);
+    PathReference path = save(fileId, checksummed, size);
+    return new StoredBlob(path, new BlobChecksum(checksummed.checksum()));
+  }
+
+  /**
+   * Opens the encrypted blob for streamed reading, verifying it against the checksum
+   * recorded when it was saved as it is read. Once the last byte has been read, a read
+   * fails with {@link BlobCorruptedException} if the blob does not match. The returned
+   * channel is not a file channel, so zero-copy transfers do not apply to it.
+   *
+   * @param path     the reference path to the blob
+   * @param expected the checksum of the blob as saved
+   * @return an Optional containing the opened blob stream if found
+   */
+  default Optional<BlobStream> open(PathReference path, BlobChecksum expected) {
+    Objects.requireNonNull(expected, "expected must not be null");
+    return open(path).map(blob ->
+      new BlobStream(
+        new ChecksumChannel(blob.channel(), blob.size(), actual -> {
+          if (actual != expected.value()) {
+            throw new BlobCorruptedException(
+              path,
+              expected,
+              new BlobChecksum(actual)
+            );
+          }
+        }),
+        blob.size()
+      )
+    );
+  }
+
+  /**
+   * Opens a byte range of the encrypted blob for streamed reading,
+   * e.g. to resume an interrupted download. The range is clipped to the end of the blob.
+   * The caller owns the returned range and must close it.
+   *
+   * <p>The default implementation positions a seekable channel returned by
+   * {@link #open(PathReference)} at the offset, or reads and discards the bytes before it.
+   * Adapters able to fetch only the range should override it.
+   *
+   * @param path   the reference path to the blob
+   * @param offset the position of the first byte to read
+   * @param length the maximum number of bytes to read
+   * @return an Optional containing the opened range if the blob was found
+   * @throws RangeNotSatisfiableException if the offset lies beyond the end of the blob
+   */
+  default Optional<BlobRange> open(
+    PathReference path,
+    long offset,
+    long length
+  ) {
+    if (offset < 0 || length < 1) {
+      throw new IllegalArgumentException(
+        "Invalid range: offset " + offset + ", length " + length
+      );
+    }
+    Optional<BlobStream> opened = open(path);
+    if (opened.isEmpty()) {
+      return Optional.empty();
+    }
+    BlobStream blob = opened.get();
+    try {
+      if (offset >= blob.size()) {
+        throw new RangeNotSatisfiableException(offset, blob.size());
+      }
+      ReadableByteChannel channel = blob.channel();
+      if (channel instanceof SeekableByteChannel seekable) {
+        seekable.position(offset);
+      } else {
+        ByteBuffer skipped = ByteBuffer.allocate(
+          (int) Math.min(8192, offset)
+        );
+        for (long remaining = offset; remaining > 0; ) {
+          skipped.clear().limit((int) Math.min(skipped.capacity(), remaining));
+          int read = channel.read(skipped);
+          if (read < 0) {
+            throw new FileStorageException(
+              "Blob truncated before offset " + offset + ": " + path.value()
+            );
+          }
+          remaining -= read;
+        }
+      }
+      return Optional.of(
+        new BlobRange(
+          new BlobStream(
+            channel,
+            Math.min(length, blob.size() - offset),
+            blob.file()
+          ),
+          offset,
+          blob.size()
+        )
+      );
+    } catch (IOException exc) {
+      blob.close();
+      throw new FileStorageException(
+        "Failed to open blob range: " + path.value(),
+        exc
+      );
+    } catch (RuntimeException exc) {
+      blob.close();
+      throw exc;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.voltzug.cinder.core.common.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ChecksumChannel.
+ * Focuses on inline checksum computation and the completion callback.
+ */
+class ChecksumChannelTest {
+
+  private static final byte[] DATA = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+  private static ReadableByteChannel channelOf(byte[] data) {
+    return Channels.newChannel(new ByteArrayInputStream(data));
+  }
+
+  private static int crcOf(byte[] data) {
+    CRC32C crc = new CRC32C();
+    crc.update(data);
+    return (int) crc.getValue();
+  }
+
+  private static void readFully(ReadableByteChannel channel, int chunk)
+    throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(chunk);
+    while (channel.read(buffer) >= 0) {
+      buffer.clear();
+    }
+  }
+
+  // ==================== CHECKSUM TESTS ====================
+
+  @Test
+  void shouldComputeChecksumOfBytesRead() throws Exception {
+    // Given
+    ChecksumChannel channel = new ChecksumChannel(channelOf(DATA));
+
+    // When
+    readFully(channel, 3);
+
+    // Then
+    assertEquals(crcOf(DATA), channel.checksum());
+  }
+
+  @Test
+  void shouldChecksumOnlyBytesWrittenByEachRead() throws Exception {
+    // Given - reads into a buffer already holding unrelated bytes
+    ChecksumChannel channel = new ChecksumChannel(channelOf(DATA));
+    ByteBuffer buffer = ByteBuffer.allocate(32);
+    buffer.put(new byte[] { 42, 42 });
+
+    // When
+    while (channel.read(buffer) > 0) {}
+
+    // Then
+    assertEquals(crcOf(DATA), channel.checksum());
+  }
+
+  // ==================== COMPLETION TESTS ====================
+
+  @Test
+  void shouldReportChecksumOnceSizeIsReached() throws Exception {
+    // Given
+    List<Integer> reported = new ArrayList<>();
+    ChecksumChannel channel = new ChecksumChannel(
+      channelOf(DATA),
+      DATA.length,
+      reported::add
+    );
+
+    // When - read exactly the size, never reaching end-of-stream
+    ByteBuffer buffer = ByteBuffer.allocate(DATA.length);
+    while (buffer.hasRemaining()) {
+      channel.read(buffer);
+    }
+    channel.read(ByteBuffer.allocate(1));
+
+    // Then
+    assertEquals(List.of(crcOf(DATA)), reported);
+  }
+
+  @Test
+  void shouldFailReadWhenCallbackThrows() {
+    // Given
+    ChecksumChannel channel = new ChecksumChannel(
+      channelOf(DATA),
+      DATA.length,
+      checksum -> {
+        throw new IllegalStateException("mismatch");
+      }
+    );
+
+    // When/Then
+    assertThrows(IllegalStateException.class, () -> readFully(channel, 4));
+  }
+
+  @Test
+  void shouldCloseSource() throws Exception {
+    // Given
+    ReadableByteChannel source = channelOf(DATA);
+    ChecksumChannel channel = new ChecksumChannel(source);
+
+    // When
+    channel.close();
+
+    // Then
+    assertFalse(source.isOpen());
+    assertFalse(channel.isOpen());
+  }
+}
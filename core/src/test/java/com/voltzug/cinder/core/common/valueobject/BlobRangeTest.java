@@ -0,0 +1,88 @@
+package com.voltzug.cinder.core.common.valueobject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for BlobRange value object.
+ * Focuses on range bounds validation and the derived positions.
+ */
+class BlobRangeTest {
+
+  private static BlobStream streamOf(int size) {
+    return new BlobStream(
+      Channels.newChannel(new ByteArrayInputStream(new byte[size])),
+      size
+    );
+  }
+
+  // ==================== CONSTRUCTION TESTS ====================
+
+  @Test
+  void shouldCreateRangeWithinBlob() {
+    // When
+    BlobRange range = new BlobRange(streamOf(4), 6, 10);
+
+    // Then
+    assertEquals(6, range.offset());
+    assertEquals(4, range.length());
+    assertEquals(9, range.lastPosition());
+    assertEquals(10, range.totalSize());
+    assertFalse(range.isWhole());
+  }
+
+  @Test
+  void shouldRecognizeWholeBlob() {
+    // When
+    BlobRange range = new BlobRange(streamOf(10), 0, 10);
+
+    // Then
+    assertTrue(range.isWhole());
+  }
+
+  @Test
+  void shouldThrowForNullStream() {
+    // When/Then
+    assertThrows(NullPointerException.class, () -> new BlobRange(null, 0, 1));
+  }
+
+  @Test
+  void shouldThrowForNegativeOffset() {
+    // When/Then
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new BlobRange(streamOf(1), -1, 10)
+    );
+  }
+
+  @Test
+  void shouldThrowForRangeExceedingBlob() {
+    // When/Then
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new BlobRange(streamOf(5), 6, 10)
+    );
+  }
+
+  // ==================== CLOSE TESTS ====================
+
+  @Test
+  void shouldCloseUnderlyingStream() {
+    // Given
+    ReadableByteChannel channel = Channels.newChannel(
+      new ByteArrayInputStream(new byte[] { 0x01 })
+    );
+    BlobRange range = new BlobRange(new BlobStream(channel, 1), 0, 1);
+
+    // When
+    range.close();
+
+    // Then
+    assertFalse(channel.isOpen());
+  }
+}
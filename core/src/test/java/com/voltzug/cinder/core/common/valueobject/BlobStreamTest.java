@@ -0,0 +1,106 @@
+package com.voltzug.cinder.core.common.valueobject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for BlobStream value object.
+ * Focuses on size validation, the resolved local file and ownership of the underlying
+ * channel.
+ */
+class BlobStreamTest {
+
+  private static ReadableByteChannel channelOf(byte[] data) {
+    return Channels.newChannel(new ByteArrayInputStream(data));
+  }
+
+  // ==================== CONSTRUCTION TESTS ====================
+
+  @Test
+  void shouldCreateBlobStreamWithKnownSize() {
+    // Given
+    byte[] data = { 0x01, 0x02, 0x03 };
+
+    // When
+    BlobStream stream = new BlobStream(channelOf(data), data.length);
+
+    // Then
+    assertEquals(3, stream.size());
+    assertTrue(stream.channel().isOpen());
+  }
+
+  @Test
+  void shouldCarryResolvedFileOnlyWhenGiven() {
+    // Given
+    Path file = Path.of("/var/lib/cinder/3f/a1/blob");
+
+    // When
+    BlobStream local = new BlobStream(channelOf(new byte[] { 0x01 }), 1, file);
+    BlobStream remote = new BlobStream(channelOf(new byte[] { 0x01 }), 1);
+
+    // Then
+    assertEquals(file, local.file());
+    assertNull(remote.file());
+  }
+
+  @Test
+  void shouldThrowForNullChannel() {
+    // When/Then
+    assertThrows(NullPointerException.class, () -> new BlobStream(null, 1));
+  }
+
+  @Test
+  void shouldThrowForZeroSize() {
+    // When/Then
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new BlobStream(channelOf(new byte[] { 0x01 }), 0)
+    );
+  }
+
+  @Test
+  void shouldThrowForNegativeSize() {
+    // When/Then
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new BlobStream(channelOf(new byte[] { 0x01 }), -1)
+    );
+  }
+
+  // ==================== READ & CLOSE TESTS ====================
+
+  @Test
+  void shouldReadContentsThroughChannel() throws Exception {
+    // Given
+    byte[] data = { 0x0A, 0x0B, 0x0C, 0x0D };
+    ByteBuffer target = ByteBuffer.allocate(data.length);
+
+    // When
+    try (BlobStream stream = new BlobStream(channelOf(data), data.length)) {
+      while (target.hasRemaining() && stream.channel().read(target) >= 0) {}
+    }
+
+    // Then
+    assertArrayEquals(data, target.array());
+  }
+
+  @Test
+  void shouldCloseUnderlyingChannel() {
+    // Given
+    ReadableByteChannel channel = channelOf(new byte[] { 0x01 });
+    BlobStream stream = new BlobStream(channel, 1);
+
+    // When
+    stream.close();
+
+    // Then
+    assertFalse(channel.isOpen());
+  }
+}
@@ -408,4 +408,87 @@ class BlobTest {
     assertNotNull(base64);
     assertTrue(base64.length() > 0);
   }
+
+  // ==================== VIEW TESTS ====================
+
+  @Test
+  void shouldCreateViewOverRemainingBytes() {
+    // Given
+    ByteBuffer source = ByteBuffer.wrap(new byte[] { 0x01, 0x02, 0x03, 0x04 });
+    source.position(1);
+
+    // When
+    Blob blob = Blob.view(source);
+
+    // Then
+    assertEquals(3, blob.size());
+    assertEquals(0x02, blob.getBuffer().get(0));
+  }
+
+  @Test
+  void shouldExposeReadOnlyBufferForView() {
+    // Given
+    Blob blob = Blob.view(ByteBuffer.wrap(new byte[] { 0x01, 0x02 }));
+
+    // When
+    ByteBuffer buffer = blob.getBuffer();
+
+    // Then
+    assertTrue(buffer.isReadOnly());
+  }
+
+  @Test
+  void shouldReturnIndependentBuffersForView() {
+    // Given
+    Blob blob = Blob.view(ByteBuffer.wrap(new byte[] { 0x01, 0x02, 0x03 }));
+
+    // When
+    ByteBuffer buffer1 = blob.getBuffer();
+    buffer1.get();
+    ByteBuffer buffer2 = blob.getBuffer();
+
+    // Then
+    assertEquals(0, buffer2.position());
+    assertEquals(3, buffer2.remaining());
+  }
+
+  @Test
+  void shouldEncodeViewToSameBase64AsArrayBlob() {
+    // Given
+    byte[] data = { 0x48, 0x65, 0x6C, 0x6C, 0x6F };
+
+    // When
+    Blob view = Blob.view(ByteBuffer.wrap(data.clone()));
+    Blob blob = new Blob(data);
+
+    // Then
+    assertEquals(blob.toBase64().toString(), view.toBase64().toString());
+  }
+
+  @Test
+  void shouldNotMoveSourcePositionWhenViewing() {
+    // Given
+    ByteBuffer source = ByteBuffer.wrap(new byte[] { 0x01, 0x02 });
+
+    // When
+    Blob.view(source);
+
+    // Then
+    assertEquals(0, source.position());
+  }
+
+  @Test
+  void shouldThrowForNullViewSource() {
+    // When/Then
+    assertThrows(NullPointerException.class, () -> Blob.view(null));
+  }
+
+  @Test
+  void shouldThrowForEmptyViewSource() {
+    // When/Then
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> Blob.view(ByteBuffer.allocate(0))
+    );
+  }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.voltzug.cinder.core.domain.entity;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
 import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
 import com.voltzug.cinder.core.domain.valueobject.GateHash;
 import com.voltzug.cinder.core.domain.valueobject.PathReference;
@@ -121,6 +122,41 @@ class SecureFileTest {
     assertEquals(createdAt, secureFile.createdAt());
   }
 
+  @Test
+  void shouldCreateSecureFileWithoutBlobChecksumByDefault() {
+    // When
+    SecureFile secureFile = createValidSecureFile(
+      Instant.now().plus(1, ChronoUnit.DAYS)
+    );
+
+    // Then
+    assertNull(secureFile.blobChecksum());
+  }
+
+  @Test
+  void shouldCreateSecureFileWithBlobChecksum() {
+    // Given
+    BlobChecksum checksum = new BlobChecksum(0x1234abcd);
+
+    // When
+    SecureFile secureFile = new SecureFile(
+      createFileId(),
+      createLinkId(),
+      createBlobPath(),
+      checksum,
+      createSealedEnvelope(),
+      createSealedSalt(),
+      createGateHash(),
+      createEncryptedQuestions(),
+      createFileSpecs(Instant.now().plus(1, ChronoUnit.DAYS)),
+      5,
+      Instant.now()
+    );
+
+    // Then
+    assertEquals(checksum, secureFile.blobChecksum());
+  }
+
   @Test
   void shouldCreateSecureFileWithZeroRemainingAttempts() {
     // Given
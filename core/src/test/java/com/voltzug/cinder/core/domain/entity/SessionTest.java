@@ -360,6 +360,56 @@ class SessionTest {
     assertEquals(Session.Mode.DOWNLOAD, Session.Mode.valueOf("DOWNLOAD"));
   }
 
+  // ==================== VERIFICATION TESTS ====================
+
+  @Test
+  void shouldNotBeVerifiedAfterHandshake() {
+    // Given
+    Instant now = Instant.now();
+
+    // When
+    Session session = new Session(
+      SessionId.generate(),
+      new SessionSecret(new byte[32]),
+      LinkId.generate(),
+      Session.Mode.DOWNLOAD,
+      now,
+      now.plus(10, ChronoUnit.MINUTES)
+    );
+
+    // Then
+    assertFalse(session.isVerified());
+    assertNull(session.verifiedAt());
+  }
+
+  @Test
+  void shouldMarkCopyAsVerified() {
+    // Given
+    Instant now = Instant.now();
+    Session session = new Session(
+      SessionId.generate(),
+      new SessionSecret(new byte[32]),
+      LinkId.generate(),
+      Session.Mode.DOWNLOAD,
+      now,
+      now.plus(10, ChronoUnit.MINUTES)
+    );
+    Instant verifiedAt = now.plusSeconds(5);
+
+    // When
+    Session verified = session.verified(verifiedAt);
+
+    // Then
+    assertTrue(verified.isVerified());
+    assertEquals(verifiedAt, verified.verifiedAt());
+    assertEquals(session.id(), verified.id());
+    assertSame(session.sessionSecret(), verified.sessionSecret());
+    assertEquals(session.linkId(), verified.linkId());
+    assertEquals(session.expiresAt(), verified.expiresAt());
+    assertFalse(session.isVerified());
+    assertNotEquals(session, verified);
+  }
+
   // ==================== TOSTRING TESTS ====================
 
   @Test
@@ -0,0 +1,88 @@
+package com.voltzug.cinder.core.domain.valueobject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for BlobChecksum value object.
+ * Focuses on CRC32C computation and the hexadecimal form.
+ */
+class BlobChecksumTest {
+
+  // ==================== COMPUTATION TESTS ====================
+
+  @Test
+  void shouldComputeCrc32cCheckValue() {
+    // Given - standard check input of CRC-32C
+    ByteBuffer data = ByteBuffer.wrap(
+      "123456789".getBytes(StandardCharsets.US_ASCII)
+    );
+
+    // When
+    BlobChecksum checksum = BlobChecksum.of(data);
+
+    // Then
+    assertEquals("e3069283", checksum.toHex());
+  }
+
+  @Test
+  void shouldNotConsumeBuffer() {
+    // Given
+    ByteBuffer data = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+
+    // When
+    BlobChecksum.of(data);
+
+    // Then
+    assertEquals(3, data.remaining());
+  }
+
+  @Test
+  void shouldChecksumOnlyRemainingBytes() {
+    // Given
+    ByteBuffer data = ByteBuffer.wrap(new byte[] { 9, 1, 2, 3 });
+    data.position(1);
+
+    // When/Then
+    assertEquals(
+      BlobChecksum.of(ByteBuffer.wrap(new byte[] { 1, 2, 3 })),
+      BlobChecksum.of(data)
+    );
+  }
+
+  // ==================== HEX FORM TESTS ====================
+
+  @Test
+  void shouldRoundTripThroughHex() {
+    // Given
+    BlobChecksum checksum = new BlobChecksum(0x8000_0001);
+
+    // When
+    BlobChecksum parsed = BlobChecksum.fromHex(checksum.toHex());
+
+    // Then
+    assertEquals("80000001", checksum.toHex());
+    assertEquals(checksum, parsed);
+  }
+
+  @Test
+  void shouldThrowForInvalidHex() {
+    // When/Then
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> BlobChecksum.fromHex("123")
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> BlobChecksum.fromHex("zzzzzzzz")
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> BlobChecksum.fromHex(null)
+    );
+  }
+}
@@ -78,6 +78,76 @@ class PathReferenceTest {
     assertEquals("/tmp/test/file.bin", ref.value());
   }
 
+  // ==================== FAN-OUT TESTS ====================
+
+  @Test
+  void shouldShardLocalFileIntoHexDirectories() {
+    // Given
+    String directory = "/tmp/cinder";
+    String filename = "blob.bin";
+
+    // When
+    PathReference ref = PathReference.forLocalFile(directory, filename, 2);
+
+    // Then
+    assertTrue(
+      ref.value().matches("/tmp/cinder/[0-9a-f]{2}/[0-9a-f]{2}/blob\\.bin")
+    );
+    assertTrue(ref.isLocal());
+  }
+
+  @Test
+  void shouldShardDeterministically() {
+    // When
+    PathReference ref1 = PathReference.forLocalFile("/tmp", "file-a", 3);
+    PathReference ref2 = PathReference.forLocalFile("/tmp", "file-a", 3);
+
+    // Then
+    assertEquals(ref1, ref2);
+  }
+
+  @Test
+  void shouldKeepShardPrefixAcrossLevels() {
+    // When
+    PathReference oneLevel = PathReference.forLocalFile("/tmp", "file-a", 1);
+    PathReference twoLevels = PathReference.forLocalFile("/tmp", "file-a", 2);
+
+    // Then
+    assertTrue(
+      twoLevels.value().startsWith(oneLevel.value().replace("/file-a", ""))
+    );
+  }
+
+  @Test
+  void shouldNotShardWithZeroLevels() {
+    // When
+    PathReference sharded = PathReference.forLocalFile("/tmp", "blob.bin", 0);
+    PathReference flat = PathReference.forLocalFile("/tmp", "blob.bin");
+
+    // Then
+    assertEquals(flat, sharded);
+  }
+
+  @Test
+  void shouldThrowForNegativeFanoutLevels() {
+    // When/Then
+    assertThrows(IllegalArgumentException.class, () ->
+      PathReference.forLocalFile("/tmp", "blob.bin", -1)
+    );
+  }
+
+  @Test
+  void shouldThrowForTooManyFanoutLevels() {
+    // When/Then
+    assertThrows(IllegalArgumentException.class, () ->
+      PathReference.forLocalFile(
+        "/tmp",
+        "blob.bin",
+        PathReference.FANOUT_MAX_LEVELS + 1
+      )
+    );
+  }
+
   // ==================== VALIDATION TESTS ====================
 
   @Test
@@ -0,0 +1,77 @@
+package com.voltzug.cinder.spring.infra.cluster;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of node affinity between Cinder nodes ({@code cinder.cluster.*}).
+ *
+ * @param enabled        whether requests are routed to the node owning their session or link
+ * @param nodeId         identifier of this node, one of the keys of {@code nodes}
+ * @param nodes          base URI of every node by node identifier, this node included;
+ *                       all nodes must be configured with the same map
+ * @param virtualNodes   number of points each node places on the hash ring
+ * @param forwardTimeout connect timeout and maximum time to wait for the owner's response headers
+ */
+@ConfigurationProperties(prefix = "cinder.cluster")
+public record ClusterProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("") String nodeId,
+  Map<String, URI> nodes,
+  @DefaultValue("160") int virtualNodes,
+  @DefaultValue("10s") Duration forwardTimeout
+) {
+  public ClusterProperties {
+    nodes = nodes == null ? Map.of() : Map.copyOf(nodes);
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException(
+        "cinder.cluster.virtual-nodes must be positive"
+      );
+    }
+    Objects.requireNonNull(forwardTimeout, "forwardTimeout must not be null");
+    if (forwardTimeout.toMillis() < 1) {
+      throw new IllegalArgumentException(
+        "cinder.cluster.forward-timeout must be at least 1ms"
+      );
+    }
+    if (enabled) {
+      if (nodeId == null || !nodes.containsKey(nodeId)) {
+        throw new IllegalArgumentException(
+          "cinder.cluster.node-id must name one of cinder.cluster.nodes"
+        );
+      }
+      for (Map.Entry<String, URI> node : nodes.entrySet()) {
+        URI uri = node.getValue();
+        if (
+          uri == null ||
+          uri.getHost() == null ||
+          !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))
+        ) {
+          throw new IllegalArgumentException(
+            "cinder.cluster.nodes." +
+              node.getKey() +
+              " must be an absolute http(s) URI"
+          );
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.voltzug.cinder.spring.infra.cluster;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable consistent-hash ring assigning string keys to nodes.
+ *
+ * <p>Every node places {@code virtualNodes} points on a 64-bit ring; a key belongs to the
+ * node owning the first point at or after the key's hash, wrapping around. Adding or
+ * removing a node only moves the keys of the arcs it gains or loses, about {@code 1/n} of
+ * all keys, and every node computes the same owners from the same node set.
+ * Lookups are a binary search over a sorted array.
+ */
+public final class ConsistentHashRing {
+
+  private static final long _FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long _FNV_PRIME = 0x100000001b3L;
+
+  private final List<String> _nodes;
+  private final long[] _points;
+  private final String[] _owners;
+
+  public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+    Objects.requireNonNull(nodes, "nodes must not be null");
+    if (nodes.isEmpty()) {
+      throw new IllegalArgumentException("nodes must not be empty");
+    }
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException("virtualNodes must be positive");
+    }
+    _nodes = nodes.stream().sorted().distinct().toList();
+    Point[] points = new Point[_nodes.size() * virtualNodes];
+    int next = 0;
+    for (String node : _nodes) {
+      for (int i = 0; i < virtualNodes; i++) {
+        points[next++] = new Point(hash(node + "#" + i), node);
+      }
+    }
+    // node names break the tie of colliding points, so every node sorts alike
+    Arrays.sort(points, (a, b) -> {
+      int order = Long.compareUnsigned(a.hash(), b.hash());
+      return order != 0 ? order : a.node().compareTo(b.node());
+    });
+    _points = new long[points.length];
+    _owners = new String[points.length];
+    for (int i = 0; i < points.length; i++) {
+      _points[i] = points[i].hash();
+      _owners[i] = points[i].node();
+    }
+  }
+
+  /** Returns the nodes on the ring, sorted. */
+  public List<String> getNodes() {
+    return _nodes;
+  }
+
+  /** Returns the node owning a key. */
+  public String ownerOf(String key) {
+    Objects.requireNonNull(key, "key must not be null");
+    long hash = hash(key);
+    int low = 0;
+    int high = _points.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (Long.compareUnsigned(_points[middle], hash) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return _owners[low == _points.length ? 0 : low];
+  }
+
+  /**
+   * 64-bit FNV-1a of the UTF-8 bytes, finalized with the MurmurHash3 mixer so keys
+   * differing in a single character land far apart.
+   */
+  static long hash(String key) {
+    long hash = _FNV_OFFSET;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= _FNV_PRIME;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private record Point(long hash, String node) {}
+}
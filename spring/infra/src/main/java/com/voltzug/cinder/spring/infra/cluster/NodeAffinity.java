@@ -0,0 +1,96 @@
+package com.voltzug.cinder.spring.infra.cluster;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Id;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Ownership of sessions and links by the nodes of a {@link ConsistentHashRing}.
+ *
+ * <p>Each {@link SessionId} and {@link LinkId} hashes to one owning node, which alone holds
+ * its session and download limit state. Identifiers minted through {@link #newSessionId()}
+ * and {@link #newLinkId()} are drawn until one hashes to this node, so state created here
+ * is owned here and requests for it are routed back here; the identifiers keep their usual
+ * random form. Requests for identifiers owned elsewhere are forwarded by the REST layer.
+ *
+ * <p>Changing the node set moves about {@code 1/n} of the identifiers to another node,
+ * whose state for them is lost; sessions are short-lived, so nodes are best added or
+ * removed while few transfers are in flight.
+ */
+public class NodeAffinity {
+
+  private static final int _DRAWS_PER_NODE = 64;
+
+  private final ConsistentHashRing _ring;
+  private final String _self;
+  private final int _maxDraws;
+
+  public NodeAffinity(ConsistentHashRing ring, String self) {
+    _ring = Objects.requireNonNull(ring, "ring must not be null");
+    _self = Objects.requireNonNull(self, "self must not be null");
+    if (!ring.getNodes().contains(self)) {
+      throw new IllegalArgumentException("Node " + self + " is not on the ring");
+    }
+    _maxDraws = _DRAWS_PER_NODE * ring.getNodes().size();
+  }
+
+  /** Returns the identifier of this node. */
+  public String getSelf() {
+    return _self;
+  }
+
+  /** Returns the ring identifiers are assigned by. */
+  public ConsistentHashRing getRing() {
+    return _ring;
+  }
+
+  /** Returns the node owning an identifier. */
+  public String ownerOf(Id id) {
+    Objects.requireNonNull(id, "id must not be null");
+    return _ring.ownerOf(id.value());
+  }
+
+  /** Returns whether an identifier is owned by this node. */
+  public boolean isLocal(Id id) {
+    return _self.equals(ownerOf(id));
+  }
+
+  /** Generates a session identifier owned by this node. */
+  public SessionId newSessionId() {
+    return _owned(SessionId::generate);
+  }
+
+  /** Generates a link identifier owned by this node. */
+  public LinkId newLinkId() {
+    return _owned(LinkId::generate);
+  }
+
+  /** Draws random identifiers until one is local; this node owns about 1/n of them. */
+  private <T extends Id> T _owned(Supplier<T> generator) {
+    for (int i = 0; i < _maxDraws; i++) {
+      T id = generator.get();
+      if (isLocal(id)) {
+        return id;
+      }
+    }
+    throw new IllegalStateException(
+      "Node " + _self + " owns no identifiers after " + _maxDraws + " draws"
+    );
+  }
+}
@@ -0,0 +1,146 @@
+package com.voltzug.cinder.spring.infra.cluster;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Forwards HTTP requests to the node owning them, streaming bodies in both directions.
+ *
+ * <p>Only end-to-end headers are passed on; hop-by-hop headers and those the JDK
+ * {@link HttpClient} sets itself are dropped. Forwarded requests carry
+ * {@value #FORWARDED_BY_HEADER} naming this node, and a node receiving such a request from
+ * a trusted peer serves it itself, so nodes whose views of the ring briefly differ cannot bounce a
+ * request between them. The servlet side lives in the REST layer; this class has no
+ * servlet dependency.
+ */
+public class NodeForwarder implements AutoCloseable {
+
+  /** Request header naming the node that forwarded the request. */
+  public static final String FORWARDED_BY_HEADER = "X-Cinder-Forwarded-By";
+
+  private static final Set<String> _UNFORWARDED_HEADERS = Set.of(
+    "connection",
+    "content-length",
+    "expect",
+    "host",
+    "http2-settings",
+    "keep-alive",
+    "proxy-authenticate",
+    "proxy-authorization",
+    "proxy-connection",
+    "te",
+    "trailer",
+    "transfer-encoding",
+    "upgrade",
+    FORWARDED_BY_HEADER.toLowerCase(Locale.ROOT)
+  );
+
+  private final String _self;
+  private final Map<String, URI> _nodes;
+  private final Duration _timeout;
+  private final HttpClient _http;
+
+  public NodeForwarder(ClusterProperties properties) {
+    Objects.requireNonNull(properties, "properties must not be null");
+    _self = properties.nodeId();
+    _nodes = properties.nodes();
+    _timeout = properties.forwardTimeout();
+    _http = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(_timeout)
+      .followRedirects(HttpClient.Redirect.NEVER)
+      .build();
+  }
+
+  /** Returns whether a request or response header is passed on when forwarding. */
+  public static boolean isForwarded(String header) {
+    return !_UNFORWARDED_HEADERS.contains(header.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Sends a request to a node and returns its response once the headers arrived;
+   * the caller streams and closes the body.
+   *
+   * @param node          identifier of the node to forward to
+   * @param method        request method
+   * @param pathAndQuery  request path, with the query string if any
+   * @param headers       request headers; those not {@linkplain #isForwarded forwarded} are skipped
+   * @param body          request body
+   * @param contentLength length of the body, -1 if unknown
+   * @throws IOException if the node cannot be reached or does not answer in time
+   */
+  public HttpResponse<InputStream> forward(
+    String node,
+    String method,
+    String pathAndQuery,
+    Map<String, List<String>> headers,
+    InputStream body,
+    long contentLength
+  ) throws IOException {
+    URI base = _nodes.get(node);
+    if (base == null) {
+      throw new IllegalArgumentException("Unknown node " + node);
+    }
+    HttpRequest.BodyPublisher publisher;
+    if (contentLength == 0 || body == null) {
+      publisher = HttpRequest.BodyPublishers.noBody();
+    } else if (contentLength > 0) {
+      publisher = HttpRequest.BodyPublishers.fromPublisher(
+        HttpRequest.BodyPublishers.ofInputStream(() -> body),
+        contentLength
+      );
+    } else {
+      publisher = HttpRequest.BodyPublishers.ofInputStream(() -> body);
+    }
+    HttpRequest.Builder request = HttpRequest.newBuilder(
+      base.resolve(pathAndQuery)
+    )
+      .timeout(_timeout)
+      .method(method, publisher);
+    headers.forEach((name, values) -> {
+      if (isForwarded(name)) {
+        values.forEach(value -> request.header(name, value));
+      }
+    });
+    request.header(FORWARDED_BY_HEADER, _self);
+    try {
+      return _http.send(
+        request.build(),
+        HttpResponse.BodyHandlers.ofInputStream()
+      );
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted forwarding to " + node);
+    }
+  }
+
+  @Override
+  public void close() {
+    _http.close();
+  }
+}
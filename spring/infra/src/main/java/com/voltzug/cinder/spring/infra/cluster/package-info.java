@@ -0,0 +1,15 @@
+/**
+ * Node affinity between Cinder nodes.
+ *
+ * <p>Instead of sharing session and download limit state over the network, each
+ * {@link com.voltzug.cinder.core.domain.valueobject.id.SessionId} and
+ * {@link com.voltzug.cinder.core.domain.valueobject.id.LinkId} is owned by one node, which
+ * keeps its state in process; requests reaching another node are forwarded to the owner.</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.infra.cluster.ConsistentHashRing} — Consistent-hash ring of nodes with virtual points</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.cluster.NodeAffinity} — Owner lookup and minting of identifiers owned by this node</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.cluster.NodeForwarder} — Streaming HTTP forwarding to the owning node</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.infra.cluster;
@@ -0,0 +1,56 @@
+package com.voltzug.cinder.spring.infra.config;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.spring.infra.cluster.ClusterProperties;
+import com.voltzug.cinder.spring.infra.cluster.ConsistentHashRing;
+import com.voltzug.cinder.spring.infra.cluster.NodeAffinity;
+import com.voltzug.cinder.spring.infra.cluster.NodeForwarder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires node affinity when {@code cinder.cluster.enabled=true}.
+ *
+ * <p>Sessions and download limits then stay in the memory of the node owning their
+ * identifier; pair it with {@code cinder.session.cache.type=memory}.
+ */
+@Configuration
+@ConditionalOnProperty(
+  prefix = "cinder.cluster",
+  name = "enabled",
+  havingValue = "true"
+)
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+
+  @Bean
+  public NodeAffinity nodeAffinity(ClusterProperties properties) {
+    return new NodeAffinity(
+      new ConsistentHashRing(
+        properties.nodes().keySet(),
+        properties.virtualNodes()
+      ),
+      properties.nodeId()
+    );
+  }
+
+  @Bean
+  public NodeForwarder nodeForwarder(ClusterProperties properties) {
+    return new NodeForwarder(properties);
+  }
+}
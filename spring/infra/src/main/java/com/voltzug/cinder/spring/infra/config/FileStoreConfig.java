@@ -0,0 +1,178 @@
+package com.voltzug.cinder.spring.infra.config;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import com.voltzug.cinder.spring.infra.filestore.LocalBlobShredder;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreAdapter;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreResharder;
+import com.voltzug.cinder.spring.infra.filestore.S3FileStoreAdapter;
+import com.voltzug.cinder.spring.infra.filestore.S3FileStoreProperties;
+import com.voltzug.cinder.spring.infra.filestore.ShredProperties;
+import com.voltzug.cinder.spring.infra.filestore.TieredFileStoreAdapter;
+import com.voltzug.cinder.spring.infra.filestore.TieredStorageProperties;
+import com.voltzug.cinder.spring.infra.filestore.WriteBehindFileStoreAdapter;
+import com.voltzug.cinder.spring.infra.filestore.WriteBehindProperties;
+import com.voltzug.cinder.spring.infra.scheduler.BlobMigrationScheduler;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Wires the file storage adapters.
+ *
+ * <p>The local store is always available; {@code cinder.storage.type} selects which store
+ * backs the primary {@link com.voltzug.cinder.core.port.out.FileStorePort}:
+ * {@code local} (default), {@code s3}, or {@code tiered} (local tier migrating to S3).
+ */
+@Configuration
+@EnableConfigurationProperties(
+  {
+    LocalFileStoreProperties.class,
+    ShredProperties.class,
+    WriteBehindProperties.class,
+  }
+)
+public class FileStoreConfig {
+
+  @Bean
+  public LocalFileStoreAdapter localFileStoreAdapter(
+    LocalFileStoreProperties properties,
+    Optional<LocalBlobShredder> localBlobShredder
+  ) {
+    return new LocalFileStoreAdapter(
+      properties,
+      localBlobShredder.orElse(null)
+    );
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+    prefix = "cinder.storage.local.shred",
+    name = "enabled",
+    havingValue = "true"
+  )
+  public LocalBlobShredder localBlobShredder(
+    LocalFileStoreProperties localProperties,
+    ShredProperties shredProperties
+  ) {
+    return new LocalBlobShredder(localProperties, shredProperties);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+    prefix = "cinder.storage.local",
+    name = "reshard-on-startup",
+    havingValue = "true"
+  )
+  public LocalFileStoreResharder localFileStoreResharder(
+    LocalFileStoreAdapter localFileStoreAdapter
+  ) {
+    return new LocalFileStoreResharder(localFileStoreAdapter);
+  }
+
+  /** Local disk as primary store. */
+  @Configuration
+  @ConditionalOnProperty(
+    prefix = "cinder.storage",
+    name = "type",
+    havingValue = "local",
+    matchIfMissing = true
+  )
+  static class LocalStoreConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+      prefix = "cinder.storage.write-behind",
+      name = "enabled",
+      havingValue = "true"
+    )
+    public WriteBehindFileStoreAdapter writeBehindFileStoreAdapter(
+      LocalFileStoreAdapter localFileStoreAdapter,
+      WriteBehindProperties properties
+    ) {
+      return new WriteBehindFileStoreAdapter(localFileStoreAdapter, properties);
+    }
+  }
+
+  /** S3-compatible object store as primary store. */
+  @Configuration
+  @ConditionalOnProperty(
+    prefix = "cinder.storage",
+    name = "type",
+    havingValue = "s3"
+  )
+  @EnableConfigurationProperties(S3FileStoreProperties.class)
+  static class S3StoreConfig {
+
+    @Bean
+    @Primary
+    public S3FileStoreAdapter s3FileStoreAdapter(
+      S3FileStoreProperties properties
+    ) {
+      return new S3FileStoreAdapter(properties);
+    }
+  }
+
+  /** Local disk tier in front of an S3-compatible object store tier. */
+  @Configuration
+  @ConditionalOnProperty(
+    prefix = "cinder.storage",
+    name = "type",
+    havingValue = "tiered"
+  )
+  @EnableConfigurationProperties(
+    { S3FileStoreProperties.class, TieredStorageProperties.class }
+  )
+  static class TieredStoreConfig {
+
+    @Bean
+    public S3FileStoreAdapter s3FileStoreAdapter(
+      S3FileStoreProperties properties
+    ) {
+      return new S3FileStoreAdapter(properties);
+    }
+
+    @Bean
+    @Primary
+    public TieredFileStoreAdapter tieredFileStoreAdapter(
+      LocalFileStoreAdapter localFileStoreAdapter,
+      S3FileStoreAdapter s3FileStoreAdapter
+    ) {
+      return new TieredFileStoreAdapter(
+        localFileStoreAdapter,
+        s3FileStoreAdapter
+      );
+    }
+
+    @Bean
+    public BlobMigrationScheduler blobMigrationScheduler(
+      TieredFileStoreAdapter tieredFileStoreAdapter,
+      Optional<SecureFileRepositoryPort> secureFileRepository,
+      TieredStorageProperties properties
+    ) {
+      return new BlobMigrationScheduler(
+        tieredFileStoreAdapter,
+        secureFileRepository,
+        properties.migrateAfter()
+      );
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.voltzug.cinder.spring.infra.config;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.spring.infra.repository.CachingSecureFileRepositoryAdapter;
+import com.voltzug.cinder.spring.infra.repository.DownloadLimitProperties;
+import com.voltzug.cinder.spring.infra.repository.JdbcRepositoryProperties;
+import com.voltzug.cinder.spring.infra.repository.JdbcSecureFileRepositoryAdapter;
+import com.voltzug.cinder.spring.infra.repository.SecureFileCacheProperties;
+import com.voltzug.cinder.spring.infra.repository.SqliteShardRebalancer;
+import com.voltzug.cinder.spring.infra.repository.WriteBehindDownloadLimitAdapter;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Wires the file metadata repository.
+ *
+ * <p>{@code cinder.repository.type} selects the adapter backing
+ * {@link com.voltzug.cinder.core.port.out.SecureFileRepositoryPort};
+ * {@code jdbc} uses plain JDBC against SQLite, optionally sharded over several database
+ * files and rebalanced before it opens. With {@code cinder.repository.cache.enabled}
+ * link lookups are cached in front of it. With {@code cinder.repository.download-limit.enabled}
+ * download limits are counted in memory and written behind into the same database files.
+ */
+@Configuration
+@EnableConfigurationProperties(SecureFileCacheProperties.class)
+public class RepositoryConfig {
+
+  /** Hand-written SQL over cached prepared statements. */
+  @Configuration
+  @ConditionalOnProperty(
+    prefix = "cinder.repository",
+    name = "type",
+    havingValue = "jdbc"
+  )
+  @EnableConfigurationProperties(
+    { JdbcRepositoryProperties.class, DownloadLimitProperties.class }
+  )
+  static class JdbcRepositoryConfig {
+
+    @Bean
+    public JdbcSecureFileRepositoryAdapter jdbcSecureFileRepositoryAdapter(
+      JdbcRepositoryProperties properties
+    ) {
+      if (properties.rebalanceOnStartup()) {
+        new SqliteShardRebalancer(
+          properties.url(),
+          properties.shards()
+        ).rebalance();
+      }
+      return new JdbcSecureFileRepositoryAdapter(properties);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+      prefix = "cinder.repository.cache",
+      name = "enabled",
+      havingValue = "true"
+    )
+    public CachingSecureFileRepositoryAdapter cachingSecureFileRepositoryAdapter(
+      JdbcSecureFileRepositoryAdapter jdbcSecureFileRepositoryAdapter,
+      SecureFileCacheProperties properties,
+      Optional<ClockPort> clock
+    ) {
+      return new CachingSecureFileRepositoryAdapter(
+        jdbcSecureFileRepositoryAdapter,
+        properties,
+        clock.orElse(Instant::now)
+      );
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+      prefix = "cinder.repository.download-limit",
+      name = "enabled",
+      havingValue = "true"
+    )
+    public WriteBehindDownloadLimitAdapter writeBehindDownloadLimitAdapter(
+      JdbcSecureFileRepositoryAdapter jdbcSecureFileRepositoryAdapter,
+      DownloadLimitProperties properties,
+      Optional<ClockPort> clock
+    ) {
+      return new WriteBehindDownloadLimitAdapter(
+        jdbcSecureFileRepositoryAdapter,
+        properties,
+        clock.orElse(Instant::now)
+      );
+    }
+  }
+}
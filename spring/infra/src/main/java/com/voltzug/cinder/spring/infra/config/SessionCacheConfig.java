@@ -0,0 +1,109 @@
+package com.voltzug.cinder.spring.infra.config;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.core.port.out.PepperPort;
+import com.voltzug.cinder.spring.infra.session.InMemorySessionCacheAdapter;
+import com.voltzug.cinder.spring.infra.session.InMemorySessionCacheProperties;
+import com.voltzug.cinder.spring.infra.session.RedisSessionCacheAdapter;
+import com.voltzug.cinder.spring.infra.session.RedisSessionCacheProperties;
+import com.voltzug.cinder.spring.infra.session.SessionJournal;
+import com.voltzug.cinder.spring.infra.session.SessionJournalProperties;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the session cache.
+ *
+ * <p>{@code cinder.session.cache.type} selects the adapter backing
+ * {@link com.voltzug.cinder.core.port.out.SessionCachePort};
+ * {@code memory} keeps sessions in process memory, optionally journaled to disk
+ * ({@code cinder.session.cache.memory.journal.enabled}) to survive restarts;
+ * {@code redis} shares them between nodes through a Redis-protocol server.
+ */
+@Configuration
+public class SessionCacheConfig {
+
+  /** Sessions in a concurrent map, expired by a timing wheel. */
+  @Configuration
+  @ConditionalOnProperty(
+    prefix = "cinder.session.cache",
+    name = "type",
+    havingValue = "memory"
+  )
+  @EnableConfigurationProperties(
+    { InMemorySessionCacheProperties.class, SessionJournalProperties.class }
+  )
+  static class InMemorySessionCacheConfig {
+
+    @Bean
+    public InMemorySessionCacheAdapter inMemorySessionCacheAdapter(
+      InMemorySessionCacheProperties properties,
+      SessionJournalProperties journalProperties,
+      Optional<ClockPort> clock,
+      Optional<PepperPort> pepper
+    ) {
+      SessionJournal journal = null;
+      if (journalProperties.enabled()) {
+        journal = new SessionJournal(
+          journalProperties,
+          pepper.orElseThrow(() ->
+            new IllegalStateException(
+              "cinder.session.cache.memory.journal.enabled requires a PepperPort"
+            )
+          )
+        );
+      }
+      return new InMemorySessionCacheAdapter(
+        properties,
+        clock.orElse(Instant::now),
+        journal
+      );
+    }
+  }
+
+  /** Sessions on a shared Redis-protocol server, behind a local near-cache. */
+  @Configuration
+  @ConditionalOnProperty(
+    prefix = "cinder.session.cache",
+    name = "type",
+    havingValue = "redis"
+  )
+  @EnableConfigurationProperties(RedisSessionCacheProperties.class)
+  static class RedisSessionCacheConfig {
+
+    @Bean
+    public RedisSessionCacheAdapter redisSessionCacheAdapter(
+      RedisSessionCacheProperties properties,
+      Optional<ClockPort> clock,
+      Optional<PepperPort> pepper
+    ) {
+      return new RedisSessionCacheAdapter(
+        properties,
+        clock.orElse(Instant::now),
+        pepper.orElseThrow(() ->
+          new IllegalStateException(
+            "cinder.session.cache.type=redis requires a PepperPort"
+          )
+        )
+      );
+    }
+  }
+}
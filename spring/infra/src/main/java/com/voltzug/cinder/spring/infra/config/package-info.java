@@ -0,0 +1,7 @@
+/**
+ * Spring configuration composing infrastructure adapters into beans.
+ *
+ * <p>Configuration classes bind {@code cinder.*} properties and expose the adapters
+ * implementing core outbound ports, so that the {@code rest} module only wires ports.</p>
+ */
+package com.voltzug.cinder.spring.infra.config;
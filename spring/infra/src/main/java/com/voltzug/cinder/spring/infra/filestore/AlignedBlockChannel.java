@@ -0,0 +1,124 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.OpenOption;
+
+/**
+ * Write channel over a file opened for direct I/O ({@code O_DIRECT}), which only accepts
+ * whole blocks written from block-aligned memory at block-aligned positions.
+ *
+ * <p>Written bytes are gathered in an aligned off-heap buffer that is handed to the file
+ * whenever it fills up. {@link #finish()} pads the last block with zeros and cuts the file
+ * back to the number of bytes actually written. The underlying file channel is not closed.
+ */
+final class AlignedBlockChannel implements WritableByteChannel {
+
+  /**
+   * The JDK's {@code O_DIRECT} open option, or null where the runtime lacks it. Looked up
+   * by name because {@code com.sun.nio.file} is not part of the Java SE API, and compiling
+   * against it directly raises an unsuppressable warning.
+   */
+  static final OpenOption DIRECT_OPTION = _directOption();
+
+  private final FileChannel _file;
+  private final int _blockSize;
+  private final ByteBuffer _buffer;
+  private long _position;
+  private long _written;
+
+  /**
+   * @param file       the file channel opened for direct I/O, positioned at its start
+   * @param blockSize  the alignment required by the file system
+   * @param bufferSize the size of the gathering buffer, rounded up to whole blocks
+   */
+  AlignedBlockChannel(FileChannel file, int blockSize, int bufferSize) {
+    _file = file;
+    _blockSize = blockSize;
+    int blocks = Math.max(1, (bufferSize + blockSize - 1) / blockSize);
+    _buffer = ByteBuffer.allocateDirect((blocks + 1) * blockSize)
+      .alignedSlice(blockSize)
+      .limit(blocks * blockSize)
+      .slice();
+  }
+
+  @Override
+  public int write(ByteBuffer source) throws IOException {
+    int count = source.remaining();
+    while (source.hasRemaining()) {
+      int length = Math.min(source.remaining(), _buffer.remaining());
+      _buffer.put(_buffer.position(), source, source.position(), length);
+      _buffer.position(_buffer.position() + length);
+      source.position(source.position() + length);
+      if (!_buffer.hasRemaining()) {
+        _flush();
+      }
+    }
+    _written += count;
+    return count;
+  }
+
+  /** Writes the buffered tail as a padded block and trims the padding off the file. */
+  void finish() throws IOException {
+    int tail = _buffer.position();
+    if (tail > 0) {
+      int padded = (tail + _blockSize - 1) / _blockSize * _blockSize;
+      while (_buffer.position() < padded) {
+        _buffer.put((byte) 0);
+      }
+      _flush();
+    }
+    _file.truncate(_written);
+  }
+
+  @Override
+  public boolean isOpen() {
+    return _file.isOpen();
+  }
+
+  @Override
+  public void close() {
+    // the file channel is owned by the caller
+  }
+
+  private static OpenOption _directOption() {
+    try {
+      Class<?> options = Class.forName("com.sun.nio.file.ExtendedOpenOption");
+      for (Object option : options.getEnumConstants()) {
+        if (
+          option instanceof OpenOption direct &&
+          ((Enum<?>) option).name().equals("DIRECT")
+        ) {
+          return direct;
+        }
+      }
+    } catch (ClassNotFoundException | LinkageError exc) {
+      // not a HotSpot-derived runtime; direct writes fall back to buffered ones
+    }
+    return null;
+  }
+
+  private void _flush() throws IOException {
+    _buffer.flip();
+    while (_buffer.hasRemaining()) {
+      _position += _file.write(_buffer, _position);
+    }
+    _buffer.clear();
+  }
+}
@@ -0,0 +1,224 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.exception.FileStorageException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Secure deletion of local blobs.
+ *
+ * <p>A deleted blob is atomically renamed into the quarantine directory of the store,
+ * which makes the delete itself as fast as an unlink. A single low-priority background
+ * thread later overwrites the quarantined blob with random data, forces it to disk and
+ * unlinks it. Overwrites are paced to {@code cinder.storage.local.shred.rate} bytes per
+ * second in total, so shredding never competes with live uploads for more than that
+ * budget. Blobs left in quarantine by a previous run are shredded after a restart.
+ *
+ * <p>Overwriting in place only destroys the old contents on file systems that update
+ * blocks in place; copy-on-write file systems and SSD wear levelling may keep copies.
+ */
+@Slf4j
+public class LocalBlobShredder implements AutoCloseable {
+
+  private static final long _IDLE_POLL_MILLIS = 100;
+  private static final long _MAX_BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final Path _quarantine;
+  private final long _bytesPerSecond;
+  private final int _chunkSize;
+  private final long _delayNanos;
+  private final BlockingQueue<Quarantined> _queue = new LinkedBlockingQueue<>();
+  private final Thread _worker;
+  private long _nextSlotNanos;
+  private volatile boolean _closed;
+
+  public LocalBlobShredder(
+    LocalFileStoreProperties storage,
+    ShredProperties properties
+  ) {
+    Objects.requireNonNull(storage, "storage must not be null");
+    Objects.requireNonNull(properties, "properties must not be null");
+    _quarantine = Path.of(storage.directory())
+      .toAbsolutePath()
+      .normalize()
+      .resolve(LocalFileStoreAdapter.QUARANTINE_DIRECTORY);
+    _bytesPerSecond = properties.rate().toBytes();
+    _chunkSize = (int) Math.min(
+      storage.bufferSize().toBytes(),
+      Math.max(1, _bytesPerSecond)
+    );
+    _delayNanos = properties.delay().toNanos();
+    try {
+      Files.createDirectories(_quarantine);
+      _requeueLeftovers();
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Cannot prepare quarantine directory: " + _quarantine,
+        exc
+      );
+    }
+    _worker = Thread.ofPlatform()
+      .name("cinder-shredder")
+      .daemon(true)
+      .priority(Thread.MIN_PRIORITY)
+      .start(this::_run);
+  }
+
+  /** Returns the directory deleted blobs are moved to until they are shredded. */
+  public Path getQuarantine() {
+    return _quarantine;
+  }
+
+  /**
+   * Moves a blob into quarantine and schedules it for shredding.
+   *
+   * @param file the blob to delete
+   * @return false if the blob did not exist
+   */
+  boolean quarantine(Path file) throws IOException {
+    Path target = _quarantine.resolve(UUID.randomUUID().toString());
+    try {
+      Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (NoSuchFileException exc) {
+      if (Files.exists(file)) {
+        Files.createDirectories(_quarantine);
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+      } else {
+        return false;
+      }
+    }
+    _queue.add(new Quarantined(target, System.nanoTime() + _delayNanos));
+    return true;
+  }
+
+  /**
+   * Stops the shredder. Blobs still in quarantine are shredded after the next start.
+   */
+  @Override
+  public void close() {
+    _closed = true;
+    _worker.interrupt();
+    try {
+      _worker.join();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void _requeueLeftovers() throws IOException {
+    long readyAt = System.nanoTime() + _delayNanos;
+    try (Stream<Path> files = Files.list(_quarantine)) {
+      files
+        .filter(Files::isRegularFile)
+        .forEach(file -> _queue.add(new Quarantined(file, readyAt)));
+    }
+    if (!_queue.isEmpty()) {
+      log.info("Resuming shredding of {} quarantined blob(s)", _queue.size());
+    }
+  }
+
+  private void _run() {
+    ByteBuffer noise = ByteBuffer.allocate(_chunkSize);
+    SplittableRandom random = new SplittableRandom();
+    while (!_closed) {
+      try {
+        Quarantined next = _queue.poll(
+          _IDLE_POLL_MILLIS,
+          TimeUnit.MILLISECONDS
+        );
+        if (next == null) {
+          continue;
+        }
+        long wait = next.readyAt() - System.nanoTime();
+        if (wait > 0) {
+          TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        _shred(next.file(), noise, random);
+      } catch (InterruptedException exc) {
+        if (!_closed) {
+          log.warn("Shredder interrupted, stopping");
+        }
+        return;
+      }
+    }
+  }
+
+  private void _shred(Path file, ByteBuffer noise, SplittableRandom random)
+    throws InterruptedException {
+    try (
+      FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)
+    ) {
+      long size = channel.size();
+      long position = 0;
+      while (position < size) {
+        int length = (int) Math.min(_chunkSize, size - position);
+        _throttle(length);
+        noise.clear();
+        while (noise.remaining() >= Long.BYTES) {
+          noise.putLong(random.nextLong());
+        }
+        noise.flip().limit(length);
+        while (noise.hasRemaining()) {
+          position += channel.write(noise, position);
+        }
+      }
+      channel.force(true);
+    } catch (NoSuchFileException exc) {
+      return;
+    } catch (IOException exc) {
+      log.warn("Failed to overwrite quarantined blob {}", file, exc);
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException exc) {
+      log.warn("Failed to remove quarantined blob {}", file, exc);
+    }
+  }
+
+  /**
+   * Waits until the I/O budget allows writing {@code bytes} more bytes. Unused budget
+   * accumulates for at most one second, bounding bursts after idle periods.
+   */
+  private void _throttle(int bytes) throws InterruptedException {
+    long now = System.nanoTime();
+    if (now - _nextSlotNanos > _MAX_BURST_NANOS) {
+      _nextSlotNanos = now - _MAX_BURST_NANOS;
+    }
+    _nextSlotNanos += TimeUnit.SECONDS.toNanos(bytes) / _bytesPerSecond;
+    long wait = _nextSlotNanos - now;
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  /** A quarantined blob and the time it may be shredded at. */
+  private record Quarantined(Path file, long readyAt) {}
+}
@@ -0,0 +1,870 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.port.out.ChunkedFileStorePort;
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties.ReadMode;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties.WriteMode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local file system adapter for {@link StreamingFileStorePort}.
+ *
+ * <p>Blobs are written to a staging file next to their final location, forced to disk
+ * and atomically moved into place, so a partially written blob is never visible.
+ * Streamed transfers go through a single fixed-size buffer regardless of the blob size.
+ *
+ * <p>Blobs are sharded into {@code cinder.storage.local.fanout-levels} hex directory
+ * levels derived from the {@link FileId} (see {@link PathReference#forLocalFile(String, String, int)}),
+ * keeping directories small. References issued under a previous layout stay readable:
+ * a blob missing at its referenced path is looked up at its canonical location, where
+ * {@link LocalFileStoreResharder} moves it.
+ *
+ * <p>{@link WriteMode#PREALLOCATE} sizes the staging file before writing, and
+ * {@link WriteMode#DIRECT} writes large uploads around the page cache in whole aligned
+ * blocks, keeping the cache for the blobs being downloaded.
+ *
+ * <p>In {@link ReadMode#MAPPED} mode {@code load()} returns read-only views over
+ * memory-mapped blobs. Up to {@code cinder.storage.local.mapped-cache-entries} mappings
+ * are kept for reuse, least recently used first out, so repeated download attempts of
+ * the same blob neither re-read nor re-allocate it; they are dropped when the blob is
+ * replaced, deleted or shredded.
+ *
+ * <p>Blobs uploaded in chunks are appended to an upload file next to their final
+ * location as the chunks arrive, and moved into place once complete. The upload file
+ * survives restarts, so an interrupted upload resumes from its size.
+ *
+ * <p>With a {@link LocalBlobShredder}, deleted blobs are moved into the
+ * {@value #QUARANTINE_DIRECTORY} directory and overwritten in the background instead of
+ * being unlinked right away.
+ *
+ * <p>Streamed blobs name their file only with {@code cinder.storage.local.stable-paths}
+ * and no shredder, as a reader reopening the file by name would otherwise race deletes.
+ */
+@Slf4j
+public class LocalFileStoreAdapter
+  implements StreamingFileStorePort, ChunkedFileStorePort {
+
+  /** Directory below the root holding deleted blobs until they are shredded. */
+  static final String QUARANTINE_DIRECTORY = ".quarantine";
+
+  private static final String _STAGING_SUFFIX = ".part";
+  private static final String _UPLOAD_SUFFIX = ".upload";
+  private static final int _DEFAULT_BLOCK_SIZE = 4096;
+  private static final int _MAX_BLOCK_SIZE = 1 << 20;
+  private static final boolean _DIRECTORY_SYNC_SUPPORTED = FileSystems.getDefault()
+    .supportedFileAttributeViews()
+    .contains("posix");
+
+  private final Path _root;
+  private final int _fanoutLevels;
+  private final int _bufferSize;
+  private final ReadMode _readMode;
+  private final int _mappedCacheEntries;
+  private final int _deleteParallelism;
+  private final WriteMode _writeMode;
+  private final int _blockSize;
+  private final LocalBlobShredder _shredder;
+  private final boolean _stablePaths;
+  private volatile boolean _directUnsupported;
+  private final ReentrantLock _mappingsLock = new ReentrantLock();
+  private final LinkedHashMap<Path, MappedByteBuffer> _mappings =
+    new LinkedHashMap<>(16, 0.75f, true);
+
+  public LocalFileStoreAdapter(LocalFileStoreProperties properties) {
+    this(properties, null);
+  }
+
+  /**
+   * Creates a store that shreds deleted blobs.
+   *
+   * @param properties the store configuration
+   * @param shredder   the shredder deleted blobs are handed to, or null to unlink them directly
+   */
+  public LocalFileStoreAdapter(
+    LocalFileStoreProperties properties,
+    LocalBlobShredder shredder
+  ) {
+    Objects.requireNonNull(properties, "properties must not be null");
+    _root = Path.of(properties.directory()).toAbsolutePath().normalize();
+    _fanoutLevels = properties.fanoutLevels();
+    _bufferSize = (int) properties.bufferSize().toBytes();
+    _readMode = properties.readMode();
+    _mappedCacheEntries = properties.mappedCacheEntries();
+    _deleteParallelism = properties.deleteParallelism();
+    _writeMode = properties.writeMode();
+    _shredder = shredder;
+    _stablePaths = properties.stablePaths() && shredder == null;
+    try {
+      Files.createDirectories(_root);
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Cannot create storage directory: " + _root,
+        exc
+      );
+    }
+    _blockSize = _blockSizeOf(_root);
+  }
+
+  /** Returns the absolute base directory of this store. */
+  public Path getRoot() {
+    return _root;
+  }
+
+  @Override
+  public PathReference save(FileId fileId, Blob data) {
+    ChannelWriter writer = _writerOf(data, null);
+    return _store(fileId, data.size(), writer);
+  }
+
+  /** Checksums the blob slice by slice as it is written. */
+  @Override
+  public StoredBlob saveChecksummed(FileId fileId, Blob data) {
+    CRC32C checksum = new CRC32C();
+    ChannelWriter writer = _writerOf(data, checksum);
+    PathReference path = _store(fileId, data.size(), writer);
+    return new StoredBlob(path, new BlobChecksum((int) checksum.getValue()));
+  }
+
+  @Override
+  public PathReference save(
+    FileId fileId,
+    ReadableByteChannel source,
+    long size
+  ) {
+    Objects.requireNonNull(source, "source must not be null");
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be positive, got " + size);
+    }
+    return _store(fileId, size, channel -> _copy(source, channel, size));
+  }
+
+  @Override
+  public Optional<Blob> load(PathReference path) {
+    Path file = _locate(path);
+    try {
+      return _find(file, this::_read);
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to load blob: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  @Override
+  public Optional<BlobStream> open(PathReference path) {
+    Path file = _locate(path);
+    try {
+      return _find(file, this::_openStream);
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to open blob: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  @Override
+  public void delete(PathReference path) {
+    Path file = _locate(path);
+    try {
+      if (!_remove(file)) {
+        log.debug("Blob already absent: {}", file.getFileName());
+      }
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to delete blob: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  /**
+   * Deletes the blobs concurrently on up to {@code cinder.storage.local.delete-parallelism}
+   * threads.
+   */
+  @Override
+  public Map<PathReference, DeleteOutcome> deleteAll(
+    Collection<PathReference> paths
+  ) {
+    Objects.requireNonNull(paths, "paths must not be null");
+    Map<PathReference, Future<DeleteOutcome>> pending = new LinkedHashMap<>();
+    if (!paths.isEmpty()) {
+      try (
+        ExecutorService executor = Executors.newFixedThreadPool(
+          Math.min(_deleteParallelism, paths.size()),
+          Thread.ofPlatform().name("cinder-delete-", 0).factory()
+        )
+      ) {
+        for (PathReference path : paths) {
+          pending.computeIfAbsent(path, key ->
+            executor.submit(() -> _deleteOutcome(key))
+          );
+        }
+      }
+    }
+    Map<PathReference, DeleteOutcome> outcomes = new LinkedHashMap<>();
+    pending.forEach((path, outcome) -> outcomes.put(path, outcome.resultNow()));
+    return outcomes;
+  }
+
+  /**
+   * Returns the location a blob with the given file name has in the current fan-out layout.
+   */
+  Path canonicalPath(String filename) {
+    return Path.of(
+      PathReference.forLocalFile(_root.toString(), filename, _fanoutLevels)
+        .value()
+    ).normalize();
+  }
+
+  int getFanoutLevels() {
+    return _fanoutLevels;
+  }
+
+  /** Tells whether a path lies in the quarantine directory of deleted blobs. */
+  boolean isQuarantined(Path file) {
+    return file.startsWith(_root.resolve(QUARANTINE_DIRECTORY));
+  }
+
+  @Override
+  public long appendChunk(FileId fileId, long offset, Blob chunk) {
+    Path upload = _uploadPath(fileId);
+    ChannelWriter writer = _writerOf(chunk, null);
+    try {
+      Files.createDirectories(upload.getParent());
+      try (
+        FileChannel channel = FileChannel.open(
+          upload,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE
+        );
+        FileLock lock = _lockUpload(channel, fileId)
+      ) {
+        long staged = channel.size();
+        if (offset < 0 || offset > staged) {
+          throw new FileStorageException(
+            "Chunk at offset " +
+              offset +
+              " does not follow the " +
+              staged +
+              " staged bytes of blob: " +
+              fileId.value()
+          );
+        }
+        channel.truncate(offset);
+        channel.position(offset);
+        writer.write(channel);
+        return channel.position();
+      }
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to store chunk of blob: " + fileId.value(),
+        exc
+      );
+    }
+  }
+
+  @Override
+  public long stagedSize(FileId fileId) {
+    Path upload = _uploadPath(fileId);
+    try {
+      return Files.size(upload);
+    } catch (NoSuchFileException exc) {
+      return 0;
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to read chunks of blob: " + fileId.value(),
+        exc
+      );
+    }
+  }
+
+  @Override
+  public PathReference completeChunks(FileId fileId, long totalSize) {
+    Path upload = _uploadPath(fileId);
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(upload, StandardOpenOption.WRITE);
+      _lockUpload(channel, fileId);
+      long staged = channel.size();
+      if (staged != totalSize) {
+        throw new FileStorageException(
+          "Blob incomplete: expected " + totalSize + " bytes, got " + staged
+        );
+      }
+      channel.force(true);
+    } catch (NoSuchFileException exc) {
+      throw new FileStorageException(
+        "No chunks staged for blob: " + fileId.value(),
+        exc
+      );
+    } catch (IOException exc) {
+      _closeQuietly(channel);
+      throw new FileStorageException(
+        "Failed to store blob: " + fileId.value(),
+        exc
+      );
+    } catch (RuntimeException exc) {
+      _closeQuietly(channel);
+      throw exc;
+    }
+    return publish(new StagedBlob(upload, _resolve(fileId), channel));
+  }
+
+  @Override
+  public void discardChunks(FileId fileId) {
+    Path upload = _uploadPath(fileId);
+    try {
+      Files.deleteIfExists(upload);
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to discard chunks of blob: " + fileId.value(),
+        exc
+      );
+    }
+  }
+
+  /** Tells whether a file holds a blob being written rather than a stored blob. */
+  static boolean isStagingFile(Path file) {
+    String name = file.getFileName().toString();
+    return name.endsWith(_STAGING_SUFFIX) || name.endsWith(_UPLOAD_SUFFIX);
+  }
+
+  /**
+   * Writes a blob into its staging file without forcing it to disk.
+   * The returned blob must be passed to {@link #publish(StagedBlob)} or {@link #discard(StagedBlob)}.
+   *
+   * @param checksum updated with the blob contents as they are written, or null
+   */
+  StagedBlob stage(FileId fileId, Blob data, Checksum checksum) {
+    ChannelWriter writer = _writerOf(data, checksum);
+    return _stage(fileId, data.size(), writer);
+  }
+
+  /**
+   * Atomically moves a staged blob into place. Its contents must already have been
+   * forced to disk; the rename itself is durable only once the parent directory is
+   * synced (see {@link #syncDirectory(Path)}).
+   */
+  PathReference publish(StagedBlob staged) {
+    try {
+      staged.channel().close();
+      Files.move(
+        staged.staging(),
+        staged.target(),
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING
+      );
+      _dropMapping(staged.target());
+      return PathReference.from(staged.target().toString());
+    } catch (IOException exc) {
+      _deleteQuietly(staged.staging());
+      throw new FileStorageException(
+        "Failed to store blob: " + staged.target().getFileName(),
+        exc
+      );
+    }
+  }
+
+  /** Closes and removes a staged blob that will not be published. */
+  void discard(StagedBlob staged) {
+    try {
+      staged.channel().close();
+    } catch (IOException exc) {
+      log.debug("Failed to close staging file {}", staged.staging(), exc);
+    }
+    _deleteQuietly(staged.staging());
+  }
+
+  /**
+   * Forces a directory entry update (such as a completed rename) to disk. A no-op on
+   * file systems that cannot open directories as channels.
+   */
+  static void syncDirectory(Path directory) throws IOException {
+    if (!_DIRECTORY_SYNC_SUPPORTED) {
+      return;
+    }
+    try (
+      FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)
+    ) {
+      channel.force(true);
+    }
+  }
+
+  private PathReference _store(
+    FileId fileId,
+    long size,
+    ChannelWriter writer
+  ) {
+    StagedBlob staged = _stage(fileId, size, writer);
+    try {
+      staged.channel().force(true);
+    } catch (IOException exc) {
+      discard(staged);
+      throw new FileStorageException(
+        "Failed to store blob: " + fileId.value(),
+        exc
+      );
+    }
+    return publish(staged);
+  }
+
+  /**
+   * Writes a blob of the given size into its staging file according to the configured
+   * {@link WriteMode}.
+   */
+  private StagedBlob _stage(FileId fileId, long size, ChannelWriter writer) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    Path target = _resolve(fileId);
+    Path staging = target.resolveSibling(
+      target.getFileName() + _STAGING_SUFFIX
+    );
+    FileChannel channel = null;
+    try {
+      Files.createDirectories(target.getParent());
+      channel = _writeMode == WriteMode.DIRECT ? _openDirect(staging) : null;
+      if (channel != null) {
+        AlignedBlockChannel aligned = new AlignedBlockChannel(
+          channel,
+          _blockSize,
+          _bufferSize
+        );
+        writer.write(aligned);
+        aligned.finish();
+        return new StagedBlob(staging, target, channel);
+      }
+      channel = FileChannel.open(
+        staging,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE
+      );
+      if (_writeMode == WriteMode.PREALLOCATE) {
+        _preallocate(channel, staging, size);
+      }
+      writer.write(channel);
+      return new StagedBlob(staging, target, channel);
+    } catch (IOException exc) {
+      _closeQuietly(channel);
+      _deleteQuietly(staging);
+      throw new FileStorageException(
+        "Failed to store blob: " + fileId.value(),
+        exc
+      );
+    } catch (RuntimeException exc) {
+      _closeQuietly(channel);
+      _deleteQuietly(staging);
+      throw exc;
+    }
+  }
+
+  private Path _uploadPath(FileId fileId) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    Path target = _resolve(fileId);
+    return target.resolveSibling(target.getFileName() + _UPLOAD_SUFFIX);
+  }
+
+  /**
+   * Locks an upload file for the lifetime of its channel, rejecting concurrent
+   * writers of the same upload rather than interleaving their chunks.
+   */
+  private static FileLock _lockUpload(FileChannel channel, FileId fileId)
+    throws IOException {
+    try {
+      FileLock lock = channel.tryLock();
+      if (lock != null) {
+        return lock;
+      }
+    } catch (OverlappingFileLockException exc) {
+      // held by another thread of this process
+    }
+    throw new FileStorageException(
+      "Concurrent chunk upload of blob: " + fileId.value()
+    );
+  }
+
+  /**
+   * Opens a staging file for direct I/O, or returns null if the file system refuses it,
+   * in which case direct writes are given up for the lifetime of the store.
+   */
+  private FileChannel _openDirect(Path staging) {
+    if (_directUnsupported) {
+      return null;
+    }
+    if (AlignedBlockChannel.DIRECT_OPTION == null) {
+      _directUnsupported = true;
+      log.warn(
+        "Direct I/O unavailable in this runtime, falling back to buffered writes"
+      );
+      return null;
+    }
+    try {
+      return FileChannel.open(
+        staging,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE,
+        AlignedBlockChannel.DIRECT_OPTION
+      );
+    } catch (IOException | UnsupportedOperationException exc) {
+      _directUnsupported = true;
+      log.warn(
+        "Direct I/O unsupported in {}, falling back to buffered writes",
+        _root,
+        exc
+      );
+      return null;
+    }
+  }
+
+  /**
+   * Extends a fresh staging file to the blob's final length before it is written.
+   * The JDK offers no {@code fallocate}, so the extension is sparse: free space is checked
+   * up front, so an upload that cannot fit fails before any of it is written, and the
+   * file reaches its final length in a single metadata update instead of growing with
+   * every write.
+   */
+  private static void _preallocate(FileChannel channel, Path staging, long size)
+    throws IOException {
+    long usable = Files.getFileStore(staging).getUsableSpace();
+    if (usable < size) {
+      throw new FileStorageException(
+        "Not enough space for blob of " +
+          size +
+          " bytes, " +
+          usable +
+          " bytes usable"
+      );
+    }
+    channel.write(ByteBuffer.allocate(1), size - 1);
+  }
+
+  /**
+   * Applies the reader to the referenced file, falling back to the file's canonical
+   * location when it was moved there by re-sharding after the reference was issued.
+   */
+  private <T> Optional<T> _find(Path file, PathReader<T> reader)
+    throws IOException {
+    try {
+      return Optional.of(reader.read(file));
+    } catch (NoSuchFileException exc) {
+      Path canonical = canonicalPath(file.getFileName().toString());
+      if (canonical.equals(file)) {
+        return Optional.empty();
+      }
+      try {
+        return Optional.of(reader.read(canonical));
+      } catch (NoSuchFileException again) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  private Blob _read(Path file) throws IOException {
+    if (_readMode == ReadMode.MAPPED) {
+      return _loadMapped(file);
+    }
+    return new Blob(Files.readAllBytes(file));
+  }
+
+  private BlobStream _openStream(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return new BlobStream(
+        channel,
+        channel.size(),
+        _stablePaths ? file : null
+      );
+    } catch (RuntimeException exc) {
+      channel.close();
+      throw exc;
+    }
+  }
+
+  private DeleteOutcome _deleteOutcome(PathReference path) {
+    try {
+      return _remove(_locate(path))
+        ? DeleteOutcome.DELETED
+        : DeleteOutcome.NOT_FOUND;
+    } catch (IOException | RuntimeException exc) {
+      log.warn("Failed to delete blob {}", path.value(), exc);
+      return DeleteOutcome.FAILED;
+    }
+  }
+
+  /**
+   * Removes a blob from the referenced path or, failing that, its canonical location,
+   * and drops the mappings of both.
+   */
+  private boolean _remove(Path file) throws IOException {
+    Path canonical = canonicalPath(file.getFileName().toString());
+    try {
+      boolean deleted = _unlink(file);
+      if (!deleted && !canonical.equals(file)) {
+        deleted = _unlink(canonical);
+      }
+      return deleted;
+    } finally {
+      _dropMapping(file);
+      _dropMapping(canonical);
+    }
+  }
+
+  private boolean _unlink(Path file) throws IOException {
+    return _shredder == null
+      ? Files.deleteIfExists(file)
+      : _shredder.quarantine(file);
+  }
+
+  /** Returns the number of mappings kept for reuse. */
+  int mappedEntries() {
+    _mappingsLock.lock();
+    try {
+      return _mappings.size();
+    } finally {
+      _mappingsLock.unlock();
+    }
+  }
+
+  private Blob _loadMapped(Path file) throws IOException {
+    MappedByteBuffer mapping = _cachedMapping(file);
+    if (mapping == null) {
+      try (
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+      ) {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+          throw new FileStorageException(
+            "Blob too large to map: " + file.getFileName()
+          );
+        }
+        mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      _cacheMapping(file, mapping);
+      if (!Files.exists(file)) {
+        _dropMapping(file);
+      }
+    }
+    return Blob.view(mapping);
+  }
+
+  private MappedByteBuffer _cachedMapping(Path file) {
+    _mappingsLock.lock();
+    try {
+      return _mappings.get(file);
+    } finally {
+      _mappingsLock.unlock();
+    }
+  }
+
+  /** Keeps a mapping for reuse, evicting the least recently used beyond the bound. */
+  private void _cacheMapping(Path file, MappedByteBuffer mapping) {
+    if (_mappedCacheEntries == 0) {
+      return;
+    }
+    _mappingsLock.lock();
+    try {
+      _mappings.put(file, mapping);
+      Iterator<Path> eldest = _mappings.keySet().iterator();
+      while (_mappings.size() > _mappedCacheEntries) {
+        eldest.next();
+        eldest.remove();
+      }
+    } finally {
+      _mappingsLock.unlock();
+    }
+  }
+
+  private void _dropMapping(Path file) {
+    _mappingsLock.lock();
+    try {
+      _mappings.remove(file);
+    } finally {
+      _mappingsLock.unlock();
+    }
+  }
+
+  private void _copy(
+    ReadableByteChannel source,
+    WritableByteChannel target,
+    long size
+  ) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(_bufferSize, size));
+    long written = 0;
+    while (source.read(buffer) >= 0) {
+      if (written + buffer.position() > size) {
+        throw new FileStorageException(
+          "Blob exceeds declared size of " + size + " bytes"
+        );
+      }
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        written += target.write(buffer);
+      }
+      buffer.clear();
+    }
+    if (written != size) {
+      throw new FileStorageException(
+        "Blob truncated: expected " + size + " bytes, got " + written
+      );
+    }
+  }
+
+  private Path _resolve(FileId fileId) {
+    Path target = canonicalPath(fileId.value());
+    if (
+      !target.startsWith(_root) ||
+      isQuarantined(target) ||
+      _root.relativize(target).getNameCount() != _fanoutLevels + 1 ||
+      !target.getFileName().toString().equals(fileId.value())
+    ) {
+      throw new FileStorageException(
+        "Invalid file identifier for local storage: " + fileId.value()
+      );
+    }
+    return target;
+  }
+
+  private Path _locate(PathReference path) {
+    Objects.requireNonNull(path, "path must not be null");
+    if (!path.isLocal()) {
+      throw new FileStorageException(
+        "Not a local blob reference: " + path.value()
+      );
+    }
+    Path file = Path.of(path.value()).normalize();
+    if (!file.startsWith(_root) || isQuarantined(file)) {
+      throw new FileStorageException(
+        "Blob reference outside of storage directory: " + path.value()
+      );
+    }
+    return file;
+  }
+
+  private static int _blockSizeOf(Path directory) {
+    try {
+      long blockSize = Files.getFileStore(directory).getBlockSize();
+      if (blockSize > 0 && blockSize <= _MAX_BLOCK_SIZE) {
+        return (int) blockSize;
+      }
+    } catch (IOException | UnsupportedOperationException exc) {
+      log.debug("Block size of {} unknown", directory, exc);
+    }
+    return _DEFAULT_BLOCK_SIZE;
+  }
+
+  /**
+   * Returns a writer of the blob contents. With a checksum, the blob is written in
+   * buffer-sized slices, each checksummed right before it is written.
+   */
+  private ChannelWriter _writerOf(Blob data, Checksum checksum) {
+    Objects.requireNonNull(data, "data must not be null");
+    ByteBuffer source = data.getBuffer();
+    if (checksum == null) {
+      return channel -> {
+        while (source.hasRemaining()) {
+          channel.write(source);
+        }
+      };
+    }
+    return channel -> {
+      while (source.hasRemaining()) {
+        int length = Math.min(_bufferSize, source.remaining());
+        ByteBuffer slice = source.slice(source.position(), length);
+        checksum.update(slice.duplicate());
+        while (slice.hasRemaining()) {
+          channel.write(slice);
+        }
+        source.position(source.position() + length);
+      }
+    };
+  }
+
+  private static void _closeQuietly(FileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException exc) {
+      log.debug("Failed to close staging channel", exc);
+    }
+  }
+
+  private static void _deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException exc) {
+      log.warn("Failed to remove staging file {}", file.getFileName(), exc);
+    }
+  }
+
+  /**
+   * A blob written to its staging file, with the channel still open for forcing.
+   *
+   * @param staging the staging file holding the contents
+   * @param target  the final location of the blob
+   * @param channel the open write channel of the staging file
+   */
+  record StagedBlob(Path staging, Path target, FileChannel channel) {}
+
+  /** Reads a blob located at a path. */
+  @FunctionalInterface
+  private interface PathReader<T> {
+    T read(Path file) throws IOException;
+  }
+
+  /** Writes blob contents into an open staging channel. */
+  @FunctionalInterface
+  private interface ChannelWriter {
+    void write(WritableByteChannel channel) throws IOException;
+  }
+}
@@ -0,0 +1,109 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the local file system blob store ({@code cinder.storage.local.*}).
+ *
+ * @param directory          base directory for encrypted blobs
+ * @param fanoutLevels       number of hex fan-out directory levels blobs are sharded into (0 = flat)
+ * @param bufferSize         size of the transfer buffer used per streamed read/write
+ * @param readMode           how {@code load()} materializes blobs
+ * @param mappedCacheEntries maximum number of memory mappings kept for reuse in {@link ReadMode#MAPPED} mode
+ * @param deleteParallelism  maximum number of threads deleting blobs concurrently in bulk deletes
+ * @param writeMode          how saved blobs are written to disk
+ * @param stablePaths        whether blobs are guaranteed to stay at their path while they are
+ *                           downloaded, nothing deleting or moving them meanwhile; only then
+ *                           may downloads reopen a blob by name, e.g. for container sendfile.
+ *                           Ignored when deleted blobs are shredded
+ */
+@ConfigurationProperties(prefix = "cinder.storage.local")
+public record LocalFileStoreProperties(
+  String directory,
+  @DefaultValue("2") int fanoutLevels,
+  @DefaultValue("64KB") DataSize bufferSize,
+  @DefaultValue("HEAP") ReadMode readMode,
+  @DefaultValue("1024") int mappedCacheEntries,
+  @DefaultValue("8") int deleteParallelism,
+  @DefaultValue("BUFFERED") WriteMode writeMode,
+  @DefaultValue("false") boolean stablePaths
+) {
+  public LocalFileStoreProperties {
+    if (directory == null || directory.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.directory must not be blank"
+      );
+    }
+    if (fanoutLevels < 0 || fanoutLevels > PathReference.FANOUT_MAX_LEVELS) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.fanout-levels must be between 0 and " +
+          PathReference.FANOUT_MAX_LEVELS
+      );
+    }
+    Objects.requireNonNull(bufferSize, "bufferSize must not be null");
+    long bytes = bufferSize.toBytes();
+    if (bytes < 1 || bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.buffer-size out of range: " + bufferSize
+      );
+    }
+    Objects.requireNonNull(readMode, "readMode must not be null");
+    if (mappedCacheEntries < 0) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.mapped-cache-entries cannot be negative"
+      );
+    }
+    if (deleteParallelism < 1) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.delete-parallelism must be positive"
+      );
+    }
+    Objects.requireNonNull(writeMode, "writeMode must not be null");
+  }
+
+  /** Blob read mode of {@code load()} */
+  public enum ReadMode {
+    /** Blob contents are read into a fresh heap array on every load. */
+    HEAP,
+    /**
+     * Blobs are served as read-only views over memory-mapped files; mappings are
+     * reused across loads, leaving caching of the contents to the OS page cache.
+     */
+    MAPPED,
+  }
+
+  /** Blob write mode of {@code save()} */
+  public enum WriteMode {
+    /** Blobs are written sequentially through the page cache, growing the file as they go. */
+    BUFFERED,
+    /**
+     * The staging file is extended to the blob's declared size before it is written,
+     * after checking the file system has room for it.
+     */
+    PREALLOCATE,
+    /**
+     * Blobs are written with direct I/O in aligned blocks of {@code buffer-size},
+     * bypassing the page cache, so large uploads do not evict blobs being downloaded.
+     * Falls back to {@link #BUFFERED} on file systems without direct I/O support.
+     */
+    DIRECT,
+  }
+}
@@ -0,0 +1,189 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.exception.FileStorageException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+/**
+ * Online migration of a {@link LocalFileStoreAdapter} directory to its current fan-out layout.
+ *
+ * <p>Every blob not located at its canonical path (e.g. in a flat directory written before
+ * sharding, or under a different number of levels) is moved into place, unless a blob of the
+ * same name is already there, then directories left empty below the current layout depth are
+ * removed. The store keeps serving during the migration: a blob is always at its old or
+ * canonical location, and the adapter looks up both.
+ *
+ * <p>As an {@link ApplicationRunner} the migration runs once on a background thread after startup.
+ */
+@Slf4j
+public class LocalFileStoreResharder implements ApplicationRunner {
+
+  private final LocalFileStoreAdapter _store;
+
+  public LocalFileStoreResharder(LocalFileStoreAdapter store) {
+    _store = Objects.requireNonNull(store, "store must not be null");
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    Thread.ofVirtual()
+      .name("cinder-reshard")
+      .start(() -> {
+        try {
+          reshard();
+        } catch (RuntimeException exc) {
+          log.error("Blob re-sharding failed", exc);
+        }
+      });
+  }
+
+  /**
+   * Moves all blobs to their canonical fan-out location.
+   *
+   * @return the number of blobs moved
+   */
+  public int reshard() {
+    Path root = _store.getRoot();
+    log.info(
+      "Re-sharding blobs in {} to {} fan-out level(s)",
+      root,
+      _store.getFanoutLevels()
+    );
+    int moved = 0;
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (_move(file)) {
+          moved++;
+        }
+      }
+    } catch (IOException | UncheckedIOException exc) {
+      throw new FileStorageException("Failed to walk " + root, exc);
+    }
+    _pruneEmptyDirectories(root);
+    log.info("Re-sharding finished, {} blob(s) moved", moved);
+    return moved;
+  }
+
+  private boolean _move(Path file) {
+    if (
+      !Files.isRegularFile(file) ||
+      LocalFileStoreAdapter.isStagingFile(file) ||
+      _store.isQuarantined(file)
+    ) {
+      return false;
+    }
+    Path target = _store.canonicalPath(file.getFileName().toString());
+    if (target.equals(file)) {
+      return false;
+    }
+    try {
+      Files.createDirectories(target.getParent());
+      _relocate(file, target);
+      return true;
+    } catch (FileAlreadyExistsException exc) {
+      log.warn("Blob {} exists in both layouts, keeping canonical", target);
+    } catch (NoSuchFileException exc) {
+      log.debug("Blob {} removed during re-sharding", file.getFileName());
+    } catch (IOException exc) {
+      log.warn("Failed to move blob {}", file, exc);
+    }
+    return false;
+  }
+
+  /**
+   * Moves a blob without replacing one already at the target: the blob is hard-linked at the
+   * target, which fails if it exists, then unlinked from its old location. A plain
+   * {@code ATOMIC_MOVE} would silently replace the target on POSIX file systems.
+   */
+  private static void _relocate(Path file, Path target) throws IOException {
+    try {
+      Files.createLink(target, file);
+    } catch (UnsupportedOperationException exc) {
+      if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+        throw new FileAlreadyExistsException(target.toString());
+      }
+      Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+      return;
+    }
+    try {
+      Files.delete(file);
+    } catch (NoSuchFileException exc) {
+      // deleted through its old reference while linked at both locations
+      Files.deleteIfExists(target);
+      throw exc;
+    }
+  }
+
+  private void _pruneEmptyDirectories(Path root) {
+    int keepDepth = _store.getFanoutLevels();
+    try {
+      Files.walkFileTree(
+        root,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult preVisitDirectory(
+            Path dir,
+            BasicFileAttributes attributes
+          ) {
+            return _store.isQuarantined(dir)
+              ? FileVisitResult.SKIP_SUBTREE
+              : FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            if (
+              !dir.equals(root) &&
+              root.relativize(dir).getNameCount() > keepDepth
+            ) {
+              try {
+                Files.delete(dir);
+              } catch (DirectoryNotEmptyException ignored) {
+                log.debug("Keeping non-empty directory {}", dir);
+              } catch (IOException deleteExc) {
+                log.warn("Failed to remove directory {}", dir, deleteExc);
+              }
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            return FileVisitResult.CONTINUE;
+          }
+        }
+      );
+    } catch (IOException exc) {
+      log.warn("Failed to prune directories in {}", root, exc);
+    }
+  }
+}
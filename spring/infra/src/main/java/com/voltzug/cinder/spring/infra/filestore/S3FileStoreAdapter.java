@@ -0,0 +1,890 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.exception.RangeNotSatisfiableException;
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * S3-compatible object store adapter for {@link StreamingFileStorePort}.
+ *
+ * <p>Talks to the S3 REST API directly through the JDK {@link HttpClient}, signing every
+ * request with AWS Signature Version 4. Blobs larger than {@code cinder.storage.s3.part-size}
+ * are uploaded as multipart uploads whose parts are sent concurrently, and downloaded with
+ * concurrent ranged GETs, up to {@code cinder.storage.s3.parallelism} parts at a time.
+ * Streamed transfers keep at most that many parts in memory.
+ *
+ * <p>Blobs are referenced as {@code s3://bucket/key}, the key being the configured prefix
+ * followed by the {@link FileId}.
+ */
+@Slf4j
+public class S3FileStoreAdapter implements StreamingFileStorePort, AutoCloseable {
+
+  private static final String _SCHEME = "s3://";
+  private static final int _DELETE_BATCH_SIZE = 1000;
+  private static final Pattern _UPLOAD_ID = Pattern.compile(
+    "<UploadId>([^<]+)</UploadId>"
+  );
+  private static final Pattern _ERROR_CODE = Pattern.compile(
+    "<Code>([^<]+)</Code>"
+  );
+  private static final Pattern _DELETE_ERROR = Pattern.compile(
+    "<Error>\\s*<Key>([^<]*)</Key>.*?<Code>([^<]*)</Code>.*?</Error>",
+    Pattern.DOTALL
+  );
+  private static final Pattern _CONTENT_RANGE = Pattern.compile(
+    "bytes \\d+-\\d+/(\\d+)"
+  );
+  private static final Pattern _UNSATISFIED_RANGE = Pattern.compile(
+    "bytes \\*/(\\d+)"
+  );
+
+  private final HttpClient _http;
+  private final ExecutorService _executor;
+  private final S3RequestSigner _signer;
+  private final URI _endpoint;
+  private final boolean _pathStyle;
+  private final String _bucket;
+  private final String _keyPrefix;
+  private final int _partSize;
+  private final int _parallelism;
+  private final Duration _requestTimeout;
+
+  public S3FileStoreAdapter(S3FileStoreProperties properties) {
+    Objects.requireNonNull(properties, "properties must not be null");
+    _signer = new S3RequestSigner(
+      properties.accessKey(),
+      properties.secretKey(),
+      properties.region()
+    );
+    _endpoint = properties.endpoint();
+    _pathStyle = properties.pathStyle();
+    _bucket = properties.bucket();
+    _keyPrefix = properties.keyPrefix();
+    _partSize = (int) properties.partSize().toBytes();
+    _parallelism = properties.parallelism();
+    _requestTimeout = properties.requestTimeout();
+    _executor = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("cinder-s3-", 0).factory()
+    );
+    _http = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(_requestTimeout)
+      .build();
+  }
+
+  /** Returns the bucket this store writes to. */
+  public String getBucket() {
+    return _bucket;
+  }
+
+  /** Returns the reference a blob saved under the given file identifier has in this store. */
+  public PathReference referenceOf(FileId fileId) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    return PathReference.from(_SCHEME + _bucket + "/" + _keyOf(fileId));
+  }
+
+  @Override
+  public PathReference save(FileId fileId, Blob data) {
+    PartReader parts = _partsOf(data, null);
+    return _upload(fileId, data.size(), parts);
+  }
+
+  /** Checksums the parts in order as they are sliced off for upload. */
+  @Override
+  public StoredBlob saveChecksummed(FileId fileId, Blob data) {
+    CRC32C checksum = new CRC32C();
+    PartReader parts = _partsOf(data, checksum);
+    PathReference path = _upload(fileId, data.size(), parts);
+    return new StoredBlob(path, new BlobChecksum((int) checksum.getValue()));
+  }
+
+  @Override
+  public PathReference save(
+    FileId fileId,
+    ReadableByteChannel source,
+    long size
+  ) {
+    Objects.requireNonNull(source, "source must not be null");
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be positive, got " + size);
+    }
+    AtomicLong consumed = new AtomicLong();
+    return _upload(fileId, size, length -> {
+      ByteBuffer part = ByteBuffer.allocate(length);
+      while (part.hasRemaining()) {
+        if (source.read(part) < 0) {
+          throw new FileStorageException(
+            "Blob truncated: expected " +
+              size +
+              " bytes, got " +
+              (consumed.get() + part.position())
+          );
+        }
+      }
+      if (
+        consumed.addAndGet(length) == size &&
+        source.read(ByteBuffer.allocate(1)) >= 0
+      ) {
+        throw new FileStorageException(
+          "Blob exceeds declared size of " + size + " bytes"
+        );
+      }
+      return part.flip();
+    });
+  }
+
+  @Override
+  public Optional<Blob> load(PathReference path) {
+    String key = _keyOf(path);
+    try {
+      Optional<Chunk> first = _getRange(key, 0, _partSize);
+      if (first.isEmpty()) {
+        return Optional.empty();
+      }
+      long size = first.get().totalSize();
+      byte[] head = first.get().data();
+      if (head.length == size) {
+        return Optional.of(new Blob(head));
+      }
+      if (size > Integer.MAX_VALUE) {
+        throw new FileStorageException(
+          "Blob too large to load into memory: " + path.value()
+        );
+      }
+      byte[] data = new byte[(int) size];
+      System.arraycopy(head, 0, data, 0, head.length);
+      int parts = _partCount(size - head.length);
+      _inParallel(parts, index -> {
+        long offset = head.length + (long) index * _partSize;
+        return () -> {
+          byte[] chunk = _getRange(key, offset, _partSize)
+            .orElseThrow(() -> _vanished(key))
+            .data();
+          System.arraycopy(chunk, 0, data, (int) offset, chunk.length);
+          return null;
+        };
+      });
+      return Optional.of(new Blob(data));
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to load blob: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  @Override
+  public Optional<BlobStream> open(PathReference path) {
+    String key = _keyOf(path);
+    try {
+      return _getRange(key, 0, _partSize).map(first ->
+        new BlobStream(
+          new RangeChannel(
+            key,
+            ByteBuffer.wrap(first.data()),
+            first.data().length,
+            first.totalSize()
+          ),
+          first.totalSize()
+        )
+      );
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to open blob: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  /** Fetches only the requested range, prefetching its parts like {@link #open(PathReference)}. */
+  @Override
+  public Optional<BlobRange> open(
+    PathReference path,
+    long offset,
+    long length
+  ) {
+    if (offset < 0 || length < 1) {
+      throw new IllegalArgumentException(
+        "Invalid range: offset " + offset + ", length " + length
+      );
+    }
+    String key = _keyOf(path);
+    try {
+      Optional<Chunk> first = _getRange(
+        key,
+        offset,
+        (int) Math.min(_partSize, length)
+      );
+      if (first.isEmpty()) {
+        return Optional.empty();
+      }
+      long size = first.get().totalSize();
+      if (offset >= size) {
+        throw new RangeNotSatisfiableException(offset, size);
+      }
+      long end = offset + Math.min(length, size - offset);
+      byte[] data = first.get().data();
+      // a server ignoring the range returns the whole object
+      ByteBuffer head = data.length == size && offset > 0
+        ? ByteBuffer.wrap(data, (int) offset, (int) (end - offset)).slice()
+        : ByteBuffer.wrap(data, 0, (int) Math.min(data.length, end - offset));
+      return Optional.of(
+        new BlobRange(
+          new BlobStream(
+            new RangeChannel(key, head, offset + head.remaining(), end),
+            end - offset
+          ),
+          offset,
+          size
+        )
+      );
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to open blob range: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  @Override
+  public void delete(PathReference path) {
+    String key = _keyOf(path);
+    try {
+      HttpResponse<byte[]> response = _send("DELETE", key, null, Map.of(), null);
+      if (response.statusCode() == 404) {
+        log.debug("Blob already absent: {}", key);
+        return;
+      }
+      _expect(response, 200, 204);
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to delete blob: " + path.value(),
+        exc
+      );
+    }
+  }
+
+  /**
+   * Deletes the blobs with multi-object delete requests of up to 1000 keys each, sent
+   * concurrently. S3 reports keys that did not exist as deleted, so this implementation
+   * never returns {@link DeleteOutcome#NOT_FOUND}.
+   */
+  @Override
+  public Map<PathReference, DeleteOutcome> deleteAll(
+    Collection<PathReference> paths
+  ) {
+    Objects.requireNonNull(paths, "paths must not be null");
+    Map<PathReference, DeleteOutcome> outcomes = new LinkedHashMap<>();
+    Map<String, PathReference> byKey = new LinkedHashMap<>();
+    for (PathReference path : paths) {
+      outcomes.put(path, DeleteOutcome.FAILED);
+      try {
+        byKey.put(_keyOf(path), path);
+      } catch (FileStorageException exc) {
+        log.warn("Cannot delete blob: {}", exc.getMessage());
+      }
+    }
+    List<String> keys = new ArrayList<>(byKey.keySet());
+    int batches = (keys.size() + _DELETE_BATCH_SIZE - 1) / _DELETE_BATCH_SIZE;
+    try {
+      List<Map<String, DeleteOutcome>> results = _inParallel(batches, index -> {
+        List<String> batch = keys.subList(
+          index * _DELETE_BATCH_SIZE,
+          Math.min(keys.size(), (index + 1) * _DELETE_BATCH_SIZE)
+        );
+        return () -> _deleteBatch(batch);
+      });
+      for (Map<String, DeleteOutcome> result : results) {
+        result.forEach((key, outcome) -> outcomes.put(byKey.get(key), outcome));
+      }
+    } catch (IOException exc) {
+      log.warn("Bulk delete in bucket {} failed", _bucket, exc);
+    }
+    return outcomes;
+  }
+
+  /**
+   * Stops all transfers in progress.
+   */
+  @Override
+  public void close() {
+    _executor.shutdownNow();
+    _http.close();
+  }
+
+  /**
+   * Returns a reader slicing consecutive parts off the blob without copying them,
+   * updating the checksum, if any, with each part.
+   */
+  private static PartReader _partsOf(Blob data, Checksum checksum) {
+    Objects.requireNonNull(data, "data must not be null");
+    ByteBuffer source = data.getBuffer();
+    return length -> {
+      ByteBuffer part = source.slice(source.position(), length);
+      source.position(source.position() + length);
+      if (checksum != null) {
+        checksum.update(part.duplicate());
+      }
+      return part;
+    };
+  }
+
+  private PathReference _upload(FileId fileId, long size, PartReader reader) {
+    PathReference reference = referenceOf(fileId);
+    String key = _keyOf(fileId);
+    try {
+      if (size <= _partSize) {
+        _expect(_send("PUT", key, null, Map.of(), reader.next((int) size)), 200);
+      } else {
+        _uploadMultipart(key, size, reader);
+      }
+      return reference;
+    } catch (IOException exc) {
+      throw new FileStorageException(
+        "Failed to store blob: " + fileId.value(),
+        exc
+      );
+    }
+  }
+
+  private void _uploadMultipart(String key, long size, PartReader reader)
+    throws IOException {
+    String uploadId = _initiateUpload(key);
+    try {
+      List<String> etags = _inParallel(_partCount(size), index -> {
+        int length = (int) Math.min(_partSize, size - (long) index * _partSize);
+        ByteBuffer part = reader.next(length);
+        String query = "partNumber=" + (index + 1) + "&uploadId=" + uploadId;
+        return () -> {
+          HttpResponse<byte[]> response = _send("PUT", key, query, Map.of(), part);
+          _expect(response, 200);
+          return response
+            .headers()
+            .firstValue("ETag")
+            .orElseThrow(() ->
+              new FileStorageException("Missing ETag of part " + (index + 1))
+            );
+        };
+      });
+      _completeUpload(key, uploadId, etags);
+    } catch (IOException | RuntimeException exc) {
+      _abortUpload(key, uploadId);
+      throw exc;
+    }
+  }
+
+  /**
+   * Sends one quiet multi-object delete request. A failed request fails all of its keys
+   * instead of the whole bulk delete.
+   */
+  private Map<String, DeleteOutcome> _deleteBatch(List<String> keys) {
+    Map<String, DeleteOutcome> outcomes = new HashMap<>();
+    StringBuilder body = new StringBuilder("<Delete><Quiet>true</Quiet>");
+    for (String key : keys) {
+      outcomes.put(key, DeleteOutcome.DELETED);
+      body
+        .append("<Object><Key>")
+        .append(_escapeXml(key))
+        .append("</Key></Object>");
+    }
+    body.append("</Delete>");
+    byte[] request = body.toString().getBytes(StandardCharsets.UTF_8);
+    try {
+      HttpResponse<byte[]> response = _send(
+        "POST",
+        _bucketUri("delete"),
+        Map.of(
+          "content-md5",
+          Base64.getEncoder().encodeToString(_md5(request)),
+          "content-type",
+          "application/xml"
+        ),
+        ByteBuffer.wrap(request)
+      );
+      _expect(response, 200);
+      Matcher errors = _DELETE_ERROR.matcher(_text(response));
+      while (errors.find()) {
+        String key = _unescapeXml(errors.group(1));
+        log.warn("Failed to delete blob {}: {}", key, errors.group(2));
+        outcomes.put(key, DeleteOutcome.FAILED);
+      }
+    } catch (IOException | RuntimeException exc) {
+      log.warn("Bulk delete of {} blobs failed", keys.size(), exc);
+      outcomes.replaceAll((key, outcome) -> DeleteOutcome.FAILED);
+    }
+    return outcomes;
+  }
+
+  private String _initiateUpload(String key) throws IOException {
+    HttpResponse<byte[]> response = _send("POST", key, "uploads", Map.of(), null);
+    _expect(response, 200);
+    Matcher matcher = _UPLOAD_ID.matcher(_text(response));
+    if (!matcher.find()) {
+      throw new FileStorageException("Missing UploadId for " + key);
+    }
+    return S3RequestSigner.uriEncode(matcher.group(1), false);
+  }
+
+  private void _completeUpload(String key, String uploadId, List<String> etags)
+    throws IOException {
+    StringBuilder body = new StringBuilder("<CompleteMultipartUpload>");
+    for (int index = 0; index < etags.size(); index++) {
+      body
+        .append("<Part><PartNumber>")
+        .append(index + 1)
+        .append("</PartNumber><ETag>")
+        .append(_escapeXml(etags.get(index)))
+        .append("</ETag></Part>");
+    }
+    body.append("</CompleteMultipartUpload>");
+    HttpResponse<byte[]> response = _send(
+      "POST",
+      key,
+      "uploadId=" + uploadId,
+      Map.of("content-type", "application/xml"),
+      ByteBuffer.wrap(body.toString().getBytes(StandardCharsets.UTF_8))
+    );
+    _expect(response, 200);
+    if (_text(response).contains("<Error>")) {
+      throw new FileStorageException(
+        "Multipart upload of " + key + " failed: " + _errorCode(response)
+      );
+    }
+  }
+
+  private void _abortUpload(String key, String uploadId) {
+    try {
+      _send("DELETE", key, "uploadId=" + uploadId, Map.of(), null);
+    } catch (IOException | RuntimeException exc) {
+      log.warn("Failed to abort multipart upload of {}", key, exc);
+    }
+  }
+
+  /**
+   * Fetches up to {@code length} bytes starting at {@code offset}. A server ignoring the
+   * range returns the whole object, which is then reported as a single chunk.
+   */
+  private Optional<Chunk> _getRange(String key, long offset, int length)
+    throws IOException {
+    HttpResponse<byte[]> response = _send(
+      "GET",
+      key,
+      null,
+      Map.of("range", "bytes=" + offset + "-" + (offset + length - 1)),
+      null
+    );
+    if (response.statusCode() == 404) {
+      return Optional.empty();
+    }
+    if (response.statusCode() == 416) {
+      Matcher matcher = _UNSATISFIED_RANGE.matcher(
+        response.headers().firstValue("Content-Range").orElse("")
+      );
+      throw new RangeNotSatisfiableException(
+        offset,
+        matcher.matches() ? Long.parseLong(matcher.group(1)) : -1
+      );
+    }
+    _expect(response, 200, 206);
+    byte[] data = response.body();
+    if (response.statusCode() == 200) {
+      return Optional.of(new Chunk(data, data.length));
+    }
+    Matcher matcher = _CONTENT_RANGE.matcher(
+      response.headers().firstValue("Content-Range").orElse("")
+    );
+    if (!matcher.matches()) {
+      throw new FileStorageException("Invalid Content-Range for " + key);
+    }
+    return Optional.of(new Chunk(data, Long.parseLong(matcher.group(1))));
+  }
+
+  /**
+   * Runs {@code count} part transfers with at most {@code cinder.storage.s3.parallelism}
+   * of them in flight. Each part is prepared on the calling thread once a slot is free,
+   * bounding the memory held by prepared parts; the first failure cancels the rest.
+   */
+  private <T> List<T> _inParallel(int count, PartTask<T> task)
+    throws IOException {
+    Semaphore slots = new Semaphore(_parallelism);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Future<T>> futures = new ArrayList<>(count);
+    try {
+      for (int index = 0; index < count && failure.get() == null; index++) {
+        slots.acquire();
+        Callable<T> transfer;
+        try {
+          transfer = task.prepare(index);
+        } catch (IOException | RuntimeException exc) {
+          slots.release();
+          throw exc;
+        }
+        futures.add(
+          _executor.submit(() -> {
+            try {
+              return transfer.call();
+            } catch (Exception exc) {
+              failure.compareAndSet(null, exc);
+              throw exc;
+            } finally {
+              slots.release();
+            }
+          })
+        );
+      }
+      List<T> results = new ArrayList<>(count);
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new FileStorageException("Interrupted during S3 transfer", exc);
+    } catch (ExecutionException exc) {
+      throw _unwrap(exc.getCause());
+    } finally {
+      for (Future<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private HttpResponse<byte[]> _send(
+    String method,
+    String key,
+    String query,
+    Map<String, String> headers,
+    ByteBuffer body
+  ) throws IOException {
+    return _send(method, _objectUri(key, query), headers, body);
+  }
+
+  private HttpResponse<byte[]> _send(
+    String method,
+    URI uri,
+    Map<String, String> headers,
+    ByteBuffer body
+  ) throws IOException {
+    String payloadHash = body == null
+      ? S3RequestSigner.EMPTY_PAYLOAD_HASH
+      : S3RequestSigner.sha256Hex(body);
+    HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+      .timeout(_requestTimeout)
+      .method(method, _publisherOf(body));
+    headers.forEach(request::header);
+    _signer
+      .sign(method, uri, headers, payloadHash, Instant.now())
+      .forEach(request::header);
+    try {
+      return _http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new FileStorageException("Interrupted during S3 request", exc);
+    }
+  }
+
+  private URI _objectUri(String key, String query) {
+    String uri = _bucketBase() + "/" + S3RequestSigner.uriEncode(key, true);
+    return URI.create(query == null ? uri : uri + "?" + query);
+  }
+
+  private URI _bucketUri(String query) {
+    String base = _bucketBase();
+    return URI.create((_pathStyle ? base : base + "/") + "?" + query);
+  }
+
+  private String _bucketBase() {
+    String scheme = _endpoint.getScheme();
+    String host = S3RequestSigner.hostOf(_endpoint);
+    String base = _endpoint.getRawPath() == null
+      ? ""
+      : _endpoint.getRawPath().replaceAll("/+$", "");
+    return _pathStyle
+      ? scheme + "://" + host + base + "/" + _bucket
+      : scheme + "://" + _bucket + "." + host + base;
+  }
+
+  private String _keyOf(FileId fileId) {
+    return _keyPrefix + fileId.value();
+  }
+
+  private String _keyOf(PathReference path) {
+    Objects.requireNonNull(path, "path must not be null");
+    String prefix = _SCHEME + _bucket + "/";
+    if (!path.isCloud() || !path.value().startsWith(prefix)) {
+      throw new FileStorageException(
+        "Blob reference outside of bucket " + _bucket + ": " + path.value()
+      );
+    }
+    return path.value().substring(prefix.length());
+  }
+
+  private int _partCount(long size) {
+    return (int) ((size + _partSize - 1) / _partSize);
+  }
+
+  private static void _expect(HttpResponse<byte[]> response, int... statuses) {
+    for (int status : statuses) {
+      if (response.statusCode() == status) {
+        return;
+      }
+    }
+    throw new FileStorageException(
+      "S3 " +
+        response.request().method() +
+        " " +
+        response.uri().getRawPath() +
+        " failed with status " +
+        response.statusCode() +
+        ": " +
+        _errorCode(response)
+    );
+  }
+
+  private static String _errorCode(HttpResponse<byte[]> response) {
+    Matcher matcher = _ERROR_CODE.matcher(_text(response));
+    return matcher.find() ? matcher.group(1) : "no error code";
+  }
+
+  private static String _text(HttpResponse<byte[]> response) {
+    return new String(response.body(), StandardCharsets.UTF_8);
+  }
+
+  private static String _unescapeXml(String value) {
+    return value
+      .replace("&lt;", "<")
+      .replace("&gt;", ">")
+      .replace("&quot;", "\"")
+      .replace("&apos;", "'")
+      .replace("&amp;", "&");
+  }
+
+  private static byte[] _md5(byte[] data) {
+    try {
+      return MessageDigest.getInstance("MD5").digest(data);
+    } catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException("MD5 not available", exc);
+    }
+  }
+
+  private static String _escapeXml(String value) {
+    return value
+      .replace("&", "&amp;")
+      .replace("<", "&lt;")
+      .replace(">", "&gt;");
+  }
+
+  private static FileStorageException _vanished(String key) {
+    return new FileStorageException("Blob vanished during download: " + key);
+  }
+
+  private static IOException _unwrap(Throwable cause) {
+    if (cause instanceof IOException exc) {
+      return exc;
+    }
+    if (cause instanceof RuntimeException exc) {
+      throw exc;
+    }
+    if (cause instanceof Error err) {
+      throw err;
+    }
+    return new IOException(cause);
+  }
+
+  /**
+   * Publishes a buffer as request body without copying it, so read-only and
+   * memory-mapped blob views can be uploaded directly.
+   */
+  private static HttpRequest.BodyPublisher _publisherOf(ByteBuffer body) {
+    if (body == null || !body.hasRemaining()) {
+      return HttpRequest.BodyPublishers.noBody();
+    }
+    return HttpRequest.BodyPublishers.fromPublisher(
+      subscriber -> {
+        AtomicBoolean sent = new AtomicBoolean();
+        subscriber.onSubscribe(
+          new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+              if (n > 0 && sent.compareAndSet(false, true)) {
+                subscriber.onNext(body.duplicate());
+                subscriber.onComplete();
+              }
+            }
+
+            @Override
+            public void cancel() {
+              sent.set(true);
+            }
+          }
+        );
+      },
+      body.remaining()
+    );
+  }
+
+  /**
+   * Channel over a range of a stored object that keeps up to
+   * {@code cinder.storage.s3.parallelism} ranged GETs ahead of the reader.
+   */
+  private final class RangeChannel implements ReadableByteChannel {
+
+    private final String _key;
+    private final long _end;
+    private final Deque<Future<byte[]>> _pending = new ArrayDeque<>();
+    private ByteBuffer _current;
+    private long _nextOffset;
+    private boolean _open = true;
+
+    /**
+     * @param first      the already fetched head of the range
+     * @param nextOffset the position in the object following the head
+     * @param end        the position in the object following the range
+     */
+    private RangeChannel(
+      String key,
+      ByteBuffer first,
+      long nextOffset,
+      long end
+    ) {
+      _key = key;
+      _end = end;
+      _current = first;
+      _nextOffset = nextOffset;
+      _prefetch();
+    }
+
+    @Override
+    public int read(ByteBuffer target) throws IOException {
+      if (!_open) {
+        throw new ClosedChannelException();
+      }
+      while (!_current.hasRemaining()) {
+        if (_pending.isEmpty()) {
+          return -1;
+        }
+        _current = ByteBuffer.wrap(_await(_pending.poll()));
+        _prefetch();
+      }
+      int count = Math.min(target.remaining(), _current.remaining());
+      target.put(_current.slice(_current.position(), count));
+      _current.position(_current.position() + count);
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return _open;
+    }
+
+    @Override
+    public void close() {
+      _open = false;
+      for (Future<byte[]> future : _pending) {
+        future.cancel(true);
+      }
+      _pending.clear();
+    }
+
+    private void _prefetch() {
+      while (_pending.size() < _parallelism && _nextOffset < _end) {
+        long offset = _nextOffset;
+        int length = (int) Math.min(_partSize, _end - offset);
+        _pending.add(
+          _executor.submit(() ->
+            _getRange(_key, offset, length)
+              .orElseThrow(() -> _vanished(_key))
+              .data()
+          )
+        );
+        _nextOffset += length;
+      }
+    }
+
+    private byte[] _await(Future<byte[]> future) throws IOException {
+      try {
+        return future.get();
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+        throw new FileStorageException("Interrupted during S3 download", exc);
+      } catch (ExecutionException exc) {
+        throw _unwrap(exc.getCause());
+      }
+    }
+  }
+
+  /** A ranged read of an object along with the object's total size. */
+  private record Chunk(byte[] data, long totalSize) {}
+
+  /** Supplies the next part of a blob being uploaded. */
+  @FunctionalInterface
+  private interface PartReader {
+    ByteBuffer next(int length) throws IOException;
+  }
+
+  /** Prepares the transfer of the part with the given index. */
+  @FunctionalInterface
+  private interface PartTask<T> {
+    Callable<T> prepare(int index) throws IOException;
+  }
+}
@@ -0,0 +1,119 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the S3-compatible object store ({@code cinder.storage.s3.*}).
+ *
+ * @param endpoint       base URI of the S3 API, e.g. {@code https://s3.eu-central-1.amazonaws.com}
+ * @param region         signing region
+ * @param bucket         bucket holding the encrypted blobs
+ * @param accessKey      access key id
+ * @param secretKey      secret access key
+ * @param pathStyle      whether the bucket is addressed in the path instead of the host name
+ * @param keyPrefix      prefix prepended to every object key
+ * @param partSize       size of multipart upload parts and ranged download chunks
+ *                       (S3 rejects parts below 5MB except the last one)
+ * @param parallelism    maximum number of parts transferred concurrently per blob
+ * @param requestTimeout timeout of a single HTTP request
+ */
+@ConfigurationProperties(prefix = "cinder.storage.s3")
+public record S3FileStoreProperties(
+  URI endpoint,
+  @DefaultValue("us-east-1") String region,
+  String bucket,
+  String accessKey,
+  String secretKey,
+  @DefaultValue("true") boolean pathStyle,
+  @DefaultValue("") String keyPrefix,
+  @DefaultValue("8MB") DataSize partSize,
+  @DefaultValue("4") int parallelism,
+  @DefaultValue("30s") Duration requestTimeout
+) {
+  public S3FileStoreProperties {
+    Objects.requireNonNull(endpoint, "cinder.storage.s3.endpoint must be set");
+    if (endpoint.getHost() == null) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.endpoint must be an absolute URI with a host"
+      );
+    }
+    if (region == null || region.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.region must not be blank"
+      );
+    }
+    if (bucket == null || !bucket.matches("[\\w\\-\\.]+")) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.bucket is missing or invalid"
+      );
+    }
+    if (accessKey == null || accessKey.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.access-key must not be blank"
+      );
+    }
+    if (secretKey == null || secretKey.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.secret-key must not be blank"
+      );
+    }
+    keyPrefix = keyPrefix == null ? "" : keyPrefix;
+    Objects.requireNonNull(partSize, "partSize must not be null");
+    long bytes = partSize.toBytes();
+    if (bytes < 1 || bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.part-size out of range: " + partSize
+      );
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(
+        "cinder.storage.s3.parallelism must be positive"
+      );
+    }
+    Objects.requireNonNull(requestTimeout, "requestTimeout must not be null");
+  }
+
+  @Override
+  public String toString() {
+    return (
+      "S3FileStoreProperties[endpoint=" +
+      endpoint +
+      ", region=" +
+      region +
+      ", bucket=" +
+      bucket +
+      ", accessKey=" +
+      accessKey +
+      ", secretKey=***, pathStyle=" +
+      pathStyle +
+      ", keyPrefix=" +
+      keyPrefix +
+      ", partSize=" +
+      partSize +
+      ", parallelism=" +
+      parallelism +
+      ", requestTimeout=" +
+      requestTimeout +
+      "]"
+    );
+  }
+}
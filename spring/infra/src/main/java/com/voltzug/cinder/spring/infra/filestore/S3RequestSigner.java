@@ -0,0 +1,224 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AWS Signature Version 4 signer for S3 requests.
+ *
+ * <p>Request URIs must already be encoded with {@link #uriEncode(String, boolean)}; they
+ * are signed exactly as they are sent.
+ */
+final class S3RequestSigner {
+
+  private static final String _ALGORITHM = "AWS4-HMAC-SHA256";
+  private static final String _SERVICE = "s3";
+  private static final String _HMAC = "HmacSHA256";
+  private static final DateTimeFormatter _DATE_TIME = DateTimeFormatter.ofPattern(
+    "yyyyMMdd'T'HHmmss'Z'"
+  ).withZone(ZoneOffset.UTC);
+  private static final HexFormat _HEX = HexFormat.of();
+
+  static final String EMPTY_PAYLOAD_HASH = sha256Hex(ByteBuffer.allocate(0));
+
+  private final String _accessKey;
+  private final byte[] _secretKey;
+  private final String _region;
+
+  S3RequestSigner(String accessKey, String secretKey, String region) {
+    _accessKey = Objects.requireNonNull(accessKey, "accessKey must not be null");
+    _secretKey = ("AWS4" +
+      Objects.requireNonNull(secretKey, "secretKey must not be null")).getBytes(
+      StandardCharsets.UTF_8
+    );
+    _region = Objects.requireNonNull(region, "region must not be null");
+  }
+
+  /**
+   * Signs a request.
+   *
+   * @param method      the HTTP method
+   * @param uri         the encoded request URI
+   * @param headers     additional headers to sign (the {@code host} header is always signed)
+   * @param payloadHash hex SHA-256 of the request body
+   * @param now         the signing time
+   * @return the headers to add to the request, including {@code authorization}
+   */
+  Map<String, String> sign(
+    String method,
+    URI uri,
+    Map<String, String> headers,
+    String payloadHash,
+    Instant now
+  ) {
+    String dateTime = _DATE_TIME.format(now);
+    String scope =
+      dateTime.substring(0, 8) +
+      "/" +
+      _region +
+      "/" +
+      _SERVICE +
+      "/aws4_request";
+
+    Map<String, String> signed = new TreeMap<>();
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      signed.put(
+        header.getKey().toLowerCase(Locale.ROOT),
+        header.getValue().trim()
+      );
+    }
+    signed.put("host", hostOf(uri));
+    signed.put("x-amz-content-sha256", payloadHash);
+    signed.put("x-amz-date", dateTime);
+
+    StringBuilder canonicalHeaders = new StringBuilder();
+    for (Map.Entry<String, String> header : signed.entrySet()) {
+      canonicalHeaders
+        .append(header.getKey())
+        .append(':')
+        .append(header.getValue())
+        .append('\n');
+    }
+    String signedHeaders = String.join(";", signed.keySet());
+    String canonicalRequest = String.join(
+      "\n",
+      method,
+      uri.getRawPath() == null || uri.getRawPath().isEmpty()
+        ? "/"
+        : uri.getRawPath(),
+      _canonicalQuery(uri.getRawQuery()),
+      canonicalHeaders.toString(),
+      signedHeaders,
+      payloadHash
+    );
+    String stringToSign = String.join(
+      "\n",
+      _ALGORITHM,
+      dateTime,
+      scope,
+      sha256Hex(
+        ByteBuffer.wrap(canonicalRequest.getBytes(StandardCharsets.UTF_8))
+      )
+    );
+
+    byte[] key = _hmac(_secretKey, dateTime.substring(0, 8));
+    key = _hmac(key, _region);
+    key = _hmac(key, _SERVICE);
+    key = _hmac(key, "aws4_request");
+    String signature = _HEX.formatHex(_hmac(key, stringToSign));
+
+    Map<String, String> result = new LinkedHashMap<>();
+    result.put("x-amz-content-sha256", payloadHash);
+    result.put("x-amz-date", dateTime);
+    result.put(
+      "authorization",
+      _ALGORITHM +
+        " Credential=" +
+        _accessKey +
+        "/" +
+        scope +
+        ",SignedHeaders=" +
+        signedHeaders +
+        ",Signature=" +
+        signature
+    );
+    return result;
+  }
+
+  /** Returns the {@code host} header value of a request URI. */
+  static String hostOf(URI uri) {
+    return uri.getPort() == -1
+      ? uri.getHost()
+      : uri.getHost() + ":" + uri.getPort();
+  }
+
+  /**
+   * Percent-encodes a value as SigV4 requires: everything except unreserved characters,
+   * and optionally except {@code /} (for object key paths).
+   */
+  static String uriEncode(String value, boolean keepSlash) {
+    StringBuilder encoded = new StringBuilder(value.length());
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xff);
+      if (
+        (c >= 'A' && c <= 'Z') ||
+        (c >= 'a' && c <= 'z') ||
+        (c >= '0' && c <= '9') ||
+        c == '-' ||
+        c == '_' ||
+        c == '.' ||
+        c == '~' ||
+        (keepSlash && c == '/')
+      ) {
+        encoded.append(c);
+      } else {
+        encoded.append('%').append(_HEX.toHexDigits(b).toUpperCase(Locale.ROOT));
+      }
+    }
+    return encoded.toString();
+  }
+
+  /** Returns the hex SHA-256 of the remaining bytes of a buffer, without consuming them. */
+  static String sha256Hex(ByteBuffer data) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(data.duplicate());
+      return _HEX.formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException("SHA-256 not available", exc);
+    }
+  }
+
+  private static String _canonicalQuery(String rawQuery) {
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return "";
+    }
+    List<String> parameters = new ArrayList<>();
+    for (String parameter : rawQuery.split("&")) {
+      parameters.add(parameter.contains("=") ? parameter : parameter + "=");
+    }
+    parameters.sort(null);
+    return String.join("&", parameters);
+  }
+
+  private static byte[] _hmac(byte[] key, String data) {
+    try {
+      Mac mac = Mac.getInstance(_HMAC);
+      mac.init(new SecretKeySpec(key, _HMAC));
+      return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException exc) {
+      throw new IllegalStateException("HmacSHA256 not available", exc);
+    }
+  }
+}
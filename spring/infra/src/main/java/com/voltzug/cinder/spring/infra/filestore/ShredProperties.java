@@ -0,0 +1,51 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of secure shredding of deleted local blobs ({@code cinder.storage.local.shred.*}).
+ *
+ * @param enabled whether deleted blobs are overwritten before they are unlinked
+ * @param rate    overwrite I/O budget per second, shared by all blobs being shredded
+ * @param delay   time a deleted blob stays quarantined before it is overwritten, letting
+ *                reads that opened it before the delete finish
+ */
+@ConfigurationProperties(prefix = "cinder.storage.local.shred")
+public record ShredProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("8MB") DataSize rate,
+  @DefaultValue("60s") Duration delay
+) {
+  public ShredProperties {
+    Objects.requireNonNull(rate, "rate must not be null");
+    if (rate.toBytes() < 1) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.shred.rate must be positive"
+      );
+    }
+    Objects.requireNonNull(delay, "delay must not be null");
+    if (delay.isNegative()) {
+      throw new IllegalArgumentException(
+        "cinder.storage.local.shred.delay cannot be negative"
+      );
+    }
+  }
+}
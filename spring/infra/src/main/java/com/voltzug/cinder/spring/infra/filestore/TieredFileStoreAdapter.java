@@ -0,0 +1,296 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.port.out.ChunkedFileStorePort;
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier {@link StreamingFileStorePort}: a hot local tier in front of a cold S3 tier.
+ *
+ * <p>Blobs, including chunked uploads, are always written to the local tier, so
+ * uploads and the common download-shortly-after-upload path never leave the node. Blobs that outlive
+ * {@code cinder.storage.tiered.migrate-after} are moved to the object store by
+ * {@link #migrateOlderThan(Instant, BiConsumer)}, which reports every new location so the
+ * owning file's reference can be rewritten.
+ *
+ * <p>Reads are served from whichever tier holds the blob: a local reference whose blob
+ * has already been migrated is resolved to its object store key, so references that were
+ * not (yet) rewritten keep working. Deleting a local reference removes the blob from both
+ * tiers. Local blobs are streamed without naming their file, as migration removes them
+ * from the local tier while they may still be downloaded.
+ */
+@Slf4j
+public class TieredFileStoreAdapter
+  implements StreamingFileStorePort, ChunkedFileStorePort {
+
+  private final LocalFileStoreAdapter _hot;
+  private final S3FileStoreAdapter _cold;
+
+  public TieredFileStoreAdapter(
+    LocalFileStoreAdapter hot,
+    S3FileStoreAdapter cold
+  ) {
+    _hot = Objects.requireNonNull(hot, "hot must not be null");
+    _cold = Objects.requireNonNull(cold, "cold must not be null");
+  }
+
+  @Override
+  public PathReference save(FileId fileId, Blob data) {
+    return _hot.save(fileId, data);
+  }
+
+  @Override
+  public StoredBlob saveChecksummed(FileId fileId, Blob data) {
+    return _hot.saveChecksummed(fileId, data);
+  }
+
+  @Override
+  public PathReference save(
+    FileId fileId,
+    ReadableByteChannel source,
+    long size
+  ) {
+    return _hot.save(fileId, source, size);
+  }
+
+  @Override
+  public Optional<Blob> load(PathReference path) {
+    Objects.requireNonNull(path, "path must not be null");
+    if (path.isCloud()) {
+      return _cold.load(path);
+    }
+    Optional<Blob> blob = _hot.load(path);
+    return blob.isPresent() ? blob : _cold.load(_coldReference(path));
+  }
+
+  @Override
+  public Optional<BlobStream> open(PathReference path) {
+    Objects.requireNonNull(path, "path must not be null");
+    if (path.isCloud()) {
+      return _cold.open(path);
+    }
+    Optional<BlobStream> stream = _hot.open(path).map(
+      TieredFileStoreAdapter::_unnamed
+    );
+    return stream.isPresent() ? stream : _cold.open(_coldReference(path));
+  }
+
+  @Override
+  public Optional<BlobRange> open(
+    PathReference path,
+    long offset,
+    long length
+  ) {
+    Objects.requireNonNull(path, "path must not be null");
+    if (path.isCloud()) {
+      return _cold.open(path, offset, length);
+    }
+    Optional<BlobRange> range = _hot
+      .open(path, offset, length)
+      .map(hot ->
+        new BlobRange(_unnamed(hot.stream()), hot.offset(), hot.totalSize())
+      );
+    return range.isPresent()
+      ? range
+      : _cold.open(_coldReference(path), offset, length);
+  }
+
+  @Override
+  public void delete(PathReference path) {
+    Objects.requireNonNull(path, "path must not be null");
+    if (path.isCloud()) {
+      _cold.delete(path);
+      return;
+    }
+    _hot.delete(path);
+    _cold.delete(_coldReference(path));
+  }
+
+  /**
+   * Deletes the blobs from both tiers, each tier in a single bulk delete. A blob counts
+   * as deleted if either tier deleted it, and as failed if either tier failed to.
+   */
+  @Override
+  public Map<PathReference, DeleteOutcome> deleteAll(
+    Collection<PathReference> paths
+  ) {
+    Objects.requireNonNull(paths, "paths must not be null");
+    List<PathReference> local = new ArrayList<>();
+    Map<PathReference, PathReference> coldOf = new LinkedHashMap<>();
+    for (PathReference path : paths) {
+      if (path.isCloud()) {
+        coldOf.put(path, path);
+      } else {
+        local.add(path);
+        coldOf.put(path, _coldReference(path));
+      }
+    }
+    Map<PathReference, DeleteOutcome> hotOutcomes = _hot.deleteAll(local);
+    Map<PathReference, DeleteOutcome> coldOutcomes = _cold.deleteAll(
+      coldOf.values()
+    );
+    Map<PathReference, DeleteOutcome> outcomes = new LinkedHashMap<>();
+    coldOf.forEach((path, cold) ->
+      outcomes.put(
+        path,
+        _combine(
+          hotOutcomes.getOrDefault(path, DeleteOutcome.NOT_FOUND),
+          coldOutcomes.getOrDefault(cold, DeleteOutcome.FAILED)
+        )
+      )
+    );
+    return outcomes;
+  }
+
+  @Override
+  public long appendChunk(FileId fileId, long offset, Blob chunk) {
+    return _hot.appendChunk(fileId, offset, chunk);
+  }
+
+  @Override
+  public long stagedSize(FileId fileId) {
+    return _hot.stagedSize(fileId);
+  }
+
+  @Override
+  public PathReference completeChunks(FileId fileId, long totalSize) {
+    return _hot.completeChunks(fileId, totalSize);
+  }
+
+  @Override
+  public void discardChunks(FileId fileId) {
+    _hot.discardChunks(fileId);
+  }
+
+  /**
+   * Moves every local blob last modified before the cutoff to the object store.
+   * Each blob is uploaded, reported to {@code onMigrated} with its new reference, and only
+   * then removed locally. Failures are logged and leave the blob in the local tier.
+   *
+   * @param cutoff     blobs last modified before this instant are migrated
+   * @param onMigrated receives the file identifier and object store reference of each migrated blob
+   * @return the number of migrated blobs
+   */
+  public int migrateOlderThan(
+    Instant cutoff,
+    BiConsumer<FileId, PathReference> onMigrated
+  ) {
+    Objects.requireNonNull(cutoff, "cutoff must not be null");
+    Objects.requireNonNull(onMigrated, "onMigrated must not be null");
+    List<Path> candidates;
+    try (Stream<Path> files = Files.walk(_hot.getRoot())) {
+      candidates = files
+        .filter(Files::isRegularFile)
+        .filter(file -> !LocalFileStoreAdapter.isStagingFile(file))
+        .filter(file -> !_hot.isQuarantined(file))
+        .filter(file -> _modifiedBefore(file, cutoff))
+        .toList();
+    } catch (IOException | UncheckedIOException exc) {
+      throw new FileStorageException(
+        "Failed to scan storage directory: " + _hot.getRoot(),
+        exc
+      );
+    }
+    int migrated = 0;
+    for (Path file : candidates) {
+      try {
+        if (_migrate(file, onMigrated)) {
+          migrated++;
+        }
+      } catch (RuntimeException exc) {
+        log.warn("Failed to migrate blob {}", file.getFileName(), exc);
+      }
+    }
+    return migrated;
+  }
+
+  private boolean _migrate(
+    Path file,
+    BiConsumer<FileId, PathReference> onMigrated
+  ) {
+    FileId fileId = new FileId(file.getFileName().toString());
+    PathReference local = PathReference.from(file.toString());
+    Optional<BlobStream> stream = _hot.open(local);
+    if (stream.isEmpty()) {
+      return false;
+    }
+    PathReference cold;
+    try (BlobStream blob = stream.get()) {
+      cold = _cold.save(fileId, blob.channel(), blob.size());
+    }
+    if (!Files.exists(file)) {
+      log.debug("Blob {} deleted during migration", fileId.value());
+      _cold.delete(cold);
+      return false;
+    }
+    onMigrated.accept(fileId, cold);
+    _hot.delete(local);
+    return true;
+  }
+
+  private static DeleteOutcome _combine(DeleteOutcome hot, DeleteOutcome cold) {
+    if (hot == DeleteOutcome.FAILED || cold == DeleteOutcome.FAILED) {
+      return DeleteOutcome.FAILED;
+    }
+    if (hot == DeleteOutcome.DELETED || cold == DeleteOutcome.DELETED) {
+      return DeleteOutcome.DELETED;
+    }
+    return DeleteOutcome.NOT_FOUND;
+  }
+
+  /** Drops the file of a hot blob, which migration may remove during the transfer. */
+  private static BlobStream _unnamed(BlobStream blob) {
+    return blob.file() == null
+      ? blob
+      : new BlobStream(blob.channel(), blob.size());
+  }
+
+  private PathReference _coldReference(PathReference local) {
+    Path file = Path.of(local.value()).getFileName();
+    return _cold.referenceOf(new FileId(file.toString()));
+  }
+
+  private static boolean _modifiedBefore(Path file, Instant cutoff) {
+    try {
+      return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+    } catch (IOException exc) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of tiered blob storage ({@code cinder.storage.tiered.*}).
+ *
+ * @param migrateAfter      age after which a blob is moved from the local tier to the object store
+ * @param migrationInterval delay between two migration runs
+ */
+@ConfigurationProperties(prefix = "cinder.storage.tiered")
+public record TieredStorageProperties(
+  @DefaultValue("PT15M") Duration migrateAfter,
+  @DefaultValue("PT5M") Duration migrationInterval
+) {
+  public TieredStorageProperties {
+    Objects.requireNonNull(migrateAfter, "migrateAfter must not be null");
+    Objects.requireNonNull(
+      migrationInterval,
+      "migrationInterval must not be null"
+    );
+    if (migrateAfter.isNegative() || !migrationInterval.isPositive()) {
+      throw new IllegalArgumentException(
+        "cinder.storage.tiered durations must not be negative"
+      );
+    }
+  }
+}
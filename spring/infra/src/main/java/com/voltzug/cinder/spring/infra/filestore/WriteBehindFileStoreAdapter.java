@@ -0,0 +1,376 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.port.out.AsyncFileStorePort;
+import com.voltzug.cinder.core.port.out.ChunkedFileStorePort;
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreAdapter.StagedBlob;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind decorator of {@link LocalFileStoreAdapter} implementing {@link AsyncFileStorePort}.
+ *
+ * <p>Saved blobs are queued on a bounded ring and written by a single writer thread in
+ * batches of up to {@code cinder.storage.write-behind.batch-size}. Each batch is
+ * group-committed: all blobs are staged first, then forced to disk back to back, moved
+ * into place, and every touched directory is synced once. Only then are the futures of
+ * the batch completed, so a completed future always means a durable blob. While one batch
+ * is being committed, the next one accumulates, so batches grow with the load.
+ *
+ * <p>The ring holds at most {@code cinder.storage.write-behind.capacity} blobs; savers
+ * block while it is full. Streamed and chunked saves, loads and deletes go straight to the local
+ * store.
+ */
+@Slf4j
+public class WriteBehindFileStoreAdapter
+  implements
+    AsyncFileStorePort,
+    StreamingFileStorePort,
+    ChunkedFileStorePort,
+    AutoCloseable
+{
+
+  private static final long _IDLE_POLL_MILLIS = 100;
+
+  private final LocalFileStoreAdapter _local;
+  private final BlockingQueue<PendingWrite> _ring;
+  private final int _batchSize;
+  private final Thread _writer;
+  private volatile boolean _closed;
+
+  public WriteBehindFileStoreAdapter(
+    LocalFileStoreAdapter local,
+    WriteBehindProperties properties
+  ) {
+    _local = Objects.requireNonNull(local, "local must not be null");
+    Objects.requireNonNull(properties, "properties must not be null");
+    _ring = new ArrayBlockingQueue<>(properties.capacity());
+    _batchSize = properties.batchSize();
+    _writer = Thread.ofPlatform()
+      .name("cinder-write-behind")
+      .daemon(true)
+      .start(this::_drain);
+  }
+
+  @Override
+  public CompletableFuture<PathReference> saveAsync(FileId fileId, Blob data) {
+    return _enqueue(fileId, data, null);
+  }
+
+  @Override
+  public PathReference save(FileId fileId, Blob data) {
+    return _join(fileId, saveAsync(fileId, data));
+  }
+
+  /** Queues the blob like {@link #save(FileId, Blob)}, checksumming it as it is staged. */
+  @Override
+  public StoredBlob saveChecksummed(FileId fileId, Blob data) {
+    CRC32C checksum = new CRC32C();
+    PathReference path = _join(fileId, _enqueue(fileId, data, checksum));
+    return new StoredBlob(path, new BlobChecksum((int) checksum.getValue()));
+  }
+
+  @Override
+  public PathReference save(
+    FileId fileId,
+    ReadableByteChannel source,
+    long size
+  ) {
+    return _local.save(fileId, source, size);
+  }
+
+  @Override
+  public Optional<Blob> load(PathReference path) {
+    return _local.load(path);
+  }
+
+  @Override
+  public Optional<BlobStream> open(PathReference path) {
+    return _local.open(path);
+  }
+
+  @Override
+  public void delete(PathReference path) {
+    _local.delete(path);
+  }
+
+  @Override
+  public Map<PathReference, DeleteOutcome> deleteAll(
+    Collection<PathReference> paths
+  ) {
+    return _local.deleteAll(paths);
+  }
+
+  @Override
+  public long appendChunk(FileId fileId, long offset, Blob chunk) {
+    return _local.appendChunk(fileId, offset, chunk);
+  }
+
+  @Override
+  public long stagedSize(FileId fileId) {
+    return _local.stagedSize(fileId);
+  }
+
+  @Override
+  public PathReference completeChunks(FileId fileId, long totalSize) {
+    return _local.completeChunks(fileId, totalSize);
+  }
+
+  @Override
+  public void discardChunks(FileId fileId) {
+    _local.discardChunks(fileId);
+  }
+
+  /**
+   * Stops accepting saves and waits until every queued blob has been committed.
+   */
+  @Override
+  public void close() {
+    _closed = true;
+    try {
+      _writer.join();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+    List<PendingWrite> abandoned = new ArrayList<>();
+    _ring.drainTo(abandoned);
+    for (PendingWrite write : abandoned) {
+      write.result().completeExceptionally(_closedException());
+    }
+  }
+
+  private CompletableFuture<PathReference> _enqueue(
+    FileId fileId,
+    Blob data,
+    Checksum checksum
+  ) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    Objects.requireNonNull(data, "data must not be null");
+    PendingWrite write = new PendingWrite(
+      fileId,
+      data,
+      checksum,
+      new CompletableFuture<>()
+    );
+    if (_closed) {
+      return CompletableFuture.failedFuture(_closedException());
+    }
+    try {
+      _ring.put(write);
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.failedFuture(
+        new FileStorageException(
+          "Interrupted while queueing blob: " + fileId.value(),
+          exc
+        )
+      );
+    }
+    if (_closed && _ring.remove(write)) {
+      write.result().completeExceptionally(_closedException());
+    }
+    return write.result();
+  }
+
+  private static PathReference _join(
+    FileId fileId,
+    CompletableFuture<PathReference> result
+  ) {
+    try {
+      return result.join();
+    } catch (CompletionException exc) {
+      if (exc.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new FileStorageException(
+        "Failed to store blob: " + fileId.value(),
+        exc.getCause()
+      );
+    }
+  }
+
+  private void _drain() {
+    List<PendingWrite> batch = new ArrayList<>(_batchSize);
+    while (!_closed || !_ring.isEmpty()) {
+      try {
+        PendingWrite first = _ring.poll(
+          _IDLE_POLL_MILLIS,
+          TimeUnit.MILLISECONDS
+        );
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        _ring.drainTo(batch, _batchSize - 1);
+        _commitAll(batch);
+      } catch (InterruptedException exc) {
+        log.warn("Write-behind writer interrupted, stopping");
+        return;
+      } catch (RuntimeException exc) {
+        log.error("Write-behind commit failed", exc);
+      } finally {
+        _abort(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Commits a drained batch, splitting it where a file is saved again, so a staging
+   * file is never written twice within one commit.
+   */
+  private void _commitAll(List<PendingWrite> batch) {
+    List<PendingWrite> segment = new ArrayList<>(batch.size());
+    Set<String> fileIds = new HashSet<>();
+    for (PendingWrite write : batch) {
+      if (!fileIds.add(write.fileId().value())) {
+        _commit(segment);
+        segment.clear();
+        fileIds.clear();
+        fileIds.add(write.fileId().value());
+      }
+      segment.add(write);
+    }
+    _commit(segment);
+  }
+
+  private void _commit(List<PendingWrite> batch) {
+    List<Staged> staged = new ArrayList<>(batch.size());
+    for (PendingWrite write : batch) {
+      try {
+        staged.add(
+          new Staged(
+            write,
+            _local.stage(write.fileId(), write.data(), write.checksum())
+          )
+        );
+      } catch (RuntimeException exc) {
+        write.result().completeExceptionally(exc);
+      }
+    }
+
+    List<Staged> forced = new ArrayList<>(staged.size());
+    for (Staged entry : staged) {
+      try {
+        entry.blob().channel().force(true);
+        forced.add(entry);
+      } catch (IOException exc) {
+        _local.discard(entry.blob());
+        entry.write().result().completeExceptionally(_failure(entry, exc));
+      }
+    }
+
+    Map<Path, List<Published>> byDirectory = new LinkedHashMap<>();
+    for (Staged entry : forced) {
+      try {
+        PathReference reference = _local.publish(entry.blob());
+        byDirectory
+          .computeIfAbsent(entry.blob().target().getParent(), dir ->
+            new ArrayList<>()
+          )
+          .add(new Published(entry.write(), reference));
+      } catch (RuntimeException exc) {
+        entry.write().result().completeExceptionally(exc);
+      }
+    }
+
+    for (Map.Entry<Path, List<Published>> entry : byDirectory.entrySet()) {
+      try {
+        LocalFileStoreAdapter.syncDirectory(entry.getKey());
+        for (Published published : entry.getValue()) {
+          published.write().result().complete(published.reference());
+        }
+      } catch (IOException exc) {
+        for (Published published : entry.getValue()) {
+          published
+            .write()
+            .result()
+            .completeExceptionally(
+              new FileStorageException(
+                "Failed to sync blob directory: " + entry.getKey(),
+                exc
+              )
+            );
+        }
+      }
+    }
+  }
+
+  private static void _abort(List<PendingWrite> batch) {
+    for (PendingWrite write : batch) {
+      if (!write.result().isDone()) {
+        write
+          .result()
+          .completeExceptionally(
+            new FileStorageException(
+              "Write-behind commit aborted: " + write.fileId().value()
+            )
+          );
+      }
+    }
+  }
+
+  private static FileStorageException _failure(Staged entry, IOException exc) {
+    return new FileStorageException(
+      "Failed to store blob: " + entry.write().fileId().value(),
+      exc
+    );
+  }
+
+  private static FileStorageException _closedException() {
+    return new FileStorageException("Write-behind file store is closed");
+  }
+
+  /** A queued save waiting for its batch to become durable. */
+  private record PendingWrite(
+    FileId fileId,
+    Blob data,
+    Checksum checksum,
+    CompletableFuture<PathReference> result
+  ) {}
+
+  /** A queued save whose blob has been staged. */
+  private record Staged(PendingWrite write, StagedBlob blob) {}
+
+  /** A queued save whose blob has been moved into place. */
+  private record Published(PendingWrite write, PathReference reference) {}
+}
@@ -0,0 +1,46 @@
+package com.voltzug.cinder.spring.infra.filestore;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the write-behind pipeline in front of the local blob store
+ * ({@code cinder.storage.write-behind.*}).
+ *
+ * @param enabled   whether saves are queued and group-committed instead of written synchronously
+ * @param capacity  maximum number of blobs waiting to be written; savers block while it is full
+ * @param batchSize maximum number of blobs made durable by a single commit
+ */
+@ConfigurationProperties(prefix = "cinder.storage.write-behind")
+public record WriteBehindProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("1024") int capacity,
+  @DefaultValue("64") int batchSize
+) {
+  public WriteBehindProperties {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        "cinder.storage.write-behind.capacity must be positive"
+      );
+    }
+    if (batchSize < 1 || batchSize > capacity) {
+      throw new IllegalArgumentException(
+        "cinder.storage.write-behind.batch-size must be between 1 and capacity"
+      );
+    }
+  }
+}
@@ -0,0 +1,23 @@
+/**
+ * File storage adapters for encrypted blobs.
+ *
+ * <p>This package implements {@link com.voltzug.cinder.core.port.out.FileStorePort}
+ * and {@link com.voltzug.cinder.core.port.out.StreamingFileStorePort} on top of
+ * concrete storage backends.</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.infra.filestore.LocalFileStoreAdapter} — Local file system store
+ *       with atomic staged writes, hex fan-out sharding and fixed-size streaming buffers</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.filestore.LocalFileStoreResharder} — Online migration of
+ *       stored blobs to the current fan-out layout</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.filestore.LocalBlobShredder} — Throttled background
+ *       overwrite of deleted local blobs</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.filestore.WriteBehindFileStoreAdapter} — Asynchronous
+ *       write-behind queue group-committing fsyncs of the local store</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.filestore.S3FileStoreAdapter} — S3-compatible object store
+ *       with parallel multipart uploads and parallel ranged downloads</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.filestore.TieredFileStoreAdapter} — Local hot tier in front of
+ *       the object store, migrating aged blobs</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.infra.filestore;
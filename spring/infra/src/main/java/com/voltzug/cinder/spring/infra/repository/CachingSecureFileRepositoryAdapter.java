@@ -0,0 +1,339 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.utils.SafeArrays;
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.safe.SafeBlob;
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.GateHash;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Read-through cache of {@link #findByLinkId(LinkId)} in front of another
+ * {@link SecureFileRepositoryPort}.
+ *
+ * <p>The download handshake and the verification following it look up the same file
+ * within seconds; the second lookup is served from memory. At most
+ * {@code cinder.repository.cache.max-entries} files are cached, evicting the least recently
+ * used. A cached file is dropped after {@code cinder.repository.cache.ttl}, and never
+ * outlives the expiry date of the file itself; files past their deadline are purged
+ * periodically. Writes go to the delegate first and then
+ * invalidate the file, and a lookup racing with a write never caches what it read.
+ *
+ * <p>The cache keeps its own copies of the sealed material and hands out fresh copies on
+ * every hit, so callers never share buffers with it. Copies leaving the cache, whether
+ * evicted, expired or invalidated, are zeroed.
+ */
+public class CachingSecureFileRepositoryAdapter
+  implements SecureFileRepositoryPort {
+
+  private final SecureFileRepositoryPort _delegate;
+  private final ClockPort _clock;
+  private final int _maxEntries;
+  private final Duration _ttl;
+  private final ReentrantLock _lock = new ReentrantLock();
+  private final LinkedHashMap<String, CachedFile> _byLinkId;
+  private final Map<String, String> _linkIdByFileId = new HashMap<>();
+  private long _invalidations;
+
+  public CachingSecureFileRepositoryAdapter(
+    SecureFileRepositoryPort delegate,
+    SecureFileCacheProperties properties,
+    ClockPort clock
+  ) {
+    _delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    Objects.requireNonNull(properties, "properties must not be null");
+    _clock = Objects.requireNonNull(clock, "clock must not be null");
+    _maxEntries = properties.maxEntries();
+    _ttl = properties.ttl();
+    _byLinkId = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  @Override
+  public Optional<SecureFile> findByLinkId(LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    Instant now = _clock.now();
+    long invalidations;
+    _lock.lock();
+    try {
+      CachedFile cached = _byLinkId.get(linkId.value());
+      if (cached != null) {
+        if (now.isBefore(cached.deadline())) {
+          return Optional.of(cached.toSecureFile());
+        }
+        _remove(linkId.value());
+      }
+      invalidations = _invalidations;
+    } finally {
+      _lock.unlock();
+    }
+
+    Optional<SecureFile> found = _delegate.findByLinkId(linkId);
+    found.ifPresent(file -> _admit(file, now, invalidations));
+    return found;
+  }
+
+  @Override
+  public void save(SecureFile file) {
+    Objects.requireNonNull(file, "file must not be null");
+    try {
+      _delegate.save(file);
+    } finally {
+      _invalidate(file.fileId().value(), file.linkId().value());
+    }
+  }
+
+  @Override
+  public void updateBlobPath(FileId fileId, PathReference blobPath) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    try {
+      _delegate.updateBlobPath(fileId, blobPath);
+    } finally {
+      _invalidate(fileId.value(), null);
+    }
+  }
+
+  @Override
+  public void delete(FileId fileId) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    try {
+      _delegate.delete(fileId);
+    } finally {
+      _invalidate(fileId.value(), null);
+    }
+  }
+
+  @Override
+  public List<SecureFile> findExpiredBefore(Instant timestamp) {
+    return _delegate.findExpiredBefore(timestamp);
+  }
+
+  @Override
+  public List<ExpiredFile> findExpiredBefore(
+    Instant timestamp,
+    ExpiredFile after,
+    int limit
+  ) {
+    return _delegate.findExpiredBefore(timestamp, after, limit);
+  }
+
+  @Override
+  public Stream<ExpiredFile> streamExpiredBefore(
+    Instant timestamp,
+    int pageSize
+  ) {
+    return _delegate.streamExpiredBefore(timestamp, pageSize);
+  }
+
+  /** Returns the number of files currently cached. */
+  public int size() {
+    _lock.lock();
+    try {
+      return _byLinkId.size();
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /** Drops and zeroes every cached file. */
+  public void clear() {
+    _lock.lock();
+    try {
+      _invalidations++;
+      for (CachedFile cached : _byLinkId.values()) {
+        cached.wipe();
+      }
+      _byLinkId.clear();
+      _linkIdByFileId.clear();
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /**
+   * Caches a file read from the delegate, unless a write invalidated any file since the
+   * lookup started (the read may predate that write) or the file has already expired.
+   */
+  private void _admit(SecureFile file, Instant now, long invalidations) {
+    Instant expiry = file.getExpiryDate();
+    if (!now.isBefore(expiry)) {
+      return;
+    }
+    Instant ttlDeadline = now.plus(_ttl);
+    Instant deadline = ttlDeadline.isBefore(expiry) ? ttlDeadline : expiry;
+    CachedFile cached = CachedFile.of(file, deadline);
+    _lock.lock();
+    try {
+      if (invalidations != _invalidations) {
+        cached.wipe();
+        return;
+      }
+      _remove(file.linkId().value());
+      _byLinkId.put(file.linkId().value(), cached);
+      _linkIdByFileId.put(file.fileId().value(), file.linkId().value());
+      _evictOverflow();
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /**
+   * Drops and zeroes the cached files that passed their deadline, so sealed material of
+   * files nobody asks for again does not linger until it is evicted.
+   */
+  @Scheduled(
+    fixedDelayString = "${cinder.repository.cache.ttl:PT30S}",
+    initialDelayString = "${cinder.repository.cache.ttl:PT30S}"
+  )
+  public void purgeExpired() {
+    Instant now = _clock.now();
+    _lock.lock();
+    try {
+      Iterator<CachedFile> entries = _byLinkId.values().iterator();
+      while (entries.hasNext()) {
+        CachedFile cached = entries.next();
+        if (!now.isBefore(cached.deadline())) {
+          entries.remove();
+          _linkIdByFileId.remove(cached.fileId());
+          cached.wipe();
+        }
+      }
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /** Drops the least recently used files beyond the bound. */
+  private void _evictOverflow() {
+    Iterator<CachedFile> entries = _byLinkId.values().iterator();
+    while (entries.hasNext() && _byLinkId.size() > _maxEntries) {
+      CachedFile cached = entries.next();
+      entries.remove();
+      _linkIdByFileId.remove(cached.fileId());
+      cached.wipe();
+    }
+  }
+
+  private void _invalidate(String fileId, String linkId) {
+    _lock.lock();
+    try {
+      _invalidations++;
+      String cachedLinkId = _linkIdByFileId.get(fileId);
+      if (cachedLinkId != null) {
+        _remove(cachedLinkId);
+      }
+      if (linkId != null) {
+        _remove(linkId);
+      }
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  private void _remove(String linkId) {
+    CachedFile cached = _byLinkId.remove(linkId);
+    if (cached != null) {
+      _linkIdByFileId.remove(cached.fileId());
+      cached.wipe();
+    }
+  }
+
+  private static byte[] _copy(Blob blob) {
+    if (blob instanceof SafeBlob safe) {
+      return safe.getBytes().clone();
+    }
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /** A cached file holding private copies of its sealed material. */
+  private record CachedFile(
+    String fileId,
+    String linkId,
+    PathReference blobPath,
+    BlobChecksum blobChecksum,
+    byte[] sealedEnvelope,
+    byte[] sealedSalt,
+    byte[] gateHash,
+    byte[] encryptedQuestions,
+    FileSpecs specs,
+    int remainingAttempts,
+    Instant createdAt,
+    Instant deadline
+  ) {
+    static CachedFile of(SecureFile file, Instant deadline) {
+      return new CachedFile(
+        file.fileId().value(),
+        file.linkId().value(),
+        file.blobPath(),
+        file.blobChecksum(),
+        _copy(file.sealedEnvelope()),
+        _copy(file.sealedSalt()),
+        _copy(file.gateHash()),
+        _copy(file.encryptedQuestions()),
+        file.specs(),
+        file.remainingAttempts(),
+        file.createdAt(),
+        deadline
+      );
+    }
+
+    SecureFile toSecureFile() {
+      return new SecureFile(
+        new FileId(fileId),
+        new LinkId(linkId),
+        blobPath,
+        blobChecksum,
+        new SealedBlob(sealedEnvelope.clone()),
+        new SealedBlob(sealedSalt.clone()),
+        new GateHash(gateHash.clone()),
+        new Blob(encryptedQuestions.clone()),
+        specs,
+        remainingAttempts,
+        createdAt
+      );
+    }
+
+    void wipe() {
+      SafeArrays.seal(sealedEnvelope);
+      SafeArrays.seal(sealedSalt);
+      SafeArrays.seal(gateHash);
+      SafeArrays.seal(encryptedQuestions);
+    }
+  }
+}
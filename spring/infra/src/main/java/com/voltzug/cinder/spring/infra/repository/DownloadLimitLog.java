@@ -0,0 +1,404 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.exception.RepositoryException;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Segmented write-ahead log of download limit changes, kept by
+ * {@link WriteBehindDownloadLimitAdapter} until they have been checkpointed into the
+ * database.
+ *
+ * <p>Records are framed as {@code length | record | crc32} and appended to the open segment,
+ * {@code <sequence>.log} in the log directory. With {@code force}, appenders group-commit:
+ * the first one to reach the device forces everything written so far, and those that
+ * appended meanwhile return without forcing again. A checkpoint {@link #rotate rotates} to
+ * a new segment, writes the limits changed up to then into the database and only then
+ * {@link #deleteThrough deletes} the sealed segments. {@link #open} replays the segments
+ * left by the previous run in order, stopping in each at a torn or corrupt tail.
+ */
+@Slf4j
+final class DownloadLimitLog implements AutoCloseable {
+
+  static final byte UPDATE = 1;
+  static final byte DELETE = 2;
+
+  private static final int _MAX_RECORD_BYTES = 1024;
+  private static final String _SUFFIX = ".log";
+
+  private final Path _directory;
+  private final boolean _force;
+  private final ReentrantLock _appendLock = new ReentrantLock();
+  private final ReentrantLock _syncLock = new ReentrantLock();
+  private FileChannel _channel;
+  private long _segment;
+  private long _written;
+  private volatile long _synced;
+
+  /**
+   * @param directory directory holding the segments
+   * @param force     whether appends return only once their record is on the device
+   */
+  DownloadLimitLog(Path directory, boolean force) {
+    _directory = directory.toAbsolutePath();
+    _force = force;
+  }
+
+  /**
+   * Reads the segments left by a previous run and opens a new segment after them.
+   *
+   * @return the entries of all segments, in the order they were appended
+   */
+  List<Entry> open() {
+    List<Entry> entries = new ArrayList<>();
+    _appendLock.lock();
+    try {
+      Files.createDirectories(_directory);
+      List<Long> segments = _segments();
+      for (long segment : segments) {
+        _replay(_pathOf(segment), entries);
+      }
+      _segment = segments.isEmpty() ? 0 : segments.getLast();
+      _openNext();
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to open download limit log " + _directory,
+        exc
+      );
+    } finally {
+      _appendLock.unlock();
+    }
+    return entries;
+  }
+
+  /**
+   * Appends a change; with {@code force} it is on the device when this returns.
+   *
+   * @throws RepositoryException if the record cannot be written
+   */
+  void append(Entry entry) {
+    ByteBuffer frame = _frame(entry);
+    long sequence;
+    _appendLock.lock();
+    try {
+      if (_channel == null) {
+        throw new RepositoryException(
+          "Download limit log is closed: " + _directory
+        );
+      }
+      _writeFully(_channel, frame);
+      sequence = ++_written;
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to append to download limit log " + _directory,
+        exc
+      );
+    } finally {
+      _appendLock.unlock();
+    }
+    if (_force) {
+      _sync(sequence);
+    }
+  }
+
+  /**
+   * Seals the open segment and opens the next one. Records appended before this call are
+   * in the sealed segment or an older one.
+   *
+   * @return the sequence number of the sealed segment
+   */
+  long rotate() {
+    _syncLock.lock();
+    _appendLock.lock();
+    try {
+      if (_channel == null) {
+        throw new RepositoryException(
+          "Download limit log is closed: " + _directory
+        );
+      }
+      long sealed = _segment;
+      _closeChannel(_force);
+      _synced = _written;
+      _openNext();
+      return sealed;
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to rotate download limit log " + _directory,
+        exc
+      );
+    } finally {
+      _appendLock.unlock();
+      _syncLock.unlock();
+    }
+  }
+
+  /** Deletes the segments up to and including {@code segment}, once they are checkpointed. */
+  void deleteThrough(long segment) {
+    try {
+      for (long existing : _segments()) {
+        if (existing <= segment) {
+          Files.deleteIfExists(_pathOf(existing));
+        }
+      }
+    } catch (IOException exc) {
+      log.warn("Failed to delete checkpointed download limit log", exc);
+    }
+  }
+
+  /** Forces appended records to the device and closes the open segment. */
+  @Override
+  public void close() {
+    _syncLock.lock();
+    _appendLock.lock();
+    try {
+      _closeChannel(true);
+      _synced = _written;
+    } catch (IOException exc) {
+      log.warn("Failed to close download limit log {}", _directory, exc);
+    } finally {
+      _appendLock.unlock();
+      _syncLock.unlock();
+    }
+  }
+
+  /**
+   * Forces the open segment unless a concurrent appender already forced past
+   * {@code sequence}; the force covers every record written before it started.
+   */
+  private void _sync(long sequence) {
+    if (_synced >= sequence) {
+      return;
+    }
+    _syncLock.lock();
+    try {
+      if (_synced >= sequence) {
+        return;
+      }
+      long written;
+      FileChannel channel;
+      _appendLock.lock();
+      try {
+        written = _written;
+        channel = _channel;
+      } finally {
+        _appendLock.unlock();
+      }
+      if (channel == null) {
+        throw new RepositoryException(
+          "Download limit log is closed: " + _directory
+        );
+      }
+      channel.force(false);
+      _synced = written;
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to force download limit log " + _directory,
+        exc
+      );
+    } finally {
+      _syncLock.unlock();
+    }
+  }
+
+  private void _openNext() throws IOException {
+    _segment++;
+    _channel = FileChannel.open(
+      _pathOf(_segment),
+      StandardOpenOption.CREATE_NEW,
+      StandardOpenOption.WRITE
+    );
+    if (_force) {
+      _syncDirectory();
+    }
+  }
+
+  private void _closeChannel(boolean force) throws IOException {
+    if (_channel == null) {
+      return;
+    }
+    try {
+      if (force) {
+        _channel.force(false);
+      }
+    } finally {
+      _channel.close();
+      _channel = null;
+    }
+  }
+
+  /** Forces the creation of a segment to disk; a no-op where directories cannot be opened. */
+  private void _syncDirectory() {
+    try (
+      FileChannel directory = FileChannel.open(
+        _directory,
+        StandardOpenOption.READ
+      )
+    ) {
+      directory.force(true);
+    } catch (IOException exc) {
+      log.debug("Cannot sync download limit log directory", exc);
+    }
+  }
+
+  /** Returns the sequence numbers of the existing segments, in ascending order. */
+  private List<Long> _segments() throws IOException {
+    List<Long> segments = new ArrayList<>();
+    try (Stream<Path> files = Files.list(_directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(_SUFFIX)) {
+          continue;
+        }
+        try {
+          segments.add(
+            Long.parseLong(name.substring(0, name.length() - _SUFFIX.length()))
+          );
+        } catch (NumberFormatException exc) {
+          log.warn("Ignoring unexpected file {} in download limit log", file);
+        }
+      }
+    }
+    segments.sort(null);
+    return segments;
+  }
+
+  private Path _pathOf(long segment) {
+    return _directory.resolve(String.format("%016d%s", segment, _SUFFIX));
+  }
+
+  /** Reads records until the end of a segment or its first torn or corrupt one. */
+  private static void _replay(Path segment, List<Entry> entries) {
+    int records = 0;
+    try (
+      InputStream file = Files.newInputStream(segment);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(file))
+    ) {
+      while (true) {
+        int length = in.readInt();
+        if (length < 1 || length > _MAX_RECORD_BYTES) {
+          break;
+        }
+        byte[] record = new byte[length];
+        in.readFully(record);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        if (in.readInt() != (int) crc.getValue()) {
+          break;
+        }
+        entries.add(_decode(ByteBuffer.wrap(record)));
+        records++;
+      }
+    } catch (EOFException exc) {
+      // torn tail of a crash; everything up to the last complete record is kept
+    } catch (IOException | RuntimeException exc) {
+      log.warn(
+        "Stopped replaying download limit log {} after {} record(s)",
+        segment,
+        records,
+        exc
+      );
+    }
+    log.debug("Replayed {} record(s) from {}", records, segment);
+  }
+
+  /**
+   * Frames an entry as {@code length | type | generation | remaining | expiry | last attempt |
+   * link id | crc32}.
+   */
+  private static ByteBuffer _frame(Entry entry) {
+    byte[] linkId = entry.linkId().getBytes(StandardCharsets.UTF_8);
+    int length = 1 + 8 + 4 + 8 + 8 + linkId.length;
+    if (length > _MAX_RECORD_BYTES) {
+      throw new IllegalArgumentException("linkId is too long");
+    }
+    ByteBuffer frame = ByteBuffer.allocate(4 + length + 4);
+    frame
+      .putInt(length)
+      .put(entry.type())
+      .putLong(entry.generation())
+      .putInt(entry.remaining())
+      .putLong(entry.expiryMillis())
+      .putLong(entry.lastAttemptMillis())
+      .put(linkId);
+    CRC32 crc = new CRC32();
+    crc.update(frame.array(), 4, length);
+    frame.putInt((int) crc.getValue());
+    return frame.flip();
+  }
+
+  private static Entry _decode(ByteBuffer record) {
+    byte type = record.get();
+    if (type != UPDATE && type != DELETE) {
+      throw new IllegalStateException("Unknown log record type " + type);
+    }
+    long generation = record.getLong();
+    int remaining = record.getInt();
+    long expiryMillis = record.getLong();
+    long lastAttemptMillis = record.getLong();
+    String linkId = StandardCharsets.UTF_8.decode(record).toString();
+    return new Entry(
+      type,
+      linkId,
+      generation,
+      remaining,
+      expiryMillis,
+      lastAttemptMillis
+    );
+  }
+
+  private static void _writeFully(FileChannel channel, ByteBuffer buffer)
+    throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * A change of the limit of one link. Updates carry the whole state after the change, so
+   * replaying them does not depend on the order concurrent changes reached the log in.
+   *
+   * @param type              {@link #UPDATE} or {@link #DELETE}
+   * @param linkId            the link identifier
+   * @param generation        the initialization of the link the change applies to
+   * @param remaining         remaining attempts after the change
+   * @param expiryMillis      expiry of the link, in epoch milliseconds
+   * @param lastAttemptMillis time of the last attempt in epoch milliseconds, 0 if none
+   */
+  record Entry(
+    byte type,
+    String linkId,
+    long generation,
+    int remaining,
+    long expiryMillis,
+    long lastAttemptMillis
+  ) {}
+}
@@ -0,0 +1,58 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the write-behind download limit store
+ * ({@code cinder.repository.download-limit.*}).
+ *
+ * @param enabled            whether download limits are kept in memory and checkpointed to the
+ *                           repository database instead of being written on every attempt
+ * @param logDirectory       directory of the write-ahead log changes are recorded in until they
+ *                           have been checkpointed
+ * @param checkpointInterval time between checkpoints of changed limits into the database;
+ *                           also the interval expired limits are dropped at
+ * @param force              whether an attempt returns only once its log record has been forced
+ *                           to the device, surviving a power loss and not just a process crash
+ */
+@ConfigurationProperties(prefix = "cinder.repository.download-limit")
+public record DownloadLimitProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("./data/download-limits") String logDirectory,
+  @DefaultValue("1s") Duration checkpointInterval,
+  @DefaultValue("true") boolean force
+) {
+  public DownloadLimitProperties {
+    if (logDirectory == null || logDirectory.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.repository.download-limit.log-directory must not be blank"
+      );
+    }
+    Objects.requireNonNull(
+      checkpointInterval,
+      "checkpointInterval must not be null"
+    );
+    if (checkpointInterval.isNegative() || checkpointInterval.isZero()) {
+      throw new IllegalArgumentException(
+        "cinder.repository.download-limit.checkpoint-interval must be positive"
+      );
+    }
+  }
+}
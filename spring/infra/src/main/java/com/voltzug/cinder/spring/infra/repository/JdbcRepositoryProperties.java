@@ -0,0 +1,74 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the JDBC file metadata repository ({@code cinder.repository.jdbc.*}).
+ *
+ * @param url                JDBC URL of the SQLite database file holding the secure file records
+ * @param readPoolSize       number of read-only connections serving lookups concurrently
+ * @param writeQueueCapacity maximum number of writes waiting for the writer; writers block while it is full
+ * @param writeBatchSize     maximum number of queued writes committed in a single transaction
+ * @param shards             number of database files records are spread over by link identifier;
+ *                           with more than one, shard {@code i} of {@code cinder.db} is {@code cinder-i.db}
+ * @param rebalanceOnStartup whether records are moved to the shard they belong to before the
+ *                           repository opens, required after changing {@code shards}
+ */
+@ConfigurationProperties(prefix = "cinder.repository.jdbc")
+public record JdbcRepositoryProperties(
+  String url,
+  @DefaultValue("4") int readPoolSize,
+  @DefaultValue("1024") int writeQueueCapacity,
+  @DefaultValue("64") int writeBatchSize,
+  @DefaultValue("1") int shards,
+  @DefaultValue("false") boolean rebalanceOnStartup
+) {
+  public JdbcRepositoryProperties {
+    if (url == null || url.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.repository.jdbc.url must not be blank"
+      );
+    }
+    if (url.contains(":memory:") || url.contains("mode=memory")) {
+      throw new IllegalArgumentException(
+        "cinder.repository.jdbc.url must point to a database file, " +
+          "in-memory databases are not shared between connections"
+      );
+    }
+    if (readPoolSize < 1) {
+      throw new IllegalArgumentException(
+        "cinder.repository.jdbc.read-pool-size must be positive"
+      );
+    }
+    if (writeQueueCapacity < 1) {
+      throw new IllegalArgumentException(
+        "cinder.repository.jdbc.write-queue-capacity must be positive"
+      );
+    }
+    if (writeBatchSize < 1 || writeBatchSize > writeQueueCapacity) {
+      throw new IllegalArgumentException(
+        "cinder.repository.jdbc.write-batch-size must be between 1 and write-queue-capacity"
+      );
+    }
+    if (shards < 1) {
+      throw new IllegalArgumentException(
+        "cinder.repository.jdbc.shards must be positive"
+      );
+    }
+  }
+}
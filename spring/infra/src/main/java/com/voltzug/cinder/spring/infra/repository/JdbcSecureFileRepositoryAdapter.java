@@ -0,0 +1,397 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.safe.SafeBlob;
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.GateHash;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link SecureFileRepositoryPort} implementation issuing hand-written SQL against SQLite.
+ *
+ * <p>Every statement is prepared once per connection, so a call costs one bind and one step
+ * of an already compiled statement. Rows are mapped directly into {@link SecureFile}
+ * records; there is no entity mapping, dirty checking or persistence context.
+ *
+ * <p>Records are spread over {@code cinder.repository.jdbc.shards} database files, each a
+ * {@link SqliteShard} in WAL mode with its own batching writer thread and read connections,
+ * so writes to different shards commit in parallel. A record lives in the shard selected by
+ * {@link SqliteShard#indexOf} of its link identifier, which routes saves and link lookups to
+ * a single shard. Writes addressed by file identifier alone first probe the read
+ * connections of the shards for the file by primary key, which never waits for a writer,
+ * and are queued only on the shard holding it. Scans for expired files merge the ordered
+ * results of all shards. Changing the number of
+ * shards requires moving records with {@link SqliteShardRebalancer} first.
+ *
+ * <p>Timestamps are stored as epoch milliseconds, so sub-millisecond precision is lost.
+ */
+@Slf4j
+public class JdbcSecureFileRepositoryAdapter
+  implements SecureFileRepositoryPort, AutoCloseable {
+
+  static final String COLUMNS =
+    "file_id, link_id, blob_path, blob_checksum, sealed_envelope, sealed_salt, " +
+    "gate_hash, encrypted_questions, expiry_date, retry_count, " +
+    "remaining_attempts, created_at";
+
+  static final String UPSERT =
+    "INSERT INTO secure_file (" +
+    COLUMNS +
+    ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+    "ON CONFLICT (file_id) DO UPDATE SET " +
+    "link_id = excluded.link_id, blob_path = excluded.blob_path, " +
+    "blob_checksum = excluded.blob_checksum, " +
+    "sealed_envelope = excluded.sealed_envelope, " +
+    "sealed_salt = excluded.sealed_salt, gate_hash = excluded.gate_hash, " +
+    "encrypted_questions = excluded.encrypted_questions, " +
+    "expiry_date = excluded.expiry_date, retry_count = excluded.retry_count, " +
+    "remaining_attempts = excluded.remaining_attempts, " +
+    "created_at = excluded.created_at";
+  static final String SELECT_BY_LINK_ID =
+    "SELECT " + COLUMNS + " FROM secure_file WHERE link_id = ?";
+  static final String UPDATE_BLOB_PATH =
+    "UPDATE secure_file SET blob_path = ? WHERE file_id = ?";
+  static final String DELETE = "DELETE FROM secure_file WHERE file_id = ?";
+  static final String SELECT_FILE_ID =
+    "SELECT 1 FROM secure_file WHERE file_id = ?";
+  static final String SELECT_EXPIRED_BEFORE =
+    "SELECT " +
+    COLUMNS +
+    " FROM secure_file WHERE expiry_date < ? ORDER BY expiry_date";
+
+  private static final String _EXPIRED_COLUMNS =
+    "file_id, link_id, blob_path, expiry_date";
+
+  static final String SELECT_EXPIRED_PAGE =
+    "SELECT " +
+    _EXPIRED_COLUMNS +
+    " FROM secure_file WHERE expiry_date < ?" +
+    " ORDER BY expiry_date, file_id LIMIT ?";
+  static final String SELECT_EXPIRED_PAGE_AFTER =
+    "SELECT " +
+    _EXPIRED_COLUMNS +
+    " FROM secure_file WHERE expiry_date < ?" +
+    " AND (expiry_date, file_id) > (?, ?)" +
+    " ORDER BY expiry_date, file_id LIMIT ?";
+
+  private static final Comparator<ExpiredFile> _EXPIRED_ORDER =
+    Comparator.comparing(ExpiredFile::expiryDate).thenComparing(file ->
+      file.fileId().value()
+    );
+
+  private final List<SqliteShard> _shards;
+
+  public JdbcSecureFileRepositoryAdapter(JdbcRepositoryProperties properties) {
+    Objects.requireNonNull(properties, "properties must not be null");
+    _shards = new ArrayList<>(properties.shards());
+    try {
+      for (int i = 0; i < properties.shards(); i++) {
+        _shards.add(
+          new SqliteShard(
+            SqliteShard.urlOf(properties.url(), i, properties.shards()),
+            String.valueOf(i),
+            properties
+          )
+        );
+      }
+    } catch (RuntimeException exc) {
+      close();
+      throw exc;
+    }
+    log.info(
+      "JDBC secure file repository opened at {} with {} shard(s) of {} reader(s)",
+      properties.url(),
+      _shards.size(),
+      properties.readPoolSize()
+    );
+  }
+
+  /** Returns the number of database files records are spread over. */
+  public int getShardCount() {
+    return _shards.size();
+  }
+
+  @Override
+  public void save(SecureFile file) {
+    Objects.requireNonNull(file, "file must not be null");
+    _shardOf(file.linkId()).write("Failed to save " + file.fileId(), writer -> {
+      PreparedStatement upsert = writer.prepare(UPSERT);
+      bind(upsert, file);
+      upsert.executeUpdate();
+    });
+  }
+
+  @Override
+  public Optional<SecureFile> findByLinkId(LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    return _shardOf(linkId).read("Failed to find " + linkId, reader -> {
+      PreparedStatement select = reader.prepare(SELECT_BY_LINK_ID);
+      select.setString(1, linkId.value());
+      try (ResultSet rows = select.executeQuery()) {
+        return rows.next() ? Optional.of(map(rows)) : Optional.empty();
+      }
+    });
+  }
+
+  @Override
+  public void updateBlobPath(FileId fileId, PathReference blobPath) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    Objects.requireNonNull(blobPath, "blobPath must not be null");
+    _writeHolding(fileId, "Failed to update blob path of " + fileId, writer -> {
+      PreparedStatement update = writer.prepare(UPDATE_BLOB_PATH);
+      update.setString(1, blobPath.value());
+      update.setString(2, fileId.value());
+      update.executeUpdate();
+    });
+  }
+
+  @Override
+  public void delete(FileId fileId) {
+    Objects.requireNonNull(fileId, "fileId must not be null");
+    _writeHolding(fileId, "Failed to delete " + fileId, writer -> {
+      PreparedStatement delete = writer.prepare(DELETE);
+      delete.setString(1, fileId.value());
+      delete.executeUpdate();
+    });
+  }
+
+  @Override
+  public List<SecureFile> findExpiredBefore(Instant timestamp) {
+    Objects.requireNonNull(timestamp, "timestamp must not be null");
+    String failure = "Failed to find files expired before " + timestamp;
+    List<SecureFile> expired = new ArrayList<>();
+    for (SqliteShard shard : _shards) {
+      shard.read(failure, reader -> {
+        PreparedStatement select = reader.prepare(SELECT_EXPIRED_BEFORE);
+        select.setLong(1, timestamp.toEpochMilli());
+        try (ResultSet rows = select.executeQuery()) {
+          while (rows.next()) {
+            expired.add(map(rows));
+          }
+        }
+        return null;
+      });
+    }
+    if (_shards.size() > 1) {
+      expired.sort(Comparator.comparing(file -> file.specs().expiryDate()));
+    }
+    return expired;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>With several shards each one returns its first {@code limit} rows after the cursor;
+   * the page is the first {@code limit} rows of their merge.
+   */
+  @Override
+  public List<ExpiredFile> findExpiredBefore(
+    Instant timestamp,
+    ExpiredFile after,
+    int limit
+  ) {
+    Objects.requireNonNull(timestamp, "timestamp must not be null");
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+    String failure = "Failed to find files expired before " + timestamp;
+    List<ExpiredFile> page = new ArrayList<>();
+    for (SqliteShard shard : _shards) {
+      page.addAll(
+        shard.read(failure, reader ->
+          _expiredPage(reader, timestamp, after, limit)
+        )
+      );
+    }
+    if (_shards.size() == 1) {
+      return page;
+    }
+    page.sort(_EXPIRED_ORDER);
+    return page.size() > limit
+      ? new ArrayList<>(page.subList(0, limit))
+      : page;
+  }
+
+  /**
+   * Stops accepting writes, waits until every queued write has been committed and
+   * closes all connections.
+   */
+  @Override
+  public void close() {
+    for (SqliteShard shard : _shards) {
+      shard.close();
+    }
+  }
+
+  /** Returns the shard holding the records of a link. */
+  SqliteShard shardOf(String linkId) {
+    return _shards.get(SqliteShard.indexOf(linkId, _shards.size()));
+  }
+
+  /** Returns all shards, in index order. */
+  List<SqliteShard> shards() {
+    return _shards;
+  }
+
+  private SqliteShard _shardOf(LinkId linkId) {
+    return shardOf(linkId.value());
+  }
+
+  /**
+   * Queues a write on the shard holding a file and waits until it has committed. With
+   * several shards, each is probed for the file first; a record left behind in another
+   * shard by an earlier layout is written too, and a missing file is not written at all.
+   */
+  private void _writeHolding(
+    FileId fileId,
+    String failure,
+    SqliteShard.SqlAction action
+  ) {
+    if (_shards.size() == 1) {
+      _shards.get(0).write(failure, action);
+      return;
+    }
+    List<CompletableFuture<Void>> results = new ArrayList<>(1);
+    for (SqliteShard shard : _shards) {
+      if (_holds(shard, fileId, failure)) {
+        results.add(shard.submit(action));
+      }
+    }
+    for (CompletableFuture<Void> result : results) {
+      SqliteShard.join(failure, result);
+    }
+  }
+
+  private static boolean _holds(
+    SqliteShard shard,
+    FileId fileId,
+    String failure
+  ) {
+    return shard.read(failure, reader -> {
+      PreparedStatement select = reader.prepare(SELECT_FILE_ID);
+      select.setString(1, fileId.value());
+      try (ResultSet rows = select.executeQuery()) {
+        return rows.next();
+      }
+    });
+  }
+
+  private static List<ExpiredFile> _expiredPage(
+    SqliteShard.Statements reader,
+    Instant timestamp,
+    ExpiredFile after,
+    int limit
+  ) throws SQLException {
+    PreparedStatement select;
+    if (after == null) {
+      select = reader.prepare(SELECT_EXPIRED_PAGE);
+      select.setLong(1, timestamp.toEpochMilli());
+      select.setInt(2, limit);
+    } else {
+      select = reader.prepare(SELECT_EXPIRED_PAGE_AFTER);
+      select.setLong(1, timestamp.toEpochMilli());
+      select.setLong(2, after.expiryDate().toEpochMilli());
+      select.setString(3, after.fileId().value());
+      select.setInt(4, limit);
+    }
+    List<ExpiredFile> page = new ArrayList<>();
+    try (ResultSet rows = select.executeQuery()) {
+      while (rows.next()) {
+        page.add(
+          new ExpiredFile(
+            new FileId(rows.getString(1)),
+            new LinkId(rows.getString(2)),
+            PathReference.from(rows.getString(3)),
+            Instant.ofEpochMilli(rows.getLong(4))
+          )
+        );
+      }
+    }
+    return page;
+  }
+
+  /** Binds all columns of {@code file} to the parameters of an {@link #UPSERT} statement. */
+  static void bind(PreparedStatement statement, SecureFile file)
+    throws SQLException {
+    statement.setString(1, file.fileId().value());
+    statement.setString(2, file.linkId().value());
+    statement.setString(3, file.blobPath().value());
+    if (file.blobChecksum() == null) {
+      statement.setNull(4, Types.INTEGER);
+    } else {
+      statement.setInt(4, file.blobChecksum().value());
+    }
+    statement.setBytes(5, _bytes(file.sealedEnvelope()));
+    statement.setBytes(6, _bytes(file.sealedSalt()));
+    statement.setBytes(7, _bytes(file.gateHash()));
+    statement.setBytes(8, _bytes(file.encryptedQuestions()));
+    statement.setLong(9, file.specs().expiryDate().toEpochMilli());
+    statement.setInt(10, file.specs().retryCount());
+    statement.setInt(11, file.remainingAttempts());
+    statement.setLong(12, file.createdAt().toEpochMilli());
+  }
+
+  /** Maps the current row of a result set selecting all columns in declaration order. */
+  static SecureFile map(ResultSet row) throws SQLException {
+    long checksum = row.getLong(4);
+    BlobChecksum blobChecksum = row.wasNull()
+      ? null
+      : new BlobChecksum((int) checksum);
+    return new SecureFile(
+      new FileId(row.getString(1)),
+      new LinkId(row.getString(2)),
+      PathReference.from(row.getString(3)),
+      blobChecksum,
+      new SealedBlob(row.getBytes(5)),
+      new SealedBlob(row.getBytes(6)),
+      new GateHash(row.getBytes(7)),
+      new Blob(row.getBytes(8)),
+      new FileSpecs(Instant.ofEpochMilli(row.getLong(9)), row.getInt(10)),
+      row.getInt(11),
+      Instant.ofEpochMilli(row.getLong(12))
+    );
+  }
+
+  private static byte[] _bytes(Blob blob) {
+    if (blob instanceof SafeBlob safe) {
+      return safe.getBytes();
+    }
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
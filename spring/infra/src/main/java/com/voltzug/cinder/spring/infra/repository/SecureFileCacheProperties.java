@@ -0,0 +1,48 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the secure file lookup cache ({@code cinder.repository.cache.*}).
+ *
+ * @param enabled    whether link lookups are cached in front of the repository
+ * @param maxEntries maximum number of cached files; the least recently used is evicted beyond it
+ * @param ttl        maximum time a file stays cached; never longer than until the file expires
+ */
+@ConfigurationProperties(prefix = "cinder.repository.cache")
+public record SecureFileCacheProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("10000") int maxEntries,
+  @DefaultValue("30s") Duration ttl
+) {
+  public SecureFileCacheProperties {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException(
+        "cinder.repository.cache.max-entries must be positive"
+      );
+    }
+    Objects.requireNonNull(ttl, "ttl must not be null");
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException(
+        "cinder.repository.cache.ttl must be positive"
+      );
+    }
+  }
+}
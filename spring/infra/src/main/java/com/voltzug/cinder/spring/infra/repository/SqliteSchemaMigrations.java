@@ -0,0 +1,141 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Versioned schema migrations of the SQLite repository database.
+ *
+ * <p>Migrations are SQL scripts in {@code db/migration/sqlite} on the classpath, named
+ * {@code V<version>__<description>.sql} and applied in order. The schema version is kept in
+ * SQLite's {@code user_version} header field; each migration runs in its own transaction
+ * together with the version bump, so an interrupted migration is retried on the next start.
+ */
+@Slf4j
+final class SqliteSchemaMigrations {
+
+  private static final String _LOCATION = "db/migration/sqlite/";
+
+  /** Migration scripts, the version of each being its position in the list. */
+  static final List<String> MIGRATIONS = List.of(
+    "V1__create_secure_file.sql",
+    "V2__index_secure_file_expiry.sql",
+    "V3__create_download_limit.sql"
+  );
+
+  private SqliteSchemaMigrations() {}
+
+  /**
+   * Applies all migrations newer than the schema version of the database.
+   * The connection must be in auto-commit mode.
+   *
+   * @param connection the writable connection to migrate
+   * @return the number of migrations applied
+   * @throws SQLException if a migration fails; it is rolled back
+   * @throws IllegalStateException if the database is newer than the known migrations
+   */
+  static int migrate(Connection connection) throws SQLException {
+    int current = version(connection);
+    if (current > MIGRATIONS.size()) {
+      throw new IllegalStateException(
+        "Database schema version " +
+          current +
+          " is newer than the latest known migration " +
+          MIGRATIONS.size()
+      );
+    }
+    for (int version = current + 1; version <= MIGRATIONS.size(); version++) {
+      String script = MIGRATIONS.get(version - 1);
+      _apply(connection, version, script);
+      log.info("Applied repository migration {}", script);
+    }
+    return MIGRATIONS.size() - current;
+  }
+
+  /** Returns the schema version recorded in the database. */
+  static int version(Connection connection) throws SQLException {
+    try (
+      Statement statement = connection.createStatement();
+      ResultSet version = statement.executeQuery("PRAGMA user_version")
+    ) {
+      return version.next() ? version.getInt(1) : 0;
+    }
+  }
+
+  private static void _apply(Connection connection, int version, String script)
+    throws SQLException {
+    List<String> statements = _statements(_read(script));
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      for (String sql : statements) {
+        statement.executeUpdate(sql);
+      }
+      statement.executeUpdate("PRAGMA user_version = " + version);
+      connection.commit();
+    } catch (SQLException exc) {
+      connection.rollback();
+      throw exc;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  private static String _read(String script) {
+    try (
+      InputStream in = SqliteSchemaMigrations.class.getClassLoader()
+        .getResourceAsStream(_LOCATION + script)
+    ) {
+      if (in == null) {
+        throw new IllegalStateException(
+          "Missing repository migration " + _LOCATION + script
+        );
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException exc) {
+      throw new IllegalStateException(
+        "Failed to read repository migration " + script,
+        exc
+      );
+    }
+  }
+
+  /** Splits a script into statements, dropping {@code --} line comments. */
+  private static List<String> _statements(String script) {
+    StringBuilder code = new StringBuilder(script.length());
+    for (String line : script.split("\n")) {
+      String trimmed = line.strip();
+      if (!trimmed.startsWith("--")) {
+        code.append(line).append('\n');
+      }
+    }
+    List<String> statements = new ArrayList<>();
+    for (String sql : code.toString().split(";")) {
+      if (!sql.isBlank()) {
+        statements.add(sql.strip());
+      }
+    }
+    return statements;
+  }
+}
@@ -0,0 +1,495 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.exception.RepositoryException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One SQLite database file of the repository, with its own writer and read connections.
+ *
+ * <p>The database runs in WAL mode, so readers never wait for the writer and the writer never
+ * waits for readers. SQLite admits a single writer, so instead of letting connections
+ * contend for the write lock, all writes are queued on a bounded ring and executed by one
+ * writer thread owning the only writable connection. The writer drains up to
+ * {@code cinder.repository.jdbc.write-batch-size} queued writes into a single transaction
+ * and commits them with one sync; callers return once the transaction holding their write
+ * has committed. Each write runs under its own savepoint, so a write failing inside a batch
+ * is rolled back and fails alone, the rest of the batch commits.
+ * Lookups borrow one of {@code cinder.repository.jdbc.read-pool-size} read-only connections.
+ *
+ * <p>Every connection prepares a statement once, on first use, and reuses it afterwards.
+ * The schema is brought up to date with {@link SqliteSchemaMigrations} when the shard opens.
+ */
+@Slf4j
+final class SqliteShard implements AutoCloseable {
+
+  private static final String _SQLITE_URL_PREFIX = "jdbc:sqlite:";
+  private static final String _DB_EXTENSION = ".db";
+  private static final String _WAL = "wal";
+  private static final int _BUSY_TIMEOUT_MILLIS = 5000;
+  private static final long _IDLE_POLL_MILLIS = 100;
+
+  private final String _url;
+  private final Statements _writerStatements;
+  private final BlockingQueue<PendingWrite> _ring;
+  private final int _batchSize;
+  private final Thread _writer;
+  private final List<Statements> _readers;
+  private final BlockingQueue<Statements> _idleReaders;
+  private volatile boolean _closed;
+
+  SqliteShard(String url, String name, JdbcRepositoryProperties properties) {
+    _url = Objects.requireNonNull(url, "url must not be null");
+    Objects.requireNonNull(properties, "properties must not be null");
+    _readers = new ArrayList<>(properties.readPoolSize());
+    Connection connection;
+    try {
+      connection = openMigrated(url);
+    } catch (SQLException | RuntimeException exc) {
+      throw new RepositoryException(
+        "Failed to open repository database " + url,
+        exc
+      );
+    }
+    _writerStatements = new Statements(connection);
+    try {
+      connection.setAutoCommit(false);
+      for (int i = 0; i < properties.readPoolSize(); i++) {
+        _readers.add(new Statements(_openReader(url)));
+      }
+    } catch (SQLException exc) {
+      _closeConnections();
+      throw new RepositoryException(
+        "Failed to open repository database " + url,
+        exc
+      );
+    }
+    _idleReaders = new ArrayBlockingQueue<>(_readers.size(), false, _readers);
+    _ring = new ArrayBlockingQueue<>(properties.writeQueueCapacity());
+    _batchSize = properties.writeBatchSize();
+    _writer = Thread.ofPlatform()
+      .name("cinder-repository-writer-" + name)
+      .daemon(true)
+      .start(this::_drain);
+  }
+
+  /** Returns the JDBC URL of the database file. */
+  String url() {
+    return _url;
+  }
+
+  /**
+   * Queues a write for the writer thread.
+   *
+   * @return a future completed once the transaction holding the write has committed
+   */
+  CompletableFuture<Void> submit(SqlAction action) {
+    if (_closed) {
+      return CompletableFuture.failedFuture(_closedException());
+    }
+    PendingWrite write = new PendingWrite(action, new CompletableFuture<>());
+    try {
+      _ring.put(write);
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.failedFuture(
+        new RepositoryException("Interrupted while queueing write", exc)
+      );
+    }
+    if (_closed && _ring.remove(write)) {
+      write.result().completeExceptionally(_closedException());
+    }
+    return write.result();
+  }
+
+  /** Queues a write and waits until it has committed. */
+  void write(String failure, SqlAction action) {
+    join(failure, submit(action));
+  }
+
+  /** Runs a lookup on a borrowed read connection. */
+  <T> T read(String failure, SqlQuery<T> query) {
+    if (_closed) {
+      throw _closedException();
+    }
+    Statements reader;
+    try {
+      reader = _idleReaders.take();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new RepositoryException(failure, exc);
+    }
+    try {
+      return query.run(reader);
+    } catch (SQLException exc) {
+      throw new RepositoryException(failure, exc);
+    } finally {
+      _idleReaders.add(reader);
+    }
+  }
+
+  /**
+   * Stops accepting writes, waits until every queued write has been committed and
+   * closes all connections.
+   */
+  @Override
+  public void close() {
+    _closed = true;
+    try {
+      _writer.join();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+    List<PendingWrite> abandoned = new ArrayList<>();
+    _ring.drainTo(abandoned);
+    for (PendingWrite write : abandoned) {
+      write.result().completeExceptionally(_closedException());
+    }
+    _closeConnections();
+  }
+
+  /** Waits for a submitted write, unwrapping its failure. */
+  static void join(String failure, CompletableFuture<Void> result) {
+    try {
+      result.join();
+    } catch (CompletionException exc) {
+      if (exc.getCause() instanceof RepositoryException cause) {
+        throw cause;
+      }
+      throw new RepositoryException(failure, exc.getCause());
+    }
+  }
+
+  /**
+   * Returns the shard a link identifier is routed to: the CRC32 of its UTF-8 bytes
+   * modulo the number of shards, stable across restarts and JVMs.
+   */
+  static int indexOf(String linkId, int shards) {
+    CRC32 crc = new CRC32();
+    crc.update(linkId.getBytes(StandardCharsets.UTF_8));
+    return (int) (crc.getValue() % shards);
+  }
+
+  /**
+   * Returns the JDBC URL of shard {@code index} of {@code shards}: the configured URL
+   * itself for a single shard, otherwise the database file name suffixed with
+   * {@code -<index>}, e.g. {@code cinder-0.db}.
+   */
+  static String urlOf(String url, int index, int shards) {
+    return shards == 1 ? url : suffixedUrl(url, index);
+  }
+
+  /** Returns {@code url} with {@code -<index>} appended to the database file name. */
+  static String suffixedUrl(String url, int index) {
+    int query = url.indexOf('?');
+    String base = query < 0 ? url : url.substring(0, query);
+    String parameters = query < 0 ? "" : url.substring(query);
+    String suffix = "-" + index;
+    if (base.endsWith(_DB_EXTENSION)) {
+      base =
+        base.substring(0, base.length() - _DB_EXTENSION.length()) +
+        suffix +
+        _DB_EXTENSION;
+    } else {
+      base = base + suffix;
+    }
+    return base + parameters;
+  }
+
+  /**
+   * Returns the database file of a SQLite JDBC URL, or null for URLs not naming a file.
+   */
+  static Path fileOf(String url) {
+    if (!url.startsWith(_SQLITE_URL_PREFIX)) {
+      return null;
+    }
+    String file = url.substring(_SQLITE_URL_PREFIX.length());
+    int query = file.indexOf('?');
+    if (query >= 0) {
+      file = file.substring(0, query);
+    }
+    if (file.isEmpty() || file.startsWith(":")) {
+      return null;
+    }
+    return Path.of(file).toAbsolutePath();
+  }
+
+  /**
+   * Opens a writable connection in WAL mode with an up to date schema,
+   * creating the directory of the database file if needed.
+   */
+  static Connection openMigrated(String url) throws SQLException {
+    _createDatabaseDirectory(url);
+    Connection connection = DriverManager.getConnection(url);
+    try {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("PRAGMA busy_timeout = " + _BUSY_TIMEOUT_MILLIS);
+        try (
+          ResultSet mode = statement.executeQuery("PRAGMA journal_mode = WAL")
+        ) {
+          if (!mode.next() || !_WAL.equalsIgnoreCase(mode.getString(1))) {
+            log.warn(
+              "SQLite database {} is not in WAL mode, readers may block",
+              url
+            );
+          }
+        }
+      }
+      SqliteSchemaMigrations.migrate(connection);
+    } catch (SQLException | RuntimeException exc) {
+      connection.close();
+      throw exc;
+    }
+    return connection;
+  }
+
+  private static Connection _openReader(String url) throws SQLException {
+    Connection connection = DriverManager.getConnection(url);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("PRAGMA busy_timeout = " + _BUSY_TIMEOUT_MILLIS);
+      statement.execute("PRAGMA query_only = true");
+    } catch (SQLException exc) {
+      connection.close();
+      throw exc;
+    }
+    return connection;
+  }
+
+  private static void _createDatabaseDirectory(String url) {
+    Path file = fileOf(url);
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.getParent());
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to create database directory " + file.getParent(),
+        exc
+      );
+    }
+  }
+
+  private void _drain() {
+    List<PendingWrite> batch = new ArrayList<>(_batchSize);
+    while (!_closed || !_ring.isEmpty()) {
+      try {
+        PendingWrite first = _ring.poll(
+          _IDLE_POLL_MILLIS,
+          TimeUnit.MILLISECONDS
+        );
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        _ring.drainTo(batch, _batchSize - 1);
+        _commit(batch);
+      } catch (InterruptedException exc) {
+        log.warn("Repository writer interrupted, stopping");
+        return;
+      } catch (RuntimeException exc) {
+        log.error("Repository commit failed", exc);
+      } finally {
+        if (_abort(batch)) {
+          _rollback();
+        }
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Runs a drained batch in one transaction. Each write runs under a savepoint: a write
+   * failing with any exception is rolled back to it, so none of its statements commit,
+   * and only fails its write; the others complete once the commit succeeded. If a
+   * savepoint itself fails, the batch is aborted and rolled back by the caller.
+   */
+  private void _commit(List<PendingWrite> batch) {
+    Connection connection = _writerStatements.connection();
+    List<PendingWrite> executed = new ArrayList<>(batch.size());
+    for (PendingWrite write : batch) {
+      Savepoint savepoint = _savepoint(connection);
+      try {
+        write.action().run(_writerStatements);
+      } catch (SQLException | RuntimeException exc) {
+        _rollbackTo(connection, savepoint);
+        write.result().completeExceptionally(exc);
+        continue;
+      }
+      _release(connection, savepoint);
+      executed.add(write);
+    }
+    try {
+      _writerStatements.connection().commit();
+    } catch (SQLException exc) {
+      _rollback();
+      for (PendingWrite write : executed) {
+        write.result().completeExceptionally(exc);
+      }
+      return;
+    }
+    for (PendingWrite write : executed) {
+      write.result().complete(null);
+    }
+  }
+
+  private static Savepoint _savepoint(Connection connection) {
+    try {
+      return connection.setSavepoint();
+    } catch (SQLException exc) {
+      throw new RepositoryException("Failed to set repository savepoint", exc);
+    }
+  }
+
+  private static void _rollbackTo(Connection connection, Savepoint savepoint) {
+    try {
+      connection.rollback(savepoint);
+      connection.releaseSavepoint(savepoint);
+    } catch (SQLException exc) {
+      throw new RepositoryException(
+        "Failed to roll back to repository savepoint",
+        exc
+      );
+    }
+  }
+
+  private static void _release(Connection connection, Savepoint savepoint) {
+    try {
+      connection.releaseSavepoint(savepoint);
+    } catch (SQLException exc) {
+      throw new RepositoryException(
+        "Failed to release repository savepoint",
+        exc
+      );
+    }
+  }
+
+  private void _rollback() {
+    try {
+      _writerStatements.connection().rollback();
+    } catch (SQLException exc) {
+      log.warn("Failed to roll back repository transaction", exc);
+    }
+  }
+
+  private void _closeConnections() {
+    _writerStatements.close();
+    for (Statements reader : _readers) {
+      reader.close();
+    }
+  }
+
+  /**
+   * Fails the writes of a batch that did not complete.
+   *
+   * @return true if any write was aborted, so the transaction must be rolled back
+   */
+  private static boolean _abort(List<PendingWrite> batch) {
+    boolean aborted = false;
+    for (PendingWrite write : batch) {
+      if (!write.result().isDone()) {
+        aborted = true;
+        write
+          .result()
+          .completeExceptionally(
+            new RepositoryException("Repository commit aborted")
+          );
+      }
+    }
+    return aborted;
+  }
+
+  private static RepositoryException _closedException() {
+    return new RepositoryException("Secure file repository is closed");
+  }
+
+  /** A unit of work executed by the writer thread inside a batch transaction. */
+  @FunctionalInterface
+  interface SqlAction {
+    void run(Statements writer) throws SQLException;
+  }
+
+  /** A lookup executed on a borrowed read connection. */
+  @FunctionalInterface
+  interface SqlQuery<T> {
+    T run(Statements reader) throws SQLException;
+  }
+
+  /** A queued write waiting for its batch to commit. */
+  private record PendingWrite(
+    SqlAction action,
+    CompletableFuture<Void> result
+  ) {}
+
+  /**
+   * A connection with the statements prepared on it so far.
+   * Used by one thread at a time: the writer thread, or the borrower of a read connection.
+   */
+  static final class Statements implements AutoCloseable {
+
+    private final Connection _connection;
+    private final Map<String, PreparedStatement> _prepared = new HashMap<>();
+
+    Statements(Connection connection) {
+      _connection = connection;
+    }
+
+    /** Returns the statement for {@code sql}, preparing it on first use. */
+    PreparedStatement prepare(String sql) throws SQLException {
+      PreparedStatement statement = _prepared.get(sql);
+      if (statement == null) {
+        statement = _connection.prepareStatement(sql);
+        _prepared.put(sql, statement);
+      }
+      return statement;
+    }
+
+    Connection connection() {
+      return _connection;
+    }
+
+    @Override
+    public void close() {
+      try {
+        _connection.close();
+      } catch (SQLException exc) {
+        log.warn("Failed to close repository connection", exc);
+      }
+    }
+  }
+}
@@ -0,0 +1,414 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.exception.RepositoryException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline migration of the SQLite repository files to a new number of shards.
+ *
+ * <p>Every database file of the repository, the unsharded {@code cinder.db} as well as any
+ * {@code cinder-<i>.db} of a previous layout, is scanned in pages of file identifiers. Rows
+ * not stored in the shard {@link SqliteShard#indexOf} selects for their link identifier
+ * under the new layout are copied into it, and removed from their old file once the copy has
+ * committed; a run interrupted in between leaves a row in both files, and the next run
+ * completes its move. Download limit rows written by {@link WriteBehindDownloadLimitAdapter}
+ * are moved the same way. Files left empty outside the new layout are deleted.
+ *
+ * <p>The repository must not be open while the rebalancer runs. It runs on startup with
+ * {@code cinder.repository.jdbc.rebalance-on-startup}, or from the command line:
+ * <pre>{@code java ... SqliteShardRebalancer jdbc:sqlite:/var/lib/cinder/cinder.db 4}</pre>
+ */
+@Slf4j
+public class SqliteShardRebalancer {
+
+  private static final int _PAGE_SIZE = 1000;
+  private static final String _SELECT_FIRST_PAGE =
+    "SELECT " +
+    JdbcSecureFileRepositoryAdapter.COLUMNS +
+    " FROM secure_file ORDER BY file_id LIMIT ?";
+  private static final String _SELECT_PAGE =
+    "SELECT " +
+    JdbcSecureFileRepositoryAdapter.COLUMNS +
+    " FROM secure_file WHERE file_id > ? ORDER BY file_id LIMIT ?";
+  private static final String _SELECT_LIMITS_PAGE =
+    "SELECT link_id, generation, remaining_attempts, expiry_date, " +
+    "last_attempt_at FROM download_limit WHERE link_id > ? " +
+    "ORDER BY link_id LIMIT ?";
+  private static final String _COUNT =
+    "SELECT (SELECT count(*) FROM secure_file) + " +
+    "(SELECT count(*) FROM download_limit)";
+  private static final String[] _SIDE_FILE_SUFFIXES = { "-wal", "-shm" };
+
+  private final String _url;
+  private final int _shards;
+
+  /**
+   * @param url    JDBC URL of the repository, as configured in {@code cinder.repository.jdbc.url}
+   * @param shards number of shards to move the records into
+   */
+  public SqliteShardRebalancer(String url, int shards) {
+    _url = Objects.requireNonNull(url, "url must not be null");
+    if (SqliteShard.fileOf(url) == null) {
+      throw new IllegalArgumentException("url must point to a database file");
+    }
+    if (shards < 1) {
+      throw new IllegalArgumentException("shards must be positive");
+    }
+    _shards = shards;
+  }
+
+  /**
+   * Moves every record into the shard it belongs to.
+   *
+   * @return the number of records moved
+   */
+  public int rebalance() {
+    log.info("Rebalancing repository {} into {} shard(s)", _url, _shards);
+    List<Connection> targets = new ArrayList<>(_shards);
+    int moved = 0;
+    try {
+      for (int i = 0; i < _shards; i++) {
+        targets.add(_open(SqliteShard.urlOf(_url, i, _shards)));
+      }
+      for (var source : _sources().entrySet()) {
+        moved += _drain(source.getKey(), source.getValue(), targets);
+      }
+    } catch (SQLException | RuntimeException exc) {
+      throw new RepositoryException("Failed to rebalance " + _url, exc);
+    } finally {
+      for (Connection target : targets) {
+        _close(target);
+      }
+    }
+    log.info("Rebalancing finished, {} record(s) moved", moved);
+    return moved;
+  }
+
+  /**
+   * Rebalances a repository from the command line.
+   *
+   * @param args the JDBC URL of the repository and the new number of shards
+   */
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.err.println(
+        "Usage: SqliteShardRebalancer <jdbc-url> <shards>"
+      );
+      System.exit(2);
+    }
+    int moved = new SqliteShardRebalancer(
+      args[0],
+      Integer.parseInt(args[1])
+    ).rebalance();
+    System.out.println(moved + " record(s) moved");
+  }
+
+  /**
+   * Moves the misplaced rows of one file and deletes it if it is left empty outside the
+   * new layout.
+   *
+   * @param index the shard the file is under the new layout, or -1 if it is not part of it
+   */
+  private int _drain(String url, int index, List<Connection> targets)
+    throws SQLException {
+    if (index >= 0) {
+      Connection source = targets.get(index);
+      return (
+        _move(url, source, index, targets) +
+        _moveLimits(source, index, targets)
+      );
+    }
+    int moved;
+    boolean empty;
+    try (Connection source = _open(url)) {
+      moved =
+        _move(url, source, index, targets) +
+        _moveLimits(source, index, targets);
+      empty = _isEmpty(source);
+    }
+    if (empty) {
+      _deleteDatabase(url);
+      log.info("Removed empty database {}", url);
+    }
+    return moved;
+  }
+
+  /**
+   * Copies each page of misplaced rows into their shards, commits them there and only
+   * then deletes them from the source.
+   */
+  private int _move(
+    String url,
+    Connection source,
+    int index,
+    List<Connection> targets
+  ) throws SQLException {
+    int moved = 0;
+    String cursor = null;
+    List<SecureFile> page;
+    do {
+      page = _page(source, cursor);
+      if (page.isEmpty()) {
+        break;
+      }
+      cursor = page.getLast().fileId().value();
+      List<SecureFile> misplaced = new ArrayList<>();
+      boolean[] touched = new boolean[_shards];
+      for (SecureFile file : page) {
+        int target = SqliteShard.indexOf(file.linkId().value(), _shards);
+        if (target != index) {
+          _upsert(targets.get(target), file);
+          touched[target] = true;
+          misplaced.add(file);
+        }
+      }
+      for (int i = 0; i < _shards; i++) {
+        if (touched[i]) {
+          targets.get(i).commit();
+        }
+      }
+      _delete(source, misplaced);
+      moved += misplaced.size();
+    } while (page.size() == _PAGE_SIZE);
+    if (moved > 0) {
+      log.info("Moved {} record(s) out of {}", moved, url);
+    }
+    return moved;
+  }
+
+  /**
+   * Moves the misplaced download limit rows of one file, page by page like
+   * {@link #_move}.
+   */
+  private int _moveLimits(
+    Connection source,
+    int index,
+    List<Connection> targets
+  ) throws SQLException {
+    int moved = 0;
+    String cursor = "";
+    int rows;
+    do {
+      List<String> misplaced = new ArrayList<>();
+      boolean[] touched = new boolean[_shards];
+      rows = 0;
+      try (
+        PreparedStatement select = source.prepareStatement(_SELECT_LIMITS_PAGE)
+      ) {
+        select.setString(1, cursor);
+        select.setInt(2, _PAGE_SIZE);
+        try (ResultSet page = select.executeQuery()) {
+          while (page.next()) {
+            rows++;
+            cursor = page.getString(1);
+            int target = SqliteShard.indexOf(cursor, _shards);
+            if (target != index) {
+              _upsertLimit(targets.get(target), page);
+              touched[target] = true;
+              misplaced.add(cursor);
+            }
+          }
+        }
+      }
+      for (int i = 0; i < _shards; i++) {
+        if (touched[i]) {
+          targets.get(i).commit();
+        }
+      }
+      _deleteLimits(source, misplaced);
+      moved += misplaced.size();
+    } while (rows == _PAGE_SIZE);
+    return moved;
+  }
+
+  private static void _upsertLimit(Connection target, ResultSet row)
+    throws SQLException {
+    try (
+      PreparedStatement upsert = target.prepareStatement(
+        WriteBehindDownloadLimitAdapter.UPSERT
+      )
+    ) {
+      for (int column = 1; column <= 5; column++) {
+        upsert.setObject(column, row.getObject(column));
+      }
+      upsert.executeUpdate();
+    }
+  }
+
+  private static void _deleteLimits(Connection source, List<String> links)
+    throws SQLException {
+    if (links.isEmpty()) {
+      return;
+    }
+    try (
+      PreparedStatement delete = source.prepareStatement(
+        WriteBehindDownloadLimitAdapter.DELETE
+      )
+    ) {
+      for (String link : links) {
+        delete.setString(1, link);
+        delete.executeUpdate();
+      }
+    }
+    source.commit();
+  }
+
+  private static List<SecureFile> _page(Connection source, String cursor)
+    throws SQLException {
+    PreparedStatement select;
+    if (cursor == null) {
+      select = source.prepareStatement(_SELECT_FIRST_PAGE);
+      select.setInt(1, _PAGE_SIZE);
+    } else {
+      select = source.prepareStatement(_SELECT_PAGE);
+      select.setString(1, cursor);
+      select.setInt(2, _PAGE_SIZE);
+    }
+    List<SecureFile> page = new ArrayList<>(_PAGE_SIZE);
+    try (select; ResultSet rows = select.executeQuery()) {
+      while (rows.next()) {
+        page.add(JdbcSecureFileRepositoryAdapter.map(rows));
+      }
+    }
+    return page;
+  }
+
+  private static void _upsert(Connection target, SecureFile file)
+    throws SQLException {
+    try (
+      PreparedStatement upsert = target.prepareStatement(
+        JdbcSecureFileRepositoryAdapter.UPSERT
+      )
+    ) {
+      JdbcSecureFileRepositoryAdapter.bind(upsert, file);
+      upsert.executeUpdate();
+    }
+  }
+
+  private static void _delete(Connection source, List<SecureFile> files)
+    throws SQLException {
+    if (files.isEmpty()) {
+      return;
+    }
+    try (
+      PreparedStatement delete = source.prepareStatement(
+        JdbcSecureFileRepositoryAdapter.DELETE
+      )
+    ) {
+      for (SecureFile file : files) {
+        delete.setString(1, file.fileId().value());
+        delete.executeUpdate();
+      }
+    }
+    source.commit();
+  }
+
+  private static boolean _isEmpty(Connection connection) throws SQLException {
+    try (
+      PreparedStatement count = connection.prepareStatement(_COUNT);
+      ResultSet rows = count.executeQuery()
+    ) {
+      return rows.next() && rows.getLong(1) == 0;
+    }
+  }
+
+  /**
+   * Finds the existing database files of the repository, keyed by URL, with the shard
+   * index each one has under the new layout, or -1 if it is not part of it.
+   */
+  private TreeMap<String, Integer> _sources() {
+    Path base = SqliteShard.fileOf(_url);
+    String template = SqliteShard.fileOf(SqliteShard.suffixedUrl(_url, 0))
+      .getFileName()
+      .toString();
+    int marker = template.lastIndexOf("-0");
+    Pattern suffixed = Pattern.compile(
+      Pattern.quote(template.substring(0, marker)) +
+        "-(\\d+)" +
+        Pattern.quote(template.substring(marker + 2))
+    );
+    TreeMap<String, Integer> sources = new TreeMap<>();
+    if (Files.isRegularFile(base)) {
+      sources.put(_url, _shards == 1 ? 0 : -1);
+    }
+    try (Stream<Path> files = Files.list(base.getParent())) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Matcher match = suffixed.matcher(file.getFileName().toString());
+        if (!match.matches() || !Files.isRegularFile(file)) {
+          continue;
+        }
+        int suffix = Integer.parseInt(match.group(1));
+        sources.put(
+          SqliteShard.suffixedUrl(_url, suffix),
+          _shards > 1 && suffix < _shards ? suffix : -1
+        );
+      }
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to list databases in " + base.getParent(),
+        exc
+      );
+    }
+    return sources;
+  }
+
+  private static Connection _open(String url) throws SQLException {
+    Connection connection = SqliteShard.openMigrated(url);
+    try {
+      connection.setAutoCommit(false);
+    } catch (SQLException exc) {
+      connection.close();
+      throw exc;
+    }
+    return connection;
+  }
+
+  private static void _deleteDatabase(String url) {
+    Path file = SqliteShard.fileOf(url);
+    try {
+      Files.deleteIfExists(file);
+      for (String suffix : _SIDE_FILE_SUFFIXES) {
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + suffix));
+      }
+    } catch (IOException exc) {
+      log.warn("Failed to remove database {}", file, exc);
+    }
+  }
+
+  private static void _close(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException exc) {
+      log.warn("Failed to close repository database", exc);
+    }
+  }
+}
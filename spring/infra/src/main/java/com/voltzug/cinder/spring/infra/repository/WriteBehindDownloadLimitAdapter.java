@@ -0,0 +1,470 @@
+package com.voltzug.cinder.spring.infra.repository;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.entity.DownloadLimit;
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.exception.InvalidLinkException;
+import com.voltzug.cinder.core.exception.MaxAttemptsExceededException;
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.core.port.out.DownloadLimitPort;
+import com.voltzug.cinder.spring.infra.repository.DownloadLimitLog.Entry;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DownloadLimitPort} keeping the remaining attempts of every link in memory and
+ * writing them behind into the repository database.
+ *
+ * <p>The state of a link is a single {@link AtomicLong} packing its remaining attempts with
+ * the time of its last attempt, held in a {@link ConcurrentHashMap}. {@link #decrementAttempts}
+ * is a compare-and-set loop on it that never goes below zero, so concurrent attempts each
+ * consume exactly one attempt without a lock or a database round trip. Every change is
+ * appended to a {@link DownloadLimitLog} before the call returns, and its link is marked dirty.
+ *
+ * <p>Every {@code cinder.repository.download-limit.checkpoint-interval} a checkpoint rotates
+ * the log, drops expired limits, writes the current state of the dirty links into their
+ * {@link SqliteShard} as one batch per shard and deletes the sealed log segments once all
+ * shards have committed. On startup the rows of all shards are loaded and the log left by
+ * the previous run is replayed over them. Log records carry the whole state of a link and
+ * the generation of the initialization it belongs to; within a generation the lowest count
+ * wins, so replay restores the exact counts of the last run whatever order concurrent
+ * attempts reached the log in.
+ */
+@Slf4j
+public class WriteBehindDownloadLimitAdapter
+  implements DownloadLimitPort, AutoCloseable {
+
+  static final String SELECT_ALL =
+    "SELECT link_id, generation, remaining_attempts, expiry_date, " +
+    "last_attempt_at FROM download_limit";
+  static final String UPSERT =
+    "INSERT INTO download_limit (link_id, generation, remaining_attempts, " +
+    "expiry_date, last_attempt_at) VALUES (?, ?, ?, ?, ?) " +
+    "ON CONFLICT (link_id) DO UPDATE SET generation = excluded.generation, " +
+    "remaining_attempts = excluded.remaining_attempts, " +
+    "expiry_date = excluded.expiry_date, " +
+    "last_attempt_at = excluded.last_attempt_at";
+  static final String DELETE = "DELETE FROM download_limit WHERE link_id = ?";
+
+  private static final int _REMAINING_BITS = 8;
+  private static final long _REMAINING_MASK = (1L << _REMAINING_BITS) - 1;
+  private static final String _CHECKPOINT_FAILURE =
+    "Failed to checkpoint download limits";
+
+  private final JdbcSecureFileRepositoryAdapter _repository;
+  private final ClockPort _clock;
+  private final DownloadLimitLog _log;
+  private final Map<String, Limit> _limits = new ConcurrentHashMap<>();
+  private final Set<String> _dirty = ConcurrentHashMap.newKeySet();
+  private final AtomicLong _generations;
+  private final ReentrantLock _checkpointLock = new ReentrantLock();
+  private final Thread _checkpointer;
+  private volatile boolean _closed;
+
+  public WriteBehindDownloadLimitAdapter(
+    JdbcSecureFileRepositoryAdapter repository,
+    DownloadLimitProperties properties,
+    ClockPort clock
+  ) {
+    _repository = Objects.requireNonNull(
+      repository,
+      "repository must not be null"
+    );
+    Objects.requireNonNull(properties, "properties must not be null");
+    _clock = Objects.requireNonNull(clock, "clock must not be null");
+    _log = new DownloadLimitLog(
+      Path.of(properties.logDirectory()),
+      properties.force()
+    );
+    _generations = new AtomicLong(_recover());
+    checkpoint();
+    Duration interval = properties.checkpointInterval();
+    _checkpointer = Thread.ofPlatform()
+      .name("cinder-download-limit-checkpoint")
+      .daemon(true)
+      .start(() -> _checkpointLoop(interval));
+  }
+
+  @Override
+  public void initialize(LinkId linkId, FileSpecs specs) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    Objects.requireNonNull(specs, "specs must not be null");
+    Limit limit = new Limit(
+      _generations.incrementAndGet(),
+      specs.expiryDate().toEpochMilli(),
+      _pack(specs.retryCount(), 0)
+    );
+    _limits.put(linkId.value(), limit);
+    _record(linkId.value(), limit, limit.state.get());
+  }
+
+  @Override
+  public Optional<DownloadLimit> get(LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    Limit limit = _limits.get(linkId.value());
+    return limit == null
+      ? Optional.empty()
+      : Optional.of(limit.toDownloadLimit(linkId, limit.state.get()));
+  }
+
+  /**
+   * Consumes one attempt of a link.
+   *
+   * @throws InvalidLinkException         if the link has no download limit
+   * @throws MaxAttemptsExceededException if no attempt is left
+   */
+  @Override
+  public DownloadLimit decrementAttempts(LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    Limit limit = _limits.get(linkId.value());
+    if (limit == null) {
+      throw new InvalidLinkException(
+        linkId,
+        "No download limit for link: " + linkId.value()
+      );
+    }
+    long now = _clock.now().toEpochMilli();
+    long state;
+    long next;
+    do {
+      state = limit.state.get();
+      int remaining = _remaining(state);
+      if (remaining == 0) {
+        throw new MaxAttemptsExceededException(linkId);
+      }
+      next = _pack(remaining - 1, Math.max(now, _lastAttempt(state)));
+    } while (!limit.state.compareAndSet(state, next));
+    _record(linkId.value(), limit, next);
+    return limit.toDownloadLimit(linkId, next);
+  }
+
+  @Override
+  public void delete(LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    Limit removed = _limits.remove(linkId.value());
+    if (removed == null) {
+      return;
+    }
+    _dirty.add(linkId.value());
+    _log.append(
+      new Entry(
+        DownloadLimitLog.DELETE,
+        linkId.value(),
+        removed.generation,
+        0,
+        removed.expiryMillis,
+        0
+      )
+    );
+  }
+
+  /**
+   * Drops expired limits and writes the state of every link changed since the last
+   * checkpoint into the database, then deletes the log segments it covers. Runs on the
+   * checkpoint thread; a failed checkpoint keeps the links dirty and the segments, and is
+   * retried by the next one.
+   *
+   * @throws com.voltzug.cinder.core.exception.RepositoryException if a shard fails to commit
+   */
+  public void checkpoint() {
+    _checkpointLock.lock();
+    try {
+      long sealed = _log.rotate();
+      _dropExpired(_clock.now().toEpochMilli());
+      List<String> links = new ArrayList<>(_dirty.size());
+      for (Iterator<String> dirty = _dirty.iterator(); dirty.hasNext(); ) {
+        links.add(dirty.next());
+        dirty.remove();
+      }
+      try {
+        _write(links);
+      } catch (RuntimeException exc) {
+        _dirty.addAll(links);
+        throw exc;
+      }
+      _log.deleteThrough(sealed);
+    } finally {
+      _checkpointLock.unlock();
+    }
+  }
+
+  /** Returns the number of links with a download limit. */
+  public int size() {
+    return _limits.size();
+  }
+
+  /**
+   * Stops the checkpoint thread, checkpoints all remaining changes and closes the log.
+   * Must be closed before the repository it writes into.
+   */
+  @Override
+  public void close() {
+    _closed = true;
+    LockSupport.unpark(_checkpointer);
+    try {
+      _checkpointer.join();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      checkpoint();
+    } catch (RuntimeException exc) {
+      log.warn("Final download limit checkpoint failed, log kept", exc);
+    }
+    _log.close();
+  }
+
+  /** Marks a link dirty and logs its state; in this order, see {@link #checkpoint}. */
+  private void _record(String linkId, Limit limit, long state) {
+    _dirty.add(linkId);
+    _log.append(
+      new Entry(
+        DownloadLimitLog.UPDATE,
+        linkId,
+        limit.generation,
+        _remaining(state),
+        limit.expiryMillis,
+        _lastAttempt(state)
+      )
+    );
+  }
+
+  private void _dropExpired(long now) {
+    for (Map.Entry<String, Limit> entry : _limits.entrySet()) {
+      Limit limit = entry.getValue();
+      if (now > limit.expiryMillis && _limits.remove(entry.getKey(), limit)) {
+        _dirty.add(entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Queues one batch per shard upserting the current state of the links, or deleting the
+   * rows of links without a limit, and waits until all of them have committed.
+   */
+  private void _write(List<String> links) {
+    if (links.isEmpty()) {
+      return;
+    }
+    Map<SqliteShard, List<String>> byShard = new LinkedHashMap<>();
+    for (String link : links) {
+      byShard
+        .computeIfAbsent(_repository.shardOf(link), shard -> new ArrayList<>())
+        .add(link);
+    }
+    List<CompletableFuture<Void>> results = new ArrayList<>(byShard.size());
+    for (Map.Entry<SqliteShard, List<String>> entry : byShard.entrySet()) {
+      List<String> shardLinks = entry.getValue();
+      results.add(entry.getKey().submit(writer -> _batch(writer, shardLinks)));
+    }
+    for (CompletableFuture<Void> result : results) {
+      SqliteShard.join(_CHECKPOINT_FAILURE, result);
+    }
+  }
+
+  private void _batch(SqliteShard.Statements writer, List<String> links)
+    throws SQLException {
+    PreparedStatement upsert = writer.prepare(UPSERT);
+    PreparedStatement delete = writer.prepare(DELETE);
+    boolean upserts = false;
+    boolean deletes = false;
+    for (String link : links) {
+      Limit limit = _limits.get(link);
+      if (limit == null) {
+        delete.setString(1, link);
+        delete.addBatch();
+        deletes = true;
+        continue;
+      }
+      long state = limit.state.get();
+      long lastAttempt = _lastAttempt(state);
+      upsert.setString(1, link);
+      upsert.setLong(2, limit.generation);
+      upsert.setInt(3, _remaining(state));
+      upsert.setLong(4, limit.expiryMillis);
+      if (lastAttempt == 0) {
+        upsert.setNull(5, Types.INTEGER);
+      } else {
+        upsert.setLong(5, lastAttempt);
+      }
+      upsert.addBatch();
+      upserts = true;
+    }
+    if (upserts) {
+      upsert.executeBatch();
+    }
+    if (deletes) {
+      delete.executeBatch();
+    }
+  }
+
+  /**
+   * Loads the rows of all shards and replays the log over them; every link the log touched
+   * is marked dirty for the first checkpoint.
+   *
+   * @return the highest generation seen
+   */
+  private long _recover() {
+    for (SqliteShard shard : _repository.shards()) {
+      shard.read("Failed to load download limits", reader -> {
+        PreparedStatement select = reader.prepare(SELECT_ALL);
+        try (ResultSet rows = select.executeQuery()) {
+          while (rows.next()) {
+            long lastAttempt = rows.getLong(5);
+            Limit limit = new Limit(
+              rows.getLong(2),
+              rows.getLong(4),
+              _pack(rows.getInt(3), lastAttempt)
+            );
+            _limits.merge(rows.getString(1), limit, Limit::merge);
+          }
+        }
+        return null;
+      });
+    }
+    List<Entry> entries = _log.open();
+    Map<String, Long> deleted = new HashMap<>();
+    for (Entry entry : entries) {
+      _dirty.add(entry.linkId());
+      Long tombstone = deleted.get(entry.linkId());
+      if (tombstone != null && entry.generation() <= tombstone) {
+        continue;
+      }
+      if (entry.type() == DownloadLimitLog.DELETE) {
+        Limit current = _limits.get(entry.linkId());
+        if (current != null && current.generation <= entry.generation()) {
+          _limits.remove(entry.linkId());
+        }
+        deleted.put(entry.linkId(), entry.generation());
+      } else {
+        Limit limit = new Limit(
+          entry.generation(),
+          entry.expiryMillis(),
+          _pack(entry.remaining(), entry.lastAttemptMillis())
+        );
+        _limits.merge(entry.linkId(), limit, Limit::merge);
+      }
+    }
+    long generation = 0;
+    for (Limit limit : _limits.values()) {
+      generation = Math.max(generation, limit.generation);
+    }
+    for (long tombstone : deleted.values()) {
+      generation = Math.max(generation, tombstone);
+    }
+    log.info(
+      "Recovered {} download limit(s), replayed {} log record(s)",
+      _limits.size(),
+      entries.size()
+    );
+    return generation;
+  }
+
+  private void _checkpointLoop(Duration interval) {
+    while (!_closed) {
+      LockSupport.parkNanos(interval.toNanos());
+      if (_closed) {
+        return;
+      }
+      try {
+        checkpoint();
+      } catch (RuntimeException exc) {
+        log.warn("Download limit checkpoint failed, retrying", exc);
+      }
+    }
+  }
+
+  private static long _pack(int remaining, long lastAttemptMillis) {
+    return (lastAttemptMillis << _REMAINING_BITS) | remaining;
+  }
+
+  private static int _remaining(long state) {
+    return (int) (state & _REMAINING_MASK);
+  }
+
+  private static long _lastAttempt(long state) {
+    return state >>> _REMAINING_BITS;
+  }
+
+  /**
+   * The limit of one initialization of a link. Remaining attempts (at most
+   * {@link FileSpecs#MAX_RETRY_COUNT}) live in the low bits of {@code state}, the time of
+   * the last attempt in epoch milliseconds, 0 if none, in the bits above them.
+   */
+  private static final class Limit {
+
+    private final long generation;
+    private final long expiryMillis;
+    private final AtomicLong state;
+
+    Limit(long generation, long expiryMillis, long state) {
+      this.generation = generation;
+      this.expiryMillis = expiryMillis;
+      this.state = new AtomicLong(state);
+    }
+
+    /**
+     * Combines two recovered states of a link: the later generation wins, within a
+     * generation the fewest remaining attempts and the latest attempt.
+     */
+    static Limit merge(Limit current, Limit recovered) {
+      if (current.generation != recovered.generation) {
+        return current.generation > recovered.generation ? current : recovered;
+      }
+      long a = current.state.get();
+      long b = recovered.state.get();
+      return new Limit(
+        current.generation,
+        current.expiryMillis,
+        _pack(
+          Math.min(_remaining(a), _remaining(b)),
+          Math.max(_lastAttempt(a), _lastAttempt(b))
+        )
+      );
+    }
+
+    DownloadLimit toDownloadLimit(LinkId linkId, long state) {
+      long lastAttempt = _lastAttempt(state);
+      return new DownloadLimit(
+        linkId,
+        _remaining(state),
+        Instant.ofEpochMilli(expiryMillis),
+        lastAttempt == 0 ? null : Instant.ofEpochMilli(lastAttempt)
+      );
+    }
+  }
+}
@@ -0,0 +1,22 @@
+/**
+ * Persistence adapters for secure file metadata.
+ *
+ * <p>This package implements {@link com.voltzug.cinder.core.port.out.SecureFileRepositoryPort}
+ * and {@link com.voltzug.cinder.core.port.out.DownloadLimitPort} with plain JDBC against SQLite,
+ * without an ORM in between.</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.infra.repository.JdbcSecureFileRepositoryAdapter} — Hand-written
+ *       SQL over cached prepared statements on SQLite in WAL mode, sharded by link id over
+ *       database files that each have a single batching writer thread and a pool of read-only
+ *       connections</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.repository.SqliteShardRebalancer} — Offline move of
+ *       records between database files after the number of shards changed</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.repository.CachingSecureFileRepositoryAdapter} — Bounded,
+ *       TTL-aware read-through cache of link lookups, zeroing sealed material it drops</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.repository.WriteBehindDownloadLimitAdapter} — Lock-free
+ *       in-memory attempt counters, made durable by a group-committed write-ahead log and
+ *       checkpointed into the shard of each link</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.infra.repository;
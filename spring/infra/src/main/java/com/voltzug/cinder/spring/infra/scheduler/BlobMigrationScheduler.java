@@ -0,0 +1,78 @@
+package com.voltzug.cinder.spring.infra.scheduler;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import com.voltzug.cinder.spring.infra.filestore.TieredFileStoreAdapter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically moves aged blobs from the local tier to the object store tier and
+ * rewrites the blob path of their secure files.
+ */
+@Slf4j
+public class BlobMigrationScheduler {
+
+  private final TieredFileStoreAdapter _store;
+  private final Optional<SecureFileRepositoryPort> _repository;
+  private final Duration _migrateAfter;
+
+  public BlobMigrationScheduler(
+    TieredFileStoreAdapter store,
+    Optional<SecureFileRepositoryPort> repository,
+    Duration migrateAfter
+  ) {
+    _store = Objects.requireNonNull(store, "store must not be null");
+    _repository = Objects.requireNonNull(
+      repository,
+      "repository must not be null"
+    );
+    _migrateAfter = Objects.requireNonNull(
+      migrateAfter,
+      "migrateAfter must not be null"
+    );
+    if (_repository.isEmpty()) {
+      log.warn(
+        "No SecureFileRepositoryPort available, migrated blobs are resolved through the tier fallback"
+      );
+    }
+  }
+
+  /** Runs one migration pass. */
+  @Scheduled(
+    fixedDelayString = "${cinder.storage.tiered.migration-interval:PT5M}",
+    initialDelayString = "${cinder.storage.tiered.migration-interval:PT5M}"
+  )
+  public void migrate() {
+    Instant cutoff = Instant.now().minus(_migrateAfter);
+    int migrated = _store.migrateOlderThan(cutoff, this::_relocate);
+    if (migrated > 0) {
+      log.info("Migrated {} blobs to the object store tier", migrated);
+    }
+  }
+
+  private void _relocate(FileId fileId, PathReference blobPath) {
+    _repository.ifPresent(repository ->
+      repository.updateBlobPath(fileId, blobPath)
+    );
+  }
+}
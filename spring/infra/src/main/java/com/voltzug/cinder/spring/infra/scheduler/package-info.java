@@ -0,0 +1,11 @@
+/**
+ * Scheduled background jobs.
+ *
+ * <p>Jobs only run when scheduling is enabled ({@code cinder.scheduler.enabled}).</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.infra.scheduler.BlobMigrationScheduler} — Migration of aged
+ *       blobs from the local tier to the object store tier</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.infra.scheduler;
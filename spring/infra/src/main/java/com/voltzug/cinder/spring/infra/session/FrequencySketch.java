@@ -0,0 +1,105 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+/**
+ * Count-min sketch estimating how often a key was seen recently, with 4-bit counters.
+ *
+ * <p>Each key maps to one counter in each of four rows; its frequency is the smallest of
+ * them, so collisions can only overestimate it. Counters saturate at 15. After ten times
+ * the capacity of the guarded cache has been recorded, all counters are halved, so
+ * frequencies reflect recent history rather than all-time popularity.
+ *
+ * <p>Not thread-safe; owners serialize access.
+ */
+final class FrequencySketch {
+
+  private static final int _ROWS = 4;
+  private static final int _MAX_COUNT = 15;
+  private static final long _RESET_MASK = 0x7777_7777_7777_7777L;
+  private static final long[] _SEEDS = {
+    0x97CB_3127_BA5F_E1D3L,
+    0xB492_B66F_BE98_F273L,
+    0x9AE1_6A3B_2F90_404FL,
+    0xCBF2_9CE4_8422_2325L,
+  };
+
+  private final long[] _table;
+  private final int _mask;
+  private final int _sampleSize;
+  private int _additions;
+
+  /**
+   * @param capacity the number of entries of the cache the sketch guards
+   */
+  FrequencySketch(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int size = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+    _table = new long[size];
+    _mask = size - 1;
+    _sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+  }
+
+  /** Returns the estimated number of recent occurrences of a key, at most 15. */
+  int frequency(int hash) {
+    int frequency = _MAX_COUNT;
+    for (int row = 0; row < _ROWS; row++) {
+      long spread = _spread(hash, row);
+      int counter = (int) (_table[_index(spread)] >>> _offset(spread)) & 0xF;
+      frequency = Math.min(frequency, counter);
+    }
+    return frequency;
+  }
+
+  /** Records an occurrence of a key. */
+  void increment(int hash) {
+    boolean added = false;
+    for (int row = 0; row < _ROWS; row++) {
+      long spread = _spread(hash, row);
+      int index = _index(spread);
+      int offset = _offset(spread);
+      if (((_table[index] >>> offset) & 0xF) < _MAX_COUNT) {
+        _table[index] += 1L << offset;
+        added = true;
+      }
+    }
+    if (added && ++_additions >= _sampleSize) {
+      _reset();
+    }
+  }
+
+  /** Halves every counter. */
+  private void _reset() {
+    for (int i = 0; i < _table.length; i++) {
+      _table[i] = (_table[i] >>> 1) & _RESET_MASK;
+    }
+    _additions /= 2;
+  }
+
+  private static long _spread(int hash, int row) {
+    long spread = (hash + _SEEDS[row]) * _SEEDS[row];
+    return spread ^ (spread >>> 32);
+  }
+
+  private int _index(long spread) {
+    return (int) (spread >>> 8) & _mask;
+  }
+
+  private static int _offset(long spread) {
+    return ((int) spread & 0xF) << 2;
+  }
+}
@@ -0,0 +1,543 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.SessionSecret;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.core.port.out.SessionCachePort;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * {@link SessionCachePort} implementation keeping sessions in process memory.
+ *
+ * <p>Sessions live in a {@link ConcurrentHashMap}, so saves, lookups and deletes never
+ * wait for a lock. Everything else is maintenance, replayed from lock-free buffers by
+ * whichever thread gets to it first: {@link #expire()}, or a save or lookup finding the
+ * maintenance lock free. Saves and deletes are queued in order; lookups are recorded in a
+ * lossy buffer that drops records while it is full.
+ *
+ * <p>Expiry is driven by a {@link TimingWheel} ticking every
+ * {@code cinder.session.cache.memory.tick}, so each tick only visits the sessions due at
+ * that tick instead of sweeping the whole map. A lookup never returns an expired session,
+ * even between ticks.
+ *
+ * <p>Upload and download sessions are bounded separately by
+ * {@code cinder.session.cache.memory.max-upload-sessions} and
+ * {@code max-download-sessions}, each by a {@link WindowTinyLfu} policy. Handshakes open
+ * upload sessions for anonymous callers; under a flood of handshakes never completed, the
+ * flood only competes with itself and cannot displace sessions that were used since they
+ * were opened, nor any download session. A handshake made during the flood ages out in
+ * turn with it, so its session stays until about as many handshakes as the bound followed.
+ *
+ * <p>Session secrets are kept off heap, where the garbage collector never copies them,
+ * and every lookup hands out a fresh {@link SessionSecret}. A secret is zeroed as soon as
+ * its session is deleted, replaced, evicted or expired.
+ *
+ * <p>With a {@link SessionJournal}, saves, deletes and evictions are also appended to the
+ * journal during maintenance, and the sessions still live are restored from it on
+ * startup, so a restart does not force every client to open a new session. Journal
+ * failures are logged and never fail a cache operation.
+ */
+@Slf4j
+public class InMemorySessionCacheAdapter
+  implements SessionCachePort, AutoCloseable {
+
+  private static final int _READ_BUFFER_SIZE = 256;
+  private static final int _WRITE_BUFFER_SIZE = 1024;
+  private static final int _JOURNAL_REWRITE_MIN_RECORDS = 10_000;
+
+  private final ClockPort _clock;
+  private final long _tickMillis;
+  private final ConcurrentHashMap<String, CachedSession> _sessions =
+    new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Runnable> _writes =
+    new ConcurrentLinkedQueue<>();
+  private final AtomicInteger _pendingWrites = new AtomicInteger();
+  private final ConcurrentLinkedQueue<CachedSession> _reads =
+    new ConcurrentLinkedQueue<>();
+  private final AtomicInteger _pendingReads = new AtomicInteger();
+  private final ReentrantLock _maintenanceLock = new ReentrantLock();
+  private final TimingWheel<CachedSession> _wheel;
+  private final Map<Session.Mode, WindowTinyLfu<CachedSession>> _policies =
+    new EnumMap<>(Session.Mode.class);
+  private final SessionJournal _journal;
+
+  public InMemorySessionCacheAdapter(
+    InMemorySessionCacheProperties properties,
+    ClockPort clock
+  ) {
+    this(properties, clock, null);
+  }
+
+  /**
+   * @param journal journal restoring the live sessions now and recording changes from
+   *                now on, or null to keep sessions in memory only
+   */
+  public InMemorySessionCacheAdapter(
+    InMemorySessionCacheProperties properties,
+    ClockPort clock,
+    SessionJournal journal
+  ) {
+    Objects.requireNonNull(properties, "properties must not be null");
+    _clock = Objects.requireNonNull(clock, "clock must not be null");
+    _tickMillis = properties.tick().toMillis();
+    _wheel = new TimingWheel<>(_tickOf(_clock.now()));
+    for (Session.Mode mode : Session.Mode.values()) {
+      _policies.put(
+        mode,
+        new WindowTinyLfu<>(properties.capacityOf(mode), cached ->
+          cached.id().hashCode()
+        )
+      );
+    }
+    _journal = journal;
+    if (_journal != null) {
+      _restore();
+    }
+  }
+
+  @Override
+  public void save(Session session) {
+    Objects.requireNonNull(session, "session must not be null");
+    Instant now = _clock.now();
+    String key = session.id().value();
+    if (session.isExpired(now)) {
+      CachedSession removed = _sessions.remove(key);
+      if (removed != null) {
+        removed.wipe();
+        _afterWrite(() -> _forget(removed), now);
+      }
+      return;
+    }
+    CachedSession cached = CachedSession.of(session);
+    CachedSession replaced = _sessions.put(key, cached);
+    if (replaced != null) {
+      replaced.wipe();
+    }
+    _afterWrite(
+      () -> {
+        if (replaced != null) {
+          _policyOf(replaced).remove(replaced);
+          _unschedule(replaced);
+        }
+        _admit(cached);
+        _journalSave(cached);
+      },
+      now
+    );
+  }
+
+  @Override
+  public Optional<Session> get(SessionId sessionId) {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    CachedSession cached = _sessions.get(sessionId.value());
+    if (cached == null) {
+      return Optional.empty();
+    }
+    Instant now = _clock.now();
+    if (now.isAfter(cached.expiresAt())) {
+      if (_sessions.remove(sessionId.value(), cached)) {
+        cached.wipe();
+        _afterWrite(
+          () -> {
+            _policyOf(cached).remove(cached);
+            _unschedule(cached);
+          },
+          now
+        );
+      }
+      return Optional.empty();
+    }
+    _afterRead(cached, now);
+    return Optional.ofNullable(cached.toSession());
+  }
+
+  @Override
+  public void delete(SessionId sessionId) {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    CachedSession removed = _sessions.remove(sessionId.value());
+    if (removed != null) {
+      removed.wipe();
+      _afterWrite(() -> _forget(removed), _clock.now());
+    }
+  }
+
+  /**
+   * Replays pending saves, deletes and lookups, then advances the timing wheel to the
+   * current time, dropping and zeroing the sessions that expired since the last tick.
+   */
+  @Scheduled(fixedDelayString = "${cinder.session.cache.memory.tick:PT1S}")
+  public void expire() {
+    _maintenanceLock.lock();
+    try {
+      _maintain(_clock.now());
+    } finally {
+      _maintenanceLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of sessions currently cached, including expired or evicted ones
+   * whose removal is still pending maintenance.
+   */
+  public int size() {
+    return _sessions.size();
+  }
+
+  /** Returns the number of sessions whose expiry is scheduled on the timing wheel. */
+  int scheduled() {
+    _maintenanceLock.lock();
+    try {
+      return _wheel.size();
+    } finally {
+      _maintenanceLock.unlock();
+    }
+  }
+
+  /** Drops and zeroes every cached session, also from the journal. */
+  public void clear() {
+    _maintenanceLock.lock();
+    try {
+      _maintain(_clock.now());
+      _wipeAll();
+      _journal(journal -> journal.rewrite(List.of()));
+    } finally {
+      _maintenanceLock.unlock();
+    }
+  }
+
+  /**
+   * Writes the live sessions to the journal, if any, then drops and zeroes every cached
+   * session.
+   */
+  @Override
+  public void close() {
+    _maintenanceLock.lock();
+    try {
+      Instant now = _clock.now();
+      _maintain(now);
+      if (_journal != null) {
+        _journal(journal -> _rewrite(journal, now));
+        _journal.close();
+      }
+      _wipeAll();
+    } finally {
+      _maintenanceLock.unlock();
+    }
+  }
+
+  /**
+   * Queues a policy update and runs maintenance if the lock is free. Once too many
+   * updates are pending, the writer waits for the lock, so the cache cannot outgrow its
+   * bounds while maintenance lags behind.
+   */
+  private void _afterWrite(Runnable update, Instant now) {
+    _writes.add(update);
+    if (_pendingWrites.incrementAndGet() >= _WRITE_BUFFER_SIZE) {
+      _maintenanceLock.lock();
+    } else if (!_maintenanceLock.tryLock()) {
+      return;
+    }
+    try {
+      _maintain(now);
+    } finally {
+      _maintenanceLock.unlock();
+    }
+  }
+
+  /** Records a lookup, dropping it if the buffer is full and maintenance is busy. */
+  private void _afterRead(CachedSession cached, Instant now) {
+    if (_pendingReads.get() < _READ_BUFFER_SIZE) {
+      _pendingReads.incrementAndGet();
+      _reads.add(cached);
+      return;
+    }
+    if (_maintenanceLock.tryLock()) {
+      try {
+        _maintain(now);
+      } finally {
+        _maintenanceLock.unlock();
+      }
+    }
+  }
+
+  /** Replays the buffers in order, then fires the due sessions. */
+  private void _maintain(Instant now) {
+    Runnable write;
+    while ((write = _writes.poll()) != null) {
+      _pendingWrites.decrementAndGet();
+      write.run();
+    }
+    CachedSession read;
+    while ((read = _reads.poll()) != null) {
+      _pendingReads.decrementAndGet();
+      _policyOf(read).access(read);
+    }
+    if (
+      _journal != null &&
+      _journal.getAppended() >
+      Math.max(_JOURNAL_REWRITE_MIN_RECORDS, 2 * _sessions.size())
+    ) {
+      _journal(journal -> _rewrite(journal, now));
+    }
+    _wheel.advance(_tickOf(now), expired -> {
+      expired.setTimer(null);
+      if (_sessions.remove(expired.id(), expired)) {
+        _policyOf(expired).remove(expired);
+      }
+      expired.wipe();
+    });
+  }
+
+  /** Hands a saved session to its partition and schedules its expiry. */
+  private void _admit(CachedSession cached) {
+    if (_sessions.get(cached.id()) != cached) {
+      return;
+    }
+    _policyOf(cached).add(cached, evicted -> {
+      if (_sessions.remove(evicted.id(), evicted)) {
+        _journal(journal -> journal.appendDelete(evicted.id()));
+      }
+      _unschedule(evicted);
+      evicted.wipe();
+    });
+    if (_sessions.get(cached.id()) == cached) {
+      cached.setTimer(
+        _wheel.schedule(cached, _tickOf(cached.expiresAt()) + 1)
+      );
+    }
+  }
+
+  /** Removes a deleted session from its partition, the wheel and the journal. */
+  private void _forget(CachedSession removed) {
+    _policyOf(removed).remove(removed);
+    _unschedule(removed);
+    _journal(journal -> journal.appendDelete(removed.id()));
+  }
+
+  /** Cancels the expiry of a session leaving the cache, releasing it from the wheel. */
+  private void _unschedule(CachedSession cached) {
+    if (cached.timer() != null) {
+      _wheel.cancel(cached.timer());
+      cached.setTimer(null);
+    }
+  }
+
+  private void _journalSave(CachedSession cached) {
+    if (_journal == null) {
+      return;
+    }
+    Session session = cached.toSession();
+    if (session == null) {
+      return;
+    }
+    try {
+      _journal(journal -> journal.appendSave(session));
+    } finally {
+      _closeSecret(session);
+    }
+  }
+
+  /** Replaces the journal with a snapshot of the sessions live at {@code now}. */
+  private void _rewrite(SessionJournal journal, Instant now) {
+    List<Session> live = new ArrayList<>(_sessions.size());
+    try {
+      for (CachedSession cached : _sessions.values()) {
+        Session session = cached.toSession();
+        if (session == null) {
+          continue;
+        }
+        if (session.isExpired(now)) {
+          _closeSecret(session);
+        } else {
+          live.add(session);
+        }
+      }
+      journal.rewrite(live);
+    } finally {
+      live.forEach(InMemorySessionCacheAdapter::_closeSecret);
+    }
+  }
+
+  /** Loads the live sessions of the journal into the cache. */
+  private void _restore() {
+    List<Session> live;
+    try {
+      live = _journal.recover(_clock.now());
+    } catch (RuntimeException exc) {
+      log.warn("Failed to restore sessions from the journal", exc);
+      return;
+    }
+    for (Session session : live) {
+      CachedSession cached = CachedSession.of(session);
+      _closeSecret(session);
+      CachedSession replaced = _sessions.put(cached.id(), cached);
+      if (replaced != null) {
+        _policyOf(replaced).remove(replaced);
+        _unschedule(replaced);
+        replaced.wipe();
+      }
+      _admit(cached);
+    }
+    log.info("Restored {} session(s) from {}", live.size(), _journal.getPath());
+  }
+
+  /** Runs a journal operation, logging its failure instead of failing the cache. */
+  private void _journal(Consumer<SessionJournal> operation) {
+    if (_journal == null) {
+      return;
+    }
+    try {
+      operation.accept(_journal);
+    } catch (RuntimeException exc) {
+      log.warn("Session journal operation failed", exc);
+    }
+  }
+
+  private void _wipeAll() {
+    for (String key : _sessions.keySet()) {
+      CachedSession removed = _sessions.remove(key);
+      if (removed != null) {
+        _unschedule(removed);
+        removed.wipe();
+      }
+    }
+    for (WindowTinyLfu<CachedSession> policy : _policies.values()) {
+      policy.clear();
+    }
+  }
+
+  private static void _closeSecret(Session session) {
+    if (session.sessionSecret() != null) {
+      session.sessionSecret().close();
+    }
+  }
+
+  private WindowTinyLfu<CachedSession> _policyOf(CachedSession cached) {
+    return _policies.get(cached.mode());
+  }
+
+  private long _tickOf(Instant instant) {
+    return Math.floorDiv(instant.toEpochMilli(), _tickMillis);
+  }
+
+  /**
+   * A cached session holding its secret in a direct buffer, and its timer on the wheel
+   * while its expiry is scheduled. A deleted, replaced or evicted session has its timer
+   * cancelled during maintenance, so the wheel does not keep it reachable until its
+   * deadline.
+   */
+  private static final class CachedSession {
+
+    private final String _id;
+    private final LinkId _linkId;
+    private final Session.Mode _mode;
+    private final Instant _createdAt;
+    private final Instant _expiresAt;
+    private final Instant _verifiedAt;
+    private final ByteBuffer _secret;
+    private boolean _wiped;
+    private TimingWheel.Timer<CachedSession> _timer;
+
+    private CachedSession(Session session, ByteBuffer secret) {
+      _id = session.id().value();
+      _linkId = session.linkId();
+      _mode = session.mode();
+      _createdAt = session.createdAt();
+      _expiresAt = session.expiresAt();
+      _verifiedAt = session.verifiedAt();
+      _secret = secret;
+    }
+
+    static CachedSession of(Session session) {
+      ByteBuffer secret = null;
+      if (session.sessionSecret() != null) {
+        byte[] bytes = session.sessionSecret().getBytes();
+        secret = ByteBuffer.allocateDirect(bytes.length).put(0, bytes);
+      }
+      return new CachedSession(session, secret);
+    }
+
+    String id() {
+      return _id;
+    }
+
+    Session.Mode mode() {
+      return _mode;
+    }
+
+    Instant expiresAt() {
+      return _expiresAt;
+    }
+
+    /** Returns the expiry timer; only read and set under the maintenance lock. */
+    TimingWheel.Timer<CachedSession> timer() {
+      return _timer;
+    }
+
+    void setTimer(TimingWheel.Timer<CachedSession> timer) {
+      _timer = timer;
+    }
+
+    /** Returns the session with a fresh copy of its secret, or null once zeroed. */
+    synchronized Session toSession() {
+      if (_wiped) {
+        return null;
+      }
+      SessionSecret secret = null;
+      if (_secret != null) {
+        byte[] bytes = new byte[_secret.capacity()];
+        _secret.get(0, bytes);
+        secret = new SessionSecret(bytes);
+      }
+      return new Session(
+        new SessionId(_id),
+        secret,
+        _linkId,
+        _mode,
+        _createdAt,
+        _expiresAt,
+        _verifiedAt
+      );
+    }
+
+    synchronized void wipe() {
+      if (_wiped) {
+        return;
+      }
+      _wiped = true;
+      if (_secret != null) {
+        _secret.put(0, new byte[_secret.capacity()]);
+      }
+    }
+  }
+}
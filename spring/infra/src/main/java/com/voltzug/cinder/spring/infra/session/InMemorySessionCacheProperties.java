@@ -0,0 +1,62 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.entity.Session;
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the in-memory session cache ({@code cinder.session.cache.memory.*}).
+ *
+ * @param tick                resolution of session expiry; a session is dropped within one tick after it expires
+ * @param maxUploadSessions   maximum number of cached upload sessions
+ * @param maxDownloadSessions maximum number of cached download sessions
+ */
+@ConfigurationProperties(prefix = "cinder.session.cache.memory")
+public record InMemorySessionCacheProperties(
+  @DefaultValue("1s") Duration tick,
+  @DefaultValue("10000") int maxUploadSessions,
+  @DefaultValue("10000") int maxDownloadSessions
+) {
+  public InMemorySessionCacheProperties {
+    Objects.requireNonNull(tick, "tick must not be null");
+    if (tick.toMillis() < 1) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.memory.tick must be at least 1ms"
+      );
+    }
+    if (maxUploadSessions < 1) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.memory.max-upload-sessions must be positive"
+      );
+    }
+    if (maxDownloadSessions < 1) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.memory.max-download-sessions must be positive"
+      );
+    }
+  }
+
+  /** Returns the maximum number of cached sessions of a mode. */
+  public int capacityOf(Session.Mode mode) {
+    return switch (mode) {
+      case UPLOAD -> maxUploadSessions;
+      case DOWNLOAD -> maxDownloadSessions;
+    };
+  }
+}
@@ -0,0 +1,449 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import static com.voltzug.cinder.spring.infra.session.RespConnection.arg;
+
+import com.voltzug.cinder.core.common.utils.SafeArrays;
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.exception.RepositoryException;
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.core.port.out.PepperPort;
+import com.voltzug.cinder.core.port.out.SessionCachePort;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * {@link SessionCachePort} backed by a Redis-protocol server shared by every node, so a
+ * session created on one node is found on any other without sticky load balancing.
+ *
+ * <p>Sessions are stored under {@code <key-prefix><session id>}, sealed with
+ * {@link PepperPort#seal} so the server never holds a session secret in the clear, and
+ * expire on the server with the session. A session read back under another session's key
+ * is ignored. Commands of concurrent callers are pipelined over one {@link RespConnection}.
+ *
+ * <p>A near-cache keeps the sealed form of up to
+ * {@code cinder.session.cache.redis.near-cache-max-entries} recently read sessions for
+ * {@code cinder.session.cache.redis.near-cache-ttl}, so the lookups of a handshake and the
+ * verification following it cost one round trip. Every save and delete publishes the
+ * session id on {@code <key-prefix>invalidate}; each node subscribes to that channel and
+ * drops the id from its near-cache. A node that loses its subscription clears its
+ * near-cache and bypasses it until it has subscribed again, and a lookup racing with an
+ * invalidation never caches what it read.
+ *
+ * <p>Broken connections are reopened on the next command; failures surface as
+ * {@link RepositoryException}.
+ */
+@Slf4j
+public class RedisSessionCacheAdapter implements SessionCachePort, AutoCloseable {
+
+  private static final byte[] _AUTH = arg("AUTH");
+  private static final byte[] _SELECT = arg("SELECT");
+  private static final byte[] _SET = arg("SET");
+  private static final byte[] _PX = arg("PX");
+  private static final byte[] _GET = arg("GET");
+  private static final byte[] _DEL = arg("DEL");
+  private static final byte[] _PUBLISH = arg("PUBLISH");
+  private static final byte[] _SUBSCRIBE = arg("SUBSCRIBE");
+
+  private final RedisSessionCacheProperties _properties;
+  private final ClockPort _clock;
+  private final PepperPort _pepper;
+  private final Duration _timeout;
+  private final String _channel;
+  private final Object _connectLock = new Object();
+  private volatile RespConnection _commands;
+  private volatile RespConnection _subscriber;
+  private final ReentrantLock _lock = new ReentrantLock();
+  private final LinkedHashMap<String, NearSession> _near;
+  private long _invalidations;
+
+  public RedisSessionCacheAdapter(
+    RedisSessionCacheProperties properties,
+    ClockPort clock,
+    PepperPort pepper
+  ) {
+    _properties = Objects.requireNonNull(
+      properties,
+      "properties must not be null"
+    );
+    _clock = Objects.requireNonNull(clock, "clock must not be null");
+    _pepper = Objects.requireNonNull(pepper, "pepper must not be null");
+    _timeout = properties.timeout();
+    _channel = properties.keyPrefix() + "invalidate";
+    _near = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  @Override
+  public void save(Session session) {
+    Objects.requireNonNull(session, "session must not be null");
+    String id = session.id().value();
+    long ttlMillis = Duration.between(
+      _clock.now(),
+      session.expiresAt()
+    ).toMillis();
+    try {
+      RespConnection connection = _commands();
+      CompletableFuture<Object> write;
+      if (ttlMillis > 0) {
+        write = connection.send(
+          _SET,
+          _key(id),
+          _seal(session),
+          _PX,
+          arg(Long.toString(ttlMillis))
+        );
+      } else {
+        write = connection.send(_DEL, _key(id));
+      }
+      CompletableFuture<Object> publish = connection.send(
+        _PUBLISH,
+        arg(_channel),
+        arg(id)
+      );
+      connection.await(write, _timeout);
+      connection.await(publish, _timeout);
+    } finally {
+      _invalidate(id);
+    }
+  }
+
+  @Override
+  public Optional<Session> get(SessionId sessionId) {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    String id = sessionId.value();
+    Instant now = _clock.now();
+    RespConnection subscriber = _subscription();
+    long invalidations = 0;
+    if (subscriber != null) {
+      _lock.lock();
+      try {
+        NearSession near = _near.get(id);
+        if (near != null) {
+          if (now.isBefore(near.deadline())) {
+            return _open(id, near.sealed().clone(), now);
+          }
+          _remove(id);
+        }
+        invalidations = _invalidations;
+      } finally {
+        _lock.unlock();
+      }
+    }
+
+    Object reply = _commands().call(_timeout, _GET, _key(id));
+    if (reply == null) {
+      return Optional.empty();
+    }
+    if (!(reply instanceof byte[] sealed)) {
+      throw new RepositoryException("Unexpected reply to GET: " + reply);
+    }
+    Optional<Session> found = _open(id, sealed.clone(), now);
+    if (found.isPresent() && subscriber != null) {
+      _admit(id, sealed, found.get().expiresAt(), now, invalidations, subscriber);
+    } else {
+      SafeArrays.seal(sealed);
+    }
+    return found;
+  }
+
+  @Override
+  public void delete(SessionId sessionId) {
+    Objects.requireNonNull(sessionId, "sessionId must not be null");
+    String id = sessionId.value();
+    try {
+      RespConnection connection = _commands();
+      CompletableFuture<Object> delete = connection.send(_DEL, _key(id));
+      CompletableFuture<Object> publish = connection.send(
+        _PUBLISH,
+        arg(_channel),
+        arg(id)
+      );
+      connection.await(delete, _timeout);
+      connection.await(publish, _timeout);
+    } finally {
+      _invalidate(id);
+    }
+  }
+
+  /** Returns the number of sessions currently in the near-cache. */
+  public int size() {
+    _lock.lock();
+    try {
+      return _near.size();
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /** Drops and zeroes every session in the near-cache. */
+  public void clear() {
+    _lock.lock();
+    try {
+      _invalidations++;
+      for (NearSession near : _near.values()) {
+        SafeArrays.seal(near.sealed());
+      }
+      _near.clear();
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /**
+   * Drops the near-cached sessions that passed their deadline, so sealed sessions nobody
+   * asks for again do not linger until they are evicted.
+   */
+  @Scheduled(
+    fixedDelayString = "${cinder.session.cache.redis.near-cache-ttl:PT1S}",
+    initialDelayString = "${cinder.session.cache.redis.near-cache-ttl:PT1S}"
+  )
+  public void purgeExpired() {
+    Instant now = _clock.now();
+    _lock.lock();
+    try {
+      Iterator<NearSession> entries = _near.values().iterator();
+      while (entries.hasNext()) {
+        NearSession near = entries.next();
+        if (!now.isBefore(near.deadline())) {
+          entries.remove();
+          SafeArrays.seal(near.sealed());
+        }
+      }
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /** Closes the connections and clears the near-cache. */
+  @Override
+  public void close() {
+    synchronized (_connectLock) {
+      if (_subscriber != null) {
+        _subscriber.close();
+      }
+      if (_commands != null) {
+        _commands.close();
+      }
+    }
+    clear();
+  }
+
+  /** Returns the command connection, reopening it if it broke. */
+  private RespConnection _commands() {
+    RespConnection connection = _commands;
+    if (connection != null && connection.isOpen()) {
+      return connection;
+    }
+    synchronized (_connectLock) {
+      if (_commands == null || !_commands.isOpen()) {
+        _commands = _connect(null);
+      }
+      return _commands;
+    }
+  }
+
+  /**
+   * Returns the subscribed invalidation connection, subscribing again if it broke, or
+   * null while the near-cache cannot be trusted or is disabled.
+   */
+  private RespConnection _subscription() {
+    if (_properties.nearCacheMaxEntries() == 0) {
+      return null;
+    }
+    RespConnection subscriber = _subscriber;
+    if (subscriber != null && subscriber.isOpen()) {
+      return subscriber;
+    }
+    synchronized (_connectLock) {
+      if (_subscriber != null && _subscriber.isOpen()) {
+        return _subscriber;
+      }
+      // invalidations published while unsubscribed were missed
+      clear();
+      RespConnection connection = null;
+      try {
+        connection = _connect(this::_onMessage);
+        connection.call(_timeout, _SUBSCRIBE, arg(_channel));
+        _subscriber = connection;
+        return connection;
+      } catch (RepositoryException exc) {
+        log.debug("Near-cache bypassed, subscribing failed", exc);
+        if (connection != null) {
+          connection.close();
+        }
+        return null;
+      }
+    }
+  }
+
+  private RespConnection _connect(BiConsumer<String, byte[]> listener) {
+    RespConnection connection = new RespConnection(
+      _properties.host(),
+      _properties.port(),
+      _timeout,
+      listener
+    );
+    try {
+      CompletableFuture<Object> auth = null;
+      CompletableFuture<Object> select = null;
+      if (!_properties.password().isEmpty()) {
+        auth = _properties.username().isEmpty()
+          ? connection.send(_AUTH, arg(_properties.password()))
+          : connection.send(
+              _AUTH,
+              arg(_properties.username()),
+              arg(_properties.password())
+            );
+      }
+      if (_properties.database() != 0) {
+        select = connection.send(
+          _SELECT,
+          arg(Integer.toString(_properties.database()))
+        );
+      }
+      if (auth != null) {
+        connection.await(auth, _timeout);
+      }
+      if (select != null) {
+        connection.await(select, _timeout);
+      }
+      return connection;
+    } catch (RuntimeException exc) {
+      connection.close();
+      throw exc;
+    }
+  }
+
+  private void _onMessage(String channel, byte[] message) {
+    if (_channel.equals(channel)) {
+      _invalidate(new String(message, StandardCharsets.UTF_8));
+    }
+  }
+
+  private byte[] _key(String id) {
+    return arg(_properties.keyPrefix() + id);
+  }
+
+  private byte[] _seal(Session session) {
+    byte[] record = SessionCodec.encode(session);
+    try {
+      ByteBuffer sealed = _pepper.seal(record).getBuffer();
+      byte[] value = new byte[sealed.remaining()];
+      sealed.get(value);
+      return value;
+    } finally {
+      SafeArrays.seal(record);
+    }
+  }
+
+  /** Unseals a stored session; the sealed array is consumed. */
+  private Optional<Session> _open(String id, byte[] sealed, Instant now) {
+    byte[] record = _pepper.unseal(new SealedBlob(sealed));
+    try {
+      Session session;
+      try {
+        session = SessionCodec.decode(ByteBuffer.wrap(record));
+      } catch (RuntimeException exc) {
+        throw new RepositoryException("Corrupt session stored for " + id, exc);
+      }
+      if (!session.id().value().equals(id)) {
+        log.warn("Ignoring session stored under the key of session {}", id);
+        SessionCodec.close(session);
+        return Optional.empty();
+      }
+      if (session.isExpired(now)) {
+        SessionCodec.close(session);
+        return Optional.empty();
+      }
+      return Optional.of(session);
+    } finally {
+      SafeArrays.seal(record);
+    }
+  }
+
+  /**
+   * Near-caches a session read from the server, unless it was invalidated since the lookup
+   * started (the read may predate that write) or the subscription broke meanwhile.
+   */
+  private void _admit(
+    String id,
+    byte[] sealed,
+    Instant expiresAt,
+    Instant now,
+    long invalidations,
+    RespConnection subscriber
+  ) {
+    Instant ttlDeadline = now.plus(_properties.nearCacheTtl());
+    Instant deadline = ttlDeadline.isBefore(expiresAt)
+      ? ttlDeadline
+      : expiresAt;
+    _lock.lock();
+    try {
+      if (
+        invalidations != _invalidations ||
+        subscriber != _subscriber ||
+        !subscriber.isOpen()
+      ) {
+        SafeArrays.seal(sealed);
+        return;
+      }
+      _remove(id);
+      _near.put(id, new NearSession(sealed, deadline));
+      Iterator<NearSession> entries = _near.values().iterator();
+      while (
+        entries.hasNext() && _near.size() > _properties.nearCacheMaxEntries()
+      ) {
+        SafeArrays.seal(entries.next().sealed());
+        entries.remove();
+      }
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  private void _invalidate(String id) {
+    _lock.lock();
+    try {
+      _invalidations++;
+      _remove(id);
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  private void _remove(String id) {
+    NearSession near = _near.remove(id);
+    if (near != null) {
+      SafeArrays.seal(near.sealed());
+    }
+  }
+
+  /** A near-cached session in its sealed form. */
+  private record NearSession(byte[] sealed, Instant deadline) {}
+}
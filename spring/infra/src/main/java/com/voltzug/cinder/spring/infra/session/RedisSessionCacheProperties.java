@@ -0,0 +1,89 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the shared Redis session cache ({@code cinder.session.cache.redis.*}).
+ *
+ * @param host                server host name
+ * @param port                server port
+ * @param username            ACL user to authenticate as; empty for the default user
+ * @param password            password to authenticate with; empty to skip authentication
+ * @param database            logical database index selected on connect
+ * @param keyPrefix           prefix of the session keys and of the invalidation channel
+ * @param timeout             connect timeout and maximum time to wait for a reply
+ * @param nearCacheMaxEntries maximum number of sessions kept in the local near-cache (0 = disabled)
+ * @param nearCacheTtl        how long a session read from the server is served from the near-cache
+ */
+@ConfigurationProperties(prefix = "cinder.session.cache.redis")
+public record RedisSessionCacheProperties(
+  @DefaultValue("localhost") String host,
+  @DefaultValue("6379") int port,
+  @DefaultValue("") String username,
+  @DefaultValue("") String password,
+  @DefaultValue("0") int database,
+  @DefaultValue("cinder:session:") String keyPrefix,
+  @DefaultValue("2s") Duration timeout,
+  @DefaultValue("1024") int nearCacheMaxEntries,
+  @DefaultValue("1s") Duration nearCacheTtl
+) {
+  public RedisSessionCacheProperties {
+    if (host == null || host.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.host must not be blank"
+      );
+    }
+    if (port < 1 || port > 65535) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.port must be between 1 and 65535"
+      );
+    }
+    username = username == null ? "" : username;
+    password = password == null ? "" : password;
+    if (!username.isEmpty() && password.isEmpty()) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.username requires a password"
+      );
+    }
+    if (database < 0) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.database cannot be negative"
+      );
+    }
+    keyPrefix = keyPrefix == null ? "" : keyPrefix;
+    Objects.requireNonNull(timeout, "timeout must not be null");
+    if (timeout.toMillis() < 1) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.timeout must be at least 1ms"
+      );
+    }
+    if (nearCacheMaxEntries < 0) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.near-cache-max-entries cannot be negative"
+      );
+    }
+    Objects.requireNonNull(nearCacheTtl, "nearCacheTtl must not be null");
+    if (nearCacheTtl.toMillis() < 1) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.redis.near-cache-ttl must be at least 1ms"
+      );
+    }
+  }
+}
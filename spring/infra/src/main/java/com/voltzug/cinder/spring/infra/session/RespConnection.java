@@ -0,0 +1,364 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.exception.RepositoryException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pipelined client connection speaking the Redis serialization protocol (RESP2).
+ *
+ * <p>Callers never wait for the socket: {@link #send} queues the command and returns a
+ * future. A writer thread drains every queued command into one buffered write and flush,
+ * and a reader thread completes the futures in order as the replies arrive, so concurrent
+ * callers share the round trips of a single connection.
+ *
+ * <p>Replies are decoded as {@link String} (simple strings), {@link Long} (integers),
+ * {@code byte[]} (bulk strings), {@link List} (arrays) or {@code null}; error replies fail
+ * the future with a {@link RepositoryException}. On a connection with a message listener,
+ * messages published to subscribed channels are handed to the listener instead.
+ *
+ * <p>Any I/O error closes the connection and fails every command in flight; owners open a
+ * new connection rather than retrying on a broken one.
+ */
+@Slf4j
+final class RespConnection implements AutoCloseable {
+
+  private static final int _BUFFER_SIZE = 64 * 1024;
+  private static final int _MAX_BULK_BYTES = 16 * 1024 * 1024;
+  private static final byte[] _CRLF = { '\r', '\n' };
+
+  private final String _address;
+  private final Socket _socket;
+  private final InputStream _in;
+  private final OutputStream _out;
+  private final BiConsumer<String, byte[]> _listener;
+  private final BlockingQueue<Command> _queue = new LinkedBlockingQueue<>();
+  private final Queue<CompletableFuture<Object>> _inFlight =
+    new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean _closed = new AtomicBoolean();
+  private final Thread _writer;
+
+  /**
+   * Connects to a server.
+   *
+   * @param listener receives {@code (channel, message)} of published messages, or null
+   *                 on a connection that does not subscribe
+   */
+  RespConnection(
+    String host,
+    int port,
+    Duration timeout,
+    BiConsumer<String, byte[]> listener
+  ) {
+    _address = host + ":" + port;
+    _listener = listener;
+    _socket = new Socket();
+    try {
+      _socket.setTcpNoDelay(true);
+      _socket.setKeepAlive(true);
+      _socket.connect(
+        new InetSocketAddress(host, port),
+        (int) Math.min(Integer.MAX_VALUE, timeout.toMillis())
+      );
+      _in = new BufferedInputStream(_socket.getInputStream(), _BUFFER_SIZE);
+      _out = new BufferedOutputStream(_socket.getOutputStream(), _BUFFER_SIZE);
+    } catch (IOException exc) {
+      _closeSocket();
+      throw new RepositoryException("Failed to connect to " + _address, exc);
+    }
+    _writer = Thread.ofVirtual()
+      .name("cinder-resp-writer")
+      .start(this::_writeLoop);
+    Thread.ofVirtual().name("cinder-resp-reader").start(this::_readLoop);
+  }
+
+  /** Returns whether the connection can still take commands. */
+  boolean isOpen() {
+    return !_closed.get();
+  }
+
+  /** Queues a command; its reply completes the returned future. */
+  CompletableFuture<Object> send(byte[]... args) {
+    CompletableFuture<Object> reply = new CompletableFuture<>();
+    if (_closed.get()) {
+      reply.completeExceptionally(_closedException());
+      return reply;
+    }
+    _queue.add(new Command(args, reply));
+    if (_closed.get()) {
+      // lost the race with close(); nobody else drains the queue anymore
+      _failQueued();
+    }
+    return reply;
+  }
+
+  /**
+   * Waits for a reply. A reply not arriving in time closes the connection, since every
+   * reply queued behind it would be late too.
+   */
+  Object await(CompletableFuture<Object> reply, Duration timeout) {
+    try {
+      return reply.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException exc) {
+      _fail(new RepositoryException("Timed out waiting for " + _address));
+      throw new RepositoryException(
+        "No reply from " + _address + " within " + timeout,
+        exc
+      );
+    } catch (ExecutionException exc) {
+      if (exc.getCause() instanceof RepositoryException cause) {
+        throw cause;
+      }
+      throw new RepositoryException(
+        "Command to " + _address + " failed",
+        exc.getCause()
+      );
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new RepositoryException(
+        "Interrupted waiting for " + _address,
+        exc
+      );
+    }
+  }
+
+  /** Sends a command and waits for its reply. */
+  Object call(Duration timeout, byte[]... args) {
+    return await(send(args), timeout);
+  }
+
+  @Override
+  public void close() {
+    _shutdown(_closedException());
+  }
+
+  static byte[] arg(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void _writeLoop() {
+    List<Command> batch = new ArrayList<>();
+    try {
+      while (!_closed.get()) {
+        batch.add(_queue.take());
+        _queue.drainTo(batch);
+        for (Command command : batch) {
+          // registered before the bytes leave, so the reader always finds it
+          _inFlight.add(command.reply());
+          _write(command.args());
+        }
+        batch.clear();
+        _out.flush();
+      }
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      _shutdown(_closedException());
+    } catch (IOException exc) {
+      _fail(new RepositoryException("Failed to write to " + _address, exc));
+    }
+    for (Command command : batch) {
+      command.reply().completeExceptionally(_closedException());
+    }
+  }
+
+  private void _write(byte[][] args) throws IOException {
+    _out.write('*');
+    _out.write(arg(Integer.toString(args.length)));
+    _out.write(_CRLF);
+    for (byte[] arg : args) {
+      _out.write('$');
+      _out.write(arg(Integer.toString(arg.length)));
+      _out.write(_CRLF);
+      _out.write(arg);
+      _out.write(_CRLF);
+    }
+  }
+
+  private void _readLoop() {
+    try {
+      while (!_closed.get()) {
+        Object reply = _read();
+        if (_isMessage(reply)) {
+          List<?> message = (List<?>) reply;
+          _listener.accept(
+            new String((byte[]) message.get(1), StandardCharsets.UTF_8),
+            (byte[]) message.get(2)
+          );
+        } else {
+          _complete(reply);
+        }
+      }
+    } catch (IOException exc) {
+      _fail(new RepositoryException("Failed to read from " + _address, exc));
+    } catch (RuntimeException exc) {
+      _fail(
+        new RepositoryException("Protocol error talking to " + _address, exc)
+      );
+    }
+  }
+
+  private boolean _isMessage(Object reply) {
+    return (
+      _listener != null &&
+      reply instanceof List<?> list &&
+      list.size() == 3 &&
+      list.get(0) instanceof byte[] kind &&
+      "message".equals(new String(kind, StandardCharsets.US_ASCII))
+    );
+  }
+
+  private void _complete(Object reply) {
+    CompletableFuture<Object> future = _inFlight.poll();
+    if (future == null) {
+      throw new IllegalStateException("Unsolicited reply");
+    }
+    if (reply instanceof ErrorReply error) {
+      future.completeExceptionally(
+        new RepositoryException(_address + " replied " + error.message())
+      );
+    } else {
+      future.complete(reply);
+    }
+  }
+
+  private Object _read() throws IOException {
+    int type = _in.read();
+    if (type < 0) {
+      throw new EOFException("Connection closed by server");
+    }
+    String line = _readLine();
+    return switch (type) {
+      case '+' -> line;
+      case '-' -> new ErrorReply(line);
+      case ':' -> Long.parseLong(line);
+      case '$' -> _readBulk(Integer.parseInt(line));
+      case '*' -> _readArray(Integer.parseInt(line));
+      default -> throw new IllegalStateException(
+        "Unexpected reply type " + (char) type
+      );
+    };
+  }
+
+  private byte[] _readBulk(int length) throws IOException {
+    if (length < 0) {
+      return null;
+    }
+    if (length > _MAX_BULK_BYTES) {
+      throw new IllegalStateException("Bulk reply of " + length + " bytes");
+    }
+    byte[] value = _in.readNBytes(length);
+    if (value.length < length || _in.read() != '\r' || _in.read() != '\n') {
+      throw new EOFException("Truncated bulk reply");
+    }
+    return value;
+  }
+
+  private List<Object> _readArray(int length) throws IOException {
+    if (length < 0) {
+      return null;
+    }
+    List<Object> values = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      values.add(_read());
+    }
+    return values;
+  }
+
+  private String _readLine() throws IOException {
+    StringBuilder line = new StringBuilder();
+    while (true) {
+      int next = _in.read();
+      if (next < 0) {
+        throw new EOFException("Truncated reply");
+      }
+      if (next == '\r') {
+        if (_in.read() != '\n') {
+          throw new IllegalStateException("Malformed line ending");
+        }
+        return line.toString();
+      }
+      line.append((char) next);
+    }
+  }
+
+  /** Closes the connection after a failure. */
+  private void _fail(RepositoryException cause) {
+    if (_shutdown(cause)) {
+      log.warn("Connection to {} lost: {}", _address, cause.getMessage());
+    }
+  }
+
+  /** Closes the connection once, failing every queued and in-flight command. */
+  private boolean _shutdown(RepositoryException cause) {
+    if (!_closed.compareAndSet(false, true)) {
+      return false;
+    }
+    _closeSocket();
+    _writer.interrupt();
+    CompletableFuture<Object> future;
+    while ((future = _inFlight.poll()) != null) {
+      future.completeExceptionally(cause);
+    }
+    _failQueued();
+    return true;
+  }
+
+  private void _failQueued() {
+    Command command;
+    while ((command = _queue.poll()) != null) {
+      command.reply().completeExceptionally(_closedException());
+    }
+  }
+
+  private RepositoryException _closedException() {
+    return new RepositoryException("Connection to " + _address + " is closed");
+  }
+
+  private void _closeSocket() {
+    try {
+      _socket.close();
+    } catch (IOException exc) {
+      log.debug("Failed to close connection to {}", _address, exc);
+    }
+  }
+
+  private record Command(byte[][] args, CompletableFuture<Object> reply) {}
+
+  /** An error reply, failing only the command it answers. */
+  private record ErrorReply(String message) {}
+}
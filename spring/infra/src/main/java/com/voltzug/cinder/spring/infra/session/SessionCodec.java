@@ -0,0 +1,141 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.SessionSecret;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Binary form of a {@link Session} shared by the session stores:
+ * {@code id | mode | linkId | createdAt | expiresAt | secret [| verifiedAt]}, strings
+ * and the secret prefixed with their length as a short, -1 for null, instants as
+ * seconds and nanos. {@code verifiedAt} is only written for verified sessions, so
+ * records of earlier versions still decode as unverified.
+ */
+final class SessionCodec {
+
+  private SessionCodec() {}
+
+  /** Returns the number of bytes {@link #put} writes for a session. */
+  static int sizeOf(Session session) {
+    return (
+      2 +
+      _utf8(session.id().value()).length +
+      2 +
+      session.mode().name().length() +
+      2 +
+      (session.linkId() == null ? 0 : _utf8(session.linkId().value()).length) +
+      2 * (8 + 4) +
+      2 +
+      (session.sessionSecret() == null
+          ? 0
+          : session.sessionSecret().getBytes().length) +
+      (session.isVerified() ? 8 + 4 : 0)
+    );
+  }
+
+  /** Encodes a session into a fresh array, which holds its secret in the clear. */
+  static byte[] encode(Session session) {
+    ByteBuffer record = ByteBuffer.allocate(sizeOf(session));
+    put(record, session);
+    return record.array();
+  }
+
+  /** Writes a session at the position of a buffer. */
+  static void put(ByteBuffer record, Session session) {
+    putBytes(record, _utf8(session.id().value()));
+    putBytes(
+      record,
+      session.mode().name().getBytes(StandardCharsets.US_ASCII)
+    );
+    putBytes(
+      record,
+      session.linkId() == null ? null : _utf8(session.linkId().value())
+    );
+    record.putLong(session.createdAt().getEpochSecond());
+    record.putInt(session.createdAt().getNano());
+    record.putLong(session.expiresAt().getEpochSecond());
+    record.putInt(session.expiresAt().getNano());
+    putBytes(
+      record,
+      session.sessionSecret() == null ? null : session.sessionSecret().getBytes()
+    );
+    if (session.isVerified()) {
+      record.putLong(session.verifiedAt().getEpochSecond());
+      record.putInt(session.verifiedAt().getNano());
+    }
+  }
+
+  /** Reads a session at the position of a buffer; the caller owns its secret. */
+  static Session decode(ByteBuffer record) {
+    String id = string(record);
+    Session.Mode mode = Session.Mode.valueOf(string(record));
+    String linkId = string(record);
+    Instant createdAt = Instant.ofEpochSecond(record.getLong(), record.getInt());
+    Instant expiresAt = Instant.ofEpochSecond(record.getLong(), record.getInt());
+    byte[] secret = bytes(record);
+    Instant verifiedAt = record.hasRemaining()
+      ? Instant.ofEpochSecond(record.getLong(), record.getInt())
+      : null;
+    return new Session(
+      new SessionId(id),
+      secret == null ? null : new SessionSecret(secret),
+      linkId == null ? null : new LinkId(linkId),
+      mode,
+      createdAt,
+      expiresAt,
+      verifiedAt
+    );
+  }
+
+  static void putBytes(ByteBuffer record, byte[] value) {
+    if (value == null) {
+      record.putShort((short) -1);
+    } else {
+      record.putShort((short) value.length).put(value);
+    }
+  }
+
+  static byte[] bytes(ByteBuffer record) {
+    short length = record.getShort();
+    if (length < 0) {
+      return null;
+    }
+    byte[] value = new byte[length];
+    record.get(value);
+    return value;
+  }
+
+  static String string(ByteBuffer record) {
+    byte[] value = bytes(record);
+    return value == null ? null : new String(value, StandardCharsets.UTF_8);
+  }
+
+  /** Zeroes the secret of a session leaving its owner. */
+  static void close(Session session) {
+    if (session.sessionSecret() != null) {
+      session.sessionSecret().close();
+    }
+  }
+
+  private static byte[] _utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,340 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.utils.SafeArrays;
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.exception.RepositoryException;
+import com.voltzug.cinder.core.port.out.PepperPort;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of session saves and deletes, replayed by
+ * {@link InMemorySessionCacheAdapter} to restore live sessions after a restart.
+ *
+ * <p>Each record is sealed with {@link PepperPort#seal} before it is written, so session
+ * identifiers and secrets never reach the disk in the clear, and framed with its length and
+ * a CRC32. {@link #recover} replays the journal, skipping sessions already expired, stops at
+ * a torn or corrupt tail left by a crash, and rewrites the journal as a snapshot of the
+ * sessions still live. The journal is rewritten the same way once it has grown well beyond
+ * the live sessions, and when the cache shuts down.
+ *
+ * <p>Records are handed to the operating system as they are appended but not forced to
+ * the device, so they survive the process but not a power loss; snapshots are forced
+ * before they replace the journal. Not thread-safe; owners serialize access.
+ */
+@Slf4j
+public class SessionJournal implements AutoCloseable {
+
+  private static final int _MAGIC = 0x43534A31; // "CSJ1"
+  private static final byte _SAVE = 1;
+  private static final byte _DELETE = 2;
+  private static final int _MAX_RECORD_BYTES = 64 * 1024;
+  private static final String _SNAPSHOT_SUFFIX = ".snapshot";
+
+  private final Path _path;
+  private final PepperPort _pepper;
+  private FileChannel _channel;
+  private int _appended;
+
+  public SessionJournal(SessionJournalProperties properties, PepperPort pepper) {
+    Objects.requireNonNull(properties, "properties must not be null");
+    _path = Path.of(properties.path()).toAbsolutePath();
+    _pepper = Objects.requireNonNull(pepper, "pepper must not be null");
+  }
+
+  /** Returns the journal file. */
+  public Path getPath() {
+    return _path;
+  }
+
+  /** Returns the number of records appended since the journal was last rewritten. */
+  public int getAppended() {
+    return _appended;
+  }
+
+  /**
+   * Replays the journal and rewrites it as a snapshot of the sessions still live at
+   * {@code now}. The returned sessions are owned by the caller, who closes their secrets.
+   *
+   * @return the live sessions in the order they were last saved
+   */
+  public List<Session> recover(Instant now) {
+    Map<String, Session> sessions = new LinkedHashMap<>();
+    if (Files.exists(_path)) {
+      _replay(sessions);
+    }
+    List<Session> live = new ArrayList<>(sessions.size());
+    for (Session session : sessions.values()) {
+      if (session.isExpired(now)) {
+        SessionCodec.close(session);
+      } else {
+        live.add(session);
+      }
+    }
+    rewrite(live);
+    return live;
+  }
+
+  /** Appends the save of a session. */
+  public void appendSave(Session session) {
+    byte[] record = _encode(session);
+    try {
+      _append(record);
+    } finally {
+      SafeArrays.seal(record);
+    }
+  }
+
+  /** Appends the delete of a session. */
+  public void appendDelete(String sessionId) {
+    byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer record = ByteBuffer.allocate(1 + 2 + id.length);
+    record.put(_DELETE).putShort((short) id.length).put(id);
+    _append(record.array());
+  }
+
+  /**
+   * Replaces the journal with a snapshot holding one save per session, written to a
+   * temporary file, forced and atomically moved over the journal; the move is forced
+   * with the directory. If the snapshot cannot replace the journal, the journal stays
+   * open and appends keep going to it.
+   */
+  public void rewrite(Collection<Session> sessions) {
+    Path snapshot = _path.resolveSibling(_path.getFileName() + _SNAPSHOT_SUFFIX);
+    try {
+      Files.createDirectories(_path.getParent());
+      try (
+        FileChannel channel = FileChannel.open(
+          snapshot,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING
+        )
+      ) {
+        _writeFully(channel, ByteBuffer.allocate(4).putInt(0, _MAGIC));
+        for (Session session : sessions) {
+          byte[] record = _encode(session);
+          try {
+            _writeFully(channel, _frame(record));
+          } finally {
+            SafeArrays.seal(record);
+          }
+        }
+        channel.force(true);
+      }
+      Files.move(snapshot, _path, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException exc) {
+      _deleteQuietly(snapshot);
+      throw new RepositoryException(
+        "Failed to rewrite session journal " + _path,
+        exc
+      );
+    }
+    _syncDirectory();
+    // the previous channel writes to the replaced file, so it goes whatever happens next
+    _closeChannel();
+    try {
+      _channel = FileChannel.open(
+        _path,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND
+      );
+      _appended = 0;
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to rewrite session journal " + _path,
+        exc
+      );
+    }
+  }
+
+  /** Forces appended records to the device and closes the journal. */
+  @Override
+  public void close() {
+    if (_channel != null) {
+      try {
+        _channel.force(true);
+      } catch (IOException exc) {
+        log.warn("Failed to force session journal {}", _path, exc);
+      }
+    }
+    _closeChannel();
+  }
+
+  private void _append(byte[] record) {
+    if (_channel == null) {
+      throw new RepositoryException("Session journal is not open: " + _path);
+    }
+    try {
+      _writeFully(_channel, _frame(record));
+      _appended++;
+    } catch (IOException exc) {
+      throw new RepositoryException(
+        "Failed to append to session journal " + _path,
+        exc
+      );
+    }
+  }
+
+  /** Seals a record and frames it as {@code length | sealed | crc32}. */
+  private ByteBuffer _frame(byte[] record) {
+    ByteBuffer sealed = _pepper.seal(record).getBuffer();
+    CRC32 crc = new CRC32();
+    crc.update(sealed.duplicate());
+    ByteBuffer frame = ByteBuffer.allocate(4 + sealed.remaining() + 4);
+    frame.putInt(sealed.remaining()).put(sealed).putInt((int) crc.getValue());
+    return frame.flip();
+  }
+
+  /** Reads records until the end of the journal or the first torn or corrupt one. */
+  private void _replay(Map<String, Session> sessions) {
+    long valid = 0;
+    int records = 0;
+    try (
+      InputStream file = Files.newInputStream(_path);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(file))
+    ) {
+      if (in.readInt() != _MAGIC) {
+        log.warn("Ignoring session journal {} of unknown format", _path);
+        return;
+      }
+      valid = 4;
+      while (true) {
+        int length = in.readInt();
+        if (length < 1 || length > _MAX_RECORD_BYTES) {
+          break;
+        }
+        byte[] sealed = new byte[length];
+        in.readFully(sealed);
+        CRC32 crc = new CRC32();
+        crc.update(sealed);
+        if (in.readInt() != (int) crc.getValue()) {
+          break;
+        }
+        valid += 4 + length + 4;
+        byte[] record = _pepper.unseal(new SealedBlob(sealed));
+        try {
+          _apply(ByteBuffer.wrap(record), sessions);
+          records++;
+        } finally {
+          SafeArrays.seal(record);
+        }
+      }
+    } catch (EOFException exc) {
+      // torn tail of a crash; everything up to the last complete record is kept
+    } catch (IOException | RuntimeException exc) {
+      log.warn(
+        "Stopped replaying session journal {} at byte {}",
+        _path,
+        valid,
+        exc
+      );
+    }
+    log.info(
+      "Replayed {} session journal record(s) from {} ({} bytes)",
+      records,
+      _path,
+      valid
+    );
+  }
+
+  private static void _apply(ByteBuffer record, Map<String, Session> sessions) {
+    byte type = record.get();
+    Session previous;
+    if (type == _SAVE) {
+      Session session = SessionCodec.decode(record);
+      previous = sessions.remove(session.id().value());
+      sessions.put(session.id().value(), session);
+    } else if (type == _DELETE) {
+      previous = sessions.remove(SessionCodec.string(record));
+    } else {
+      throw new IllegalStateException("Unknown journal record type " + type);
+    }
+    if (previous != null) {
+      SessionCodec.close(previous);
+    }
+  }
+
+  /** Encodes a save as {@code type | session} in the {@link SessionCodec} form. */
+  private static byte[] _encode(Session session) {
+    ByteBuffer record = ByteBuffer.allocate(1 + SessionCodec.sizeOf(session));
+    record.put(_SAVE);
+    SessionCodec.put(record, session);
+    return record.array();
+  }
+
+  private static void _writeFully(FileChannel channel, ByteBuffer buffer)
+    throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /** Forces the replacement of the journal to disk; a no-op where directories cannot be opened. */
+  private void _syncDirectory() {
+    try (
+      FileChannel directory = FileChannel.open(
+        _path.getParent(),
+        StandardOpenOption.READ
+      )
+    ) {
+      directory.force(true);
+    } catch (IOException exc) {
+      log.debug("Cannot sync session journal directory", exc);
+    }
+  }
+
+  private void _deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException exc) {
+      log.debug("Failed to delete session journal snapshot {}", file, exc);
+    }
+  }
+
+  private void _closeChannel() {
+    if (_channel == null) {
+      return;
+    }
+    try {
+      _channel.close();
+    } catch (IOException exc) {
+      log.warn("Failed to close session journal {}", _path, exc);
+    }
+    _channel = null;
+  }
+}
@@ -0,0 +1,41 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the in-memory session cache journal
+ * ({@code cinder.session.cache.memory.journal.*}).
+ *
+ * @param enabled whether sessions are journaled and restored on restart
+ * @param path    journal file; sealed with the pepper, so it holds no session secret in the clear
+ */
+@ConfigurationProperties(prefix = "cinder.session.cache.memory.journal")
+public record SessionJournalProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("./data/sessions.journal") String path
+) {
+  public SessionJournalProperties {
+    Objects.requireNonNull(path, "path must not be null");
+    if (path.isBlank()) {
+      throw new IllegalArgumentException(
+        "cinder.session.cache.memory.journal.path must not be blank"
+      );
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel firing elements once the clock reaches their deadline tick.
+ *
+ * <p>{@value #LEVELS} levels of 64 slots each cover 64, 64², 64³ and 64⁴ ticks ahead of the
+ * current tick. An element is placed in the lowest level whose span still contains its
+ * deadline; when a lower level wraps around, the next slot of the level above is cascaded
+ * down into it. Scheduling and firing an element are therefore O(1), and advancing by one
+ * tick only touches the slots due at that tick, however many elements are scheduled.
+ * Deadlines beyond the span of the wheel are parked in the first slot of the top level and
+ * re-placed each time the top level wraps around.
+ *
+ * <p>Each slot is an intrusive doubly linked list of timers, so cancelling a timer unlinks
+ * it in O(1) and the wheel no longer references its element.
+ *
+ * <p>Not thread-safe; owners serialize access.
+ *
+ * @param <E> type of the scheduled elements
+ */
+final class TimingWheel<E> {
+
+  /** Number of levels of the wheel. */
+  static final int LEVELS = 4;
+
+  private static final int _SLOT_BITS = 6;
+  private static final int _SLOTS = 1 << _SLOT_BITS;
+  private static final int _SLOT_MASK = _SLOTS - 1;
+
+  private final Slot<E>[][] _slots;
+  private final Slot<E> _overdue = new Slot<>();
+  private long _tick;
+  private int _size;
+
+  /**
+   * @param tick the current tick; elements are due once the wheel advanced to their deadline
+   */
+  @SuppressWarnings("unchecked")
+  TimingWheel(long tick) {
+    _tick = tick;
+    _slots = new Slot[LEVELS][_SLOTS];
+    for (Slot<E>[] level : _slots) {
+      for (int slot = 0; slot < _SLOTS; slot++) {
+        level[slot] = new Slot<>();
+      }
+    }
+  }
+
+  /** Returns the tick the wheel has advanced to. */
+  long tick() {
+    return _tick;
+  }
+
+  /** Returns the number of scheduled elements neither fired nor cancelled yet. */
+  int size() {
+    return _size;
+  }
+
+  /**
+   * Schedules an element to fire once the wheel advances to {@code deadline}.
+   * Elements already due fire on the next {@link #advance}.
+   *
+   * @return the timer of the element, to {@link #cancel} it
+   */
+  Timer<E> schedule(E element, long deadline) {
+    Timer<E> timer = new Timer<>(element, deadline);
+    if (deadline <= _tick) {
+      _overdue.add(timer);
+    } else {
+      _place(timer);
+    }
+    _size++;
+    return timer;
+  }
+
+  /**
+   * Cancels a timer of this wheel, so its element never fires and is no longer
+   * referenced by the wheel.
+   *
+   * @return false if the timer already fired or was cancelled
+   */
+  boolean cancel(Timer<E> timer) {
+    if (timer._slot == null) {
+      return false;
+    }
+    timer._slot.remove(timer);
+    _size--;
+    return true;
+  }
+
+  /**
+   * Advances the wheel to {@code tick}, firing every element whose deadline is at or
+   * before it. Going backwards is a no-op.
+   *
+   * @return the number of elements fired
+   */
+  int advance(long tick, Consumer<? super E> expired) {
+    int fired = _fire(_overdue, expired);
+    if (_size == 0 && tick > _tick) {
+      _tick = tick;
+      return fired;
+    }
+    while (_tick < tick) {
+      _tick++;
+      for (int level = LEVELS - 1; level > 0; level--) {
+        int shift = _SLOT_BITS * level;
+        if ((_tick & ((1L << shift) - 1)) == 0) {
+          _cascade(_slots[level][(int) (_tick >>> shift) & _SLOT_MASK]);
+        }
+      }
+      fired += _fire(_slots[0][(int) _tick & _SLOT_MASK], expired);
+      if (_size == 0 && tick > _tick) {
+        _tick = tick;
+      }
+    }
+    return fired;
+  }
+
+  /**
+   * Places a timer in the lowest level whose span holds its deadline; a deadline at the
+   * current tick lands in the level 0 slot about to fire.
+   */
+  private void _place(Timer<E> timer) {
+    long deadline = timer._deadline;
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = _SLOT_BITS * (level + 1);
+      if (deadline >>> shift == _tick >>> shift) {
+        int slot = (int) (deadline >>> (_SLOT_BITS * level)) & _SLOT_MASK;
+        _slots[level][slot].add(timer);
+        return;
+      }
+    }
+    _slots[LEVELS - 1][0].add(timer);
+  }
+
+  private void _cascade(Slot<E> slot) {
+    Timer<E> timer = slot.detach();
+    while (timer != null) {
+      Timer<E> next = timer._next;
+      _place(timer);
+      timer = next;
+    }
+  }
+
+  private int _fire(Slot<E> slot, Consumer<? super E> expired) {
+    int fired = 0;
+    Timer<E> timer;
+    while ((timer = slot.poll()) != null) {
+      _size--;
+      fired++;
+      expired.accept(timer._element);
+    }
+    return fired;
+  }
+
+  /** A scheduled element with its deadline tick, linked into the slot holding it. */
+  static final class Timer<E> {
+
+    private final E _element;
+    private final long _deadline;
+    private Slot<E> _slot;
+    private Timer<E> _previous;
+    private Timer<E> _next;
+
+    private Timer(E element, long deadline) {
+      _element = element;
+      _deadline = deadline;
+    }
+  }
+
+  /** Doubly linked list of the timers due in one slot. */
+  private static final class Slot<E> {
+
+    private Timer<E> _head;
+    private Timer<E> _tail;
+
+    void add(Timer<E> timer) {
+      timer._slot = this;
+      timer._previous = _tail;
+      timer._next = null;
+      if (_tail == null) {
+        _head = timer;
+      } else {
+        _tail._next = timer;
+      }
+      _tail = timer;
+    }
+
+    void remove(Timer<E> timer) {
+      if (timer._previous == null) {
+        _head = timer._next;
+      } else {
+        timer._previous._next = timer._next;
+      }
+      if (timer._next == null) {
+        _tail = timer._previous;
+      } else {
+        timer._next._previous = timer._previous;
+      }
+      timer._slot = null;
+      timer._previous = null;
+      timer._next = null;
+    }
+
+    Timer<E> poll() {
+      Timer<E> timer = _head;
+      if (timer != null) {
+        remove(timer);
+      }
+      return timer;
+    }
+
+    /**
+     * Empties the slot, returning its first timer; the rest stay chained through
+     * {@code _next} only.
+     */
+    Timer<E> detach() {
+      Timer<E> timer = _head;
+      for (Timer<E> linked = timer; linked != null; linked = linked._next) {
+        linked._slot = null;
+        linked._previous = null;
+      }
+      _head = null;
+      _tail = null;
+      return timer;
+    }
+  }
+}
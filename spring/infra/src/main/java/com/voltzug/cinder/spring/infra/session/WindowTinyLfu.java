@@ -0,0 +1,157 @@
+package com.voltzug.cinder.spring.infra.session;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded eviction policy admitting entries by frequency (W-TinyLFU).
+ *
+ * <p>New entries enter a small LRU window holding 1% of the capacity. An entry pushed out
+ * of the window becomes a candidate for the main region, a segmented LRU split into
+ * probation (20%) and protected (80%) entries. Once the main region is full, the candidate
+ * only replaces the probation victim if a {@link FrequencySketch} estimates it was used
+ * more often recently. On a tie the candidate replaces a victim never accessed since it
+ * was added, so entries used once age out of probation first in, first out; a victim that
+ * was accessed stays. A burst of entries used once therefore churns through the window and
+ * probation without displacing entries used again since they were added, while an entry
+ * added during the burst and first read some time later still gets its turn in probation.
+ * Entries accessed in probation are promoted to protected, and the least recently used
+ * protected entry is demoted back to probation when it overflows.
+ *
+ * <p>Entries are compared by identity. Not thread-safe; owners serialize access.
+ *
+ * @param <E> type of the entries
+ */
+final class WindowTinyLfu<E> {
+
+  private final ToIntFunction<? super E> _hash;
+  private final FrequencySketch _sketch;
+  private final int _windowCapacity;
+  private final int _mainCapacity;
+  private final int _protectedCapacity;
+  // Each region maps its entries to whether they were accessed since they were added
+  private final LinkedHashMap<E, Boolean> _window = _lru();
+  private final LinkedHashMap<E, Boolean> _probation = _lru();
+  private final LinkedHashMap<E, Boolean> _protected = _lru();
+
+  /**
+   * @param capacity maximum number of entries
+   * @param hash     key hash of an entry, shared by entries standing for the same key
+   */
+  WindowTinyLfu(int capacity, ToIntFunction<? super E> hash) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    _hash = Objects.requireNonNull(hash, "hash must not be null");
+    _sketch = new FrequencySketch(capacity);
+    _windowCapacity = Math.max(1, capacity / 100);
+    _mainCapacity = capacity - _windowCapacity;
+    _protectedCapacity = _mainCapacity * 4 / 5;
+  }
+
+  /** Returns the number of entries held. */
+  int size() {
+    return _window.size() + _probation.size() + _protected.size();
+  }
+
+  /**
+   * Adds a new entry, then evicts the window candidate or the main victim if the policy is
+   * over capacity.
+   */
+  void add(E entry, Consumer<? super E> evicted) {
+    _sketch.increment(_hash.applyAsInt(entry));
+    _window.put(entry, Boolean.FALSE);
+    if (_window.size() <= _windowCapacity) {
+      return;
+    }
+    Map.Entry<E, Boolean> candidate = _removeEldest(_window);
+    if (_mainCapacity == 0) {
+      evicted.accept(candidate.getKey());
+      return;
+    }
+    if (_probation.size() + _protected.size() < _mainCapacity) {
+      _probation.put(candidate.getKey(), candidate.getValue());
+      return;
+    }
+    LinkedHashMap<E, Boolean> victims = _probation.isEmpty()
+      ? _protected
+      : _probation;
+    Map.Entry<E, Boolean> victim = victims.entrySet().iterator().next();
+    int candidateFrequency = _sketch.frequency(
+      _hash.applyAsInt(candidate.getKey())
+    );
+    int victimFrequency = _sketch.frequency(_hash.applyAsInt(victim.getKey()));
+    if (
+      candidateFrequency > victimFrequency ||
+      (candidateFrequency == victimFrequency && !victim.getValue())
+    ) {
+      victims.remove(victim.getKey());
+      _probation.put(candidate.getKey(), candidate.getValue());
+      evicted.accept(victim.getKey());
+    } else {
+      evicted.accept(candidate.getKey());
+    }
+  }
+
+  /** Records a use of a held entry; uses of entries not held only count towards their key. */
+  void access(E entry) {
+    _sketch.increment(_hash.applyAsInt(entry));
+    if (
+      _window.replace(entry, Boolean.TRUE) != null ||
+      _protected.get(entry) != null
+    ) {
+      return;
+    }
+    if (_probation.remove(entry) != null) {
+      _protected.put(entry, Boolean.TRUE);
+      if (_protected.size() > _protectedCapacity) {
+        _probation.put(_removeEldest(_protected).getKey(), Boolean.TRUE);
+      }
+    }
+  }
+
+  /** Removes an entry, if held. */
+  void remove(E entry) {
+    if (_window.remove(entry) == null && _probation.remove(entry) == null) {
+      _protected.remove(entry);
+    }
+  }
+
+  /** Removes every entry; recorded frequencies are kept. */
+  void clear() {
+    _window.clear();
+    _probation.clear();
+    _protected.clear();
+  }
+
+  private static <E> Map.Entry<E, Boolean> _removeEldest(
+    LinkedHashMap<E, Boolean> region
+  ) {
+    Iterator<Map.Entry<E, Boolean>> eldest = region.entrySet().iterator();
+    Map.Entry<E, Boolean> entry = eldest.next();
+    eldest.remove();
+    return entry;
+  }
+
+  private static <E> LinkedHashMap<E, Boolean> _lru() {
+    return new LinkedHashMap<>(16, 0.75f, true);
+  }
+}
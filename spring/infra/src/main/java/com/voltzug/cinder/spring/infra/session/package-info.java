@@ -0,0 +1,19 @@
+/**
+ * Session cache adapters.
+ *
+ * <p>This package implements {@link com.voltzug.cinder.core.port.out.SessionCachePort},
+ * holding the short-lived upload and download sessions and their secrets.</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.infra.session.InMemorySessionCacheAdapter} — Lock-free
+ *       concurrent map expired by a hierarchical timing wheel and bounded per session mode by
+ *       frequency-based admission, keeping session secrets off heap and zeroing them when a
+ *       session is dropped</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.session.SessionJournal} — Append-only, pepper-sealed
+ *       journal of session changes, replayed to restore live sessions after a restart</li>
+ *   <li>{@link com.voltzug.cinder.spring.infra.session.RedisSessionCacheAdapter} — Sessions shared
+ *       between nodes on a Redis-protocol server over a pipelined connection, sealed with the
+ *       pepper, behind a near-cache invalidated through pub/sub</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.infra.session;
@@ -0,0 +1,21 @@
+-- Secure file records: sealed metadata of one uploaded encrypted blob.
+-- Timestamps are epoch milliseconds.
+CREATE TABLE secure_file (
+  file_id             TEXT    NOT NULL PRIMARY KEY,
+  link_id             TEXT    NOT NULL,
+  blob_path           TEXT    NOT NULL,
+  blob_checksum       INTEGER,
+  sealed_envelope     BLOB    NOT NULL,
+  sealed_salt         BLOB    NOT NULL,
+  gate_hash           BLOB    NOT NULL,
+  encrypted_questions BLOB    NOT NULL,
+  expiry_date         INTEGER NOT NULL,
+  retry_count         INTEGER NOT NULL,
+  remaining_attempts  INTEGER NOT NULL,
+  created_at          INTEGER NOT NULL
+);
+
+-- Download lookups resolve a public link id to its file. link_id carries no
+-- inline UNIQUE, so this index is the only one SQLite maintains for it.
+CREATE UNIQUE INDEX secure_file_link_id_uq
+  ON secure_file (link_id);
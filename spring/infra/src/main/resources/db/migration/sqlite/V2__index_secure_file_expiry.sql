@@ -0,0 +1,5 @@
+-- Cleanup pages through expired files by (expiry_date, file_id) and only needs
+-- their references. Keeping link_id and blob_path in the index covers the page
+-- query entirely, so cleanup never touches the wide table rows.
+CREATE INDEX secure_file_expiry_cleanup_ix
+  ON secure_file (expiry_date, file_id, link_id, blob_path);
@@ -0,0 +1,11 @@
+-- Remaining download attempts per link, checkpointed from memory by the
+-- write-behind download limit adapter. Rows live in the shard of their link.
+-- Timestamps are epoch milliseconds; generation orders re-initializations of a
+-- link against attempts replayed from the write-ahead log.
+CREATE TABLE download_limit (
+  link_id            TEXT    NOT NULL PRIMARY KEY,
+  generation         INTEGER NOT NULL,
+  remaining_attempts INTEGER NOT NULL,
+  expiry_date        INTEGER NOT NULL,
+  last_attempt_at    INTEGER
+) WITHOUT ROWID;
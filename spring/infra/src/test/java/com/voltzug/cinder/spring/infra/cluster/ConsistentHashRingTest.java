@@ -0,0 +1,142 @@
+package com.voltzug.cinder.spring.infra.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ConsistentHashRing.
+ * Focuses on balance across nodes and on how few keys move when the node set changes.
+ */
+class ConsistentHashRingTest {
+
+  private static final int KEYS = 20_000;
+
+  private static List<String> keys() {
+    return IntStream.range(0, KEYS)
+      .mapToObj(i -> new UUID(i * 31L, i).toString())
+      .toList();
+  }
+
+  // ==================== OWNERSHIP TESTS ====================
+
+  @Test
+  void shouldAssignEveryKeyToSingleNode() {
+    // Given
+    ConsistentHashRing ring = new ConsistentHashRing(List.of("only"), 16);
+
+    // Then
+    for (String key : keys().subList(0, 100)) {
+      assertEquals("only", ring.ownerOf(key));
+    }
+  }
+
+  @Test
+  void shouldAgreeRegardlessOfNodeOrder() {
+    // Given
+    ConsistentHashRing ring = new ConsistentHashRing(
+      List.of("a", "b", "c"),
+      160
+    );
+    ConsistentHashRing shuffled = new ConsistentHashRing(
+      List.of("c", "a", "b", "a"),
+      160
+    );
+
+    // Then
+    assertEquals(List.of("a", "b", "c"), shuffled.getNodes());
+    for (String key : keys()) {
+      assertEquals(ring.ownerOf(key), shuffled.ownerOf(key));
+    }
+  }
+
+  @Test
+  void shouldBalanceKeysAcrossNodes() {
+    // Given
+    List<String> nodes = List.of("a", "b", "c", "d");
+    ConsistentHashRing ring = new ConsistentHashRing(nodes, 160);
+    Map<String, Integer> counts = new HashMap<>();
+
+    // When
+    for (String key : keys()) {
+      counts.merge(ring.ownerOf(key), 1, Integer::sum);
+    }
+
+    // Then
+    for (String node : nodes) {
+      int count = counts.getOrDefault(node, 0);
+      assertTrue(
+        count > KEYS / 4 * 0.8 && count < KEYS / 4 * 1.2,
+        node + " owns " + count + " keys"
+      );
+    }
+  }
+
+  @Test
+  void shouldOnlyMoveKeysToAddedNode() {
+    // Given
+    ConsistentHashRing before = new ConsistentHashRing(
+      List.of("a", "b", "c"),
+      160
+    );
+    ConsistentHashRing after = new ConsistentHashRing(
+      List.of("a", "b", "c", "d"),
+      160
+    );
+    int moved = 0;
+
+    // When
+    for (String key : keys()) {
+      String owner = after.ownerOf(key);
+      if (!owner.equals(before.ownerOf(key))) {
+        assertEquals("d", owner);
+        moved++;
+      }
+    }
+
+    // Then
+    assertTrue(
+      moved > KEYS / 4 * 0.8 && moved < KEYS / 4 * 1.2,
+      moved + " keys moved"
+    );
+  }
+
+  @Test
+  void shouldOnlyMoveKeysOfRemovedNode() {
+    // Given
+    ConsistentHashRing before = new ConsistentHashRing(
+      List.of("a", "b", "c"),
+      160
+    );
+    ConsistentHashRing after = new ConsistentHashRing(List.of("a", "c"), 160);
+
+    // Then
+    for (String key : keys()) {
+      String owner = before.ownerOf(key);
+      if (!owner.equals("b")) {
+        assertEquals(owner, after.ownerOf(key));
+      }
+    }
+  }
+
+  // ==================== VALIDATION TESTS ====================
+
+  @Test
+  void shouldRejectEmptyRing() {
+    assertThrows(IllegalArgumentException.class, () ->
+      new ConsistentHashRing(List.of(), 16)
+    );
+  }
+
+  @Test
+  void shouldRejectNonPositiveVirtualNodes() {
+    assertThrows(IllegalArgumentException.class, () ->
+      new ConsistentHashRing(List.of("a"), 0)
+    );
+  }
+}
@@ -0,0 +1,66 @@
+package com.voltzug.cinder.spring.infra.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for NodeAffinity.
+ * Focuses on minting identifiers owned by the local node.
+ */
+class NodeAffinityTest {
+
+  private final ConsistentHashRing ring = new ConsistentHashRing(
+    List.of("a", "b", "c"),
+    160
+  );
+
+  @Test
+  void shouldMintSessionIdsOwnedBySelf() {
+    // Given
+    NodeAffinity affinity = new NodeAffinity(ring, "b");
+
+    // Then
+    for (int i = 0; i < 200; i++) {
+      SessionId id = affinity.newSessionId();
+      assertTrue(affinity.isLocal(id));
+      assertEquals("b", ring.ownerOf(id.value()));
+    }
+  }
+
+  @Test
+  void shouldMintLinkIdsOwnedBySelf() {
+    // Given
+    NodeAffinity affinity = new NodeAffinity(ring, "c");
+
+    // Then
+    for (int i = 0; i < 200; i++) {
+      LinkId id = affinity.newLinkId();
+      assertEquals("c", affinity.ownerOf(id));
+    }
+  }
+
+  @Test
+  void shouldAgreeOnOwnerAcrossNodes() {
+    // Given
+    NodeAffinity a = new NodeAffinity(ring, "a");
+    NodeAffinity b = new NodeAffinity(ring, "b");
+
+    // When
+    SessionId id = b.newSessionId();
+
+    // Then
+    assertFalse(a.isLocal(id));
+    assertEquals("b", a.ownerOf(id));
+  }
+
+  @Test
+  void shouldRejectNodeNotOnRing() {
+    assertThrows(IllegalArgumentException.class, () ->
+      new NodeAffinity(ring, "z")
+    );
+  }
+}
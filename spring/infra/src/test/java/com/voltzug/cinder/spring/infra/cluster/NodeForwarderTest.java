@@ -0,0 +1,317 @@
+package com.voltzug.cinder.spring.infra.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for NodeForwarder between in-process nodes on loopback.
+ * Focuses on relaying requests and streamed bodies to the owning node and on failures.
+ */
+class NodeForwarderTest {
+
+  private static final List<String> NODES = List.of("a", "b", "c");
+
+  private final Map<String, HttpServer> servers = new LinkedHashMap<>();
+  private final Map<String, AtomicInteger> served = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, String>> lastHeaders =
+    new ConcurrentHashMap<>();
+  private ClusterProperties properties;
+  private NodeForwarder forwarder;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Map<String, URI> nodes = new LinkedHashMap<>();
+    for (String node : NODES) {
+      HttpServer server = HttpServer.create(
+        new InetSocketAddress("127.0.0.1", 0),
+        0
+      );
+      server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+      server.createContext("/", exchange -> serve(node, exchange));
+      server.start();
+      servers.put(node, server);
+      served.put(node, new AtomicInteger());
+      nodes.put(
+        node,
+        URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")
+      );
+    }
+    properties = properties(nodes, Duration.ofSeconds(5));
+    forwarder = new NodeForwarder(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    forwarder.close();
+    servers.values().forEach(server -> server.stop(0));
+  }
+
+  private static ClusterProperties properties(
+    Map<String, URI> nodes,
+    Duration timeout
+  ) {
+    return new ClusterProperties(true, "a", nodes, 160, timeout);
+  }
+
+  /** Echoes the request: method, path and query in a header, the body as the body. */
+  private void serve(String node, HttpExchange exchange) throws IOException {
+    served.get(node).incrementAndGet();
+    Map<String, String> headers = new LinkedHashMap<>();
+    exchange
+      .getRequestHeaders()
+      .forEach((name, values) -> headers.put(name.toLowerCase(), values.get(0)));
+    lastHeaders.put(node, headers);
+    if (exchange.getRequestURI().getPath().startsWith("/slow")) {
+      try {
+        Thread.sleep(2_000);
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    byte[] body;
+    try (InputStream in = exchange.getRequestBody()) {
+      body = in.readAllBytes();
+    }
+    exchange
+      .getResponseHeaders()
+      .add(
+        "X-Echo",
+        node + " " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+      );
+    exchange.getResponseHeaders().add("Connection", "keep-alive");
+    if (body.length == 0) {
+      exchange.sendResponseHeaders(204, -1);
+    } else {
+      exchange.sendResponseHeaders(201, body.length);
+    }
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private HttpResponse<InputStream> forward(
+    String node,
+    String method,
+    String target,
+    byte[] body,
+    long length
+  ) throws IOException {
+    return forwarder.forward(
+      node,
+      method,
+      target,
+      Map.of("X-Custom", List.of("kept"), "Connection", List.of("close")),
+      new ByteArrayInputStream(body),
+      length
+    );
+  }
+
+  // ==================== FORWARDING TESTS ====================
+
+  @Test
+  void shouldRelayRequestToNode() throws Exception {
+    // Given
+    byte[] body = "payload".getBytes(StandardCharsets.UTF_8);
+
+    // When
+    HttpResponse<InputStream> response = forward(
+      "b",
+      "POST",
+      "/api/download/abc/file?x=1",
+      body,
+      body.length
+    );
+
+    // Then
+    assertEquals(201, response.statusCode());
+    assertEquals(
+      "b POST /api/download/abc/file?x=1",
+      response.headers().firstValue("X-Echo").get()
+    );
+    try (InputStream in = response.body()) {
+      assertArrayEquals(body, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void shouldMarkForwardedRequestsAndDropHopByHopHeaders() throws Exception {
+    // When
+    forward("c", "GET", "/x", new byte[0], 0).body().close();
+
+    // Then
+    Map<String, String> headers = lastHeaders.get("c");
+    assertEquals("a", headers.get("x-cinder-forwarded-by"));
+    assertEquals("kept", headers.get("x-custom"));
+    assertNotEquals("close", headers.get("connection"));
+  }
+
+  @Test
+  void shouldStreamBodyOfUnknownLength() throws Exception {
+    // Given
+    byte[] body = new byte[1 << 20];
+    new Random(7).nextBytes(body);
+
+    // When
+    HttpResponse<InputStream> response = forward("b", "PUT", "/blob", body, -1);
+
+    // Then
+    try (InputStream in = response.body()) {
+      assertArrayEquals(body, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void shouldReachOwnerOfSessionsMintedElsewhere() throws Exception {
+    // Given
+    ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+    NodeAffinity nodeA = new NodeAffinity(ring, "a");
+    NodeAffinity nodeB = new NodeAffinity(ring, "b");
+    NodeAffinity nodeC = new NodeAffinity(ring, "c");
+
+    // When
+    for (NodeAffinity minter : List.of(nodeB, nodeC, nodeB)) {
+      SessionId id = minter.newSessionId();
+      String owner = nodeA.ownerOf(id);
+      String target = "/api/download/" + id.value() + "/file";
+      forward(owner, "GET", target, new byte[0], 0).body().close();
+    }
+
+    // Then
+    assertEquals(0, served.get("a").get());
+    assertEquals(2, served.get("b").get());
+    assertEquals(1, served.get("c").get());
+  }
+
+  @Test
+  void shouldOnlyForwardEndToEndHeaders() {
+    assertTrue(NodeForwarder.isForwarded("Content-Type"));
+    assertTrue(NodeForwarder.isForwarded("Content-Range"));
+    assertFalse(NodeForwarder.isForwarded("Transfer-Encoding"));
+    assertFalse(NodeForwarder.isForwarded("connection"));
+    assertFalse(NodeForwarder.isForwarded(NodeForwarder.FORWARDED_BY_HEADER));
+  }
+
+  // ==================== FAILURE TESTS ====================
+
+  @Test
+  void shouldFailWhenNodeUnreachable() throws Exception {
+    // Given
+    int closedPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      closedPort = socket.getLocalPort();
+    }
+    NodeForwarder toDeadNode = new NodeForwarder(
+      properties(
+        Map.of(
+          "a",
+          URI.create("http://127.0.0.1:1/"),
+          "dead",
+          URI.create("http://127.0.0.1:" + closedPort + "/")
+        ),
+        Duration.ofSeconds(2)
+      )
+    );
+
+    // When & Then
+    try (toDeadNode) {
+      assertThrows(IOException.class, () ->
+        toDeadNode.forward(
+          "dead",
+          "GET",
+          "/",
+          Map.of(),
+          InputStream.nullInputStream(),
+          0
+        )
+      );
+    }
+  }
+
+  @Test
+  void shouldTimeOutOnSlowNode() {
+    // Given
+    NodeForwarder impatient = new NodeForwarder(
+      properties(properties.nodes(), Duration.ofMillis(200))
+    );
+
+    // When & Then
+    try (impatient) {
+      assertThrows(HttpTimeoutException.class, () ->
+        impatient.forward(
+          "b",
+          "GET",
+          "/slow",
+          Map.of(),
+          InputStream.nullInputStream(),
+          0
+        )
+      );
+    }
+  }
+
+  @Test
+  void shouldRejectUnknownNode() {
+    assertThrows(IllegalArgumentException.class, () ->
+      forward("z", "GET", "/", new byte[0], 0)
+    );
+  }
+
+  // ==================== PROPERTIES TESTS ====================
+
+  @Test
+  void shouldRejectNodeIdMissingFromNodes() {
+    assertThrows(IllegalArgumentException.class, () ->
+      new ClusterProperties(
+        true,
+        "x",
+        Map.of("a", URI.create("http://127.0.0.1:8088/")),
+        160,
+        Duration.ofSeconds(1)
+      )
+    );
+  }
+
+  @Test
+  void shouldRejectRelativeNodeUri() {
+    assertThrows(IllegalArgumentException.class, () ->
+      new ClusterProperties(
+        true,
+        "a",
+        Map.of("a", URI.create("/relative")),
+        160,
+        Duration.ofSeconds(1)
+      )
+    );
+  }
+
+  @Test
+  void shouldNotRequireNodesWhenDisabled() {
+    assertDoesNotThrow(() ->
+      new ClusterProperties(false, "", null, 160, Duration.ofSeconds(1))
+    );
+  }
+}
@@ -0,0 +1,173 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.port.out.FileStorePort.DeleteOutcome;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for LocalBlobShredder behind a LocalFileStoreAdapter.
+ * Focuses on quarantining deleted blobs, the shredding delay and resuming after a restart.
+ */
+class LocalBlobShredderTest {
+
+  @TempDir
+  Path directory;
+
+  private LocalBlobShredder shredder;
+
+  @AfterEach
+  void tearDown() {
+    if (shredder != null) {
+      shredder.close();
+    }
+  }
+
+  private LocalFileStoreAdapter storeShreddingAfter(Duration delay) {
+    LocalFileStoreProperties storage = new LocalFileStoreProperties(
+      directory.toString(),
+      1,
+      DataSize.ofKilobytes(4),
+      LocalFileStoreProperties.ReadMode.HEAP,
+      0,
+      4,
+      LocalFileStoreProperties.WriteMode.BUFFERED,
+      false
+    );
+    shredder = new LocalBlobShredder(
+      storage,
+      new ShredProperties(true, DataSize.ofMegabytes(64), delay)
+    );
+    return new LocalFileStoreAdapter(storage, shredder);
+  }
+
+  private long quarantined() throws Exception {
+    try (Stream<Path> files = Files.list(shredder.getQuarantine())) {
+      return files.count();
+    }
+  }
+
+  private void awaitEmptyQuarantine() throws Exception {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (quarantined() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  // ==================== QUARANTINE TESTS ====================
+
+  @Test
+  void shouldMoveDeletedBlobIntoQuarantine() throws Exception {
+    // Given
+    LocalFileStoreAdapter store = storeShreddingAfter(Duration.ofHours(1));
+    PathReference reference = store.save(
+      new FileId("secret"),
+      new Blob(new byte[] { 1, 2, 3 })
+    );
+
+    // When
+    store.delete(reference);
+
+    // Then
+    assertFalse(Files.exists(Path.of(reference.value())));
+    assertEquals(1, quarantined());
+    assertTrue(store.load(reference).isEmpty());
+  }
+
+  @Test
+  void shouldReportBulkDeletesThroughQuarantine() throws Exception {
+    // Given
+    LocalFileStoreAdapter store = storeShreddingAfter(Duration.ofHours(1));
+    PathReference present = store.save(
+      new FileId("present"),
+      new Blob(new byte[] { 1 })
+    );
+    PathReference absent = PathReference.from(
+      store.canonicalPath("absent").toString()
+    );
+
+    // When
+    Map<PathReference, DeleteOutcome> outcomes = store.deleteAll(
+      List.of(present, absent)
+    );
+
+    // Then
+    assertEquals(DeleteOutcome.DELETED, outcomes.get(present));
+    assertEquals(DeleteOutcome.NOT_FOUND, outcomes.get(absent));
+    assertEquals(1, quarantined());
+  }
+
+  @Test
+  void shouldNotQuarantineMissingFile() throws Exception {
+    // Given
+    storeShreddingAfter(Duration.ZERO);
+
+    // When & Then
+    assertFalse(shredder.quarantine(directory.resolve("missing")));
+  }
+
+  @Test
+  void shouldRecreateRemovedQuarantineDirectory() throws Exception {
+    // Given
+    LocalFileStoreAdapter store = storeShreddingAfter(Duration.ofHours(1));
+    PathReference reference = store.save(
+      new FileId("late"),
+      new Blob(new byte[] { 1 })
+    );
+    Files.delete(shredder.getQuarantine());
+
+    // When
+    store.delete(reference);
+
+    // Then
+    assertEquals(1, quarantined());
+  }
+
+  // ==================== SHREDDING TESTS ====================
+
+  @Test
+  void shouldShredQuarantinedBlobAfterDelay() throws Exception {
+    // Given
+    LocalFileStoreAdapter store = storeShreddingAfter(Duration.ZERO);
+    PathReference reference = store.save(
+      new FileId("burned"),
+      new Blob(new byte[20_000])
+    );
+
+    // When
+    store.delete(reference);
+    awaitEmptyQuarantine();
+
+    // Then
+    assertEquals(0, quarantined());
+  }
+
+  @Test
+  void shouldResumeShreddingLeftoversOnStart() throws Exception {
+    // Given
+    Path quarantine = directory.resolve(
+      LocalFileStoreAdapter.QUARANTINE_DIRECTORY
+    );
+    Files.createDirectories(quarantine);
+    Files.write(quarantine.resolve("leftover"), new byte[1000]);
+
+    // When
+    storeShreddingAfter(Duration.ZERO);
+    awaitEmptyQuarantine();
+
+    // Then
+    assertFalse(Files.exists(quarantine.resolve("leftover")));
+  }
+}
@@ -0,0 +1,627 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.port.out.FileStorePort.DeleteOutcome;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for LocalFileStoreAdapter on a temporary directory.
+ * Focuses on the fan-out layout, write and read modes, the bounded cache of mappings,
+ * chunked uploads, deletion outcomes and confinement of identifiers and references to the
+ * storage directory.
+ */
+class LocalFileStoreAdapterTest {
+
+  @TempDir
+  Path directory;
+
+  private LocalFileStoreAdapter store;
+
+  @BeforeEach
+  void setUp() {
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.HEAP,
+      LocalFileStoreProperties.WriteMode.BUFFERED
+    );
+  }
+
+  private LocalFileStoreAdapter storeOf(
+    LocalFileStoreProperties.ReadMode readMode,
+    LocalFileStoreProperties.WriteMode writeMode
+  ) {
+    return new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofKilobytes(4),
+        readMode,
+        8,
+        4,
+        writeMode,
+        false
+      )
+    );
+  }
+
+  private static byte[] bytes(int size) {
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i * 31 + 7);
+    }
+    return data;
+  }
+
+  private static byte[] slice(byte[] data, int from, int to) {
+    byte[] slice = new byte[to - from];
+    System.arraycopy(data, from, slice, 0, slice.length);
+    return slice;
+  }
+
+  private static byte[] bytesOf(Blob blob) {
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] data = new byte[buffer.remaining()];
+    buffer.get(data);
+    return data;
+  }
+
+  private static byte[] bytesOf(BlobStream stream) throws Exception {
+    try (stream) {
+      ByteBuffer buffer = ByteBuffer.allocate((int) stream.size());
+      while (buffer.hasRemaining() && stream.channel().read(buffer) >= 0) {}
+      return buffer.array();
+    }
+  }
+
+  private static ReadableByteChannel channelOf(byte[] data) {
+    return Channels.newChannel(new ByteArrayInputStream(data));
+  }
+
+  private long filesUnder(Path root) throws Exception {
+    try (Stream<Path> files = Files.walk(root)) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+
+  // ==================== SAVE TESTS ====================
+
+  @Test
+  void shouldSaveIntoFanoutLayout() {
+    // When
+    PathReference reference = store.save(
+      new FileId("blob"),
+      new Blob(bytes(100))
+    );
+
+    // Then
+    Path file = Path.of(reference.value());
+    assertEquals(store.canonicalPath("blob"), file);
+    assertEquals(3, directory.relativize(file).getNameCount());
+    assertArrayEquals(bytes(100), bytesOf(store.load(reference).get()));
+  }
+
+  @Test
+  void shouldReplaceExistingBlob() {
+    // Given
+    FileId fileId = new FileId("blob");
+    store.save(fileId, new Blob(bytes(100)));
+
+    // When
+    PathReference reference = store.save(fileId, new Blob(bytes(10)));
+
+    // Then
+    assertArrayEquals(bytes(10), bytesOf(store.load(reference).get()));
+  }
+
+  @Test
+  void shouldChecksumBlobWhileSaving() {
+    // When
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("checksummed"),
+      new Blob(bytes(10_000))
+    );
+
+    // Then
+    assertEquals(
+      BlobChecksum.of(ByteBuffer.wrap(bytes(10_000))),
+      stored.checksum()
+    );
+    assertArrayEquals(bytes(10_000), bytesOf(store.load(stored.path()).get()));
+  }
+
+  @Test
+  void shouldStreamSaveFromChannel() {
+    // When
+    PathReference reference = store.save(
+      new FileId("streamed"),
+      channelOf(bytes(10_000)),
+      10_000
+    );
+
+    // Then
+    assertArrayEquals(bytes(10_000), bytesOf(store.load(reference).get()));
+  }
+
+  @Test
+  void shouldRejectTruncatedChannelWithoutLeavingFiles() throws Exception {
+    // When
+    FileStorageException exc = assertThrows(FileStorageException.class, () ->
+      store.save(new FileId("short"), channelOf(bytes(100)), 200)
+    );
+
+    // Then
+    assertTrue(exc.getMessage().contains("truncated"));
+    assertEquals(0, filesUnder(directory));
+  }
+
+  @Test
+  void shouldRejectChannelExceedingDeclaredSize() throws Exception {
+    // When
+    FileStorageException exc = assertThrows(FileStorageException.class, () ->
+      store.save(new FileId("long"), channelOf(bytes(200)), 100)
+    );
+
+    // Then
+    assertTrue(exc.getMessage().contains("exceeds"));
+    assertEquals(0, filesUnder(directory));
+  }
+
+  @Test
+  void shouldSaveWithPreallocation() {
+    // Given
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.HEAP,
+      LocalFileStoreProperties.WriteMode.PREALLOCATE
+    );
+
+    // When
+    PathReference reference = store.save(
+      new FileId("preallocated"),
+      channelOf(bytes(5000)),
+      5000
+    );
+
+    // Then
+    assertArrayEquals(bytes(5000), bytesOf(store.load(reference).get()));
+  }
+
+  @Test
+  void shouldSaveUnalignedBlobWithDirectWrites() throws Exception {
+    // Given
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.HEAP,
+      LocalFileStoreProperties.WriteMode.DIRECT
+    );
+
+    // When
+    PathReference reference = store.save(
+      new FileId("direct"),
+      new Blob(bytes(5001))
+    );
+
+    // Then
+    assertEquals(5001, Files.size(Path.of(reference.value())));
+    assertArrayEquals(bytes(5001), bytesOf(store.load(reference).get()));
+  }
+
+  // ==================== READ TESTS ====================
+
+  @Test
+  void shouldOpenBlobAsStream() throws Exception {
+    // Given
+    PathReference reference = store.save(
+      new FileId("opened"),
+      new Blob(bytes(3000))
+    );
+
+    // When
+    BlobStream stream = store.open(reference).get();
+
+    // Then
+    assertEquals(3000, stream.size());
+    assertArrayEquals(bytes(3000), bytesOf(stream));
+  }
+
+  @Test
+  void shouldNameStreamedFileOnlyWithStablePaths() {
+    // Given
+    LocalFileStoreAdapter stable = new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofKilobytes(4),
+        LocalFileStoreProperties.ReadMode.HEAP,
+        8,
+        4,
+        LocalFileStoreProperties.WriteMode.BUFFERED,
+        true
+      )
+    );
+    PathReference reference = store.save(
+      new FileId("named"),
+      new Blob(bytes(10))
+    );
+
+    // When & Then
+    try (BlobStream blob = store.open(reference).get()) {
+      assertNull(blob.file());
+    }
+    try (BlobStream blob = stable.open(reference).get()) {
+      assertEquals(Path.of(reference.value()), blob.file());
+    }
+  }
+
+  @Test
+  void shouldOpenRangeBySeeking() throws Exception {
+    // Given
+    PathReference reference = store.save(
+      new FileId("ranged"),
+      new Blob(bytes(3000))
+    );
+
+    // When
+    BlobRange range = store.open(reference, 1000, 5000).get();
+
+    // Then
+    assertEquals(1000, range.offset());
+    assertEquals(2000, range.length());
+    assertEquals(3000, range.totalSize());
+    assertArrayEquals(slice(bytes(3000), 1000, 3000), bytesOf(range.stream()));
+  }
+
+  @Test
+  void shouldLoadReadOnlyMappedView() {
+    // Given
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.MAPPED,
+      LocalFileStoreProperties.WriteMode.BUFFERED
+    );
+    PathReference reference = store.save(
+      new FileId("mapped"),
+      new Blob(bytes(3000))
+    );
+
+    // When
+    Blob first = store.load(reference).get();
+    Blob second = store.load(reference).get();
+
+    // Then
+    assertTrue(first.getBuffer().isReadOnly());
+    assertArrayEquals(bytes(3000), bytesOf(first));
+    assertArrayEquals(bytes(3000), bytesOf(second));
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedMappings() {
+    // Given
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.MAPPED,
+      LocalFileStoreProperties.WriteMode.BUFFERED
+    );
+    PathReference first = store.save(new FileId("m0"), new Blob(bytes(10)));
+    store.load(first);
+
+    // When
+    for (int i = 1; i < 20; i++) {
+      PathReference reference = store.save(
+        new FileId("m" + i),
+        new Blob(bytes(10))
+      );
+      store.load(reference);
+      store.load(first);
+    }
+
+    // Then
+    assertEquals(8, store.mappedEntries());
+    assertArrayEquals(bytes(10), bytesOf(store.load(first).get()));
+  }
+
+  @Test
+  void shouldDropMappingWhenBlobIsReplaced() {
+    // Given
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.MAPPED,
+      LocalFileStoreProperties.WriteMode.BUFFERED
+    );
+    FileId fileId = new FileId("replaced");
+    store.load(store.save(fileId, new Blob(bytes(100))));
+
+    // When
+    PathReference reference = store.save(fileId, new Blob(bytes(50)));
+
+    // Then
+    assertEquals(0, store.mappedEntries());
+    assertArrayEquals(bytes(50), bytesOf(store.load(reference).get()));
+  }
+
+  @Test
+  void shouldDropMappingsOfDeletedBlobs() {
+    // Given
+    store = storeOf(
+      LocalFileStoreProperties.ReadMode.MAPPED,
+      LocalFileStoreProperties.WriteMode.BUFFERED
+    );
+    PathReference single = store.save(new FileId("one"), new Blob(bytes(10)));
+    PathReference bulk = store.save(new FileId("two"), new Blob(bytes(10)));
+    store.load(single);
+    store.load(PathReference.from(directory.resolve("two").toString()));
+
+    // When
+    store.delete(single);
+    store.deleteAll(List.of(bulk));
+
+    // Then
+    assertEquals(0, store.mappedEntries());
+  }
+
+  @Test
+  void shouldDropMappingOfShreddedBlob() {
+    // Given
+    LocalFileStoreProperties properties = new LocalFileStoreProperties(
+      directory.toString(),
+      2,
+      DataSize.ofKilobytes(4),
+      LocalFileStoreProperties.ReadMode.MAPPED,
+      8,
+      4,
+      LocalFileStoreProperties.WriteMode.BUFFERED,
+      false
+    );
+    try (
+      LocalBlobShredder shredder = new LocalBlobShredder(
+        properties,
+        new ShredProperties(true, DataSize.ofMegabytes(1), Duration.ofHours(1))
+      )
+    ) {
+      store = new LocalFileStoreAdapter(properties, shredder);
+      PathReference reference = store.save(
+        new FileId("shredded"),
+        new Blob(bytes(10))
+      );
+      store.load(reference);
+
+      // When
+      store.delete(reference);
+
+      // Then
+      assertEquals(0, store.mappedEntries());
+      assertTrue(store.load(reference).isEmpty());
+    }
+  }
+
+  @Test
+  void shouldFallBackToCanonicalLocation() throws Exception {
+    // Given
+    store.save(new FileId("moved"), new Blob(bytes(100)));
+    PathReference flat = PathReference.from(
+      directory.resolve("moved").toString()
+    );
+
+    // When
+    Optional<Blob> loaded = store.load(flat);
+    Optional<BlobStream> opened = store.open(flat);
+
+    // Then
+    assertArrayEquals(bytes(100), bytesOf(loaded.get()));
+    assertArrayEquals(bytes(100), bytesOf(opened.get()));
+  }
+
+  @Test
+  void shouldReturnEmptyForMissingBlob() {
+    // Given
+    PathReference missing = PathReference.from(
+      store.canonicalPath("missing").toString()
+    );
+
+    // When & Then
+    assertTrue(store.load(missing).isEmpty());
+    assertTrue(store.open(missing).isEmpty());
+  }
+
+  // ==================== CHUNK TESTS ====================
+
+  @Test
+  void shouldAppendAndCompleteChunks() {
+    // Given
+    FileId fileId = new FileId("chunked");
+    byte[] data = bytes(300);
+
+    // When
+    long first = store.appendChunk(fileId, 0, new Blob(slice(data, 0, 100)));
+    long second = store.appendChunk(
+      fileId,
+      100,
+      new Blob(slice(data, 100, 300))
+    );
+    PathReference reference = store.completeChunks(fileId, 300);
+
+    // Then
+    assertEquals(100, first);
+    assertEquals(300, second);
+    assertArrayEquals(data, bytesOf(store.load(reference).get()));
+    assertEquals(0, store.stagedSize(fileId));
+  }
+
+  @Test
+  void shouldTruncateAtOffsetWhenChunkIsResent() {
+    // Given
+    FileId fileId = new FileId("resent");
+    store.appendChunk(fileId, 0, new Blob(bytes(200)));
+
+    // When
+    long staged = store.appendChunk(fileId, 50, new Blob(bytes(10)));
+
+    // Then
+    assertEquals(60, staged);
+    assertEquals(60, store.stagedSize(fileId));
+  }
+
+  @Test
+  void shouldRejectChunkLeavingGap() {
+    // Given
+    FileId fileId = new FileId("gap");
+    store.appendChunk(fileId, 0, new Blob(bytes(10)));
+
+    // When & Then
+    assertThrows(FileStorageException.class, () ->
+      store.appendChunk(fileId, 20, new Blob(bytes(10)))
+    );
+    assertEquals(10, store.stagedSize(fileId));
+  }
+
+  @Test
+  void shouldRejectCompletionOfIncompleteChunks() {
+    // Given
+    FileId fileId = new FileId("incomplete");
+    store.appendChunk(fileId, 0, new Blob(bytes(10)));
+
+    // When & Then
+    assertThrows(FileStorageException.class, () ->
+      store.completeChunks(fileId, 20)
+    );
+    assertThrows(FileStorageException.class, () ->
+      store.completeChunks(new FileId("none"), 20)
+    );
+  }
+
+  @Test
+  void shouldDiscardChunks() {
+    // Given
+    FileId fileId = new FileId("discarded");
+    store.appendChunk(fileId, 0, new Blob(bytes(10)));
+
+    // When
+    store.discardChunks(fileId);
+
+    // Then
+    assertEquals(0, store.stagedSize(fileId));
+  }
+
+  // ==================== DELETE TESTS ====================
+
+  @Test
+  void shouldDeleteBlob() {
+    // Given
+    PathReference reference = store.save(
+      new FileId("deleted"),
+      new Blob(bytes(10))
+    );
+
+    // When
+    store.delete(reference);
+
+    // Then
+    assertFalse(Files.exists(Path.of(reference.value())));
+    assertDoesNotThrow(() -> store.delete(reference));
+  }
+
+  @Test
+  void shouldDeleteThroughFlatReference() {
+    // Given
+    PathReference reference = store.save(
+      new FileId("flat"),
+      new Blob(bytes(10))
+    );
+
+    // When
+    store.delete(PathReference.from(directory.resolve("flat").toString()));
+
+    // Then
+    assertFalse(Files.exists(Path.of(reference.value())));
+  }
+
+  @Test
+  void shouldReportBulkDeleteOutcomes() {
+    // Given
+    PathReference present = store.save(
+      new FileId("present"),
+      new Blob(bytes(10))
+    );
+    PathReference absent = PathReference.from(
+      store.canonicalPath("absent").toString()
+    );
+    PathReference foreign = PathReference.from("s3://bucket/foreign");
+
+    // When
+    Map<PathReference, DeleteOutcome> outcomes = store.deleteAll(
+      List.of(present, absent, foreign)
+    );
+
+    // Then
+    assertEquals(DeleteOutcome.DELETED, outcomes.get(present));
+    assertEquals(DeleteOutcome.NOT_FOUND, outcomes.get(absent));
+    assertEquals(DeleteOutcome.FAILED, outcomes.get(foreign));
+    assertFalse(Files.exists(Path.of(present.value())));
+  }
+
+  // ==================== VALIDATION TESTS ====================
+
+  @Test
+  void shouldRejectFileIdsEscapingLayout() {
+    // When & Then
+    for (String id : List.of("../escape", "a/b", "/etc/passwd", "..")) {
+      assertThrows(
+        FileStorageException.class,
+        () -> store.save(new FileId(id), new Blob(bytes(10))),
+        id
+      );
+      assertThrows(
+        FileStorageException.class,
+        () -> store.appendChunk(new FileId(id), 0, new Blob(bytes(10))),
+        id
+      );
+    }
+  }
+
+  @Test
+  void shouldRejectReferencesOutsideDirectory() {
+    // Given
+    List<PathReference> references = List.of(
+      PathReference.from(directory.resolveSibling("outside").toString()),
+      PathReference.from(directory.resolve("../outside").toString()),
+      PathReference.from(
+        directory
+          .resolve(LocalFileStoreAdapter.QUARANTINE_DIRECTORY)
+          .resolve("shredded")
+          .toString()
+      ),
+      PathReference.from("s3://bucket/remote")
+    );
+
+    // When & Then
+    for (PathReference reference : references) {
+      assertThrows(
+        FileStorageException.class,
+        () -> store.load(reference),
+        reference.value()
+      );
+      assertThrows(
+        FileStorageException.class,
+        () -> store.delete(reference),
+        reference.value()
+      );
+    }
+  }
+}
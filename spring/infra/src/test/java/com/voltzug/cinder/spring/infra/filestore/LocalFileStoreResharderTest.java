@@ -0,0 +1,153 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for LocalFileStoreResharder.
+ * Focuses on moving blobs between fan-out layouts, skipping files that are not stored blobs
+ * and pruning emptied directories.
+ */
+class LocalFileStoreResharderTest {
+
+  @TempDir
+  Path directory;
+
+  private LocalFileStoreAdapter storeOf(int fanoutLevels) {
+    return new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        fanoutLevels,
+        DataSize.ofKilobytes(4),
+        LocalFileStoreProperties.ReadMode.HEAP,
+        0,
+        4,
+        LocalFileStoreProperties.WriteMode.BUFFERED,
+        false
+      )
+    );
+  }
+
+  private static byte[] bytesOf(Blob blob) {
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] data = new byte[buffer.remaining()];
+    buffer.get(data);
+    return data;
+  }
+
+  private long directoriesUnder(Path root) throws Exception {
+    try (Stream<Path> files = Files.walk(root)) {
+      return files.filter(Files::isDirectory).count() - 1;
+    }
+  }
+
+  // ==================== MIGRATION TESTS ====================
+
+  @Test
+  void shouldMoveFlatBlobsIntoFanoutLayout() throws Exception {
+    // Given
+    Files.write(directory.resolve("first"), new byte[] { 1 });
+    Files.write(directory.resolve("second"), new byte[] { 2 });
+    LocalFileStoreAdapter store = storeOf(2);
+
+    // When
+    int moved = new LocalFileStoreResharder(store).reshard();
+
+    // Then
+    assertEquals(2, moved);
+    assertArrayEquals(
+      new byte[] { 1 },
+      Files.readAllBytes(store.canonicalPath("first"))
+    );
+    assertArrayEquals(
+      new byte[] { 2 },
+      Files.readAllBytes(store.canonicalPath("second"))
+    );
+    assertFalse(Files.exists(directory.resolve("first")));
+  }
+
+  @Test
+  void shouldMoveBlobsBetweenLayoutsAndPruneOldDirectories()
+    throws Exception {
+    // Given
+    PathReference old = storeOf(3).save(
+      new FileId("deep"),
+      new Blob(new byte[] { 1, 2 })
+    );
+    LocalFileStoreAdapter store = storeOf(1);
+
+    // When
+    int moved = new LocalFileStoreResharder(store).reshard();
+
+    // Then
+    assertEquals(1, moved);
+    assertTrue(Files.exists(store.canonicalPath("deep")));
+    assertEquals(1, directoriesUnder(directory));
+    assertArrayEquals(new byte[] { 1, 2 }, bytesOf(store.load(old).get()));
+  }
+
+  @Test
+  void shouldLeaveCanonicalBlobsInPlace() {
+    // Given
+    LocalFileStoreAdapter store = storeOf(2);
+    store.save(new FileId("settled"), new Blob(new byte[] { 1 }));
+
+    // When
+    int moved = new LocalFileStoreResharder(store).reshard();
+
+    // Then
+    assertEquals(0, moved);
+    assertTrue(Files.exists(store.canonicalPath("settled")));
+  }
+
+  @Test
+  void shouldNotReplaceBlobAlreadyAtCanonicalLocation() throws Exception {
+    // Given
+    LocalFileStoreAdapter store = storeOf(2);
+    store.save(new FileId("twice"), new Blob(new byte[] { 2 }));
+    Files.write(directory.resolve("twice"), new byte[] { 1 });
+
+    // When
+    int moved = new LocalFileStoreResharder(store).reshard();
+
+    // Then
+    assertEquals(0, moved);
+    assertArrayEquals(
+      new byte[] { 2 },
+      Files.readAllBytes(store.canonicalPath("twice"))
+    );
+    assertTrue(Files.exists(directory.resolve("twice")));
+  }
+
+  @Test
+  void shouldSkipStagingAndQuarantinedFiles() throws Exception {
+    // Given
+    LocalFileStoreAdapter store = storeOf(2);
+    Path quarantine = directory.resolve(
+      LocalFileStoreAdapter.QUARANTINE_DIRECTORY
+    );
+    Files.createDirectories(quarantine);
+    Files.write(directory.resolve("staged.part"), new byte[] { 1 });
+    Files.write(directory.resolve("uploading.upload"), new byte[] { 1 });
+    Files.write(quarantine.resolve("shredding"), new byte[] { 1 });
+
+    // When
+    int moved = new LocalFileStoreResharder(store).reshard();
+
+    // Then
+    assertEquals(0, moved);
+    assertTrue(Files.exists(directory.resolve("staged.part")));
+    assertTrue(Files.exists(directory.resolve("uploading.upload")));
+    assertTrue(Files.exists(quarantine.resolve("shredding")));
+  }
+}
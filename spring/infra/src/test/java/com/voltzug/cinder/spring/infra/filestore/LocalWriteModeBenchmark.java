@@ -0,0 +1,122 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties.ReadMode;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties.WriteMode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * JMH benchmark of the {@link WriteMode}s of LocalFileStoreAdapter.
+ * Measures durable saves (write, fsync, rename) of blobs of several sizes.
+ *
+ * <p>Blobs are written below {@code -Dcinder.bench.dir} (default: the temp directory),
+ * which should be on the disk under test: tmpfs neither supports direct I/O nor pays
+ * for fsyncs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LocalWriteModeBenchmark {
+
+  @Param({ "BUFFERED", "PREALLOCATE", "DIRECT" })
+  public WriteMode writeMode;
+
+  @Param({ "1", "16", "256" })
+  public int blobMegabytes;
+
+  private Path directory;
+  private LocalFileStoreAdapter store;
+  private Blob blob;
+  private PathReference saved;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+      new OptionsBuilder()
+        .include(LocalWriteModeBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory(
+      Path.of(
+        System.getProperty(
+          "cinder.bench.dir",
+          System.getProperty("java.io.tmpdir")
+        )
+      ),
+      "cinder-bench"
+    );
+    store = new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofMegabytes(1),
+        ReadMode.HEAP,
+        0,
+        1,
+        writeMode,
+        false
+      )
+    );
+    byte[] data = new byte[blobMegabytes << 20];
+    new Random(42).nextBytes(data);
+    blob = new Blob(data);
+  }
+
+  @Benchmark
+  public PathReference save() {
+    saved = store.save(new FileId(UUID.randomUUID().toString()), blob);
+    return saved;
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteSaved() {
+    if (saved != null) {
+      store.delete(saved);
+      saved = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      files = walk.sorted(Comparator.reverseOrder()).toList();
+    }
+    for (Path file : files) {
+      Files.delete(file);
+    }
+  }
+}
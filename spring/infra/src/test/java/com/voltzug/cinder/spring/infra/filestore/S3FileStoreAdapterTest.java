@@ -0,0 +1,451 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import com.voltzug.cinder.core.exception.RangeNotSatisfiableException;
+import com.voltzug.cinder.core.port.out.FileStorePort.DeleteOutcome;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Integration tests for S3FileStoreAdapter against the in-process {@link S3StandIn}.
+ * Focuses on multipart and ranged transfers, request signing and error handling.
+ */
+class S3FileStoreAdapterTest {
+
+  private static final int PART_SIZE = 1024;
+  private static final int PARALLELISM = 4;
+
+  private S3StandIn s3;
+  private S3FileStoreAdapter store;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    s3 = new S3StandIn();
+    store = new S3FileStoreAdapter(properties(S3StandIn.BUCKET));
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.close();
+    s3.close();
+  }
+
+  private S3FileStoreProperties properties(String bucket) {
+    return new S3FileStoreProperties(
+      s3.endpoint(),
+      S3StandIn.REGION,
+      bucket,
+      S3StandIn.ACCESS_KEY,
+      S3StandIn.SECRET_KEY,
+      true,
+      "blobs/",
+      DataSize.ofBytes(PART_SIZE),
+      PARALLELISM,
+      Duration.ofSeconds(10)
+    );
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] data = new byte[size];
+    new Random(size).nextBytes(data);
+    return data;
+  }
+
+  private static ReadableByteChannel channelOf(byte[] data) {
+    return Channels.newChannel(new ByteArrayInputStream(data));
+  }
+
+  private static byte[] bytesOf(Blob blob) {
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] data = new byte[buffer.remaining()];
+    buffer.get(data);
+    return data;
+  }
+
+  // ==================== UPLOAD TESTS ====================
+
+  @Test
+  void shouldSaveSmallBlobWithSinglePut() {
+    // Given
+    byte[] data = randomBytes(100);
+
+    // When
+    PathReference reference = store.save(new FileId("small"), new Blob(data));
+
+    // Then
+    assertEquals("s3://cinder-test/blobs/small", reference.value());
+    assertTrue(reference.isCloud());
+    assertArrayEquals(data, s3.object("blobs/small"));
+    assertEquals(0, s3.partUploads());
+    assertEquals(0, s3.pendingUploads());
+  }
+
+  @Test
+  void shouldUploadLargeBlobAsParallelMultipart() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 8);
+    s3.latency(50);
+
+    // When
+    store.save(new FileId("large"), new Blob(data));
+
+    // Then
+    assertArrayEquals(data, s3.object("blobs/large"));
+    assertEquals(8, s3.partUploads());
+    assertTrue(s3.maxInFlight() > 1);
+    assertTrue(s3.maxInFlight() <= PARALLELISM);
+    assertEquals(0, s3.pendingUploads());
+  }
+
+  @Test
+  void shouldUploadReadOnlyBlobView() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 2 + 7);
+    Blob view = Blob.view(ByteBuffer.wrap(data).asReadOnlyBuffer());
+
+    // When
+    store.save(new FileId("view"), view);
+
+    // Then
+    assertArrayEquals(data, s3.object("blobs/view"));
+    assertEquals(3, s3.partUploads());
+  }
+
+  @Test
+  void shouldStreamUploadFromChannel() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 10 + PART_SIZE / 2);
+
+    // When
+    PathReference reference = store.save(
+      new FileId("streamed"),
+      channelOf(data),
+      data.length
+    );
+
+    // Then
+    assertEquals("s3://cinder-test/blobs/streamed", reference.value());
+    assertArrayEquals(data, s3.object("blobs/streamed"));
+    assertEquals(11, s3.partUploads());
+  }
+
+  @Test
+  void shouldAbortMultipartUploadWhenChannelTruncated() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 3);
+
+    // When
+    FileStorageException exc = assertThrows(FileStorageException.class, () ->
+      store.save(new FileId("truncated"), channelOf(data), data.length + 10)
+    );
+
+    // Then
+    assertTrue(exc.getMessage().contains("truncated"));
+    assertNull(s3.object("blobs/truncated"));
+    assertEquals(0, s3.pendingUploads());
+  }
+
+  @Test
+  void shouldRejectChannelExceedingDeclaredSize() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 3);
+
+    // When
+    FileStorageException exc = assertThrows(FileStorageException.class, () ->
+      store.save(new FileId("oversized"), channelOf(data), data.length - 1)
+    );
+
+    // Then
+    assertTrue(exc.getMessage().contains("exceeds"));
+    assertNull(s3.object("blobs/oversized"));
+    assertEquals(0, s3.pendingUploads());
+  }
+
+  @Test
+  void shouldEncodeObjectKeys() {
+    // Given
+    byte[] data = randomBytes(10);
+    FileId fileId = new FileId("a b+c/ü~");
+
+    // When
+    PathReference reference = store.save(fileId, new Blob(data));
+
+    // Then
+    assertArrayEquals(data, s3.object("blobs/a b+c/ü~"));
+    assertArrayEquals(data, bytesOf(store.load(reference).orElseThrow()));
+  }
+
+  // ==================== DOWNLOAD TESTS ====================
+
+  @Test
+  void shouldLoadWithParallelRangedGets() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 6 + 1);
+    PathReference reference = store.save(new FileId("ranged"), new Blob(data));
+    s3.latency(50);
+
+    // When
+    Blob loaded = store.load(reference).orElseThrow();
+
+    // Then
+    assertArrayEquals(data, bytesOf(loaded));
+    assertEquals(7, s3.rangeGets());
+    assertTrue(s3.maxInFlight() > 1);
+  }
+
+  @Test
+  void shouldLoadSmallBlobWithSingleRequest() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE);
+    PathReference reference = store.save(new FileId("one"), new Blob(data));
+
+    // When
+    Blob loaded = store.load(reference).orElseThrow();
+
+    // Then
+    assertArrayEquals(data, bytesOf(loaded));
+    assertEquals(1, s3.rangeGets());
+  }
+
+  @Test
+  void shouldStreamDownloadThroughOpen() throws Exception {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 9 + 3);
+    PathReference reference = store.save(new FileId("open"), new Blob(data));
+    ByteBuffer target = ByteBuffer.allocate(data.length);
+
+    // When
+    try (BlobStream stream = store.open(reference).orElseThrow()) {
+      assertEquals(data.length, stream.size());
+      ByteBuffer chunk = ByteBuffer.allocate(300);
+      while (stream.channel().read(chunk) >= 0) {
+        target.put(chunk.flip());
+        chunk.clear();
+      }
+    }
+
+    // Then
+    assertArrayEquals(data, target.array());
+    assertEquals(10, s3.rangeGets());
+  }
+
+  @Test
+  void shouldStreamRangeWithoutFetchingPrecedingParts() throws Exception {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 9 + 3);
+    PathReference reference = store.save(new FileId("range"), new Blob(data));
+    int offset = PART_SIZE * 6 + 100;
+    int length = PART_SIZE * 2;
+    ByteBuffer target = ByteBuffer.allocate(length);
+
+    // When
+    try (
+      BlobRange range = store.open(reference, offset, length).orElseThrow()
+    ) {
+      assertEquals(offset, range.offset());
+      assertEquals(length, range.length());
+      assertEquals(data.length, range.totalSize());
+      while (range.stream().channel().read(target) >= 0) {}
+    }
+
+    // Then
+    byte[] expected = new byte[length];
+    System.arraycopy(data, offset, expected, 0, length);
+    assertArrayEquals(expected, target.array());
+    assertEquals(2, s3.rangeGets());
+  }
+
+  @Test
+  void shouldClipRangeToEndOfBlob() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE + 10);
+    PathReference reference = store.save(new FileId("tail"), new Blob(data));
+
+    // When
+    try (
+      BlobRange range = store
+        .open(reference, PART_SIZE, Long.MAX_VALUE)
+        .orElseThrow()
+    ) {
+      // Then
+      assertEquals(10, range.length());
+      assertEquals(data.length - 1, range.lastPosition());
+    }
+  }
+
+  @Test
+  void shouldRejectRangeBeyondEndOfBlob() {
+    // Given
+    PathReference reference = store.save(
+      new FileId("short"),
+      new Blob(randomBytes(10))
+    );
+
+    // When
+    RangeNotSatisfiableException exc = assertThrows(
+      RangeNotSatisfiableException.class,
+      () -> store.open(reference, 10, 5)
+    );
+
+    // Then
+    assertEquals(10, exc.getBlobSize());
+  }
+
+  @Test
+  void shouldReturnEmptyForMissingBlob() {
+    // Given
+    PathReference reference = PathReference.from("s3://cinder-test/blobs/none");
+
+    // When
+    Optional<Blob> loaded = store.load(reference);
+    Optional<BlobStream> opened = store.open(reference);
+    Optional<BlobRange> range = store.open(reference, 1, 1);
+
+    // Then
+    assertTrue(loaded.isEmpty());
+    assertTrue(opened.isEmpty());
+    assertTrue(range.isEmpty());
+  }
+
+  // ==================== DELETE TESTS ====================
+
+  @Test
+  void shouldDeleteBlob() {
+    // Given
+    PathReference reference = store.save(
+      new FileId("doomed"),
+      new Blob(randomBytes(10))
+    );
+
+    // When
+    store.delete(reference);
+
+    // Then
+    assertNull(s3.object("blobs/doomed"));
+    assertTrue(store.load(reference).isEmpty());
+  }
+
+  @Test
+  void shouldIgnoreDeleteOfMissingBlob() {
+    // When/Then
+    assertDoesNotThrow(() ->
+      store.delete(PathReference.from("s3://cinder-test/blobs/none"))
+    );
+  }
+
+  @Test
+  void shouldBulkDeleteInBatches() {
+    // Given
+    List<PathReference> references = new ArrayList<>();
+    for (int i = 0; i < 1500; i++) {
+      references.add(PathReference.from("s3://cinder-test/blobs/bulk-" + i));
+    }
+    PathReference saved = store.save(
+      new FileId("bulk-7"),
+      new Blob(randomBytes(5))
+    );
+
+    // When
+    Map<PathReference, DeleteOutcome> outcomes = store.deleteAll(references);
+
+    // Then
+    assertEquals(1500, outcomes.size());
+    assertTrue(
+      outcomes.values().stream().allMatch(DeleteOutcome.DELETED::equals)
+    );
+    assertEquals(2, s3.batchDeletes());
+    assertTrue(store.load(saved).isEmpty());
+  }
+
+  @Test
+  void shouldReportPerItemBulkDeleteFailures() {
+    // Given
+    PathReference locked = store.save(
+      new FileId(S3StandIn.LOCKED_SEGMENT + "x"),
+      new Blob(randomBytes(5))
+    );
+    PathReference unlocked = store.save(
+      new FileId("free"),
+      new Blob(randomBytes(5))
+    );
+    PathReference foreign = PathReference.from("s3://other-bucket/blobs/x");
+
+    // When
+    Map<PathReference, DeleteOutcome> outcomes = store.deleteAll(
+      List.of(locked, unlocked, foreign)
+    );
+
+    // Then
+    assertEquals(
+      List.of(locked, unlocked, foreign),
+      List.copyOf(outcomes.keySet())
+    );
+    assertEquals(DeleteOutcome.FAILED, outcomes.get(locked));
+    assertEquals(DeleteOutcome.DELETED, outcomes.get(unlocked));
+    assertEquals(DeleteOutcome.FAILED, outcomes.get(foreign));
+    assertTrue(store.load(locked).isPresent());
+  }
+
+  // ==================== VALIDATION & ERROR TESTS ====================
+
+  @Test
+  void shouldRejectReferenceOutsideBucket() {
+    // Given
+    PathReference foreign = PathReference.from("s3://other-bucket/blobs/x");
+    PathReference local = PathReference.from("/tmp/x");
+
+    // When/Then
+    assertThrows(FileStorageException.class, () -> store.load(foreign));
+    assertThrows(FileStorageException.class, () -> store.delete(local));
+  }
+
+  @Test
+  void shouldReportServerErrorCode() {
+    // Given
+    S3FileStoreAdapter misconfigured = new S3FileStoreAdapter(
+      properties("missing-bucket")
+    );
+
+    // When
+    FileStorageException exc = assertThrows(FileStorageException.class, () ->
+      misconfigured.save(new FileId("x"), new Blob(randomBytes(10)))
+    );
+    misconfigured.close();
+
+    // Then
+    assertTrue(exc.getMessage().contains("NoSuchBucket"));
+  }
+
+  @Test
+  void shouldSignEveryRequest() {
+    // Given
+    byte[] data = randomBytes(PART_SIZE * 3);
+
+    // When
+    PathReference reference = store.save(new FileId("signed"), new Blob(data));
+    store.load(reference);
+    store.delete(reference);
+
+    // Then
+    assertEquals(List.of(), s3.failures());
+  }
+}
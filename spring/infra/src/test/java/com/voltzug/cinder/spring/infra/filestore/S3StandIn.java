@@ -0,0 +1,427 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for an S3-compatible server, covering the subset of the API used by
+ * {@link S3FileStoreAdapter}: object PUT/GET (with ranges)/DELETE and multipart uploads.
+ * Every request's SigV4 signature and payload hash is verified; mismatches are recorded
+ * in {@link #failures()}.
+ */
+final class S3StandIn implements AutoCloseable {
+
+  static final String BUCKET = "cinder-test";
+  static final String ACCESS_KEY = "AKIDSTANDIN";
+  static final String SECRET_KEY = "standin-secret";
+  static final String REGION = "eu-test-1";
+  /** Keys containing this segment cannot be deleted by multi-object deletes. */
+  static final String LOCKED_SEGMENT = "locked/";
+
+  private static final Pattern _RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+  private static final Pattern _PART = Pattern.compile(
+    "<PartNumber>(\\d+)</PartNumber><ETag>([^<]+)</ETag>"
+  );
+  private static final Pattern _KEY = Pattern.compile("<Key>([^<]*)</Key>");
+  private static final Pattern _SIGNED_HEADERS = Pattern.compile(
+    "SignedHeaders=([^,]+)"
+  );
+  private static final DateTimeFormatter _AMZ_DATE = DateTimeFormatter.ofPattern(
+    "yyyyMMdd'T'HHmmss'Z'"
+  ).withZone(ZoneOffset.UTC);
+
+  private final HttpServer _server;
+  private final S3RequestSigner _signer = new S3RequestSigner(
+    ACCESS_KEY,
+    SECRET_KEY,
+    REGION
+  );
+  private final Map<String, byte[]> _objects = new ConcurrentHashMap<>();
+  private final Map<String, Map<Integer, byte[]>> _uploads =
+    new ConcurrentHashMap<>();
+  private final List<String> _failures = Collections.synchronizedList(
+    new ArrayList<>()
+  );
+  private final AtomicInteger _partUploads = new AtomicInteger();
+  private final AtomicInteger _rangeGets = new AtomicInteger();
+  private final AtomicInteger _batchDeletes = new AtomicInteger();
+  private final AtomicInteger _inFlight = new AtomicInteger();
+  private final AtomicInteger _maxInFlight = new AtomicInteger();
+  private volatile long _latencyMillis;
+
+  S3StandIn() throws IOException {
+    _server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    _server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    _server.createContext("/", this::_handle);
+    _server.start();
+  }
+
+  URI endpoint() {
+    return URI.create("http://127.0.0.1:" + _server.getAddress().getPort());
+  }
+
+  byte[] object(String key) {
+    return _objects.get(key);
+  }
+
+  int pendingUploads() {
+    return _uploads.size();
+  }
+
+  int partUploads() {
+    return _partUploads.get();
+  }
+
+  int rangeGets() {
+    return _rangeGets.get();
+  }
+
+  int batchDeletes() {
+    return _batchDeletes.get();
+  }
+
+  int maxInFlight() {
+    return _maxInFlight.get();
+  }
+
+  List<String> failures() {
+    return List.copyOf(_failures);
+  }
+
+  /** Delays every part upload and ranged GET, making concurrent transfers observable. */
+  void latency(long millis) {
+    _latencyMillis = millis;
+  }
+
+  @Override
+  public void close() {
+    _server.stop(0);
+  }
+
+  private void _handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      _verify(exchange, body);
+      String path = exchange.getRequestURI().getRawPath();
+      int separator = path.indexOf('/', 1);
+      String bucket = separator < 0
+        ? path.substring(1)
+        : path.substring(1, separator);
+      String key = separator < 0
+        ? ""
+        : URLDecoder.decode(
+          path.substring(separator + 1).replace("+", "%2B"),
+          StandardCharsets.UTF_8
+        );
+      Map<String, String> query = _query(exchange.getRequestURI().getRawQuery());
+      if (!BUCKET.equals(bucket)) {
+        _error(exchange, 404, "NoSuchBucket");
+        return;
+      }
+      if (key.isEmpty() && query.containsKey("delete")) {
+        _deleteObjects(exchange, body);
+        return;
+      }
+      switch (exchange.getRequestMethod()) {
+        case "PUT" -> _put(exchange, key, query, body);
+        case "POST" -> _post(exchange, key, query, body);
+        case "GET" -> _get(exchange, key);
+        case "DELETE" -> _delete(exchange, key, query);
+        default -> _error(exchange, 405, "MethodNotAllowed");
+      }
+    }
+  }
+
+  private void _put(
+    HttpExchange exchange,
+    String key,
+    Map<String, String> query,
+    byte[] body
+  ) throws IOException {
+    if (!query.containsKey("uploadId")) {
+      _objects.put(key, body);
+      _respond(exchange, 200, _etag(body), new byte[0]);
+      return;
+    }
+    Map<Integer, byte[]> parts = _uploads.get(query.get("uploadId"));
+    if (parts == null) {
+      _error(exchange, 404, "NoSuchUpload");
+      return;
+    }
+    _slowly(() -> parts.put(Integer.parseInt(query.get("partNumber")), body));
+    _partUploads.incrementAndGet();
+    _respond(exchange, 200, _etag(body), new byte[0]);
+  }
+
+  private void _post(
+    HttpExchange exchange,
+    String key,
+    Map<String, String> query,
+    byte[] body
+  ) throws IOException {
+    if (query.containsKey("uploads")) {
+      String uploadId = "up/" + UUID.randomUUID() + "+=";
+      _uploads.put(uploadId, new ConcurrentSkipListMap<>());
+      _respond(
+        exchange,
+        200,
+        null,
+        (
+          "<InitiateMultipartUploadResult><Bucket>" +
+          BUCKET +
+          "</Bucket><Key>" +
+          key +
+          "</Key><UploadId>" +
+          uploadId +
+          "</UploadId></InitiateMultipartUploadResult>"
+        ).getBytes(StandardCharsets.UTF_8)
+      );
+      return;
+    }
+    Map<Integer, byte[]> parts = _uploads.remove(query.get("uploadId"));
+    if (parts == null) {
+      _error(exchange, 404, "NoSuchUpload");
+      return;
+    }
+    ByteArrayOutputStream object = new ByteArrayOutputStream();
+    Matcher matcher = _PART.matcher(new String(body, StandardCharsets.UTF_8));
+    int expected = 1;
+    while (matcher.find()) {
+      byte[] part = parts.get(Integer.parseInt(matcher.group(1)));
+      if (
+        Integer.parseInt(matcher.group(1)) != expected++ ||
+        part == null ||
+        !_etag(part).equals(matcher.group(2))
+      ) {
+        _error(exchange, 400, "InvalidPart");
+        return;
+      }
+      object.write(part);
+    }
+    if (expected - 1 != parts.size()) {
+      _error(exchange, 400, "InvalidPartOrder");
+      return;
+    }
+    _objects.put(key, object.toByteArray());
+    _respond(
+      exchange,
+      200,
+      null,
+      "<CompleteMultipartUploadResult/>".getBytes(StandardCharsets.UTF_8)
+    );
+  }
+
+  private void _get(HttpExchange exchange, String key) throws IOException {
+    byte[] object = _objects.get(key);
+    if (object == null) {
+      _error(exchange, 404, "NoSuchKey");
+      return;
+    }
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    if (range == null) {
+      _respond(exchange, 200, _etag(object), object);
+      return;
+    }
+    Matcher matcher = _RANGE.matcher(range);
+    if (!matcher.matches()) {
+      _error(exchange, 416, "InvalidRange");
+      return;
+    }
+    int start = Integer.parseInt(matcher.group(1));
+    if (start >= object.length) {
+      exchange
+        .getResponseHeaders()
+        .add("Content-Range", "bytes */" + object.length);
+      _error(exchange, 416, "InvalidRange");
+      return;
+    }
+    int end = Math.min(Integer.parseInt(matcher.group(2)), object.length - 1);
+    _rangeGets.incrementAndGet();
+    _slowly(() -> {});
+    exchange
+      .getResponseHeaders()
+      .add("Content-Range", "bytes " + start + "-" + end + "/" + object.length);
+    byte[] chunk = new byte[end - start + 1];
+    System.arraycopy(object, start, chunk, 0, chunk.length);
+    _respond(exchange, 206, _etag(object), chunk);
+  }
+
+  private void _delete(
+    HttpExchange exchange,
+    String key,
+    Map<String, String> query
+  ) throws IOException {
+    if (query.containsKey("uploadId")) {
+      _uploads.remove(query.get("uploadId"));
+    } else {
+      _objects.remove(key);
+    }
+    exchange.sendResponseHeaders(204, -1);
+  }
+
+  private void _deleteObjects(HttpExchange exchange, byte[] body)
+    throws IOException {
+    _batchDeletes.incrementAndGet();
+    String md5 = exchange.getRequestHeaders().getFirst("Content-MD5");
+    try {
+      String expected = Base64.getEncoder().encodeToString(
+        MessageDigest.getInstance("MD5").digest(body)
+      );
+      if (!expected.equals(md5)) {
+        _error(exchange, 400, "InvalidDigest");
+        return;
+      }
+    } catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException(exc);
+    }
+    StringBuilder result = new StringBuilder("<DeleteResult>");
+    Matcher keys = _KEY.matcher(new String(body, StandardCharsets.UTF_8));
+    while (keys.find()) {
+      String key = keys.group(1).replace("&lt;", "<").replace("&amp;", "&");
+      if (key.contains(LOCKED_SEGMENT)) {
+        result
+          .append("<Error><Key>")
+          .append(keys.group(1))
+          .append("</Key><Code>AccessDenied</Code>")
+          .append("<Message>Locked</Message></Error>");
+      } else {
+        _objects.remove(key);
+      }
+    }
+    result.append("</DeleteResult>");
+    _respond(
+      exchange,
+      200,
+      null,
+      result.toString().getBytes(StandardCharsets.UTF_8)
+    );
+  }
+
+  private void _verify(HttpExchange exchange, byte[] body) {
+    String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+    String payloadHash = exchange
+      .getRequestHeaders()
+      .getFirst("x-amz-content-sha256");
+    String amzDate = exchange.getRequestHeaders().getFirst("x-amz-date");
+    String request =
+      exchange.getRequestMethod() + " " + exchange.getRequestURI();
+    if (authorization == null || payloadHash == null || amzDate == null) {
+      _failures.add("unsigned request: " + request);
+      return;
+    }
+    if (!S3RequestSigner.sha256Hex(ByteBuffer.wrap(body)).equals(payloadHash)) {
+      _failures.add("payload hash mismatch: " + request);
+    }
+    Matcher signed = _SIGNED_HEADERS.matcher(authorization);
+    if (!signed.find()) {
+      _failures.add("no signed headers: " + request);
+      return;
+    }
+    Map<String, String> headers = new HashMap<>();
+    for (String name : signed.group(1).split(";")) {
+      if (!name.equals("x-amz-date") && !name.equals("x-amz-content-sha256")) {
+        headers.put(name, exchange.getRequestHeaders().getFirst(name));
+      }
+    }
+    String host = headers.remove("host");
+    URI uri = URI.create("http://" + host + exchange.getRequestURI());
+    String expected = _signer
+      .sign(
+        exchange.getRequestMethod(),
+        uri,
+        headers,
+        payloadHash,
+        Instant.from(_AMZ_DATE.parse(amzDate))
+      )
+      .get("authorization");
+    if (!expected.equals(authorization)) {
+      _failures.add("signature mismatch: " + request);
+    }
+  }
+
+  private void _slowly(Runnable action) {
+    int current = _inFlight.incrementAndGet();
+    _maxInFlight.accumulateAndGet(current, Math::max);
+    try {
+      Thread.sleep(_latencyMillis);
+      action.run();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    } finally {
+      _inFlight.decrementAndGet();
+    }
+  }
+
+  private static Map<String, String> _query(String rawQuery) {
+    Map<String, String> query = new HashMap<>();
+    if (rawQuery != null) {
+      for (String parameter : rawQuery.split("&")) {
+        int separator = parameter.indexOf('=');
+        String name = separator < 0 ? parameter : parameter.substring(0, separator);
+        String value = separator < 0 ? "" : parameter.substring(separator + 1);
+        query.put(name, URLDecoder.decode(value, StandardCharsets.UTF_8));
+      }
+    }
+    return query;
+  }
+
+  private static String _etag(byte[] data) {
+    String hash = S3RequestSigner.sha256Hex(ByteBuffer.wrap(data));
+    return "\"" + hash.substring(0, 32) + "\"";
+  }
+
+  private static void _error(HttpExchange exchange, int status, String code)
+    throws IOException {
+    _respond(
+      exchange,
+      status,
+      null,
+      ("<Error><Code>" + code + "</Code></Error>").getBytes(
+        StandardCharsets.UTF_8
+      )
+    );
+  }
+
+  private static void _respond(
+    HttpExchange exchange,
+    int status,
+    String etag,
+    byte[] body
+  ) throws IOException {
+    if (etag != null) {
+      exchange.getResponseHeaders().add("ETag", etag);
+    }
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+    if (body.length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
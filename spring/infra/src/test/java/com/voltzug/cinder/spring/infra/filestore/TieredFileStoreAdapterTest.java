@@ -0,0 +1,227 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.port.out.FileStorePort.DeleteOutcome;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for TieredFileStoreAdapter with a local tier and the in-process {@link S3StandIn}.
+ * Focuses on migration between tiers and transparent reads from either tier.
+ */
+class TieredFileStoreAdapterTest {
+
+  @TempDir
+  Path directory;
+
+  private S3StandIn s3;
+  private S3FileStoreAdapter cold;
+  private TieredFileStoreAdapter store;
+  private final Map<String, PathReference> relocated = new HashMap<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    s3 = new S3StandIn();
+    cold = new S3FileStoreAdapter(
+      new S3FileStoreProperties(
+        s3.endpoint(),
+        S3StandIn.REGION,
+        S3StandIn.BUCKET,
+        S3StandIn.ACCESS_KEY,
+        S3StandIn.SECRET_KEY,
+        true,
+        "",
+        DataSize.ofKilobytes(1),
+        2,
+        Duration.ofSeconds(10)
+      )
+    );
+    LocalFileStoreAdapter hot = new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofKilobytes(4),
+        LocalFileStoreProperties.ReadMode.HEAP,
+        0,
+        4,
+        LocalFileStoreProperties.WriteMode.BUFFERED,
+        false
+      )
+    );
+    store = new TieredFileStoreAdapter(hot, cold);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cold.close();
+    s3.close();
+  }
+
+  private PathReference saveAged(String id, byte[] data, Duration age)
+    throws Exception {
+    PathReference reference = store.save(new FileId(id), new Blob(data));
+    Files.setLastModifiedTime(
+      Path.of(reference.value()),
+      FileTime.from(Instant.now().minus(age))
+    );
+    return reference;
+  }
+
+  private static byte[] bytesOf(Blob blob) {
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] data = new byte[buffer.remaining()];
+    buffer.get(data);
+    return data;
+  }
+
+  private static byte[] bytesOf(BlobRange range) throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate((int) range.length());
+    while (
+      buffer.hasRemaining() && range.stream().channel().read(buffer) >= 0
+    ) {}
+    return buffer.array();
+  }
+
+  // ==================== MIGRATION TESTS ====================
+
+  @Test
+  void shouldWriteToLocalTier() {
+    // When
+    PathReference reference = store.save(
+      new FileId("fresh"),
+      new Blob(new byte[] { 1, 2, 3 })
+    );
+
+    // Then
+    assertTrue(reference.isLocal());
+    assertNull(s3.object("fresh"));
+  }
+
+  @Test
+  void shouldMigrateOnlyAgedBlobs() throws Exception {
+    // Given
+    byte[] data = new byte[3000];
+    PathReference aged = saveAged("aged", data, Duration.ofHours(1));
+    PathReference fresh = saveAged("fresh", data, Duration.ZERO);
+
+    // When
+    int migrated = store.migrateOlderThan(
+      Instant.now().minus(Duration.ofMinutes(15)),
+      (fileId, path) -> relocated.put(fileId.value(), path)
+    );
+
+    // Then
+    assertEquals(1, migrated);
+    assertEquals("s3://cinder-test/aged", relocated.get("aged").value());
+    assertFalse(Files.exists(Path.of(aged.value())));
+    assertTrue(Files.exists(Path.of(fresh.value())));
+    assertArrayEquals(data, s3.object("aged"));
+  }
+
+  // ==================== READ & DELETE TESTS ====================
+
+  @Test
+  void shouldReadMigratedBlobThroughEitherReference() throws Exception {
+    // Given
+    byte[] data = { 7, 8, 9 };
+    PathReference local = saveAged("moved", data, Duration.ofHours(1));
+    store.migrateOlderThan(Instant.now(), (fileId, path) ->
+      relocated.put(fileId.value(), path)
+    );
+
+    // When
+    Blob viaLocal = store.load(local).orElseThrow();
+    Blob viaCloud = store.load(relocated.get("moved")).orElseThrow();
+
+    // Then
+    assertArrayEquals(data, bytesOf(viaLocal));
+    assertArrayEquals(data, bytesOf(viaCloud));
+    assertTrue(store.open(local).isPresent());
+  }
+
+  @Test
+  void shouldReadRangeFromEitherTier() throws Exception {
+    // Given
+    byte[] data = { 1, 2, 3, 4, 5, 6 };
+    PathReference kept = saveAged("kept", data, Duration.ZERO);
+    PathReference moved = saveAged("moved", data, Duration.ofHours(1));
+    store.migrateOlderThan(
+      Instant.now().minus(Duration.ofMinutes(1)),
+      (fileId, path) -> {}
+    );
+
+    // When
+    try (
+      BlobRange local = store.open(kept, 2, 3).orElseThrow();
+      BlobRange cloud = store.open(moved, 2, 3).orElseThrow()
+    ) {
+      // Then
+      assertTrue(local.stream().channel() instanceof FileChannel);
+      assertArrayEquals(new byte[] { 3, 4, 5 }, bytesOf(local));
+      assertArrayEquals(new byte[] { 3, 4, 5 }, bytesOf(cloud));
+      assertEquals(6, cloud.totalSize());
+    }
+  }
+
+  @Test
+  void shouldDeleteBlobFromBothTiers() throws Exception {
+    // Given
+    PathReference local = saveAged(
+      "burn",
+      new byte[] { 1 },
+      Duration.ofHours(1)
+    );
+    store.migrateOlderThan(Instant.now(), (fileId, path) -> {});
+
+    // When
+    store.delete(local);
+
+    // Then
+    assertNull(s3.object("burn"));
+    assertTrue(store.load(local).isEmpty());
+  }
+
+  @Test
+  void shouldBulkDeleteFromBothTiers() throws Exception {
+    // Given
+    PathReference migrated = saveAged(
+      "old",
+      new byte[] { 1 },
+      Duration.ofHours(1)
+    );
+    store.migrateOlderThan(Instant.now(), (fileId, path) -> {});
+    PathReference hot = store.save(
+      new FileId("new"),
+      new Blob(new byte[] { 2 })
+    );
+
+    // When
+    Map<PathReference, DeleteOutcome> outcomes = store.deleteAll(
+      List.of(migrated, hot)
+    );
+
+    // Then
+    assertEquals(DeleteOutcome.DELETED, outcomes.get(migrated));
+    assertEquals(DeleteOutcome.DELETED, outcomes.get(hot));
+    assertNull(s3.object("old"));
+    assertFalse(Files.exists(Path.of(hot.value())));
+  }
+}
@@ -0,0 +1,239 @@
+package com.voltzug.cinder.spring.infra.filestore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.FileStorageException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for WriteBehindFileStoreAdapter over a LocalFileStoreAdapter.
+ * Focuses on durable completion of queued saves, per-blob failures within a batch and
+ * draining on close.
+ */
+class WriteBehindFileStoreAdapterTest {
+
+  @TempDir
+  Path directory;
+
+  private LocalFileStoreAdapter local;
+  private WriteBehindFileStoreAdapter store;
+
+  @BeforeEach
+  void setUp() {
+    local = new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofKilobytes(4),
+        LocalFileStoreProperties.ReadMode.HEAP,
+        0,
+        4,
+        LocalFileStoreProperties.WriteMode.BUFFERED,
+        false
+      )
+    );
+    store = new WriteBehindFileStoreAdapter(
+      local,
+      new WriteBehindProperties(true, 16, 4)
+    );
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.close();
+  }
+
+  private static byte[] bytesOf(Blob blob) {
+    ByteBuffer buffer = blob.getBuffer();
+    byte[] data = new byte[buffer.remaining()];
+    buffer.get(data);
+    return data;
+  }
+
+  // ==================== SAVE TESTS ====================
+
+  @Test
+  void shouldCompleteFutureOnceBlobIsStored() throws Exception {
+    // When
+    PathReference reference = store
+      .saveAsync(new FileId("queued"), new Blob(new byte[] { 1, 2, 3 }))
+      .join();
+
+    // Then
+    assertEquals(local.canonicalPath("queued"), Path.of(reference.value()));
+    assertArrayEquals(
+      new byte[] { 1, 2, 3 },
+      Files.readAllBytes(Path.of(reference.value()))
+    );
+    assertFalse(Files.exists(Path.of(reference.value() + ".part")));
+  }
+
+  @Test
+  void shouldCommitMoreSavesThanTheRingHolds() {
+    // Given
+    List<CompletableFuture<PathReference>> futures = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      Blob data = new Blob(new byte[] { (byte) i });
+      futures.add(store.saveAsync(new FileId("blob" + i), data));
+    }
+
+    // Then
+    for (int i = 0; i < 100; i++) {
+      PathReference reference = futures.get(i).join();
+      assertArrayEquals(
+        new byte[] { (byte) i },
+        bytesOf(store.load(reference).get())
+      );
+    }
+  }
+
+  @Test
+  void shouldKeepLastOfRepeatedSaves() {
+    // Given
+    FileId fileId = new FileId("repeated");
+
+    // When
+    CompletableFuture<PathReference> first = store.saveAsync(
+      fileId,
+      new Blob(new byte[] { 1 })
+    );
+    CompletableFuture<PathReference> second = store.saveAsync(
+      fileId,
+      new Blob(new byte[] { 2 })
+    );
+
+    // Then
+    assertEquals(first.join(), second.join());
+    assertArrayEquals(
+      new byte[] { 2 },
+      bytesOf(store.load(second.join()).get())
+    );
+  }
+
+  @Test
+  void shouldChecksumBlobWhileCommitting() {
+    // Given
+    byte[] data = new byte[10_000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+
+    // When
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("checksummed"),
+      new Blob(data.clone())
+    );
+
+    // Then
+    assertEquals(BlobChecksum.of(ByteBuffer.wrap(data)), stored.checksum());
+    assertArrayEquals(data, bytesOf(store.load(stored.path()).get()));
+  }
+
+  @Test
+  void shouldFailOnlyTheInvalidSaveOfABatch() {
+    // When
+    CompletableFuture<PathReference> invalid = store.saveAsync(
+      new FileId("../escape"),
+      new Blob(new byte[] { 1 })
+    );
+    CompletableFuture<PathReference> valid = store.saveAsync(
+      new FileId("valid"),
+      new Blob(new byte[] { 1 })
+    );
+
+    // Then
+    CompletionException exc = assertThrows(
+      CompletionException.class,
+      invalid::join
+    );
+    assertTrue(exc.getCause() instanceof FileStorageException);
+    assertTrue(valid.join().isLocal());
+  }
+
+  @Test
+  void shouldUnwrapFailureOfSynchronousSave() {
+    // When & Then
+    assertThrows(FileStorageException.class, () ->
+      store.save(new FileId("../escape"), new Blob(new byte[] { 1 }))
+    );
+  }
+
+  // ==================== CLOSE TESTS ====================
+
+  @Test
+  void shouldCommitQueuedSavesOnClose() {
+    // Given
+    List<CompletableFuture<PathReference>> futures = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      futures.add(
+        store.saveAsync(new FileId("drained" + i), new Blob(new byte[] { 1 }))
+      );
+    }
+
+    // When
+    store.close();
+
+    // Then
+    for (CompletableFuture<PathReference> future : futures) {
+      assertTrue(Files.exists(Path.of(future.join().value())));
+    }
+  }
+
+  @Test
+  void shouldRejectSavesAfterClose() {
+    // Given
+    store.close();
+
+    // When
+    CompletableFuture<PathReference> future = store.saveAsync(
+      new FileId("late"),
+      new Blob(new byte[] { 1 })
+    );
+
+    // Then
+    CompletionException exc = assertThrows(
+      CompletionException.class,
+      future::join
+    );
+    assertTrue(exc.getCause() instanceof FileStorageException);
+  }
+
+  // ==================== DELEGATION TESTS ====================
+
+  @Test
+  void shouldStoreChunksDirectly() {
+    // Given
+    FileId fileId = new FileId("chunked");
+    store.appendChunk(fileId, 0, new Blob(new byte[] { 1, 2 }));
+    store.appendChunk(fileId, 2, new Blob(new byte[] { 3 }));
+
+    // When
+    PathReference reference = store.completeChunks(fileId, 3);
+
+    // Then
+    assertArrayEquals(
+      new byte[] { 1, 2, 3 },
+      bytesOf(store.load(reference).get())
+    );
+    store.delete(reference);
+    assertTrue(store.load(reference).isEmpty());
+  }
+}
@@ -0,0 +1,316 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for CachingSecureFileRepositoryAdapter over an in-memory repository.
+ * Focuses on hit rates, invalidation, expiry bounds and zeroing of dropped material.
+ */
+class CachingSecureFileRepositoryAdapterTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  private InMemoryRepository delegate;
+  private Instant now;
+  private CachingSecureFileRepositoryAdapter cache;
+
+  @BeforeEach
+  void setUp() {
+    delegate = new InMemoryRepository();
+    now = NOW;
+    cache = new CachingSecureFileRepositoryAdapter(
+      delegate,
+      new SecureFileCacheProperties(true, 2, Duration.ofSeconds(30)),
+      () -> now
+    );
+  }
+
+  private static SecureFile file(String id, Instant expiry) {
+    return JdbcSecureFileRepositoryAdapterTest.file(id, expiry, null);
+  }
+
+  // ==================== HIT TESTS ====================
+
+  @Test
+  void shouldServeRepeatedLookupFromMemory() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+
+    // When
+    SecureFile first = cache.findByLinkId(new LinkId("link-a")).get();
+    SecureFile second = cache.findByLinkId(new LinkId("link-a")).get();
+
+    // Then
+    assertEquals(1, delegate.lookups);
+    assertEquals(first.fileId().value(), second.fileId().value());
+    assertArrayEquals(
+      first.sealedEnvelope().getValue(),
+      second.sealedEnvelope().getValue()
+    );
+  }
+
+  @Test
+  void shouldNotCacheMissingFile() {
+    // When
+    cache.findByLinkId(new LinkId("missing"));
+    cache.findByLinkId(new LinkId("missing"));
+
+    // Then
+    assertEquals(2, delegate.lookups);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldHandOutIndependentCopies() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+    SecureFile first = cache.findByLinkId(new LinkId("link-a")).get();
+
+    // When
+    first.gateHash().close();
+
+    // Then
+    SecureFile second = cache.findByLinkId(new LinkId("link-a")).get();
+    assertEquals(7, second.gateHash().getBytes()[0]);
+  }
+
+  // ==================== BOUND TESTS ====================
+
+  @Test
+  void shouldExpireAfterTtl() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // When
+    now = NOW.plusSeconds(30);
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // Then
+    assertEquals(2, delegate.lookups);
+  }
+
+  @Test
+  void shouldNotOutliveFileExpiry() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(5)));
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // When
+    now = NOW.plusSeconds(5);
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // Then
+    assertEquals(2, delegate.lookups);
+  }
+
+  @Test
+  void shouldNotCacheExpiredFile() {
+    // Given
+    delegate.save(file("a", NOW.minusSeconds(1)));
+
+    // When
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // Then
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedBeyondBound() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+    delegate.save(file("b", NOW.plusSeconds(600)));
+    delegate.save(file("c", NOW.plusSeconds(600)));
+    cache.findByLinkId(new LinkId("link-a"));
+    cache.findByLinkId(new LinkId("link-b"));
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // When
+    cache.findByLinkId(new LinkId("link-c"));
+
+    // Then
+    assertEquals(2, cache.size());
+    cache.findByLinkId(new LinkId("link-a"));
+    assertEquals(3, delegate.lookups);
+    cache.findByLinkId(new LinkId("link-b"));
+    assertEquals(4, delegate.lookups);
+  }
+
+  @Test
+  void shouldPurgeFilesPastDeadline() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(5)));
+    delegate.save(file("b", NOW.plusSeconds(600)));
+    cache.findByLinkId(new LinkId("link-a"));
+    cache.findByLinkId(new LinkId("link-b"));
+
+    // When
+    now = NOW.plusSeconds(10);
+    cache.purgeExpired();
+
+    // Then
+    assertEquals(1, cache.size());
+  }
+
+  // ==================== INVALIDATION TESTS ====================
+
+  @Test
+  void shouldInvalidateOnDelete() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // When
+    cache.delete(new FileId("file-a"));
+
+    // Then
+    assertTrue(cache.findByLinkId(new LinkId("link-a")).isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldInvalidateOnBlobPathUpdate() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+    cache.findByLinkId(new LinkId("link-a"));
+    PathReference moved = PathReference.from("s3://bucket/blobs/a");
+
+    // When
+    cache.updateBlobPath(new FileId("file-a"), moved);
+
+    // Then
+    assertEquals(
+      moved,
+      cache.findByLinkId(new LinkId("link-a")).get().blobPath()
+    );
+  }
+
+  @Test
+  void shouldInvalidateOnSave() {
+    // Given
+    SecureFile file = file("a", NOW.plusSeconds(600));
+    delegate.save(file);
+    cache.findByLinkId(new LinkId("link-a"));
+
+    // When
+    cache.save(
+      new SecureFile(
+        file.fileId(),
+        file.linkId(),
+        file.blobPath(),
+        file.sealedEnvelope(),
+        file.sealedSalt(),
+        file.gateHash(),
+        file.encryptedQuestions(),
+        file.specs(),
+        1,
+        file.createdAt()
+      )
+    );
+
+    // Then
+    assertEquals(
+      1,
+      cache.findByLinkId(new LinkId("link-a")).get().remainingAttempts()
+    );
+  }
+
+  @Test
+  void shouldNotCacheLookupRacingWithDelete() {
+    // Given
+    delegate.save(file("a", NOW.plusSeconds(600)));
+    delegate.beforeLookup = () -> cache.delete(new FileId("file-a"));
+
+    // When
+    Optional<SecureFile> stale = cache.findByLinkId(new LinkId("link-a"));
+
+    // Then
+    assertTrue(stale.isPresent());
+    assertEquals(0, cache.size());
+  }
+
+  /** Repository keeping files in a map and counting link lookups. */
+  private static final class InMemoryRepository
+    implements SecureFileRepositoryPort {
+
+    private final Map<String, SecureFile> files = new HashMap<>();
+    int lookups;
+    Runnable beforeLookup = () -> {};
+
+    @Override
+    public void save(SecureFile file) {
+      files.put(file.fileId().value(), file);
+    }
+
+    @Override
+    public Optional<SecureFile> findByLinkId(LinkId linkId) {
+      lookups++;
+      Optional<SecureFile> found = files
+        .values()
+        .stream()
+        .filter(file -> file.linkId().value().equals(linkId.value()))
+        .findFirst();
+      Runnable hook = beforeLookup;
+      beforeLookup = () -> {};
+      hook.run();
+      return found;
+    }
+
+    @Override
+    public void updateBlobPath(FileId fileId, PathReference blobPath) {
+      SecureFile file = files.get(fileId.value());
+      if (file != null) {
+        files.put(
+          fileId.value(),
+          new SecureFile(
+            file.fileId(),
+            file.linkId(),
+            blobPath,
+            file.sealedEnvelope(),
+            file.sealedSalt(),
+            file.gateHash(),
+            file.encryptedQuestions(),
+            file.specs(),
+            file.remainingAttempts(),
+            file.createdAt()
+          )
+        );
+      }
+    }
+
+    @Override
+    public void delete(FileId fileId) {
+      files.remove(fileId.value());
+    }
+
+    @Override
+    public List<SecureFile> findExpiredBefore(Instant timestamp) {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public List<ExpiredFile> findExpiredBefore(
+      Instant timestamp,
+      ExpiredFile after,
+      int limit
+    ) {
+      return new ArrayList<>();
+    }
+  }
+}
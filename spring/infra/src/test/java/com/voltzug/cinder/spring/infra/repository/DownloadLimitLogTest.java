@@ -0,0 +1,168 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.exception.RepositoryException;
+import com.voltzug.cinder.spring.infra.repository.DownloadLimitLog.Entry;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for DownloadLimitLog.
+ * Focuses on the replay of segments, torn and corrupt tails, and segment rotation.
+ */
+class DownloadLimitLogTest {
+
+  @TempDir
+  Path directory;
+
+  private static Entry update(String linkId, int remaining) {
+    return new Entry(
+      DownloadLimitLog.UPDATE,
+      linkId,
+      1,
+      remaining,
+      1_000,
+      2_000
+    );
+  }
+
+  private List<Path> segments() throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().toList();
+    }
+  }
+
+  private List<Entry> reopen() {
+    try (DownloadLimitLog log = new DownloadLimitLog(directory, false)) {
+      return log.open();
+    }
+  }
+
+  // ==================== REPLAY TESTS ====================
+
+  @Test
+  void shouldReplayAppendedEntriesInOrder() {
+    // Given
+    DownloadLimitLog log = new DownloadLimitLog(directory, true);
+    assertTrue(log.open().isEmpty());
+    Entry delete = new Entry(DownloadLimitLog.DELETE, "link-b", 2, 0, 0, 0);
+
+    // When
+    log.append(update("link-a", 3));
+    log.rotate();
+    log.append(delete);
+    log.close();
+    List<Entry> replayed = reopen();
+
+    // Then
+    assertEquals(List.of(update("link-a", 3), delete), replayed);
+  }
+
+  @Test
+  void shouldStopAtTornTail() throws Exception {
+    // Given
+    DownloadLimitLog log = new DownloadLimitLog(directory, false);
+    log.open();
+    log.append(update("link-a", 3));
+    log.append(update("link-a", 2));
+    log.close();
+    Path segment = segments().getLast();
+
+    // When
+    try (
+      FileChannel channel = FileChannel.open(
+        segment,
+        StandardOpenOption.WRITE
+      )
+    ) {
+      channel.truncate(channel.size() - 3);
+    }
+    List<Entry> replayed = reopen();
+
+    // Then
+    assertEquals(List.of(update("link-a", 3)), replayed);
+  }
+
+  @Test
+  void shouldStopAtCorruptRecord() throws Exception {
+    // Given
+    DownloadLimitLog log = new DownloadLimitLog(directory, false);
+    log.open();
+    log.append(update("link-a", 3));
+    log.append(update("link-a", 2));
+    log.close();
+    Path segment = segments().getLast();
+    byte[] bytes = Files.readAllBytes(segment);
+
+    // When
+    bytes[bytes.length - 8] ^= 0x5A;
+    Files.write(segment, bytes);
+    List<Entry> replayed = reopen();
+
+    // Then
+    assertEquals(List.of(update("link-a", 3)), replayed);
+  }
+
+  // ==================== SEGMENT TESTS ====================
+
+  @Test
+  void shouldDeleteSegmentsThroughSealedOne() throws Exception {
+    // Given
+    DownloadLimitLog log = new DownloadLimitLog(directory, false);
+    log.open();
+    log.append(update("link-a", 3));
+    long first = log.rotate();
+    log.append(update("link-a", 2));
+    log.rotate();
+
+    // When
+    log.deleteThrough(first);
+    log.close();
+
+    // Then
+    assertEquals(2, segments().size());
+    assertEquals(List.of(update("link-a", 2)), reopen());
+  }
+
+  @Test
+  void shouldNumberSegmentsAfterExistingOnes() throws Exception {
+    // Given
+    DownloadLimitLog log = new DownloadLimitLog(directory, false);
+    log.open();
+    log.append(update("link-a", 3));
+    log.close();
+
+    // When
+    DownloadLimitLog reopened = new DownloadLimitLog(directory, false);
+    reopened.open();
+    reopened.append(update("link-a", 2));
+    reopened.close();
+
+    // Then
+    assertEquals(2, segments().size());
+    assertEquals(
+      List.of(update("link-a", 3), update("link-a", 2)),
+      reopen()
+    );
+  }
+
+  @Test
+  void shouldRejectAppendAfterClose() {
+    // Given
+    DownloadLimitLog log = new DownloadLimitLog(directory, false);
+    log.open();
+    log.close();
+
+    // When & Then
+    assertThrows(RepositoryException.class, () ->
+      log.append(update("link-a", 3))
+    );
+  }
+}
@@ -0,0 +1,155 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of per-call latency of JdbcSecureFileRepositoryAdapter.
+ *
+ * <p>{@code CACHED} runs the adapter with its statements prepared once. {@code PER_CALL} runs
+ * the same SQL and row mapping, but prepares the statement on every call the way
+ * template- and ORM-based repositories without a statement cache do, isolating the
+ * cost the adapter saves per lookup and per save.
+ *
+ * <p>The database is created below {@code -Dcinder.bench.dir} (default: the temp directory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JdbcRepositoryBenchmark {
+
+  private static final int _ROWS = 10_000;
+
+  @Param({ "CACHED", "PER_CALL" })
+  public String statements;
+
+  private Path directory;
+  private JdbcSecureFileRepositoryAdapter repository;
+  private Connection connection;
+  private SecureFile[] files;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+      new OptionsBuilder()
+        .include(JdbcRepositoryBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, SQLException {
+    directory = Files.createTempDirectory(
+      Path.of(
+        System.getProperty(
+          "cinder.bench.dir",
+          System.getProperty("java.io.tmpdir")
+        )
+      ),
+      "cinder-bench"
+    );
+    String url = "jdbc:sqlite:" + directory.resolve("cinder.db");
+    repository = new JdbcSecureFileRepositoryAdapter(
+      new JdbcRepositoryProperties(url, 4, 1024, 64, 1, false)
+    );
+    files = new SecureFile[_ROWS];
+    Instant expiry = Instant.now().plusSeconds(3600);
+    for (int i = 0; i < _ROWS; i++) {
+      files[i] = JdbcSecureFileRepositoryAdapterTest.file(
+        Integer.toString(i),
+        expiry,
+        null
+      );
+      repository.save(files[i]);
+    }
+    connection = DriverManager.getConnection(url);
+  }
+
+  private SecureFile _pick() {
+    return files[ThreadLocalRandom.current().nextInt(_ROWS)];
+  }
+
+  @Benchmark
+  public Optional<SecureFile> findByLinkId() throws SQLException {
+    LinkId linkId = _pick().linkId();
+    if ("CACHED".equals(statements)) {
+      return repository.findByLinkId(linkId);
+    }
+    try (
+      PreparedStatement select = connection.prepareStatement(
+        JdbcSecureFileRepositoryAdapter.SELECT_BY_LINK_ID
+      )
+    ) {
+      select.setString(1, linkId.value());
+      try (ResultSet rows = select.executeQuery()) {
+        return rows.next()
+          ? Optional.of(JdbcSecureFileRepositoryAdapter.map(rows))
+          : Optional.empty();
+      }
+    }
+  }
+
+  @Benchmark
+  public SecureFile save() throws SQLException {
+    SecureFile file = _pick();
+    if ("CACHED".equals(statements)) {
+      repository.save(file);
+      return file;
+    }
+    try (
+      PreparedStatement upsert = connection.prepareStatement(
+        JdbcSecureFileRepositoryAdapter.UPSERT
+      )
+    ) {
+      JdbcSecureFileRepositoryAdapter.bind(upsert, file);
+      upsert.executeUpdate();
+    }
+    return file;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException, SQLException {
+    connection.close();
+    repository.close();
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      paths = walk.sorted(Comparator.reverseOrder()).toList();
+    }
+    for (Path path : paths) {
+      Files.delete(path);
+    }
+  }
+}
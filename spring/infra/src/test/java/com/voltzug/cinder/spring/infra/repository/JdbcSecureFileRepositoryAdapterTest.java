@@ -0,0 +1,598 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.GateHash;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.exception.RepositoryException;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort.ExpiredFile;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for JdbcSecureFileRepositoryAdapter against a SQLite database file.
+ * Focuses on the row mapping round trip and the semantics of each port operation.
+ */
+class JdbcSecureFileRepositoryAdapterTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private JdbcRepositoryProperties properties;
+  private JdbcSecureFileRepositoryAdapter repository;
+
+  @BeforeEach
+  void setUp() {
+    properties = new JdbcRepositoryProperties(
+      "jdbc:sqlite:" + directory.resolve("db/cinder.db"),
+      2,
+      64,
+      16,
+      1,
+      false
+    );
+    repository = new JdbcSecureFileRepositoryAdapter(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    repository.close();
+  }
+
+  private JdbcRepositoryProperties sharded(int shards) {
+    return new JdbcRepositoryProperties(
+      properties.url(),
+      properties.readPoolSize(),
+      properties.writeQueueCapacity(),
+      properties.writeBatchSize(),
+      shards,
+      false
+    );
+  }
+
+  private long count(String database) throws Exception {
+    try (
+      Connection connection = DriverManager.getConnection(
+        "jdbc:sqlite:" + directory.resolve(database)
+      );
+      Statement statement = connection.createStatement();
+      ResultSet rows = statement.executeQuery(
+        "SELECT count(*) FROM secure_file"
+      )
+    ) {
+      rows.next();
+      return rows.getLong(1);
+    }
+  }
+
+  static SecureFile file(String id, Instant expiry, BlobChecksum checksum) {
+    return new SecureFile(
+      new FileId("file-" + id),
+      new LinkId("link-" + id),
+      PathReference.from("/data/files/ab/cd/" + id),
+      checksum,
+      SealedBlob.build(new byte[] { 1, 2, 3 }, new byte[] { 9, 9 }, (short) 1),
+      SealedBlob.build(new byte[] { 4, 5 }, new byte[] { 8 }, (short) 1),
+      new GateHash(new byte[] { 7, 7, 7, 7, 7, 7, 7, 7 }),
+      new Blob(new byte[] { 42, 43, 44 }),
+      new FileSpecs(expiry, 3),
+      3,
+      NOW
+    );
+  }
+
+  private static SecureFile withLinkId(SecureFile file, String linkId) {
+    return new SecureFile(
+      file.fileId(),
+      new LinkId(linkId),
+      file.blobPath(),
+      file.sealedEnvelope(),
+      file.sealedSalt(),
+      file.gateHash(),
+      file.encryptedQuestions(),
+      file.specs(),
+      file.remainingAttempts(),
+      file.createdAt()
+    );
+  }
+
+  private static void assertSameFile(SecureFile expected, SecureFile actual) {
+    assertEquals(expected.fileId().value(), actual.fileId().value());
+    assertEquals(expected.linkId().value(), actual.linkId().value());
+    assertEquals(expected.blobPath(), actual.blobPath());
+    assertEquals(expected.blobChecksum(), actual.blobChecksum());
+    assertArrayEquals(
+      expected.sealedEnvelope().getValue(),
+      actual.sealedEnvelope().getValue()
+    );
+    assertArrayEquals(
+      expected.sealedEnvelope().getNonce(),
+      actual.sealedEnvelope().getNonce()
+    );
+    assertArrayEquals(
+      expected.sealedSalt().getValue(),
+      actual.sealedSalt().getValue()
+    );
+    assertArrayEquals(
+      expected.gateHash().getBytes(),
+      actual.gateHash().getBytes()
+    );
+    assertEquals(
+      expected.encryptedQuestions().getBuffer(),
+      actual.encryptedQuestions().getBuffer()
+    );
+    assertEquals(expected.specs(), actual.specs());
+    assertEquals(expected.remainingAttempts(), actual.remainingAttempts());
+    assertEquals(expected.createdAt(), actual.createdAt());
+  }
+
+  // ==================== SAVE & FIND TESTS ====================
+
+  @Test
+  void shouldFindSavedFileByLinkId() {
+    // Given
+    SecureFile file = file("a", NOW.plusSeconds(60), new BlobChecksum(-7));
+
+    // When
+    repository.save(file);
+    Optional<SecureFile> found = repository.findByLinkId(new LinkId("link-a"));
+
+    // Then
+    assertTrue(found.isPresent());
+    assertSameFile(file, found.get());
+  }
+
+  @Test
+  void shouldKeepMissingChecksumNull() {
+    // Given
+    repository.save(file("a", NOW.plusSeconds(60), null));
+
+    // When
+    SecureFile found = repository.findByLinkId(new LinkId("link-a")).get();
+
+    // Then
+    assertNull(found.blobChecksum());
+  }
+
+  @Test
+  void shouldReturnEmptyForUnknownLinkId() {
+    // When/Then
+    assertTrue(repository.findByLinkId(new LinkId("missing")).isEmpty());
+  }
+
+  @Test
+  void shouldReplaceFileSavedAgain() {
+    // Given
+    SecureFile file = file("a", NOW.plusSeconds(60), null);
+    repository.save(file);
+    SecureFile updated = new SecureFile(
+      file.fileId(),
+      file.linkId(),
+      file.blobPath(),
+      file.sealedEnvelope(),
+      file.sealedSalt(),
+      file.gateHash(),
+      file.encryptedQuestions(),
+      file.specs(),
+      1,
+      file.createdAt()
+    );
+
+    // When
+    repository.save(updated);
+
+    // Then
+    SecureFile found = repository.findByLinkId(new LinkId("link-a")).get();
+    assertEquals(1, found.remainingAttempts());
+  }
+
+  @Test
+  void shouldRejectDuplicateLinkId() {
+    // Given
+    repository.save(file("a", NOW.plusSeconds(60), null));
+    SecureFile duplicate = withLinkId(
+      file("b", NOW.plusSeconds(60), null),
+      "link-a"
+    );
+
+    // When/Then
+    assertThrows(RepositoryException.class, () -> repository.save(duplicate));
+  }
+
+  @Test
+  void shouldPersistAcrossReopen() {
+    // Given
+    SecureFile file = file("a", NOW.plusSeconds(60), new BlobChecksum(12));
+    repository.save(file);
+    repository.close();
+
+    // When
+    repository = new JdbcSecureFileRepositoryAdapter(properties);
+
+    // Then
+    assertSameFile(file, repository.findByLinkId(new LinkId("link-a")).get());
+  }
+
+  // ==================== UPDATE & DELETE TESTS ====================
+
+  @Test
+  void shouldUpdateBlobPath() {
+    // Given
+    repository.save(file("a", NOW.plusSeconds(60), null));
+    PathReference moved = PathReference.from("s3://bucket/blobs/a");
+
+    // When
+    repository.updateBlobPath(new FileId("file-a"), moved);
+
+    // Then
+    assertEquals(
+      moved,
+      repository.findByLinkId(new LinkId("link-a")).get().blobPath()
+    );
+  }
+
+  @Test
+  void shouldIgnoreBlobPathUpdateOfMissingFile() {
+    // When/Then
+    assertDoesNotThrow(() ->
+      repository.updateBlobPath(
+        new FileId("missing"),
+        PathReference.from("s3://bucket/blobs/missing")
+      )
+    );
+  }
+
+  @Test
+  void shouldDeleteFile() {
+    // Given
+    repository.save(file("a", NOW.plusSeconds(60), null));
+
+    // When
+    repository.delete(new FileId("file-a"));
+
+    // Then
+    assertTrue(repository.findByLinkId(new LinkId("link-a")).isEmpty());
+  }
+
+  // ==================== EXPIRY TESTS ====================
+
+  @Test
+  void shouldFindFilesExpiredBeforeTimestampOldestFirst() {
+    // Given
+    repository.save(file("late", NOW.minusSeconds(10), null));
+    repository.save(file("early", NOW.minusSeconds(100), null));
+    repository.save(file("live", NOW.plusSeconds(100), null));
+
+    // When
+    List<SecureFile> expired = repository.findExpiredBefore(NOW);
+
+    // Then
+    assertEquals(
+      List.of("file-early", "file-late"),
+      expired.stream().map(file -> file.fileId().value()).toList()
+    );
+  }
+
+  @Test
+  void shouldNotFindFileExpiringExactlyAtTimestamp() {
+    // Given
+    repository.save(file("a", NOW, null));
+
+    // When/Then
+    assertTrue(repository.findExpiredBefore(NOW).isEmpty());
+  }
+
+  @Test
+  void shouldPageExpiredFilesByExpiryThenFileId() {
+    // Given
+    repository.save(file("c", NOW.minusSeconds(10), null));
+    repository.save(file("b", NOW.minusSeconds(10), null));
+    repository.save(file("a", NOW.minusSeconds(20), null));
+    repository.save(file("live", NOW.plusSeconds(20), null));
+
+    // When
+    List<ExpiredFile> first = repository.findExpiredBefore(NOW, null, 2);
+    List<ExpiredFile> second = repository.findExpiredBefore(
+      NOW,
+      first.getLast(),
+      2
+    );
+
+    // Then
+    assertEquals(
+      List.of("file-a", "file-b"),
+      first.stream().map(file -> file.fileId().value()).toList()
+    );
+    assertEquals(
+      List.of("file-c"),
+      second.stream().map(file -> file.fileId().value()).toList()
+    );
+    ExpiredFile last = second.getFirst();
+    assertEquals("link-c", last.linkId().value());
+    assertEquals(PathReference.from("/data/files/ab/cd/c"), last.blobPath());
+    assertEquals(NOW.minusSeconds(10), last.expiryDate());
+  }
+
+  @Test
+  void shouldStreamAllExpiredFilesWhileTheyAreDeleted() {
+    // Given
+    for (int i = 0; i < 25; i++) {
+      repository.save(file("x" + i, NOW.minusSeconds(i + 1), null));
+    }
+    repository.save(file("live", NOW.plusSeconds(20), null));
+    List<String> deleted = new ArrayList<>();
+
+    // When
+    try (var expired = repository.streamExpiredBefore(NOW, 4)) {
+      expired.forEach(file -> {
+        repository.delete(file.fileId());
+        deleted.add(file.fileId().value());
+      });
+    }
+
+    // Then
+    assertEquals(25, deleted.size());
+    assertEquals("file-x24", deleted.getFirst());
+    assertTrue(repository.findExpiredBefore(NOW).isEmpty());
+    assertTrue(repository.findByLinkId(new LinkId("link-live")).isPresent());
+  }
+
+  @Test
+  void shouldStreamNothingWithoutExpiredFiles() {
+    // Given
+    repository.save(file("live", NOW.plusSeconds(20), null));
+
+    // When/Then
+    assertEquals(0, repository.streamExpiredBefore(NOW, 10).count());
+  }
+
+  // ==================== SHARDING TESTS ====================
+
+  @Test
+  void shouldSpreadFilesOverShardFilesByLinkId() throws Exception {
+    // Given
+    repository.close();
+    repository = new JdbcSecureFileRepositoryAdapter(sharded(3));
+    int[] expected = new int[3];
+
+    // When
+    for (int i = 0; i < 60; i++) {
+      repository.save(file(Integer.toString(i), NOW.plusSeconds(60), null));
+      expected[SqliteShard.indexOf("link-" + i, 3)]++;
+    }
+
+    // Then
+    assertEquals(3, repository.getShardCount());
+    for (int i = 0; i < 3; i++) {
+      assertTrue(expected[i] > 0);
+      assertEquals(expected[i], count("db/cinder-" + i + ".db"));
+    }
+    for (int i = 0; i < 60; i++) {
+      assertTrue(repository.findByLinkId(new LinkId("link-" + i)).isPresent());
+    }
+  }
+
+  @Test
+  void shouldUpdateAndDeleteFilesInAnyShard() {
+    // Given
+    repository.close();
+    repository = new JdbcSecureFileRepositoryAdapter(sharded(3));
+    for (int i = 0; i < 12; i++) {
+      repository.save(file(Integer.toString(i), NOW.plusSeconds(60), null));
+    }
+    PathReference moved = PathReference.from("/data/files/ef/01/moved");
+
+    // When
+    for (int i = 0; i < 12; i += 2) {
+      repository.delete(new FileId("file-" + i));
+      repository.updateBlobPath(new FileId("file-" + (i + 1)), moved);
+    }
+
+    // Then
+    for (int i = 0; i < 12; i += 2) {
+      assertTrue(repository.findByLinkId(new LinkId("link-" + i)).isEmpty());
+      assertEquals(
+        moved,
+        repository.findByLinkId(new LinkId("link-" + (i + 1))).get().blobPath()
+      );
+    }
+  }
+
+  @Test
+  void shouldWriteOnlyTheShardHoldingTheFile() throws Exception {
+    // Given
+    repository.close();
+    repository = new JdbcSecureFileRepositoryAdapter(sharded(3));
+    int held = 0;
+    while (SqliteShard.indexOf("link-" + held, 3) != 0) {
+      held++;
+    }
+    repository.save(file(Integer.toString(held), NOW.plusSeconds(60), null));
+    PathReference moved = PathReference.from("/data/files/ef/01/moved");
+
+    try (
+      Connection writer = DriverManager.getConnection(
+        "jdbc:sqlite:" + directory.resolve("db/cinder-1.db")
+      );
+      Statement statement = writer.createStatement()
+    ) {
+      statement.execute("BEGIN IMMEDIATE");
+
+      // When
+      repository.updateBlobPath(new FileId("file-" + held), moved);
+      repository.delete(new FileId("file-missing"));
+
+      // Then
+      assertEquals(
+        moved,
+        repository.findByLinkId(new LinkId("link-" + held)).get().blobPath()
+      );
+      statement.execute("ROLLBACK");
+    }
+  }
+
+  @Test
+  void shouldPageExpiredFilesAcrossShardsInOrder() {
+    // Given
+    repository.close();
+    repository = new JdbcSecureFileRepositoryAdapter(sharded(3));
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      repository.save(file("x" + i, NOW.minusSeconds(20 - i / 2), null));
+      expected.add("file-x" + i);
+    }
+    repository.save(file("live", NOW.plusSeconds(20), null));
+
+    // When
+    List<String> paged = new ArrayList<>();
+    List<ExpiredFile> page = repository.findExpiredBefore(NOW, null, 3);
+    while (!page.isEmpty()) {
+      page.forEach(file -> paged.add(file.fileId().value()));
+      page = repository.findExpiredBefore(NOW, page.getLast(), 3);
+    }
+    List<SecureFile> all = repository.findExpiredBefore(NOW);
+
+    // Then
+    assertEquals(expected, paged);
+    assertEquals(20, all.size());
+    for (int i = 1; i < all.size(); i++) {
+      assertFalse(
+        all
+          .get(i)
+          .specs()
+          .expiryDate()
+          .isBefore(all.get(i - 1).specs().expiryDate())
+      );
+    }
+  }
+
+  // ==================== CONCURRENCY TESTS ====================
+
+  @Test
+  void shouldRunDatabaseInWalMode() throws Exception {
+    // Given
+    try (
+      Connection connection = DriverManager.getConnection(properties.url());
+      Statement statement = connection.createStatement();
+      // When
+      ResultSet mode = statement.executeQuery("PRAGMA journal_mode")
+    ) {
+      // Then
+      assertTrue(mode.next());
+      assertEquals("wal", mode.getString(1));
+    }
+  }
+
+  @Test
+  void shouldPersistConcurrentSaves() throws Exception {
+    // Given
+    List<Future<?>> saves = new ArrayList<>();
+
+    // When
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 200; i++) {
+        String id = Integer.toString(i);
+        saves.add(
+          executor.submit(() ->
+            repository.save(file(id, NOW.plusSeconds(60), null))
+          )
+        );
+      }
+      for (Future<?> save : saves) {
+        save.get();
+      }
+    }
+
+    // Then
+    for (int i = 0; i < 200; i++) {
+      assertTrue(repository.findByLinkId(new LinkId("link-" + i)).isPresent());
+    }
+  }
+
+  @Test
+  void shouldFailOnlyTheFailingWritesOfABatch() throws Exception {
+    // Given
+    repository.save(file("a", NOW.plusSeconds(60), null));
+    AtomicInteger failures = new AtomicInteger();
+
+    // When
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 40; i++) {
+        String id = Integer.toString(i);
+        boolean clash = i % 2 == 0;
+        executor.submit(() -> {
+          SecureFile file = file(id, NOW.plusSeconds(60), null);
+          try {
+            repository.save(clash ? withLinkId(file, "link-a") : file);
+          } catch (RepositoryException exc) {
+            failures.incrementAndGet();
+          }
+        });
+      }
+    }
+
+    // Then
+    assertEquals(20, failures.get());
+    for (int i = 1; i < 40; i += 2) {
+      assertTrue(repository.findByLinkId(new LinkId("link-" + i)).isPresent());
+    }
+  }
+
+  @Test
+  void shouldServeReadsWhileAnotherConnectionHoldsTheWriteLock()
+    throws Exception {
+    // Given
+    repository.save(file("a", NOW.plusSeconds(60), null));
+    try (
+      Connection writer = DriverManager.getConnection(properties.url());
+      Statement statement = writer.createStatement()
+    ) {
+      statement.execute("BEGIN IMMEDIATE");
+      statement.executeUpdate("DELETE FROM secure_file");
+
+      // When
+      Optional<SecureFile> found = repository.findByLinkId(
+        new LinkId("link-a")
+      );
+
+      // Then
+      assertTrue(found.isPresent());
+      statement.execute("ROLLBACK");
+    }
+  }
+
+  @Test
+  void shouldRejectWritesAfterClose() {
+    // Given
+    repository.close();
+
+    // When/Then
+    assertThrows(RepositoryException.class, () ->
+      repository.save(file("a", NOW.plusSeconds(60), null))
+    );
+  }
+}
@@ -0,0 +1,162 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort.ExpiredFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of link lookups and cleanup pages on a large secure_file table.
+ *
+ * <p>The table is seeded with {@code rows} records (10M by default, override with
+ * {@code -p rows=...}), one percent of them expired. With {@code indexed=false} the indexes
+ * created by the migrations are dropped, showing the full-scan cost they remove. Seeding
+ * 10M rows takes a few minutes and about 2GB below {@code -Dcinder.bench.dir}
+ * (default: the temp directory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SecureFileSchemaBenchmark {
+
+  private static final int _SEED_BATCH = 10_000;
+  private static final int _PAGE_SIZE = 1000;
+  private static final Instant _NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  @Param({ "10000000" })
+  public int rows;
+
+  @Param({ "true", "false" })
+  public boolean indexed;
+
+  private Path directory;
+  private JdbcSecureFileRepositoryAdapter repository;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+      new OptionsBuilder()
+        .include(SecureFileSchemaBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, SQLException {
+    directory = Files.createTempDirectory(
+      Path.of(
+        System.getProperty(
+          "cinder.bench.dir",
+          System.getProperty("java.io.tmpdir")
+        )
+      ),
+      "cinder-bench"
+    );
+    JdbcRepositoryProperties properties = new JdbcRepositoryProperties(
+      "jdbc:sqlite:" + directory.resolve("cinder.db"),
+      4,
+      1024,
+      64,
+      1,
+      false
+    );
+    new JdbcSecureFileRepositoryAdapter(properties).close();
+    try (Connection connection = DriverManager.getConnection(properties.url())) {
+      _seed(connection);
+      if (!indexed) {
+        try (Statement statement = connection.createStatement()) {
+          statement.executeUpdate("DROP INDEX secure_file_link_id_uq");
+          statement.executeUpdate("DROP INDEX secure_file_expiry_cleanup_ix");
+        }
+      }
+    }
+    repository = new JdbcSecureFileRepositoryAdapter(properties);
+  }
+
+  /** Inserts {@link #rows} files, expiring one per second around now with 1% in the past. */
+  private void _seed(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("PRAGMA synchronous = OFF");
+    }
+    connection.setAutoCommit(false);
+    long expired = rows / 100;
+    try (
+      PreparedStatement insert = connection.prepareStatement(
+        JdbcSecureFileRepositoryAdapter.UPSERT
+      )
+    ) {
+      for (int i = 0; i < rows; i++) {
+        long slot = Math.floorMod(i * 7_919L, rows);
+        SecureFile file = JdbcSecureFileRepositoryAdapterTest.file(
+          Integer.toString(i),
+          _NOW.plusSeconds(slot - expired),
+          null
+        );
+        JdbcSecureFileRepositoryAdapter.bind(insert, file);
+        insert.addBatch();
+        if ((i + 1) % _SEED_BATCH == 0) {
+          insert.executeBatch();
+          connection.commit();
+        }
+      }
+      insert.executeBatch();
+      connection.commit();
+    }
+    connection.setAutoCommit(true);
+  }
+
+  @Benchmark
+  public Optional<SecureFile> findByLinkId() {
+    int id = ThreadLocalRandom.current().nextInt(rows);
+    return repository.findByLinkId(new LinkId("link-" + id));
+  }
+
+  @Benchmark
+  public List<ExpiredFile> findExpiredPage() {
+    return repository.findExpiredBefore(_NOW, null, _PAGE_SIZE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    repository.close();
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      paths = walk.sorted(Comparator.reverseOrder()).toList();
+    }
+    for (Path path : paths) {
+      Files.delete(path);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for SqliteSchemaMigrations against a SQLite database file.
+ * Focuses on version tracking and the indexes serving lookups and cleanup.
+ */
+class SqliteSchemaMigrationsTest {
+
+  @TempDir
+  Path directory;
+
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    connection = DriverManager.getConnection(
+      "jdbc:sqlite:" + directory.resolve("cinder.db")
+    );
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    connection.close();
+  }
+
+  private List<String> queryPlan(String sql) throws Exception {
+    List<String> plan = new ArrayList<>();
+    try (
+      Statement statement = connection.createStatement();
+      ResultSet rows = statement.executeQuery("EXPLAIN QUERY PLAN " + sql)
+    ) {
+      while (rows.next()) {
+        plan.add(rows.getString("detail"));
+      }
+    }
+    return plan;
+  }
+
+  private int indexesOn(String column) throws Exception {
+    List<String> names = new ArrayList<>();
+    try (
+      Statement statement = connection.createStatement();
+      ResultSet rows = statement.executeQuery("PRAGMA index_list(secure_file)")
+    ) {
+      while (rows.next()) {
+        names.add(rows.getString("name"));
+      }
+    }
+    int indexes = 0;
+    for (String name : names) {
+      try (
+        Statement statement = connection.createStatement();
+        ResultSet rows = statement.executeQuery(
+          "PRAGMA index_info(" + name + ")"
+        )
+      ) {
+        if (rows.next() && column.equals(rows.getString("name"))) {
+          indexes++;
+        }
+      }
+    }
+    return indexes;
+  }
+
+  // ==================== VERSION TESTS ====================
+
+  @Test
+  void shouldMigrateEmptyDatabaseToLatestVersion() throws Exception {
+    // When
+    int applied = SqliteSchemaMigrations.migrate(connection);
+
+    // Then
+    assertEquals(SqliteSchemaMigrations.MIGRATIONS.size(), applied);
+    assertEquals(
+      SqliteSchemaMigrations.MIGRATIONS.size(),
+      SqliteSchemaMigrations.version(connection)
+    );
+  }
+
+  @Test
+  void shouldApplyNothingToUpToDateDatabase() throws Exception {
+    // Given
+    SqliteSchemaMigrations.migrate(connection);
+
+    // When/Then
+    assertEquals(0, SqliteSchemaMigrations.migrate(connection));
+  }
+
+  @Test
+  void shouldRejectDatabaseNewerThanKnownMigrations() throws Exception {
+    // Given
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate(
+        "PRAGMA user_version = " +
+          (SqliteSchemaMigrations.MIGRATIONS.size() + 1)
+      );
+    }
+
+    // When/Then
+    assertThrows(IllegalStateException.class, () ->
+      SqliteSchemaMigrations.migrate(connection)
+    );
+  }
+
+  // ==================== INDEX TESTS ====================
+
+  @Test
+  void shouldLookUpLinkIdThroughUniqueIndex() throws Exception {
+    // Given
+    SqliteSchemaMigrations.migrate(connection);
+
+    // When
+    List<String> plan = queryPlan(
+      JdbcSecureFileRepositoryAdapter.SELECT_BY_LINK_ID.replace("?", "'x'")
+    );
+
+    // Then
+    assertTrue(
+      plan.getFirst().contains("secure_file_link_id_uq"),
+      plan.toString()
+    );
+  }
+
+  @Test
+  void shouldIndexLinkIdOnce() throws Exception {
+    // When
+    SqliteSchemaMigrations.migrate(connection);
+
+    // Then
+    assertEquals(1, indexesOn("link_id"));
+  }
+
+  @Test
+  void shouldServeCleanupPagesFromCoveringIndex() throws Exception {
+    // Given
+    SqliteSchemaMigrations.migrate(connection);
+
+    // When
+    List<String> first = queryPlan(
+      JdbcSecureFileRepositoryAdapter.SELECT_EXPIRED_PAGE.replace("?", "1")
+    );
+    List<String> next = queryPlan(
+      JdbcSecureFileRepositoryAdapter.SELECT_EXPIRED_PAGE_AFTER.replace(
+        "?",
+        "1"
+      )
+    );
+
+    // Then
+    assertEquals(1, first.size(), first.toString());
+    assertTrue(first.getFirst().contains("COVERING INDEX"), first.toString());
+    assertEquals(1, next.size(), next.toString());
+    assertTrue(next.getFirst().contains("COVERING INDEX"), next.toString());
+  }
+}
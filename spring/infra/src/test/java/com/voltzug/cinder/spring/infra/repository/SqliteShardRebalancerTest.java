@@ -0,0 +1,205 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for SqliteShardRebalancer against SQLite database files.
+ * Focuses on moving records between shard layouts without losing any of them.
+ */
+class SqliteShardRebalancerTest {
+
+  private static final Instant EXPIRY = Instant.parse("2025-06-01T13:00:00Z");
+  private static final int FILES = 2500;
+
+  @TempDir
+  Path directory;
+
+  private String url() {
+    return "jdbc:sqlite:" + directory.resolve("cinder.db");
+  }
+
+  private JdbcSecureFileRepositoryAdapter open(int shards) {
+    return new JdbcSecureFileRepositoryAdapter(
+      new JdbcRepositoryProperties(url(), 2, 1024, 64, shards, false)
+    );
+  }
+
+  private void seed(int shards) {
+    try (JdbcSecureFileRepositoryAdapter repository = open(shards)) {
+      for (int i = 0; i < FILES; i++) {
+        repository.save(
+          JdbcSecureFileRepositoryAdapterTest.file(
+            Integer.toString(i),
+            EXPIRY,
+            null
+          )
+        );
+      }
+    }
+  }
+
+  private void assertAllFound(int shards) {
+    try (JdbcSecureFileRepositoryAdapter repository = open(shards)) {
+      for (int i = 0; i < FILES; i++) {
+        assertTrue(
+          repository.findByLinkId(new LinkId("link-" + i)).isPresent(),
+          "link-" + i
+        );
+      }
+    }
+  }
+
+  // ==================== LAYOUT TESTS ====================
+
+  @Test
+  void shouldNameShardFilesAfterConfiguredDatabase() {
+    // When/Then
+    assertEquals(
+      "jdbc:sqlite:/data/cinder.db",
+      SqliteShard.urlOf("jdbc:sqlite:/data/cinder.db", 0, 1)
+    );
+    assertEquals(
+      "jdbc:sqlite:/data/cinder-2.db",
+      SqliteShard.urlOf("jdbc:sqlite:/data/cinder.db", 2, 4)
+    );
+    assertEquals(
+      "jdbc:sqlite:/data/cinder-1.db?foreign_keys=on",
+      SqliteShard.urlOf("jdbc:sqlite:/data/cinder.db?foreign_keys=on", 1, 2)
+    );
+    assertEquals(
+      "jdbc:sqlite:/data/cinder-3",
+      SqliteShard.urlOf("jdbc:sqlite:/data/cinder", 3, 4)
+    );
+  }
+
+  @Test
+  void shouldRouteLinkIdToStableShard() {
+    // When
+    int shard = SqliteShard.indexOf("link-a", 7);
+
+    // Then
+    assertTrue(shard >= 0 && shard < 7);
+    assertEquals(shard, SqliteShard.indexOf("link-a", 7));
+    assertEquals(0, SqliteShard.indexOf("link-a", 1));
+  }
+
+  // ==================== REBALANCE TESTS ====================
+
+  @Test
+  void shouldSplitSingleDatabaseIntoShards() {
+    // Given
+    seed(1);
+
+    // When
+    int moved = new SqliteShardRebalancer(url(), 3).rebalance();
+
+    // Then
+    assertEquals(FILES, moved);
+    assertFalse(Files.exists(directory.resolve("cinder.db")));
+    for (int i = 0; i < 3; i++) {
+      assertTrue(Files.exists(directory.resolve("cinder-" + i + ".db")));
+    }
+    assertAllFound(3);
+  }
+
+  @Test
+  void shouldMoveOnlyMisplacedRecordsBetweenShardCounts() {
+    // Given
+    seed(3);
+    int misplaced = 0;
+    for (int i = 0; i < FILES; i++) {
+      String linkId = "link-" + i;
+      if (SqliteShard.indexOf(linkId, 3) != SqliteShard.indexOf(linkId, 2)) {
+        misplaced++;
+      }
+    }
+
+    // When
+    int moved = new SqliteShardRebalancer(url(), 2).rebalance();
+
+    // Then
+    assertEquals(misplaced, moved);
+    assertFalse(Files.exists(directory.resolve("cinder-2.db")));
+    assertAllFound(2);
+  }
+
+  @Test
+  void shouldMergeShardsBackIntoSingleDatabase() {
+    // Given
+    seed(4);
+
+    // When
+    new SqliteShardRebalancer(url(), 1).rebalance();
+
+    // Then
+    for (int i = 0; i < 4; i++) {
+      assertFalse(Files.exists(directory.resolve("cinder-" + i + ".db")));
+    }
+    assertAllFound(1);
+  }
+
+  @Test
+  void shouldMoveDownloadLimitsWithTheirLinks() {
+    // Given
+    int limits = 50;
+    DownloadLimitProperties properties = new DownloadLimitProperties(
+      true,
+      directory.resolve("limits").toString(),
+      Duration.ofHours(1),
+      false
+    );
+    try (
+      JdbcSecureFileRepositoryAdapter repository = open(3);
+      WriteBehindDownloadLimitAdapter adapter =
+        new WriteBehindDownloadLimitAdapter(repository, properties, () ->
+          EXPIRY.minusSeconds(60)
+        )
+    ) {
+      for (int i = 0; i < limits; i++) {
+        adapter.initialize(new LinkId("link-" + i), new FileSpecs(EXPIRY, 3));
+      }
+    }
+
+    // When
+    int moved = new SqliteShardRebalancer(url(), 1).rebalance();
+
+    // Then
+    assertEquals(limits, moved);
+    try (
+      JdbcSecureFileRepositoryAdapter repository = open(1);
+      WriteBehindDownloadLimitAdapter adapter =
+        new WriteBehindDownloadLimitAdapter(repository, properties, () ->
+          EXPIRY.minusSeconds(60)
+        )
+    ) {
+      assertEquals(limits, adapter.size());
+    }
+  }
+
+  @Test
+  void shouldMoveNothingWhenLayoutIsCurrent() {
+    // Given
+    seed(3);
+
+    // When/Then
+    assertEquals(0, new SqliteShardRebalancer(url(), 3).rebalance());
+    assertAllFound(3);
+  }
+
+  @Test
+  void shouldRejectNonPositiveShardCount() {
+    // When/Then
+    assertThrows(IllegalArgumentException.class, () ->
+      new SqliteShardRebalancer(url(), 0)
+    );
+  }
+}
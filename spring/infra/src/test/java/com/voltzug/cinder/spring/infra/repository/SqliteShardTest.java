@@ -0,0 +1,159 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.exception.RepositoryException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for SqliteShard against a SQLite database file.
+ * Focuses on rolling back every statement of a failing write while the rest of its batch
+ * commits.
+ */
+class SqliteShardTest {
+
+  @TempDir
+  Path directory;
+
+  private SqliteShard shard;
+
+  @BeforeEach
+  void setUp() {
+    shard = new SqliteShard(
+      "jdbc:sqlite:" + directory.resolve("cinder.db"),
+      "test",
+      new JdbcRepositoryProperties(
+        "jdbc:sqlite:" + directory.resolve("cinder.db"),
+        2,
+        64,
+        16,
+        1,
+        false
+      )
+    );
+    shard.write("Failed to create table", writer -> {
+      try (Statement statement = writer.connection().createStatement()) {
+        statement.execute("CREATE TABLE note (id TEXT PRIMARY KEY)");
+      }
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    shard.close();
+  }
+
+  private static void insert(SqliteShard.Statements writer, String id)
+    throws SQLException {
+    PreparedStatement statement = writer.prepare(
+      "INSERT INTO note (id) VALUES (?)"
+    );
+    statement.setString(1, id);
+    statement.executeUpdate();
+  }
+
+  private List<String> notes() {
+    return shard.read("Failed to list notes", reader -> {
+      List<String> ids = new ArrayList<>();
+      try (
+        ResultSet rows = reader
+          .prepare("SELECT id FROM note ORDER BY id")
+          .executeQuery()
+      ) {
+        while (rows.next()) {
+          ids.add(rows.getString(1));
+        }
+      }
+      return ids;
+    });
+  }
+
+  // ==================== ROLLBACK TESTS ====================
+
+  @Test
+  void shouldRollBackWriteFailingWithRuntimeException() {
+    // When
+    RepositoryException exc = assertThrows(RepositoryException.class, () ->
+      shard.write("Failed to insert", writer -> {
+        insert(writer, "a");
+        throw new IllegalStateException("broken action");
+      })
+    );
+
+    // Then
+    assertTrue(exc.getCause() instanceof IllegalStateException);
+    shard.write("Failed to insert", writer -> insert(writer, "b"));
+    assertEquals(List.of("b"), notes());
+  }
+
+  @Test
+  void shouldRollBackEarlierStatementsOfFailingWrite() {
+    // Given
+    shard.write("Failed to insert", writer -> insert(writer, "a"));
+
+    // When
+    assertThrows(RepositoryException.class, () ->
+      shard.write("Failed to insert", writer -> {
+        insert(writer, "b");
+        insert(writer, "a");
+      })
+    );
+
+    // Then
+    shard.write("Failed to insert", writer -> insert(writer, "c"));
+    assertEquals(List.of("a", "c"), notes());
+  }
+
+  @Test
+  void shouldCommitOtherWritesOfBatchWithFailingWrite() throws Exception {
+    // Given
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> blocker = shard.submit(writer -> {
+      try {
+        release.await();
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    List<CompletableFuture<Void>> results = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < 10; i++) {
+      String id = "n" + i;
+      boolean failing = i % 2 == 0;
+      results.add(
+        shard.submit(writer -> {
+          insert(writer, id);
+          if (failing) {
+            throw new IllegalStateException("broken action");
+          }
+        })
+      );
+    }
+    release.countDown();
+    blocker.join();
+
+    // Then
+    for (int i = 0; i < 10; i++) {
+      CompletableFuture<Void> result = results.get(i);
+      if (i % 2 == 0) {
+        assertThrows(RuntimeException.class, result::join);
+      } else {
+        result.join();
+      }
+    }
+    assertEquals(List.of("n1", "n3", "n5", "n7", "n9"), notes());
+  }
+}
@@ -0,0 +1,430 @@
+package com.voltzug.cinder.spring.infra.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.entity.DownloadLimit;
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.exception.InvalidLinkException;
+import com.voltzug.cinder.core.exception.MaxAttemptsExceededException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for WriteBehindDownloadLimitAdapter over a SQLite repository.
+ * Focuses on atomic decrements under concurrency, checkpoints into the link's shard and
+ * exact recovery of counts from the database and the write-ahead log after a crash.
+ */
+class WriteBehindDownloadLimitAdapterTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private final AtomicReference<Instant> clock = new AtomicReference<>(NOW);
+  private JdbcSecureFileRepositoryAdapter repository;
+  private final List<WriteBehindDownloadLimitAdapter> adapters =
+    new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    repository = new JdbcSecureFileRepositoryAdapter(
+      new JdbcRepositoryProperties(
+        "jdbc:sqlite:" + directory.resolve("db/cinder.db"),
+        2,
+        64,
+        16,
+        2,
+        false
+      )
+    );
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (WriteBehindDownloadLimitAdapter adapter : adapters) {
+      adapter.close();
+    }
+    repository.close();
+  }
+
+  /** Opens an adapter left open on purpose when a test simulates a crash. */
+  private WriteBehindDownloadLimitAdapter open(boolean force) {
+    return new WriteBehindDownloadLimitAdapter(
+      repository,
+      new DownloadLimitProperties(
+        true,
+        directory.resolve("log").toString(),
+        Duration.ofHours(1),
+        force
+      ),
+      clock::get
+    );
+  }
+
+  private WriteBehindDownloadLimitAdapter managed(boolean force) {
+    WriteBehindDownloadLimitAdapter adapter = open(force);
+    adapters.add(adapter);
+    return adapter;
+  }
+
+  private static LinkId link(String id) {
+    return new LinkId("link-" + id);
+  }
+
+  private static FileSpecs specs(int retries) {
+    return new FileSpecs(NOW.plusSeconds(3600), retries);
+  }
+
+  /** Returns the remaining attempts stored for a link, -1 without a row. */
+  private int stored(String database, LinkId linkId) throws Exception {
+    try (
+      Connection connection = DriverManager.getConnection(
+        "jdbc:sqlite:" + directory.resolve("db").resolve(database)
+      );
+      PreparedStatement select = connection.prepareStatement(
+        "SELECT remaining_attempts FROM download_limit WHERE link_id = ?"
+      )
+    ) {
+      select.setString(1, linkId.value());
+      try (ResultSet rows = select.executeQuery()) {
+        return rows.next() ? rows.getInt(1) : -1;
+      }
+    }
+  }
+
+  private static String shardFile(LinkId linkId) {
+    return "cinder-" + SqliteShard.indexOf(linkId.value(), 2) + ".db";
+  }
+
+  private long segments() throws Exception {
+    try (Stream<Path> files = Files.list(directory.resolve("log"))) {
+      return files.count();
+    }
+  }
+
+  // ==================== PORT TESTS ====================
+
+  @Test
+  void shouldInitializeLimitWithoutAttempts() {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+
+    // When
+    adapter.initialize(link("a"), specs(3));
+    DownloadLimit limit = adapter.get(link("a")).orElseThrow();
+
+    // Then
+    assertEquals(3, limit.remainingAttempts());
+    assertEquals(NOW.plusSeconds(3600), limit.expiryDate());
+    assertNull(limit.lastAttemptAt());
+  }
+
+  @Test
+  void shouldReturnEmptyForUnknownLink() {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+
+    // When & Then
+    assertTrue(adapter.get(link("missing")).isEmpty());
+  }
+
+  @Test
+  void shouldDecrementAndRecordLastAttempt() {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    adapter.initialize(link("a"), specs(3));
+    clock.set(NOW.plusSeconds(5));
+
+    // When
+    DownloadLimit limit = adapter.decrementAttempts(link("a"));
+
+    // Then
+    assertEquals(2, limit.remainingAttempts());
+    assertEquals(NOW.plusSeconds(5), limit.lastAttemptAt());
+    assertEquals(
+      2,
+      adapter.get(link("a")).orElseThrow().remainingAttempts()
+    );
+  }
+
+  @Test
+  void shouldRejectDecrementOfUnknownLink() {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+
+    // When & Then
+    assertThrows(InvalidLinkException.class, () ->
+      adapter.decrementAttempts(link("missing"))
+    );
+  }
+
+  @Test
+  void shouldNeverDecrementBelowZero() {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    adapter.initialize(link("a"), specs(1));
+    adapter.decrementAttempts(link("a"));
+
+    // When & Then
+    assertThrows(MaxAttemptsExceededException.class, () ->
+      adapter.decrementAttempts(link("a"))
+    );
+    assertEquals(
+      0,
+      adapter.get(link("a")).orElseThrow().remainingAttempts()
+    );
+  }
+
+  @Test
+  void shouldDeleteLimit() {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    adapter.initialize(link("a"), specs(3));
+
+    // When
+    adapter.delete(link("a"));
+    adapter.delete(link("missing"));
+
+    // Then
+    assertTrue(adapter.get(link("a")).isEmpty());
+    assertEquals(0, adapter.size());
+  }
+
+  // ==================== CONCURRENCY TESTS ====================
+
+  @Test
+  void shouldConsumeExactlyRetryCountUnderConcurrentAttempts()
+    throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(true);
+    adapter.initialize(link("a"), specs(FileSpecs.MAX_RETRY_COUNT));
+    int threads = 16;
+    int attemptsPerThread = 20;
+    AtomicInteger granted = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+          executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < attemptsPerThread; i++) {
+              try {
+                adapter.decrementAttempts(link("a"));
+                granted.incrementAndGet();
+              } catch (MaxAttemptsExceededException exc) {
+                rejected.incrementAndGet();
+              }
+            }
+            return null;
+          })
+        );
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertEquals(FileSpecs.MAX_RETRY_COUNT, granted.get());
+    assertEquals(
+      threads * attemptsPerThread - FileSpecs.MAX_RETRY_COUNT,
+      rejected.get()
+    );
+    assertEquals(
+      0,
+      adapter.get(link("a")).orElseThrow().remainingAttempts()
+    );
+  }
+
+  // ==================== CHECKPOINT TESTS ====================
+
+  @Test
+  void shouldCheckpointLimitsIntoShardOfLink() throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    for (String id : List.of("a", "b", "c", "d")) {
+      adapter.initialize(link(id), specs(3));
+    }
+    adapter.decrementAttempts(link("a"));
+
+    // When
+    adapter.checkpoint();
+
+    // Then
+    assertEquals(2, stored(shardFile(link("a")), link("a")));
+    for (String id : List.of("b", "c", "d")) {
+      assertEquals(3, stored(shardFile(link(id)), link(id)));
+    }
+  }
+
+  @Test
+  void shouldRemoveCheckpointedRowOfDeletedLink() throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    adapter.initialize(link("a"), specs(3));
+    adapter.checkpoint();
+
+    // When
+    adapter.delete(link("a"));
+    adapter.checkpoint();
+
+    // Then
+    assertEquals(-1, stored(shardFile(link("a")), link("a")));
+  }
+
+  @Test
+  void shouldDeleteLogSegmentsCoveredByCheckpoint() throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    adapter.initialize(link("a"), specs(3));
+    adapter.decrementAttempts(link("a"));
+
+    // When
+    adapter.checkpoint();
+
+    // Then
+    assertEquals(1, segments());
+  }
+
+  @Test
+  void shouldDropExpiredLimitsAtCheckpoint() throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = managed(false);
+    adapter.initialize(link("a"), specs(3));
+    adapter.checkpoint();
+    clock.set(NOW.plusSeconds(3601));
+
+    // When
+    adapter.checkpoint();
+
+    // Then
+    assertTrue(adapter.get(link("a")).isEmpty());
+    assertEquals(-1, stored(shardFile(link("a")), link("a")));
+  }
+
+  // ==================== RECOVERY TESTS ====================
+
+  @Test
+  void shouldRecoverExactCountsFromLogAfterCrash() {
+    // Given
+    WriteBehindDownloadLimitAdapter crashed = open(false);
+    crashed.initialize(link("a"), specs(5));
+    crashed.initialize(link("b"), specs(2));
+    clock.set(NOW.plusSeconds(7));
+    crashed.decrementAttempts(link("a"));
+    crashed.decrementAttempts(link("a"));
+    crashed.decrementAttempts(link("b"));
+
+    // When
+    WriteBehindDownloadLimitAdapter recovered = managed(false);
+
+    // Then
+    DownloadLimit a = recovered.get(link("a")).orElseThrow();
+    assertEquals(3, a.remainingAttempts());
+    assertEquals(NOW.plusSeconds(7), a.lastAttemptAt());
+    assertEquals(NOW.plusSeconds(3600), a.expiryDate());
+    assertEquals(
+      1,
+      recovered.get(link("b")).orElseThrow().remainingAttempts()
+    );
+  }
+
+  @Test
+  void shouldReplayLogOverCheckpointedRows() throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter crashed = open(false);
+    crashed.initialize(link("a"), specs(5));
+    crashed.decrementAttempts(link("a"));
+    crashed.checkpoint();
+    crashed.decrementAttempts(link("a"));
+    crashed.decrementAttempts(link("a"));
+
+    // When
+    WriteBehindDownloadLimitAdapter recovered = managed(false);
+
+    // Then
+    assertEquals(
+      2,
+      recovered.get(link("a")).orElseThrow().remainingAttempts()
+    );
+    assertEquals(2, stored(shardFile(link("a")), link("a")));
+  }
+
+  @Test
+  void shouldNotResurrectDeletedLinkOnRecovery() {
+    // Given
+    WriteBehindDownloadLimitAdapter crashed = open(false);
+    crashed.initialize(link("a"), specs(3));
+    crashed.checkpoint();
+    crashed.decrementAttempts(link("a"));
+    crashed.delete(link("a"));
+
+    // When
+    WriteBehindDownloadLimitAdapter recovered = managed(false);
+
+    // Then
+    assertTrue(recovered.get(link("a")).isEmpty());
+  }
+
+  @Test
+  void shouldRestoreReinitializedLinkOverEarlierAttempts() {
+    // Given
+    WriteBehindDownloadLimitAdapter crashed = open(false);
+    crashed.initialize(link("a"), specs(3));
+    crashed.decrementAttempts(link("a"));
+    crashed.decrementAttempts(link("a"));
+    crashed.initialize(link("a"), specs(4));
+
+    // When
+    WriteBehindDownloadLimitAdapter recovered = managed(false);
+
+    // Then
+    DownloadLimit limit = recovered.get(link("a")).orElseThrow();
+    assertEquals(4, limit.remainingAttempts());
+    assertNull(limit.lastAttemptAt());
+  }
+
+  @Test
+  void shouldCheckpointOnClose() throws Exception {
+    // Given
+    WriteBehindDownloadLimitAdapter adapter = open(false);
+    adapter.initialize(link("a"), specs(3));
+    adapter.decrementAttempts(link("a"));
+
+    // When
+    adapter.close();
+
+    // Then
+    assertEquals(2, stored(shardFile(link("a")), link("a")));
+    assertEquals(1, segments());
+  }
+}
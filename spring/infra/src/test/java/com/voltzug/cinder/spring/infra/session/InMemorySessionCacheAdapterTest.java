@@ -0,0 +1,523 @@
+package com.voltzug.cinder.spring.infra.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.SessionSecret;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for InMemorySessionCacheAdapter.
+ * Focuses on expiry through the timing wheel and zeroing of dropped session secrets.
+ */
+class InMemorySessionCacheAdapterTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private Instant now;
+  private InMemorySessionCacheAdapter cache;
+
+  @BeforeEach
+  void setUp() {
+    now = NOW;
+    cache = new InMemorySessionCacheAdapter(
+      new InMemorySessionCacheProperties(Duration.ofSeconds(1), 1000, 1000),
+      () -> now
+    );
+  }
+
+  static Session session(String id, Duration ttl) {
+    byte[] secret = new byte[32];
+    for (int i = 0; i < secret.length; i++) {
+      secret[i] = (byte) (i + 1);
+    }
+    return new Session(
+      new SessionId(id),
+      new SessionSecret(secret),
+      new LinkId("link-" + id),
+      Session.Mode.DOWNLOAD,
+      NOW,
+      NOW.plus(ttl)
+    );
+  }
+
+  private static byte[] secretOf(Session session) {
+    return session.sessionSecret().getBytes();
+  }
+
+  // ==================== SAVE & GET TESTS ====================
+
+  @Test
+  void shouldReturnSavedSession() {
+    // Given
+    Session session = session("a", Duration.ofMinutes(5));
+
+    // When
+    cache.save(session);
+    Optional<Session> found = cache.get(new SessionId("a"));
+
+    // Then
+    assertTrue(found.isPresent());
+    assertEquals("a", found.get().id().value());
+    assertEquals("link-a", found.get().linkId().value());
+    assertEquals(Session.Mode.DOWNLOAD, found.get().mode());
+    assertEquals(session.createdAt(), found.get().createdAt());
+    assertEquals(session.expiresAt(), found.get().expiresAt());
+    assertArrayEquals(secretOf(session), secretOf(found.get()));
+  }
+
+  @Test
+  void shouldKeepSessionWithoutSecret() {
+    // Given
+    Session session = new Session(
+      new SessionId("upload"),
+      null,
+      null,
+      Session.Mode.UPLOAD,
+      NOW,
+      NOW.plusSeconds(60)
+    );
+
+    // When
+    cache.save(session);
+
+    // Then
+    Session found = cache.get(new SessionId("upload")).get();
+    assertNull(found.sessionSecret());
+    assertNull(found.linkId());
+  }
+
+  @Test
+  void shouldKeepVerificationMark() {
+    // Given
+    Instant verifiedAt = NOW.plusSeconds(3);
+    cache.save(session("a", Duration.ofMinutes(5)).verified(verifiedAt));
+
+    // When
+    Session found = cache.get(new SessionId("a")).get();
+
+    // Then
+    assertTrue(found.isVerified());
+    assertEquals(verifiedAt, found.verifiedAt());
+  }
+
+  @Test
+  void shouldReturnEmptyForUnknownSession() {
+    // When/Then
+    assertTrue(cache.get(new SessionId("missing")).isEmpty());
+  }
+
+  @Test
+  void shouldHandOutIndependentSecretCopies() {
+    // Given
+    cache.save(session("a", Duration.ofMinutes(5)));
+    Session first = cache.get(new SessionId("a")).get();
+
+    // When
+    first.sessionSecret().close();
+    Session second = cache.get(new SessionId("a")).get();
+
+    // Then
+    assertEquals(1, secretOf(second)[0]);
+  }
+
+  @Test
+  void shouldNotShareSecretWithSavedSession() {
+    // Given
+    Session session = session("a", Duration.ofMinutes(5));
+    cache.save(session);
+
+    // When
+    session.sessionSecret().close();
+
+    // Then
+    assertEquals(1, secretOf(cache.get(new SessionId("a")).get())[0]);
+  }
+
+  // ==================== DELETE TESTS ====================
+
+  @Test
+  void shouldDeleteSession() {
+    // Given
+    cache.save(session("a", Duration.ofMinutes(5)));
+
+    // When
+    cache.delete(new SessionId("a"));
+
+    // Then
+    assertTrue(cache.get(new SessionId("a")).isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldReplaceSessionSavedAgain() {
+    // Given
+    cache.save(session("a", Duration.ofMinutes(5)));
+
+    // When
+    cache.save(session("a", Duration.ofMinutes(10)));
+    now = NOW.plus(Duration.ofMinutes(7));
+    cache.expire();
+
+    // Then
+    Optional<Session> found = cache.get(new SessionId("a"));
+    assertTrue(found.isPresent());
+    assertEquals(NOW.plus(Duration.ofMinutes(10)), found.get().expiresAt());
+  }
+
+  @Test
+  void shouldClearAllSessions() {
+    // Given
+    cache.save(session("a", Duration.ofMinutes(5)));
+    cache.save(session("b", Duration.ofMinutes(5)));
+
+    // When
+    cache.clear();
+
+    // Then
+    assertEquals(0, cache.size());
+    assertTrue(cache.get(new SessionId("a")).isEmpty());
+  }
+
+  // ==================== EXPIRY TESTS ====================
+
+  @Test
+  void shouldNotReturnExpiredSessionBeforeTick() {
+    // Given
+    cache.save(session("a", Duration.ofSeconds(30)));
+
+    // When
+    now = NOW.plusSeconds(31);
+
+    // Then
+    assertTrue(cache.get(new SessionId("a")).isEmpty());
+  }
+
+  @Test
+  void shouldReturnSessionUntilItsExpiry() {
+    // Given
+    cache.save(session("a", Duration.ofSeconds(30)));
+
+    // When
+    now = NOW.plusSeconds(30);
+    cache.expire();
+
+    // Then
+    assertTrue(cache.get(new SessionId("a")).isPresent());
+  }
+
+  @Test
+  void shouldDropExpiredSessionsOnTick() {
+    // Given
+    for (int i = 0; i < 100; i++) {
+      cache.save(session("s" + i, Duration.ofSeconds(10 + i)));
+    }
+
+    // When
+    now = NOW.plusSeconds(60);
+    cache.expire();
+
+    // Then
+    assertEquals(50, cache.size());
+    assertTrue(cache.get(new SessionId("s50")).isPresent());
+    assertTrue(cache.get(new SessionId("s49")).isEmpty());
+  }
+
+  @Test
+  void shouldDropExpiredSessionsWhenSaving() {
+    // Given
+    cache.save(session("a", Duration.ofSeconds(10)));
+
+    // When
+    now = NOW.plusSeconds(20);
+    cache.save(session("b", Duration.ofMinutes(5)));
+
+    // Then
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void shouldNotKeepSessionAlreadyExpiredWhenSaved() {
+    // Given
+    now = NOW.plusSeconds(120);
+
+    // When
+    cache.save(session("a", Duration.ofSeconds(60)));
+
+    // Then
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldExpireSessionsHoursAhead() {
+    // Given
+    cache.save(session("a", Duration.ofHours(30)));
+
+    // When
+    now = NOW.plus(Duration.ofHours(30)).minusSeconds(1);
+    cache.expire();
+    int beforeExpiry = cache.size();
+    now = NOW.plus(Duration.ofHours(30)).plusSeconds(2);
+    cache.expire();
+
+    // Then
+    assertEquals(1, beforeExpiry);
+    assertEquals(0, cache.size());
+  }
+
+  // ==================== ADMISSION TESTS ====================
+
+  private InMemorySessionCacheAdapter bounded(int capacity) {
+    return new InMemorySessionCacheAdapter(
+      new InMemorySessionCacheProperties(
+        Duration.ofSeconds(1),
+        capacity,
+        capacity
+      ),
+      () -> now
+    );
+  }
+
+  private static Session upload(String id) {
+    return new Session(
+      new SessionId(id),
+      new SessionSecret(new byte[32]),
+      null,
+      Session.Mode.UPLOAD,
+      NOW,
+      NOW.plusSeconds(300)
+    );
+  }
+
+  @Test
+  void shouldBoundSessionsPerMode() {
+    // Given
+    cache = bounded(100);
+
+    // When
+    for (int i = 0; i < 1000; i++) {
+      cache.save(upload("u" + i));
+    }
+    cache.expire();
+
+    // Then
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  void shouldKeepUsedUploadSessionsThroughHandshakeFlood() {
+    // Given
+    cache = bounded(100);
+    for (int i = 0; i < 50; i++) {
+      cache.save(upload("legit" + i));
+    }
+    cache.save(upload("next"));
+    for (int i = 0; i < 50; i++) {
+      cache.get(new SessionId("legit" + i));
+    }
+    cache.expire();
+
+    // When
+    for (int i = 0; i < 10_000; i++) {
+      cache.save(upload("flood" + i));
+    }
+    cache.expire();
+
+    // Then
+    for (int i = 0; i < 50; i++) {
+      assertTrue(
+        cache.get(new SessionId("legit" + i)).isPresent(),
+        "legit" + i
+      );
+    }
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  void shouldKeepHandshakeMadeDuringFloodUntilFirstRead() {
+    // Given
+    cache = bounded(100);
+    for (int i = 0; i < 5_000; i++) {
+      cache.save(upload("flood" + i));
+    }
+    cache.save(upload("legit"));
+
+    // When
+    for (int i = 5_000; i < 5_050; i++) {
+      cache.save(upload("flood" + i));
+    }
+    cache.expire();
+
+    // Then
+    assertTrue(cache.get(new SessionId("legit")).isPresent());
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  void shouldKeepDownloadSessionsThroughUploadFlood() {
+    // Given
+    cache = bounded(100);
+    for (int i = 0; i < 80; i++) {
+      cache.save(session("d" + i, Duration.ofMinutes(5)));
+    }
+
+    // When
+    for (int i = 0; i < 10_000; i++) {
+      cache.save(upload("flood" + i));
+    }
+    cache.expire();
+
+    // Then
+    for (int i = 0; i < 80; i++) {
+      assertTrue(cache.get(new SessionId("d" + i)).isPresent(), "d" + i);
+    }
+  }
+
+  @Test
+  void shouldNotKeepEvictedSessionsScheduled() {
+    // Given
+    cache = bounded(100);
+
+    // When
+    for (int i = 0; i < 10_000; i++) {
+      cache.save(upload("flood" + i));
+      cache.save(session("d" + i, Duration.ofMinutes(5)));
+    }
+    cache.expire();
+
+    // Then
+    assertEquals(200, cache.size());
+    assertEquals(200, cache.scheduled());
+  }
+
+  @Test
+  void shouldNotKeepReplacedOrDeletedSessionsScheduled() {
+    // Given
+    for (int i = 0; i < 1000; i++) {
+      cache.save(session("replaced", Duration.ofMinutes(5)));
+      cache.save(session("deleted" + i, Duration.ofMinutes(5)));
+      cache.delete(new SessionId("deleted" + i));
+    }
+
+    // When
+    cache.expire();
+
+    // Then
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.scheduled());
+  }
+
+  // ==================== JOURNAL TESTS ====================
+
+  private InMemorySessionCacheAdapter journaled() {
+    return new InMemorySessionCacheAdapter(
+      new InMemorySessionCacheProperties(Duration.ofSeconds(1), 1000, 1000),
+      () -> now,
+      new SessionJournal(
+        new SessionJournalProperties(
+          true,
+          directory.resolve("sessions.journal").toString()
+        ),
+        new SessionJournalTest.XorPepper()
+      )
+    );
+  }
+
+  @Test
+  void shouldRestoreLiveSessionsAfterRestart() {
+    // Given
+    cache = journaled();
+    cache.save(session("a", Duration.ofMinutes(5)));
+    cache.save(session("b", Duration.ofMinutes(5)));
+    cache.save(session("short", Duration.ofSeconds(10)));
+    cache.delete(new SessionId("b"));
+    cache.close();
+
+    // When
+    now = NOW.plusSeconds(30);
+    cache = journaled();
+
+    // Then
+    Session restored = cache.get(new SessionId("a")).get();
+    assertEquals(1, secretOf(restored)[0]);
+    assertTrue(cache.get(new SessionId("b")).isEmpty());
+    assertTrue(cache.get(new SessionId("short")).isEmpty());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void shouldRestoreSessionsAfterCrashWithoutShutdown() {
+    // Given
+    InMemorySessionCacheAdapter crashed = journaled();
+    crashed.save(session("a", Duration.ofMinutes(5)));
+    crashed.save(session("b", Duration.ofMinutes(5)));
+    crashed.delete(new SessionId("a"));
+    crashed.expire();
+
+    // When
+    cache = journaled();
+
+    // Then
+    assertTrue(cache.get(new SessionId("a")).isEmpty());
+    assertTrue(cache.get(new SessionId("b")).isPresent());
+  }
+
+  @Test
+  void shouldExpireRestoredSessions() {
+    // Given
+    cache = journaled();
+    cache.save(session("a", Duration.ofSeconds(30)));
+    cache.close();
+    cache = journaled();
+
+    // When
+    now = NOW.plusSeconds(60);
+    cache.expire();
+
+    // Then
+    assertEquals(0, cache.size());
+  }
+
+  // ==================== CONCURRENCY TESTS ====================
+
+  @Test
+  void shouldServeConcurrentSavesAndLookups() throws Exception {
+    // Given
+    List<Future<Boolean>> lookups = new ArrayList<>();
+
+    // When
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 500; i++) {
+        String id = "s" + i;
+        lookups.add(
+          executor.submit(() -> {
+            cache.save(session(id, Duration.ofMinutes(5)));
+            return cache.get(new SessionId(id)).isPresent();
+          })
+        );
+      }
+      for (Future<Boolean> lookup : lookups) {
+        assertTrue(lookup.get());
+      }
+    }
+
+    // Then
+    assertEquals(500, cache.size());
+  }
+}
@@ -0,0 +1,400 @@
+package com.voltzug.cinder.spring.infra.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.exception.RepositoryException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for RedisSessionCacheAdapter against the in-process {@link RespStandIn}.
+ * Focuses on sharing sessions between nodes, near-cache invalidation and reconnecting.
+ */
+class RedisSessionCacheAdapterTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+  private static final String PREFIX = "test:session:";
+
+  private RespStandIn redis;
+  private Instant now;
+  private final List<RedisSessionCacheAdapter> nodes = new ArrayList<>();
+  private RedisSessionCacheAdapter nodeA;
+  private RedisSessionCacheAdapter nodeB;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    redis = new RespStandIn();
+    now = NOW;
+    nodeA = node(1024);
+    nodeB = node(1024);
+  }
+
+  @AfterEach
+  void tearDown() {
+    nodes.forEach(RedisSessionCacheAdapter::close);
+    redis.close();
+  }
+
+  private RedisSessionCacheAdapter node(int nearCacheMaxEntries) {
+    return node(redis.port(), "", nearCacheMaxEntries);
+  }
+
+  private RedisSessionCacheAdapter node(
+    int port,
+    String password,
+    int nearCacheMaxEntries
+  ) {
+    RedisSessionCacheAdapter node = new RedisSessionCacheAdapter(
+      new RedisSessionCacheProperties(
+        "127.0.0.1",
+        port,
+        "",
+        password,
+        0,
+        PREFIX,
+        Duration.ofSeconds(2),
+        nearCacheMaxEntries,
+        Duration.ofSeconds(1)
+      ),
+      () -> now,
+      new SessionJournalTest.XorPepper()
+    );
+    nodes.add(node);
+    return node;
+  }
+
+  private static Session session(String id, Duration ttl) {
+    return InMemorySessionCacheAdapterTest.session(id, ttl);
+  }
+
+  private static boolean eventually(BooleanSupplier condition)
+    throws InterruptedException {
+    for (int i = 0; i < 200; i++) {
+      if (condition.getAsBoolean()) {
+        return true;
+      }
+      Thread.sleep(10);
+    }
+    return false;
+  }
+
+  // ==================== SAVE & GET TESTS ====================
+
+  @Test
+  void shouldReturnSessionSavedOnAnotherNode() {
+    // Given
+    Session session = session("a", Duration.ofMinutes(5));
+    byte[] secret = session.sessionSecret().getBytes().clone();
+    nodeA.save(session);
+
+    // When
+    Optional<Session> found = nodeB.get(new SessionId("a"));
+
+    // Then
+    assertTrue(found.isPresent());
+    assertArrayEquals(secret, found.get().sessionSecret().getBytes());
+    assertEquals("link-a", found.get().linkId().value());
+    assertEquals(Session.Mode.DOWNLOAD, found.get().mode());
+    assertEquals(session.expiresAt(), found.get().expiresAt());
+  }
+
+  @Test
+  void shouldReturnEmptyForUnknownSession() {
+    assertTrue(nodeA.get(new SessionId("missing")).isEmpty());
+  }
+
+  @Test
+  void shouldStoreSessionsSealed() {
+    // Given
+    Session session = session("visible-id", Duration.ofMinutes(5));
+    byte[] secret = session.sessionSecret().getBytes().clone();
+
+    // When
+    nodeA.save(session);
+
+    // Then
+    byte[] stored = redis.value(PREFIX + "visible-id");
+    assertNotNull(stored);
+    String text = new String(stored, StandardCharsets.ISO_8859_1);
+    assertFalse(text.contains("visible-id"));
+    assertFalse(text.contains(new String(secret, StandardCharsets.ISO_8859_1)));
+  }
+
+  @Test
+  void shouldNotReturnExpiredSession() {
+    // Given
+    nodeA.save(session("a", Duration.ofSeconds(30)));
+
+    // When
+    now = NOW.plusSeconds(60);
+
+    // Then
+    assertTrue(nodeB.get(new SessionId("a")).isEmpty());
+  }
+
+  @Test
+  void shouldRemoveSessionSavedAlreadyExpired() {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+    now = NOW.plus(Duration.ofMinutes(10));
+
+    // When
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+
+    // Then
+    assertNull(redis.value(PREFIX + "a"));
+  }
+
+  @Test
+  void shouldDeleteSession() {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+
+    // When
+    nodeB.delete(new SessionId("a"));
+
+    // Then
+    assertTrue(nodeA.get(new SessionId("a")).isEmpty());
+    assertTrue(redis.keys().isEmpty());
+  }
+
+  @Test
+  void shouldIgnoreSessionStoredUnderAnotherKey() {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+
+    // When
+    redis.put(PREFIX + "b", redis.value(PREFIX + "a"));
+
+    // Then
+    assertTrue(nodeB.get(new SessionId("b")).isEmpty());
+  }
+
+  // ==================== NEAR-CACHE TESTS ====================
+
+  @Test
+  void shouldServeRepeatedLookupsFromNearCache() {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+
+    // When
+    Session first = nodeB.get(new SessionId("a")).get();
+    Session second = nodeB.get(new SessionId("a")).get();
+
+    // Then
+    assertEquals(1, redis.count("GET"));
+    assertEquals(1, nodeB.size());
+    assertArrayEquals(
+      first.sessionSecret().getBytes(),
+      second.sessionSecret().getBytes()
+    );
+    assertNotSame(first.sessionSecret(), second.sessionSecret());
+  }
+
+  @Test
+  void shouldInvalidateOtherNodesOnDelete() throws Exception {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+    nodeB.get(new SessionId("a"));
+    assertEquals(1, nodeB.size());
+
+    // When
+    nodeA.delete(new SessionId("a"));
+
+    // Then
+    assertTrue(eventually(() -> nodeB.size() == 0));
+    assertTrue(nodeB.get(new SessionId("a")).isEmpty());
+  }
+
+  @Test
+  void shouldInvalidateOtherNodesOnSave() throws Exception {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+    nodeB.get(new SessionId("a"));
+
+    // When
+    nodeA.save(session("a", Duration.ofMinutes(9)));
+
+    // Then
+    assertTrue(eventually(() -> nodeB.size() == 0));
+    assertEquals(
+      NOW.plus(Duration.ofMinutes(9)),
+      nodeB.get(new SessionId("a")).get().expiresAt()
+    );
+  }
+
+  @Test
+  void shouldRefreshNearCachedSessionAfterTtl() {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+    nodeB.get(new SessionId("a"));
+
+    // When
+    now = NOW.plusSeconds(2);
+    nodeB.get(new SessionId("a"));
+
+    // Then
+    assertEquals(2, redis.count("GET"));
+  }
+
+  @Test
+  void shouldPurgeExpiredNearCachedSessions() {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+    nodeB.get(new SessionId("a"));
+
+    // When
+    now = NOW.plusSeconds(2);
+    nodeB.purgeExpired();
+
+    // Then
+    assertEquals(0, nodeB.size());
+  }
+
+  @Test
+  void shouldBoundNearCache() {
+    // Given
+    RedisSessionCacheAdapter small = node(2);
+    for (String id : List.of("a", "b", "c")) {
+      nodeA.save(session(id, Duration.ofMinutes(5)));
+    }
+
+    // When
+    for (String id : List.of("a", "b", "c")) {
+      small.get(new SessionId(id));
+    }
+
+    // Then
+    assertEquals(2, small.size());
+  }
+
+  @Test
+  void shouldBypassDisabledNearCache() {
+    // Given
+    RedisSessionCacheAdapter uncached = node(0);
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+
+    // When
+    uncached.get(new SessionId("a"));
+    uncached.get(new SessionId("a"));
+
+    // Then
+    assertEquals(2, redis.count("GET"));
+    assertEquals(0, uncached.size());
+    assertEquals(0, redis.count("SUBSCRIBE"));
+  }
+
+  // ==================== CONNECTION TESTS ====================
+
+  @Test
+  void shouldReconnectAfterConnectionLoss() throws Exception {
+    // Given
+    nodeA.save(session("a", Duration.ofMinutes(5)));
+    nodeB.get(new SessionId("a"));
+
+    // When
+    redis.dropConnections();
+
+    // Then
+    assertTrue(
+      eventually(() -> {
+        try {
+          // the near-cache is dropped with the subscription that kept it valid
+          return (
+            nodeB.get(new SessionId("a")).isPresent() &&
+            redis.count("GET") == 2
+          );
+        } catch (RepositoryException exc) {
+          return false;
+        }
+      })
+    );
+  }
+
+  @Test
+  void shouldAuthenticate() throws Exception {
+    try (RespStandIn secured = new RespStandIn("s3cret")) {
+      // Given
+      RedisSessionCacheAdapter node = node(secured.port(), "s3cret", 16);
+
+      // When
+      node.save(session("a", Duration.ofMinutes(5)));
+
+      // Then
+      assertTrue(node.get(new SessionId("a")).isPresent());
+    }
+  }
+
+  @Test
+  void shouldRejectWrongPassword() throws Exception {
+    try (RespStandIn secured = new RespStandIn("s3cret")) {
+      // Given
+      RedisSessionCacheAdapter node = node(secured.port(), "wrong", 16);
+
+      // When & Then
+      assertThrows(RepositoryException.class, () ->
+        node.save(session("a", Duration.ofMinutes(5)))
+      );
+    }
+  }
+
+  @Test
+  void shouldFailWhenServerUnavailable() {
+    // Given
+    redis.close();
+
+    // When & Then
+    assertThrows(RepositoryException.class, () ->
+      nodeA.save(session("a", Duration.ofMinutes(5)))
+    );
+  }
+
+  // ==================== CONCURRENCY TESTS ====================
+
+  @Test
+  void shouldPipelineConcurrentCallers() throws Exception {
+    // Given
+    RedisSessionCacheAdapter uncached = node(0);
+    for (int i = 0; i < 16; i++) {
+      uncached.save(session("s" + i, Duration.ofMinutes(5)));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<Integer>> results = new ArrayList<>();
+
+    // When
+    for (int t = 0; t < 16; t++) {
+      String id = "s" + t;
+      results.add(
+        executor.submit(() -> {
+          int found = 0;
+          for (int i = 0; i < 200; i++) {
+            if (uncached.get(new SessionId(id)).isPresent()) {
+              found++;
+            }
+          }
+          return found;
+        })
+      );
+    }
+
+    // Then
+    for (Future<Integer> result : results) {
+      assertEquals(200, (int) result.get());
+    }
+    executor.shutdown();
+    assertEquals(16 * 200, redis.count("GET"));
+  }
+}
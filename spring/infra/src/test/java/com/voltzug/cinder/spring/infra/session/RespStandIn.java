@@ -0,0 +1,294 @@
+package com.voltzug.cinder.spring.infra.session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for a Redis-protocol server, covering the subset of commands used by
+ * {@link RedisSessionCacheAdapter}: AUTH, SELECT, PING, SET (with PX), GET, DEL, PUBLISH and
+ * SUBSCRIBE. Keys expire in wall-clock time; every command is counted per name.
+ */
+final class RespStandIn implements AutoCloseable {
+
+  private final ServerSocket _server;
+  private final String _password;
+  private final Map<String, Entry> _values = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> _commands = new ConcurrentHashMap<>();
+  private final Set<Client> _clients = ConcurrentHashMap.newKeySet();
+  private final Map<String, Set<Client>> _subscribers =
+    new ConcurrentHashMap<>();
+
+  RespStandIn() throws IOException {
+    this("");
+  }
+
+  /** Starts a server requiring {@code AUTH password}, unless the password is empty. */
+  RespStandIn(String password) throws IOException {
+    _password = password;
+    _server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread.ofVirtual().name("resp-standin-accept").start(this::_accept);
+  }
+
+  int port() {
+    return _server.getLocalPort();
+  }
+
+  /** Returns how many times a command was received. */
+  int count(String command) {
+    AtomicInteger count = _commands.get(command);
+    return count == null ? 0 : count.get();
+  }
+
+  /** Returns the raw value stored under a key, or null. */
+  byte[] value(String key) {
+    Entry entry = _live(key);
+    return entry == null ? null : entry.value();
+  }
+
+  /** Returns the keys currently stored. */
+  Set<String> keys() {
+    _values.keySet().removeIf(key -> _live(key) == null);
+    return Set.copyOf(_values.keySet());
+  }
+
+  /** Stores a raw value, bypassing the protocol. */
+  void put(String key, byte[] value) {
+    _values.put(key, new Entry(value, Long.MAX_VALUE));
+  }
+
+  /** Closes every client connection, as a server restart or network failure would. */
+  void dropConnections() {
+    for (Client client : _clients) {
+      client.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      _server.close();
+    } catch (IOException ignored) {}
+    dropConnections();
+  }
+
+  private void _accept() {
+    while (!_server.isClosed()) {
+      try {
+        Client client = new Client(_server.accept());
+        _clients.add(client);
+        if (_server.isClosed()) {
+          client.close();
+          return;
+        }
+        Thread.ofVirtual().name("resp-standin-client").start(client::serve);
+      } catch (IOException exc) {
+        return;
+      }
+    }
+  }
+
+  private Entry _live(String key) {
+    Entry entry = _values.get(key);
+    if (entry != null && System.currentTimeMillis() >= entry.expiresAtMillis()) {
+      _values.remove(key, entry);
+      return null;
+    }
+    return entry;
+  }
+
+  private record Entry(byte[] value, long expiresAtMillis) {}
+
+  private final class Client {
+
+    private final Socket _socket;
+    private final OutputStream _out;
+    private boolean _authenticated = _password.isEmpty();
+
+    Client(Socket socket) throws IOException {
+      _socket = socket;
+      _out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    void serve() {
+      try (InputStream in = new BufferedInputStream(_socket.getInputStream())) {
+        while (true) {
+          List<byte[]> command = _readCommand(in);
+          String name = new String(command.get(0), StandardCharsets.UTF_8)
+            .toUpperCase(Locale.ROOT);
+          _commands
+            .computeIfAbsent(name, key -> new AtomicInteger())
+            .incrementAndGet();
+          synchronized (_out) {
+            _execute(name, command);
+            if (in.available() == 0) {
+              _out.flush();
+            }
+          }
+        }
+      } catch (IOException exc) {
+        // client went away
+      } finally {
+        close();
+      }
+    }
+
+    void close() {
+      _clients.remove(this);
+      _subscribers.values().forEach(clients -> clients.remove(this));
+      try {
+        _socket.close();
+      } catch (IOException ignored) {}
+    }
+
+    private void _execute(String name, List<byte[]> args) throws IOException {
+      if (!_authenticated && !name.equals("AUTH")) {
+        _error("NOAUTH Authentication required.");
+        return;
+      }
+      switch (name) {
+        case "AUTH" -> {
+          String password = _string(args.get(args.size() - 1));
+          _authenticated = password.equals(_password);
+          if (_authenticated) {
+            _simple("OK");
+          } else {
+            _error("WRONGPASS invalid username-password pair");
+          }
+        }
+        case "SELECT", "PING" -> _simple(name.equals("PING") ? "PONG" : "OK");
+        case "SET" -> {
+          long expiresAt = Long.MAX_VALUE;
+          if (args.size() == 5 && _string(args.get(3)).equalsIgnoreCase("PX")) {
+            expiresAt = System.currentTimeMillis() +
+            Long.parseLong(_string(args.get(4)));
+          }
+          _values.put(_string(args.get(1)), new Entry(args.get(2), expiresAt));
+          _simple("OK");
+        }
+        case "GET" -> _bulk(value(_string(args.get(1))));
+        case "DEL" -> {
+          long removed = 0;
+          for (byte[] key : args.subList(1, args.size())) {
+            if (_live(_string(key)) != null) {
+              removed++;
+            }
+            _values.remove(_string(key));
+          }
+          _integer(removed);
+        }
+        case "PUBLISH" -> {
+          Set<Client> clients = _subscribers.getOrDefault(
+            _string(args.get(1)),
+            Set.of()
+          );
+          for (Client client : clients) {
+            client._message(args.get(1), args.get(2));
+          }
+          _integer(clients.size());
+        }
+        case "SUBSCRIBE" -> {
+          for (byte[] channel : args.subList(1, args.size())) {
+            _subscribers
+              .computeIfAbsent(_string(channel), key ->
+                ConcurrentHashMap.newKeySet()
+              )
+              .add(this);
+            _out.write(_ascii("*3\r\n"));
+            _bulk(_ascii("subscribe"));
+            _bulk(channel);
+            _integer(1);
+          }
+        }
+        default -> _error("ERR unknown command '" + name + "'");
+      }
+    }
+
+    private void _message(byte[] channel, byte[] payload) {
+      synchronized (_out) {
+        try {
+          _out.write(_ascii("*3\r\n"));
+          _bulk(_ascii("message"));
+          _bulk(channel);
+          _bulk(payload);
+          _out.flush();
+        } catch (IOException exc) {
+          close();
+        }
+      }
+    }
+
+    private void _simple(String value) throws IOException {
+      _out.write(_ascii("+" + value + "\r\n"));
+    }
+
+    private void _error(String message) throws IOException {
+      _out.write(_ascii("-" + message + "\r\n"));
+    }
+
+    private void _integer(long value) throws IOException {
+      _out.write(_ascii(":" + value + "\r\n"));
+    }
+
+    private void _bulk(byte[] value) throws IOException {
+      if (value == null) {
+        _out.write(_ascii("$-1\r\n"));
+        return;
+      }
+      _out.write(_ascii("$" + value.length + "\r\n"));
+      _out.write(value);
+      _out.write(_ascii("\r\n"));
+    }
+  }
+
+  private static List<byte[]> _readCommand(InputStream in) throws IOException {
+    String header = _readLine(in);
+    if (!header.startsWith("*")) {
+      throw new IOException("Inline commands are not supported: " + header);
+    }
+    int count = Integer.parseInt(header.substring(1));
+    List<byte[]> args = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int length = Integer.parseInt(_readLine(in).substring(1));
+      byte[] arg = in.readNBytes(length);
+      in.readNBytes(2);
+      args.add(arg);
+    }
+    return args;
+  }
+
+  private static String _readLine(InputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int next;
+    while ((next = in.read()) != '\r') {
+      if (next < 0) {
+        throw new EOFException();
+      }
+      line.append((char) next);
+    }
+    in.read();
+    return line.toString();
+  }
+
+  private static String _string(byte[] value) {
+    return new String(value, StandardCharsets.UTF_8);
+  }
+
+  private static byte[] _ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,347 @@
+package com.voltzug.cinder.spring.infra.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.domain.valueobject.SessionSecret;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.exception.RepositoryException;
+import com.voltzug.cinder.core.port.out.PepperPort;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for SessionJournal with a reversible stand-in pepper.
+ * Focuses on replay semantics, crash tails and keeping records sealed on disk.
+ */
+class SessionJournalTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private SessionJournal journal;
+
+  /** Reversible stand-in for the pepper: XOR with a constant byte. */
+  static final class XorPepper implements PepperPort {
+
+    int sealed;
+
+    @Override
+    public SealedBlob seal(byte[] data) {
+      sealed++;
+      return SealedBlob.build(xor(data), new byte[] { 1, 2, 3, 4 }, (short) 1);
+    }
+
+    @Override
+    public byte[] unseal(SealedBlob sealedBlob) {
+      return xor(sealedBlob.getValue());
+    }
+
+    private static byte[] xor(byte[] data) {
+      byte[] out = new byte[data.length];
+      for (int i = 0; i < data.length; i++) {
+        out[i] = (byte) (data[i] ^ 0x5A);
+      }
+      return out;
+    }
+  }
+
+  private SessionJournal open() {
+    return new SessionJournal(
+      new SessionJournalProperties(
+        true,
+        directory.resolve("data/sessions.journal").toString()
+      ),
+      new XorPepper()
+    );
+  }
+
+  @BeforeEach
+  void setUp() {
+    journal = open();
+    journal.recover(NOW);
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+  }
+
+  private List<Session> reopen(Instant now) {
+    journal.close();
+    journal = open();
+    return journal.recover(now);
+  }
+
+  // ==================== REPLAY TESTS ====================
+
+  @Test
+  void shouldRestoreSavedSessions() {
+    // Given
+    Session session = InMemorySessionCacheAdapterTest.session(
+      "a",
+      Duration.ofMinutes(5)
+    );
+    journal.appendSave(session);
+
+    // When
+    List<Session> restored = reopen(NOW);
+
+    // Then
+    assertEquals(1, restored.size());
+    Session found = restored.getFirst();
+    assertEquals("a", found.id().value());
+    assertEquals("link-a", found.linkId().value());
+    assertEquals(Session.Mode.DOWNLOAD, found.mode());
+    assertEquals(session.createdAt(), found.createdAt());
+    assertEquals(session.expiresAt(), found.expiresAt());
+    assertArrayEquals(
+      session.sessionSecret().getBytes(),
+      found.sessionSecret().getBytes()
+    );
+  }
+
+  @Test
+  void shouldRestoreSessionWithoutSecretOrLink() {
+    // Given
+    journal.appendSave(
+      new Session(
+        new SessionId("upload"),
+        null,
+        null,
+        Session.Mode.UPLOAD,
+        NOW,
+        NOW.plusSeconds(60)
+      )
+    );
+
+    // When
+    Session found = reopen(NOW).getFirst();
+
+    // Then
+    assertNull(found.sessionSecret());
+    assertNull(found.linkId());
+    assertEquals(Session.Mode.UPLOAD, found.mode());
+  }
+
+  @Test
+  void shouldRestoreVerificationMark() {
+    // Given
+    Instant verifiedAt = NOW.plusSeconds(3);
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session(
+        "a",
+        Duration.ofMinutes(5)
+      ).verified(verifiedAt)
+    );
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("b", Duration.ofMinutes(5))
+    );
+
+    // When
+    List<Session> restored = reopen(NOW);
+
+    // Then
+    Session verified = restored
+      .stream()
+      .filter(session -> session.id().value().equals("a"))
+      .findFirst()
+      .get();
+    Session unverified = restored
+      .stream()
+      .filter(session -> session.id().value().equals("b"))
+      .findFirst()
+      .get();
+    assertEquals(verifiedAt, verified.verifiedAt());
+    assertFalse(unverified.isVerified());
+  }
+
+  @Test
+  void shouldApplyDeletesAndLatestSaves() {
+    // Given
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("a", Duration.ofMinutes(5))
+    );
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("b", Duration.ofMinutes(5))
+    );
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("a", Duration.ofMinutes(9))
+    );
+    journal.appendDelete("b");
+
+    // When
+    List<Session> restored = reopen(NOW);
+
+    // Then
+    assertEquals(1, restored.size());
+    assertEquals(NOW.plus(Duration.ofMinutes(9)), restored.getFirst().expiresAt());
+  }
+
+  @Test
+  void shouldSkipExpiredSessions() {
+    // Given
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("short", Duration.ofSeconds(10))
+    );
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("long", Duration.ofMinutes(10))
+    );
+
+    // When
+    List<Session> restored = reopen(NOW.plusSeconds(60));
+
+    // Then
+    assertEquals(
+      List.of("long"),
+      restored.stream().map(session -> session.id().value()).toList()
+    );
+  }
+
+  @Test
+  void shouldKeepRecordsBeforeTornTail() throws Exception {
+    // Given
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("a", Duration.ofMinutes(5))
+    );
+    journal.close();
+    Files.write(
+      journal.getPath(),
+      new byte[] { 0, 0, 0, 90, 1, 2, 3 },
+      StandardOpenOption.APPEND
+    );
+
+    // When
+    List<Session> restored = reopen(NOW);
+
+    // Then
+    assertEquals(1, restored.size());
+    assertEquals("a", restored.getFirst().id().value());
+  }
+
+  @Test
+  void shouldStopAtCorruptRecord() throws Exception {
+    // Given
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("a", Duration.ofMinutes(5))
+    );
+    journal.appendSave(
+      InMemorySessionCacheAdapterTest.session("b", Duration.ofMinutes(5))
+    );
+    journal.close();
+    byte[] bytes = Files.readAllBytes(journal.getPath());
+    bytes[bytes.length - 10] ^= 0x01;
+    Files.write(journal.getPath(), bytes);
+
+    // When
+    List<Session> restored = reopen(NOW);
+
+    // Then
+    assertEquals(
+      List.of("a"),
+      restored.stream().map(session -> session.id().value()).toList()
+    );
+  }
+
+  // ==================== STORAGE TESTS ====================
+
+  @Test
+  void shouldNotWriteSessionsInTheClear() throws Exception {
+    // Given
+    byte[] secret = new byte[32];
+    for (int i = 0; i < secret.length; i++) {
+      secret[i] = (byte) (0xC0 + i);
+    }
+    byte[] expected = secret.clone();
+    journal.appendSave(
+      new Session(
+        new SessionId("visible-id"),
+        new SessionSecret(secret),
+        null,
+        Session.Mode.UPLOAD,
+        NOW,
+        NOW.plusSeconds(60)
+      )
+    );
+    journal.close();
+
+    // When
+    byte[] written = Files.readAllBytes(journal.getPath());
+
+    // Then
+    String text = new String(written, StandardCharsets.ISO_8859_1);
+    assertFalse(text.contains("visible-id"));
+    assertFalse(
+      text.contains(new String(expected, StandardCharsets.ISO_8859_1))
+    );
+  }
+
+  @Test
+  void shouldCompactJournalOnRecovery() throws Exception {
+    // Given
+    for (int i = 0; i < 100; i++) {
+      journal.appendSave(
+        InMemorySessionCacheAdapterTest.session("a", Duration.ofMinutes(5))
+      );
+    }
+    journal.close();
+    long before = Files.size(journal.getPath());
+
+    // When
+    reopen(NOW);
+
+    // Then
+    assertTrue(Files.size(journal.getPath()) * 50 < before);
+    assertEquals(0, journal.getAppended());
+  }
+
+  @Test
+  void shouldKeepAppendingWhenSnapshotCannotReplaceJournal() throws Exception {
+    // Given
+    Path path = journal.getPath();
+    Files.delete(path);
+    Files.createDirectories(path.resolve("blocker"));
+
+    // When
+    assertThrows(RepositoryException.class, () -> journal.rewrite(List.of()));
+
+    // Then
+    assertDoesNotThrow(() ->
+      journal.appendSave(
+        InMemorySessionCacheAdapterTest.session("a", Duration.ofMinutes(5))
+      )
+    );
+    assertFalse(
+      Files.exists(path.resolveSibling(path.getFileName() + ".snapshot"))
+    );
+  }
+
+  @Test
+  void shouldStartEmptyWithoutJournalFile() {
+    // When
+    journal.close();
+    journal = new SessionJournal(
+      new SessionJournalProperties(
+        true,
+        directory.resolve("other/sessions.journal").toString()
+      ),
+      new XorPepper()
+    );
+
+    // Then
+    assertTrue(journal.recover(NOW).isEmpty());
+    assertTrue(Files.exists(journal.getPath()));
+  }
+}
@@ -0,0 +1,196 @@
+package com.voltzug.cinder.spring.infra.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TimingWheel.
+ * Focuses on firing every element exactly at its deadline across all levels, and on
+ * cancelled elements never firing.
+ */
+class TimingWheelTest {
+
+  private static final long START = 1_000_003;
+
+  // ==================== FIRING TESTS ====================
+
+  @Test
+  void shouldFireElementAtItsDeadline() {
+    // Given
+    TimingWheel<String> wheel = new TimingWheel<>(START);
+    List<String> fired = new ArrayList<>();
+    wheel.schedule("a", START + 5);
+
+    // When
+    wheel.advance(START + 4, fired::add);
+    List<String> early = new ArrayList<>(fired);
+    wheel.advance(START + 5, fired::add);
+
+    // Then
+    assertTrue(early.isEmpty());
+    assertEquals(List.of("a"), fired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void shouldFireOverdueElementOnNextAdvance() {
+    // Given
+    TimingWheel<String> wheel = new TimingWheel<>(START);
+    List<String> fired = new ArrayList<>();
+
+    // When
+    wheel.schedule("late", START - 10);
+    wheel.advance(START, fired::add);
+
+    // Then
+    assertEquals(List.of("late"), fired);
+  }
+
+  @Test
+  void shouldFireDeadlinesOnEveryLevelOnTime() {
+    // Given
+    TimingWheel<Long> wheel = new TimingWheel<>(START);
+    long[] deltas = { 1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_145, 300_000 };
+    for (long delta : deltas) {
+      wheel.schedule(START + delta, START + delta);
+    }
+    List<Long> fired = new ArrayList<>();
+
+    // When/Then
+    for (long tick = START + 1; tick <= START + 300_000; tick++) {
+      fired.clear();
+      wheel.advance(tick, fired::add);
+      for (long deadline : fired) {
+        assertEquals(tick, deadline);
+      }
+    }
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void shouldFireDeadlinesBeyondWheelSpan() {
+    // Given
+    TimingWheel<Long> wheel = new TimingWheel<>(0);
+    long far = (1L << 24) + 70_000;
+    wheel.schedule(far, far);
+    List<Long> fired = new ArrayList<>();
+
+    // When
+    wheel.advance(far - 1, fired::add);
+    List<Long> early = new ArrayList<>(fired);
+    wheel.advance(far, fired::add);
+
+    // Then
+    assertTrue(early.isEmpty());
+    assertEquals(List.of(far), fired);
+  }
+
+  @Test
+  void shouldFireRandomDeadlinesWhenAdvancingInJumps() {
+    // Given
+    Random random = new Random(42);
+    TimingWheel<Long> wheel = new TimingWheel<>(START);
+    for (int i = 0; i < 5000; i++) {
+      long deadline = START + 1 + random.nextInt(500_000);
+      wheel.schedule(deadline, deadline);
+    }
+    List<Long> fired = new ArrayList<>();
+    long tick = START;
+
+    // When/Then
+    while (wheel.size() > 0) {
+      long previous = tick;
+      tick += 1 + random.nextInt(700);
+      fired.clear();
+      wheel.advance(tick, fired::add);
+      for (long deadline : fired) {
+        assertTrue(deadline > previous && deadline <= tick);
+      }
+    }
+    assertTrue(tick <= START + 500_700);
+  }
+
+  @Test
+  void shouldSkipAheadWhenEmpty() {
+    // Given
+    TimingWheel<String> wheel = new TimingWheel<>(START);
+
+    // When
+    wheel.advance(START + 10_000_000_000L, element -> fail(element));
+
+    // Then
+    assertEquals(START + 10_000_000_000L, wheel.tick());
+  }
+
+  // ==================== CANCEL TESTS ====================
+
+  @Test
+  void shouldNotFireCancelledElement() {
+    // Given
+    TimingWheel<String> wheel = new TimingWheel<>(START);
+    TimingWheel.Timer<String> cancelled = wheel.schedule("a", START + 5);
+    wheel.schedule("b", START + 5);
+    List<String> fired = new ArrayList<>();
+
+    // When
+    boolean first = wheel.cancel(cancelled);
+    boolean second = wheel.cancel(cancelled);
+    wheel.advance(START + 5, fired::add);
+
+    // Then
+    assertTrue(first);
+    assertFalse(second);
+    assertEquals(List.of("b"), fired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void shouldNotCancelFiredElement() {
+    // Given
+    TimingWheel<String> wheel = new TimingWheel<>(START);
+    TimingWheel.Timer<String> timer = wheel.schedule("late", START - 1);
+    wheel.advance(START, element -> {});
+
+    // When & Then
+    assertFalse(wheel.cancel(timer));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void shouldCancelElementsOnEveryLevelAndAfterCascade() {
+    // Given
+    TimingWheel<Long> wheel = new TimingWheel<>(START);
+    Random random = new Random(42);
+    List<TimingWheel.Timer<Long>> cancelled = new ArrayList<>();
+    List<Long> kept = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      long deadline = START + 1 + random.nextInt(300_000);
+      TimingWheel.Timer<Long> timer = wheel.schedule(deadline, deadline);
+      if (i % 2 == 0) {
+        cancelled.add(timer);
+      } else {
+        kept.add(deadline);
+      }
+    }
+    wheel.advance(START + 100_000, element -> {});
+    List<Long> fired = new ArrayList<>();
+
+    // When
+    for (TimingWheel.Timer<Long> timer : cancelled) {
+      wheel.cancel(timer);
+    }
+    wheel.advance(START + 300_001, fired::add);
+
+    // Then
+    assertEquals(0, wheel.size());
+    assertTrue(kept.containsAll(fired));
+    assertEquals(
+      kept.stream().filter(deadline -> deadline > START + 100_000).count(),
+      fired.size()
+    );
+  }
+}
@@ -0,0 +1,201 @@
+package com.voltzug.cinder.spring.infra.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for WindowTinyLfu and its FrequencySketch.
+ * Focuses on frequency estimates, capacity bounds and admission under one-hit bursts.
+ */
+class WindowTinyLfuTest {
+
+  /** Entries are compared by identity, like cached sessions. */
+  private record Entry(String key) {}
+
+  private static WindowTinyLfu<Entry> policy(int capacity) {
+    return new WindowTinyLfu<>(capacity, entry -> entry.key().hashCode());
+  }
+
+  // ==================== SKETCH TESTS ====================
+
+  @Test
+  void shouldCountOccurrencesOfKey() {
+    // Given
+    FrequencySketch sketch = new FrequencySketch(1000);
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("a".hashCode());
+    }
+
+    // Then
+    assertEquals(5, sketch.frequency("a".hashCode()));
+    assertEquals(0, sketch.frequency("b".hashCode()));
+  }
+
+  @Test
+  void shouldSaturateCounters() {
+    // Given
+    FrequencySketch sketch = new FrequencySketch(1000);
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      sketch.increment(42);
+    }
+
+    // Then
+    assertEquals(15, sketch.frequency(42));
+  }
+
+  @Test
+  void shouldHalveCountersAfterSamplePeriod() {
+    // Given
+    FrequencySketch sketch = new FrequencySketch(16);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment(42);
+    }
+
+    // When
+    for (int i = 0; i < 160; i++) {
+      sketch.increment(1_000_000 + i);
+    }
+
+    // Then
+    assertTrue(sketch.frequency(42) <= 4);
+  }
+
+  // ==================== POLICY TESTS ====================
+
+  @Test
+  void shouldNeverExceedCapacity() {
+    // Given
+    WindowTinyLfu<Entry> policy = policy(100);
+    List<Entry> evicted = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < 1000; i++) {
+      policy.add(new Entry("k" + i), evicted::add);
+    }
+
+    // Then
+    assertEquals(100, policy.size());
+    assertEquals(900, evicted.size());
+  }
+
+  @Test
+  void shouldKeepUsedEntriesThroughOneHitBurst() {
+    // Given
+    WindowTinyLfu<Entry> policy = policy(100);
+    List<Entry> evicted = new ArrayList<>();
+    List<Entry> used = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Entry entry = new Entry("used" + i);
+      policy.add(entry, evicted::add);
+      used.add(entry);
+    }
+    policy.add(new Entry("filler"), evicted::add);
+    used.forEach(policy::access);
+
+    // When
+    for (int i = 0; i < 10_000; i++) {
+      policy.add(new Entry("burst" + i), evicted::add);
+    }
+
+    // Then
+    for (Entry entry : used) {
+      assertFalse(evicted.contains(entry), entry.key());
+    }
+    assertEquals(100, policy.size());
+  }
+
+  @Test
+  void shouldAdmitCandidateUsedMoreOftenThanVictim() {
+    // Given
+    WindowTinyLfu<Entry> policy = policy(10);
+    List<Entry> evicted = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      policy.add(new Entry("old" + i), evicted::add);
+    }
+    Entry popular = new Entry("popular");
+    for (int i = 0; i < 3; i++) {
+      policy.access(popular);
+    }
+
+    // When
+    policy.add(popular, evicted::add);
+    policy.add(new Entry("next"), evicted::add);
+
+    // Then
+    assertFalse(evicted.contains(popular));
+    assertEquals("old1", evicted.getLast().key());
+  }
+
+  @Test
+  void shouldAdmitCandidateOverUnusedVictimOnTie() {
+    // Given
+    WindowTinyLfu<Entry> policy = policy(10);
+    List<Entry> evicted = new ArrayList<>();
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Entry entry = new Entry("old" + i);
+      policy.add(entry, evicted::add);
+      entries.add(entry);
+    }
+    Entry candidate = new Entry("new");
+
+    // When
+    policy.add(candidate, evicted::add);
+    policy.add(new Entry("next"), evicted::add);
+
+    // Then
+    assertEquals(List.of(entries.get(0), entries.get(1)), evicted);
+  }
+
+  @Test
+  void shouldKeepAccessedVictimOnTie() {
+    // Given
+    WindowTinyLfu<Entry> policy = policy(10);
+    List<Entry> evicted = new ArrayList<>();
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Entry entry = new Entry("old" + i);
+      policy.add(entry, evicted::add);
+      entries.add(entry);
+      if (i < 8) {
+        policy.access(entry);
+      }
+    }
+    Entry candidate = entries.getLast();
+    policy.access(candidate);
+
+    // When
+    policy.add(new Entry("next"), evicted::add);
+
+    // Then
+    assertEquals(List.of(candidate), evicted);
+  }
+
+  @Test
+  void shouldFreeRoomForRemovedEntry() {
+    // Given
+    WindowTinyLfu<Entry> policy = policy(10);
+    List<Entry> evicted = new ArrayList<>();
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Entry entry = new Entry("k" + i);
+      policy.add(entry, evicted::add);
+      entries.add(entry);
+    }
+
+    // When
+    policy.remove(entries.get(3));
+    policy.add(new Entry("k10"), evicted::add);
+
+    // Then
+    assertTrue(evicted.isEmpty());
+    assertEquals(10, policy.size());
+  }
+}
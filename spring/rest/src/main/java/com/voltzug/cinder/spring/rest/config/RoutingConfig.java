@@ -0,0 +1,79 @@
+package com.voltzug.cinder.spring.rest.config;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.spring.infra.cluster.ClusterProperties;
+import com.voltzug.cinder.spring.infra.cluster.NodeAffinity;
+import com.voltzug.cinder.spring.infra.cluster.NodeForwarder;
+import com.voltzug.cinder.spring.rest.routing.NodeAffinityFilter;
+import com.voltzug.cinder.spring.rest.routing.NodeRoutingProperties;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires forwarding of requests to the node owning their session or link when
+ * {@code cinder.cluster.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(
+  prefix = "cinder.cluster",
+  name = "enabled",
+  havingValue = "true"
+)
+@EnableConfigurationProperties(NodeRoutingProperties.class)
+public class RoutingConfig {
+
+  @Bean
+  public NodeAffinityFilter nodeAffinityFilter(
+    NodeAffinity affinity,
+    NodeForwarder forwarder,
+    NodeRoutingProperties properties,
+    ClusterProperties cluster
+  ) {
+    List<String> peers = properties.trustedPeers().isEmpty()
+      ? cluster.nodes().values().stream().map(URI::getHost).toList()
+      : properties.trustedPeers();
+    return new NodeAffinityFilter(
+      affinity,
+      forwarder,
+      properties,
+      _addressesOf(peers)
+    );
+  }
+
+  /** Resolves peer host names once, failing startup if one is unknown. */
+  private static Set<InetAddress> _addressesOf(List<String> hosts) {
+    Set<InetAddress> addresses = new HashSet<>();
+    for (String host : hosts) {
+      try {
+        addresses.addAll(List.of(InetAddress.getAllByName(host)));
+      } catch (UnknownHostException exc) {
+        throw new IllegalArgumentException(
+          "Cannot resolve cluster peer " + host,
+          exc
+        );
+      }
+    }
+    return addresses;
+  }
+}
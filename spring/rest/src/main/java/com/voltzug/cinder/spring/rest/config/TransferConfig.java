@@ -0,0 +1,42 @@
+package com.voltzug.cinder.spring.rest.config;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import com.voltzug.cinder.spring.rest.controller.ResumableDownloadProperties;
+import com.voltzug.cinder.spring.rest.transfer.BlobResponseWriter;
+import com.voltzug.cinder.spring.rest.transfer.DownloadTransferProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the components that stream encrypted blobs to clients, and binds the settings of
+ * the resumable download controller using them.
+ */
+@Configuration
+@EnableConfigurationProperties(
+  { DownloadTransferProperties.class, ResumableDownloadProperties.class }
+)
+public class TransferConfig {
+
+  @Bean
+  public BlobResponseWriter blobResponseWriter(
+    StreamingFileStorePort fileStore,
+    DownloadTransferProperties properties
+  ) {
+    return new BlobResponseWriter(fileStore, properties);
+  }
+}
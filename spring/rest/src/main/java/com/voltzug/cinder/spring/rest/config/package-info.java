@@ -0,0 +1,7 @@
+/**
+ * Spring configuration of the REST layer.
+ *
+ * <p>Binds {@code cinder.*} web-facing properties and composes REST components
+ * from the ports exposed by the infrastructure module.</p>
+ */
+package com.voltzug.cinder.spring.rest.config;
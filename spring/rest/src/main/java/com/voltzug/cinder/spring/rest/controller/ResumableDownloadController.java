@@ -0,0 +1,234 @@
+package com.voltzug.cinder.spring.rest.controller;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.Hmac;
+import com.voltzug.cinder.core.domain.valueobject.Timestamp;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.exception.RangeNotSatisfiableException;
+import com.voltzug.cinder.core.port.out.ClockPort;
+import com.voltzug.cinder.core.port.out.CryptoPort;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import com.voltzug.cinder.core.port.out.SessionCachePort;
+import com.voltzug.cinder.spring.rest.transfer.BlobResponseWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Resumable download of encrypted files within a download session.
+ *
+ * <p>Serves the blob of the session's file honouring a single {@code Range: bytes=N-} or
+ * {@code bytes=N-M} header with {@code 206 Partial Content}, so a client whose transfer
+ * broke off re-requests only the missing bytes. Unlike the access verification flow,
+ * a retry neither repeats the quiz nor consumes a download attempt; it is only served
+ * while the session is alive and after its access was verified, which consumed one.
+ * Other range forms are ignored and the whole blob is sent.
+ *
+ * <p>Every request carries the {@value #TIMESTAMP_HEADER} header, its time in epoch
+ * milliseconds, and the {@value #SIGNATURE_HEADER} header: the Base64 HMAC of
+ * {@code "<sessionId>:<offset>:<last>:<timestamp>"} under the session secret, proving
+ * possession of the secret agreed in the download handshake. {@code offset} and
+ * {@code last} are the first and last byte of the requested range, {@code last} being
+ * empty for an open-ended range; a request without a usable range signs {@code 0} and an
+ * empty {@code last}. A request whose timestamp is further than the allowed skew from the
+ * server clock is refused, so a captured signature cannot be replayed for the rest of the
+ * session nor reused for another range.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(
+  prefix = "cinder.download.resumable",
+  name = "enabled",
+  havingValue = "true"
+)
+public class ResumableDownloadController {
+
+  /** Request header holding the HMAC signature of the download request. */
+  public static final String SIGNATURE_HEADER = "X-Cinder-Signature";
+
+  /** Request header holding the signed time of the request in epoch milliseconds. */
+  public static final String TIMESTAMP_HEADER = "X-Cinder-Timestamp";
+
+  private static final Pattern _BYTE_RANGE = Pattern.compile(
+    "bytes=(\\d{1,18})-(\\d{1,18})?"
+  );
+
+  private final SessionCachePort _sessions;
+  private final SecureFileRepositoryPort _files;
+  private final CryptoPort _crypto;
+  private final ClockPort _clock;
+  private final BlobResponseWriter _writer;
+  private final long _allowedSkewMs;
+
+  public ResumableDownloadController(
+    SessionCachePort sessions,
+    SecureFileRepositoryPort files,
+    CryptoPort crypto,
+    ClockPort clock,
+    BlobResponseWriter writer,
+    ResumableDownloadProperties properties
+  ) {
+    _sessions = Objects.requireNonNull(sessions, "sessions must not be null");
+    _files = Objects.requireNonNull(files, "files must not be null");
+    _crypto = Objects.requireNonNull(crypto, "crypto must not be null");
+    _clock = Objects.requireNonNull(clock, "clock must not be null");
+    _writer = Objects.requireNonNull(writer, "writer must not be null");
+    Objects.requireNonNull(properties, "properties must not be null");
+    _allowedSkewMs = properties.allowedSkew().toMillis();
+  }
+
+  @GetMapping("/api/download/{sessionId}/file")
+  public void download(
+    @PathVariable("sessionId") String sessionId,
+    @RequestHeader(name = SIGNATURE_HEADER, required = false) String signature,
+    @RequestHeader(name = TIMESTAMP_HEADER, required = false) String timestamp,
+    @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+    HttpServletRequest request,
+    HttpServletResponse response
+  ) throws IOException {
+    Matcher matcher = range == null ? null : _BYTE_RANGE.matcher(range);
+    boolean ranged = matcher != null && matcher.matches();
+    long offset = ranged ? Long.parseLong(matcher.group(1)) : 0;
+    long last = ranged && matcher.group(2) != null
+      ? Long.parseLong(matcher.group(2))
+      : Long.MAX_VALUE - 1;
+    if (last < offset) {
+      ranged = false;
+      offset = 0;
+      last = Long.MAX_VALUE - 1;
+    }
+    String signedRange = ranged
+      ? offset + ":" + (matcher.group(2) == null ? "" : last)
+      : "0:";
+
+    Optional<SecureFile> file = _fileOf(
+      sessionId,
+      signature,
+      timestamp,
+      signedRange
+    );
+    if (file.isEmpty()) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    boolean found;
+    try {
+      found = ranged
+        ? _writer.writeRange(
+          file.get().blobPath(),
+          file.get().blobChecksum(),
+          offset,
+          last - offset + 1,
+          request,
+          response
+        )
+        : _writer.write(
+          file.get().blobPath(),
+          file.get().blobChecksum(),
+          request,
+          response
+        );
+    } catch (RangeNotSatisfiableException exc) {
+      if (exc.getBlobSize() >= 0) {
+        response.setHeader(
+          HttpHeaders.CONTENT_RANGE,
+          "bytes */" + exc.getBlobSize()
+        );
+      }
+      response.sendError(
+        HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE
+      );
+      return;
+    }
+    if (!found) {
+      log.warn("Blob of file {} is missing", file.get().fileId().value());
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+  }
+
+  /**
+   * Resolves the file of a live, verified and correctly signed download session. Every
+   * failure yields an empty result, so callers cannot tell sessions and files apart.
+   *
+   * @param range the signed {@code "<offset>:<last>"} part of the request
+   */
+  private Optional<SecureFile> _fileOf(
+    String sessionId,
+    String signature,
+    String timestamp,
+    String range
+  ) {
+    if (signature == null || timestamp == null) {
+      return Optional.empty();
+    }
+    SessionId id;
+    long sentAt;
+    Hmac hmac;
+    try {
+      id = new SessionId(sessionId);
+      sentAt = Long.parseLong(timestamp);
+      hmac = new Hmac(Base64.getDecoder().decode(signature));
+    } catch (IllegalArgumentException exc) {
+      return Optional.empty();
+    }
+    try (hmac) {
+      if (
+        !Timestamp.ofEpochMilli(sentAt).isWithinSkew(
+          _clock.now(),
+          _allowedSkewMs
+        )
+      ) {
+        return Optional.empty();
+      }
+      Optional<Session> session = _sessions
+        .get(id)
+        .filter(s -> s.mode() == Session.Mode.DOWNLOAD)
+        .filter(s -> s.linkId() != null && s.sessionSecret() != null)
+        .filter(Session::isVerified)
+        .filter(s -> !s.isExpired(_clock.now()));
+      if (
+        session.isEmpty() ||
+        !_crypto.verifyHmac(
+          session.get().sessionSecret(),
+          (id.value() + ":" + range + ":" + sentAt).getBytes(
+            StandardCharsets.UTF_8
+          ),
+          hmac
+        )
+      ) {
+        return Optional.empty();
+      }
+      return _files
+        .findByLinkId(session.get().linkId())
+        .filter(file -> !file.isExpired(_clock.now()));
+    }
+  }
+}
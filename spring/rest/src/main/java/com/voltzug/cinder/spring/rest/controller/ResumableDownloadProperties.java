@@ -0,0 +1,41 @@
+package com.voltzug.cinder.spring.rest.controller;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of session-bound resumable downloads ({@code cinder.download.resumable.*}).
+ *
+ * @param enabled     whether {@link ResumableDownloadController} serves downloads
+ * @param allowedSkew maximum difference between a request's signed timestamp and the
+ *                    server clock, bounding how long a captured signature can be replayed
+ */
+@ConfigurationProperties(prefix = "cinder.download.resumable")
+public record ResumableDownloadProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("19s") Duration allowedSkew
+) {
+  public ResumableDownloadProperties {
+    Objects.requireNonNull(allowedSkew, "allowedSkew must not be null");
+    if (allowedSkew.toMillis() < 1) {
+      throw new IllegalArgumentException(
+        "cinder.download.resumable.allowed-skew must be at least 1ms"
+      );
+    }
+  }
+}
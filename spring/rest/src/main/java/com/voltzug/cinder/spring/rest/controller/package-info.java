@@ -0,0 +1,9 @@
+/**
+ * REST controllers of the Cinder API.
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.rest.controller.ResumableDownloadController} — Session-bound resumable download serving partial content</li>
+ *   <li>{@link com.voltzug.cinder.spring.rest.controller.ResumableDownloadProperties} — {@code cinder.download.resumable.*} settings</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.rest.controller;
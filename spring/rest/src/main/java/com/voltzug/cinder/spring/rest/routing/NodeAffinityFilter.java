@@ -0,0 +1,254 @@
+package com.voltzug.cinder.spring.rest.routing;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.Id;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.spring.infra.cluster.NodeAffinity;
+import com.voltzug.cinder.spring.infra.cluster.NodeForwarder;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Forwards requests for sessions and links owned by another node to that node.
+ *
+ * <p>The identifier is taken from the request path as configured by
+ * {@link NodeRoutingProperties}. Requests whose identifier this node owns, requests on other
+ * paths, and requests already forwarded by another node pass through unchanged; the others
+ * are proxied to the owner with their body streamed both ways, and the owner's response is
+ * relayed as is. An unreachable owner yields {@code 502 Bad Gateway}, one not answering in
+ * time {@code 504 Gateway Timeout}.
+ *
+ * <p>Only requests from a trusted peer address count as forwarded; any other client sending
+ * {@value NodeForwarder#FORWARDED_BY_HEADER} has the header stripped and is routed like
+ * every other request, so it cannot pin a request to a node that does not own it.
+ */
+@Slf4j
+public class NodeAffinityFilter implements Filter {
+
+  private static final String _FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+  private final NodeAffinity _affinity;
+  private final NodeForwarder _forwarder;
+  private final Set<InetAddress> _peers;
+  private final List<Route> _routes = new ArrayList<>();
+
+  /**
+   * @param peers addresses other nodes connect from, trusted to send
+   *              {@value NodeForwarder#FORWARDED_BY_HEADER}
+   */
+  public NodeAffinityFilter(
+    NodeAffinity affinity,
+    NodeForwarder forwarder,
+    NodeRoutingProperties properties,
+    Set<InetAddress> peers
+  ) {
+    _affinity = Objects.requireNonNull(affinity, "affinity must not be null");
+    _forwarder = Objects.requireNonNull(forwarder, "forwarder must not be null");
+    Objects.requireNonNull(properties, "properties must not be null");
+    _peers = Set.copyOf(Objects.requireNonNull(peers, "peers must not be null"));
+    for (String path : properties.sessionPaths()) {
+      _routes.add(new Route(NodeRoutingProperties.compile(path), SessionId::new));
+    }
+    for (String path : properties.linkPaths()) {
+      _routes.add(new Route(NodeRoutingProperties.compile(path), LinkId::new));
+    }
+  }
+
+  @Override
+  public void doFilter(
+    ServletRequest servletRequest,
+    ServletResponse servletResponse,
+    FilterChain chain
+  ) throws IOException, ServletException {
+    if (
+      !(servletRequest instanceof HttpServletRequest request) ||
+      !(servletResponse instanceof HttpServletResponse response)
+    ) {
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+    if (request.getHeader(NodeForwarder.FORWARDED_BY_HEADER) != null) {
+      if (_isPeer(request.getRemoteAddr())) {
+        chain.doFilter(request, response);
+        return;
+      }
+      log.debug(
+        "Dropping {} sent by {}, not a trusted peer",
+        NodeForwarder.FORWARDED_BY_HEADER,
+        request.getRemoteAddr()
+      );
+      request = new UnforwardedRequest(request);
+    }
+    String owner = _ownerOf(request);
+    if (owner != null && !owner.equals(_affinity.getSelf())) {
+      _forward(owner, request, response);
+      return;
+    }
+    chain.doFilter(request, response);
+  }
+
+  /** Returns whether a remote address is one of the trusted peers. */
+  private boolean _isPeer(String remoteAddress) {
+    if (remoteAddress == null || _peers.isEmpty()) {
+      return false;
+    }
+    try {
+      // The container reports the remote address as a literal, so no lookup happens
+      return _peers.contains(InetAddress.getByName(remoteAddress));
+    } catch (UnknownHostException exc) {
+      return false;
+    }
+  }
+
+  /** Returns the node owning the identifier in the request path, or null. */
+  private String _ownerOf(HttpServletRequest request) {
+    String path = request
+      .getRequestURI()
+      .substring(request.getContextPath().length());
+    for (Route route : _routes) {
+      Matcher matcher = route.path().matcher(path);
+      if (matcher.matches()) {
+        return _affinity.ownerOf(route.id().apply(matcher.group(1)));
+      }
+    }
+    return null;
+  }
+
+  private void _forward(
+    String owner,
+    HttpServletRequest request,
+    HttpServletResponse response
+  ) throws IOException {
+    Map<String, List<String>> headers = new TreeMap<>(
+      String.CASE_INSENSITIVE_ORDER
+    );
+    for (String name : Collections.list(request.getHeaderNames())) {
+      headers.put(name, Collections.list(request.getHeaders(name)));
+    }
+    String forwardedFor = request.getHeader(_FORWARDED_FOR_HEADER);
+    headers.put(
+      _FORWARDED_FOR_HEADER,
+      List.of(
+        forwardedFor == null
+          ? request.getRemoteAddr()
+          : forwardedFor + ", " + request.getRemoteAddr()
+      )
+    );
+    String target = request.getQueryString() == null
+      ? request.getRequestURI()
+      : request.getRequestURI() + "?" + request.getQueryString();
+
+    HttpResponse<InputStream> forwarded;
+    try {
+      forwarded = _forwarder.forward(
+        owner,
+        request.getMethod(),
+        target,
+        headers,
+        request.getInputStream(),
+        request.getContentLengthLong()
+      );
+    } catch (HttpTimeoutException exc) {
+      log.warn("Node {} did not answer {} in time", owner, target);
+      response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+      return;
+    } catch (IOException exc) {
+      log.warn("Failed to forward {} to node {}", target, owner, exc);
+      response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+      return;
+    }
+
+    try (InputStream body = forwarded.body()) {
+      response.setStatus(forwarded.statusCode());
+      forwarded
+        .headers()
+        .map()
+        .forEach((name, values) -> {
+          if (!name.startsWith(":") && NodeForwarder.isForwarded(name)) {
+            values.forEach(value -> response.addHeader(name, value));
+          }
+        });
+      forwarded
+        .headers()
+        .firstValueAsLong("content-length")
+        .ifPresent(response::setContentLengthLong);
+      body.transferTo(response.getOutputStream());
+    }
+  }
+
+  /** A routed path and the identifier type of its {@code {id}} segment. */
+  private record Route(Pattern path, Function<String, Id> id) {}
+
+  /** A request from outside the cluster, with its forwarded-by header hidden. */
+  private static final class UnforwardedRequest
+    extends HttpServletRequestWrapper {
+
+    UnforwardedRequest(HttpServletRequest request) {
+      super(request);
+    }
+
+    private static boolean _isForwardedBy(String name) {
+      return NodeForwarder.FORWARDED_BY_HEADER.equalsIgnoreCase(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+      return _isForwardedBy(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+      return _isForwardedBy(name)
+        ? Collections.emptyEnumeration()
+        : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+      return Collections.enumeration(
+        Collections.list(super.getHeaderNames())
+          .stream()
+          .filter(name -> !_isForwardedBy(name))
+          .toList()
+      );
+    }
+  }
+}
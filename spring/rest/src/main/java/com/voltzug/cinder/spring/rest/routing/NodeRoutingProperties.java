@@ -0,0 +1,104 @@
+package com.voltzug.cinder.spring.rest.routing;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.util.List;
+import java.util.regex.Pattern;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Request paths routed to the node owning their identifier ({@code cinder.cluster.routing.*}).
+ *
+ * <p>Each entry is a path template holding one {@value #ID_PLACEHOLDER} segment, optionally
+ * ending with {@code /**} to match every path below it, e.g. {@code /api/download/{id}/**}.
+ *
+ * <p>A node serves a request carrying {@code X-Cinder-Forwarded-By} itself only when it comes
+ * from a trusted peer; the header is dropped from any other request.
+ *
+ * @param sessionPaths paths whose {@value #ID_PLACEHOLDER} segment is a session identifier
+ * @param linkPaths    paths whose {@value #ID_PLACEHOLDER} segment is a link identifier
+ * @param trustedPeers host names or addresses other nodes connect from; when empty, the
+ *                     hosts of {@code cinder.cluster.nodes}
+ */
+@ConfigurationProperties(prefix = "cinder.cluster.routing")
+public record NodeRoutingProperties(
+  @DefaultValue("/api/download/{id}/**") List<String> sessionPaths,
+  @DefaultValue("") List<String> linkPaths,
+  @DefaultValue("") List<String> trustedPeers
+) {
+  /** Placeholder of the identifier segment in a path template. */
+  public static final String ID_PLACEHOLDER = "{id}";
+
+  private static final String _SUBTREE = "/**";
+
+  public NodeRoutingProperties {
+    sessionPaths = _templates(sessionPaths, "session-paths");
+    linkPaths = _templates(linkPaths, "link-paths");
+    trustedPeers = trustedPeers == null
+      ? List.of()
+      : trustedPeers
+          .stream()
+          .filter(peer -> peer != null && !peer.isBlank())
+          .map(String::strip)
+          .toList();
+  }
+
+  /** Compiles a path template into a pattern capturing the identifier as group 1. */
+  public static Pattern compile(String template) {
+    boolean subtree = template.endsWith(_SUBTREE);
+    String path = subtree
+      ? template.substring(0, template.length() - _SUBTREE.length())
+      : template;
+    int at = path.indexOf(ID_PLACEHOLDER);
+    return Pattern.compile(
+      Pattern.quote(path.substring(0, at)) +
+        "([^/]+)" +
+        (at + ID_PLACEHOLDER.length() < path.length()
+            ? Pattern.quote(path.substring(at + ID_PLACEHOLDER.length()))
+            : "") +
+        (subtree ? "(?:/.*)?" : "")
+    );
+  }
+
+  private static List<String> _templates(List<String> templates, String key) {
+    if (templates == null) {
+      return List.of();
+    }
+    List<String> paths = templates
+      .stream()
+      .filter(template -> template != null && !template.isBlank())
+      .map(String::strip)
+      .toList();
+    for (String path : paths) {
+      int at = path.indexOf(ID_PLACEHOLDER);
+      if (
+        !path.startsWith("/") ||
+        at < 0 ||
+        path.indexOf(ID_PLACEHOLDER, at + 1) >= 0
+      ) {
+        throw new IllegalArgumentException(
+          "cinder.cluster.routing." +
+            key +
+            " entries must start with / and hold one " +
+            ID_PLACEHOLDER +
+            " segment: " +
+            path
+        );
+      }
+    }
+    return paths;
+  }
+}
@@ -0,0 +1,13 @@
+/**
+ * Routing of requests between Cinder nodes.
+ *
+ * <p>With {@code cinder.cluster.enabled=true}, requests for a session or link owned by
+ * another node, as decided by {@link com.voltzug.cinder.spring.infra.cluster.NodeAffinity},
+ * are forwarded to that node, so session and download limit state stays node-local.</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.rest.routing.NodeAffinityFilter} — Servlet filter forwarding misrouted requests to their owner</li>
+ *   <li>{@link com.voltzug.cinder.spring.rest.routing.NodeRoutingProperties} — {@code cinder.cluster.routing.*} settings</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.rest.routing;
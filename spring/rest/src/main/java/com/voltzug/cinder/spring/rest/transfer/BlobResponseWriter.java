@@ -0,0 +1,257 @@
+package com.voltzug.cinder.spring.rest.transfer;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import com.voltzug.cinder.core.common.valueobject.BlobRange;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.BlobChecksum;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.exception.BlobCorruptedException;
+import com.voltzug.cinder.core.exception.RangeNotSatisfiableException;
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import com.voltzug.cinder.spring.rest.transfer.DownloadTransferProperties.TransferMode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes stored encrypted blobs as HTTP response bodies without loading them into heap.
+ *
+ * <p>In {@link TransferMode#ZERO_COPY} mode a blob read straight from a local file is
+ * handed to the servlet container's sendfile support when available (Tomcat NIO), so
+ * the kernel copies the file, as resolved by the store, straight to the socket.
+ * Everything else, and {@link TransferMode#BUFFERED} mode, goes through a single
+ * fixed-size buffer: the servlet output stream is not a channel the kernel could
+ * transfer to.
+ *
+ * <p>Sendfile is handed a file name, not the open channel: the container reopens the file
+ * after {@code write} returned and the store's channel was closed, with the status and
+ * {@code Content-Length} already committed. A blob deleted, shredded or moved in that
+ * window would reset the response mid-body, so sendfile is only offered for blobs whose
+ * store names their {@link BlobStream#file() file}, guaranteeing it stays in place for
+ * the transfer. Other blobs are copied from the channel opened here, which keeps reading
+ * the file even if it is unlinked meanwhile.
+ *
+ * <p>Byte ranges of a blob are written as partial content, so an interrupted download
+ * can be resumed without transferring the received bytes again.
+ *
+ * <p>Given the checksum recorded when the blob was saved, a blob written from its first
+ * byte is verified as it is streamed: a corrupted blob fails the response before its last
+ * bytes are sent, so the client never receives it complete. Verified blobs are always
+ * copied, as the kernel cannot checksum what it sends. Ranges starting past the first
+ * byte cannot be verified against a checksum of the whole blob and are sent as stored.
+ */
+@Slf4j
+public class BlobResponseWriter {
+
+  private static final String _SENDFILE_SUPPORTED =
+    "org.apache.tomcat.sendfile.support";
+  private static final String _SENDFILE_FILENAME =
+    "org.apache.tomcat.sendfile.filename";
+  private static final String _SENDFILE_START =
+    "org.apache.tomcat.sendfile.start";
+  private static final String _SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final StreamingFileStorePort _fileStore;
+  private final TransferMode _mode;
+  private final int _bufferSize;
+
+  public BlobResponseWriter(
+    StreamingFileStorePort fileStore,
+    DownloadTransferProperties properties
+  ) {
+    _fileStore = Objects.requireNonNull(
+      fileStore,
+      "fileStore must not be null"
+    );
+    Objects.requireNonNull(properties, "properties must not be null");
+    _mode = properties.transferMode();
+    _bufferSize = (int) properties.bufferSize().toBytes();
+  }
+
+  /**
+   * Writes the referenced blob as the response body.
+   * Content type and length are set; the status is left to the caller.
+   *
+   * @param path     the reference path to the blob
+   * @param expected the checksum of the blob as saved, or null if none was recorded
+   * @param request  the current request
+   * @param response the response to write to
+   * @return false if the blob does not exist and nothing was written
+   * @throws BlobCorruptedException if the blob does not match the checksum
+   * @throws IOException if writing to the response fails
+   */
+  public boolean write(
+    PathReference path,
+    BlobChecksum expected,
+    HttpServletRequest request,
+    HttpServletResponse response
+  ) throws IOException {
+    Optional<BlobStream> opened = expected == null
+      ? _fileStore.open(path)
+      : _fileStore.open(path, expected);
+    if (opened.isEmpty()) {
+      return false;
+    }
+    try (BlobStream blob = opened.get()) {
+      _send(blob, request, response);
+    }
+    return true;
+  }
+
+  /**
+   * Writes a byte range of the referenced blob as a {@code 206 Partial Content} response,
+   * or as a {@code 200 OK} one if the range covers the whole blob. The range is clipped
+   * to the end of the blob; content type, length and range are set.
+   *
+   * @param path     the reference path to the blob
+   * @param expected the checksum of the blob as saved, or null if none was recorded
+   * @param offset   the position of the first byte to write
+   * @param length   the maximum number of bytes to write
+   * @param request  the current request
+   * @param response the response to write to
+   * @return false if the blob does not exist and nothing was written
+   * @throws RangeNotSatisfiableException if the offset lies beyond the end of the blob
+   * @throws BlobCorruptedException if the range covers the whole blob and the blob does
+   *                                not match the checksum
+   * @throws IOException if writing to the response fails
+   */
+  public boolean writeRange(
+    PathReference path,
+    BlobChecksum expected,
+    long offset,
+    long length,
+    HttpServletRequest request,
+    HttpServletResponse response
+  ) throws IOException {
+    if (offset < 0 || length < 1) {
+      throw new IllegalArgumentException(
+        "Invalid range: offset " + offset + ", length " + length
+      );
+    }
+    Optional<BlobRange> opened = expected == null || offset > 0
+      ? _fileStore.open(path, offset, length)
+      : _fileStore.open(path, expected).map(blob -> _prefixOf(blob, length));
+    if (opened.isEmpty()) {
+      return false;
+    }
+    try (BlobRange range = opened.get()) {
+      if (range.isWhole()) {
+        response.setStatus(HttpServletResponse.SC_OK);
+      } else {
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(
+          HttpHeaders.CONTENT_RANGE,
+          "bytes " +
+            range.offset() +
+            "-" +
+            range.lastPosition() +
+            "/" +
+            range.totalSize()
+        );
+      }
+      _send(range.stream(), request, response);
+    }
+    return true;
+  }
+
+  /** Narrows a blob opened from its first byte to a range of at most the given length. */
+  private static BlobRange _prefixOf(BlobStream blob, long length) {
+    return new BlobRange(
+      new BlobStream(blob.channel(), Math.min(length, blob.size())),
+      0,
+      blob.size()
+    );
+  }
+
+  /**
+   * Writes the stream as the response body. A file channel is sent from its current
+   * position, which is where ranged opens of local blobs leave it.
+   */
+  private void _send(
+    BlobStream blob,
+    HttpServletRequest request,
+    HttpServletResponse response
+  ) throws IOException {
+    response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    response.setContentLengthLong(blob.size());
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (_mode != TransferMode.ZERO_COPY || !_offerSendfile(blob, request)) {
+      _copy(blob.channel(), blob.size(), response);
+    }
+  }
+
+  /**
+   * Hands a blob read from a local file to the container's sendfile support,
+   * from the current position of its channel.
+   *
+   * @return false if the blob must be written by the caller
+   */
+  private boolean _offerSendfile(BlobStream blob, HttpServletRequest request)
+    throws IOException {
+    if (
+      blob.file() == null ||
+      !(blob.channel() instanceof FileChannel channel) ||
+      !Boolean.TRUE.equals(request.getAttribute(_SENDFILE_SUPPORTED))
+    ) {
+      return false;
+    }
+    long offset = channel.position();
+    // Tomcat rejects file names that are not canonical
+    request.setAttribute(
+      _SENDFILE_FILENAME,
+      blob.file().toRealPath().toString()
+    );
+    request.setAttribute(_SENDFILE_START, offset);
+    request.setAttribute(_SENDFILE_END, offset + blob.size());
+    log.debug("Blob handed to container sendfile ({} bytes)", blob.size());
+    return true;
+  }
+
+  private void _copy(
+    ReadableByteChannel source,
+    long count,
+    HttpServletResponse response
+  ) throws IOException {
+    OutputStream target = response.getOutputStream();
+    ByteBuffer buffer = ByteBuffer.allocate(
+      (int) Math.min(_bufferSize, count)
+    );
+    long remaining = count;
+    while (remaining > 0) {
+      buffer.clear();
+      if (buffer.capacity() > remaining) {
+        buffer.limit((int) remaining);
+      }
+      int read = source.read(buffer);
+      if (read < 0) {
+        throw new IOException(
+          "Blob truncated: " + remaining + " bytes missing"
+        );
+      }
+      target.write(buffer.array(), 0, buffer.position());
+      remaining -= read;
+    }
+  }
+}
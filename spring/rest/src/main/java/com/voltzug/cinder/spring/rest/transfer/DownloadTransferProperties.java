@@ -0,0 +1,54 @@
+package com.voltzug.cinder.spring.rest.transfer;
+// Cinder - zero-knowledge file transfer that burns after access
+// Copyright (C) 2025  voltzug
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program.  If not, see <https://www.gnu.org/licenses/>.
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of encrypted file downloads ({@code cinder.download.*}).
+ *
+ * @param transferMode how blob bytes are moved from storage to the HTTP response
+ * @param bufferSize   size of the copy buffer used when bytes pass through user space
+ */
+@ConfigurationProperties(prefix = "cinder.download")
+public record DownloadTransferProperties(
+  @DefaultValue("ZERO_COPY") TransferMode transferMode,
+  @DefaultValue("64KB") DataSize bufferSize
+) {
+  public DownloadTransferProperties {
+    Objects.requireNonNull(transferMode, "transferMode must not be null");
+    Objects.requireNonNull(bufferSize, "bufferSize must not be null");
+    long bytes = bufferSize.toBytes();
+    if (bytes < 1 || bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+        "cinder.download.buffer-size out of range: " + bufferSize
+      );
+    }
+  }
+
+  /** Blob transfer mode */
+  public enum TransferMode {
+    /**
+     * Local blobs are handed to the container's sendfile support when available,
+     * other blobs are copied as in {@link #BUFFERED} mode.
+     */
+    ZERO_COPY,
+    /** Blobs are copied through a fixed-size heap buffer. */
+    BUFFERED,
+  }
+}
@@ -0,0 +1,13 @@
+/**
+ * Transfer of stored encrypted blobs to HTTP clients.
+ *
+ * <p>Components in this package move blob bytes from a
+ * {@link com.voltzug.cinder.core.port.out.StreamingFileStorePort} to the servlet response
+ * without materializing whole files in heap.</p>
+ *
+ * <ul>
+ *   <li>{@link com.voltzug.cinder.spring.rest.transfer.BlobResponseWriter} — Writes a blob as the response body</li>
+ *   <li>{@link com.voltzug.cinder.spring.rest.transfer.DownloadTransferProperties} — {@code cinder.download.*} settings</li>
+ * </ul>
+ */
+package com.voltzug.cinder.spring.rest.transfer;
@@ -0,0 +1,509 @@
+package com.voltzug.cinder.spring.rest.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.domain.entity.SecureFile;
+import com.voltzug.cinder.core.domain.entity.Session;
+import com.voltzug.cinder.core.domain.valueobject.FileSpecs;
+import com.voltzug.cinder.core.domain.valueobject.GateHash;
+import com.voltzug.cinder.core.domain.valueobject.Hmac;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.SealedBlob;
+import com.voltzug.cinder.core.domain.valueobject.SessionSecret;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.domain.valueobject.id.LinkId;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.core.port.out.CryptoPort;
+import com.voltzug.cinder.core.port.out.SecureFileRepositoryPort;
+import com.voltzug.cinder.core.port.out.SessionCachePort;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreAdapter;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties;
+import com.voltzug.cinder.spring.rest.transfer.BlobResponseWriter;
+import com.voltzug.cinder.spring.rest.transfer.DownloadTransferProperties;
+import com.voltzug.cinder.spring.rest.transfer.DownloadTransferProperties.TransferMode;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for ResumableDownloadController over a LocalFileStoreAdapter.
+ * Focuses on refusing unsigned, wrongly signed, replayed and unverified requests, and on
+ * the statuses of whole, ranged and unsatisfiable downloads.
+ */
+class ResumableDownloadControllerTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private Sessions sessions;
+  private ResumableDownloadController controller;
+  private SessionId sessionId;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() {
+    LocalFileStoreAdapter store = new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofKilobytes(4),
+        LocalFileStoreProperties.ReadMode.HEAP,
+        0,
+        4,
+        LocalFileStoreProperties.WriteMode.BUFFERED,
+        false
+      )
+    );
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("file-a"),
+      new Blob(bytes(1000))
+    );
+    FileRepository files = new FileRepository();
+    files.save(fileOf(stored));
+    sessions = new Sessions();
+    controller = new ResumableDownloadController(
+      sessions,
+      files,
+      new HmacSha256(),
+      () -> NOW,
+      new BlobResponseWriter(
+        store,
+        new DownloadTransferProperties(
+          TransferMode.BUFFERED,
+          DataSize.ofBytes(64)
+        )
+      ),
+      new ResumableDownloadProperties(true, Duration.ofSeconds(19))
+    );
+    sessionId = SessionId.generate();
+    request = new MockHttpServletRequest();
+    response = new MockHttpServletResponse();
+  }
+
+  private static SecureFile fileOf(StoredBlob stored) {
+    return new SecureFile(
+      new FileId("file-a"),
+      new LinkId("link-a"),
+      stored.path(),
+      stored.checksum(),
+      SealedBlob.build(new byte[] { 1, 2, 3 }, new byte[] { 9, 9 }, (short) 1),
+      SealedBlob.build(new byte[] { 4, 5 }, new byte[] { 8 }, (short) 1),
+      new GateHash(new byte[] { 7, 7, 7, 7, 7, 7, 7, 7 }),
+      new Blob(new byte[] { 42, 43, 44 }),
+      new FileSpecs(NOW.plusSeconds(600), 3),
+      3,
+      NOW
+    );
+  }
+
+  private static byte[] bytes(int size) {
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i * 31 + 7);
+    }
+    return data;
+  }
+
+  private static byte[] secret(int seed) {
+    byte[] secret = new byte[32];
+    for (int i = 0; i < secret.length; i++) {
+      secret[i] = (byte) (i + seed);
+    }
+    return secret;
+  }
+
+  private Session handshake() {
+    return new Session(
+      sessionId,
+      new SessionSecret(secret(1)),
+      new LinkId("link-a"),
+      Session.Mode.DOWNLOAD,
+      NOW,
+      NOW.plusSeconds(300)
+    );
+  }
+
+  private String signatureOf(String range, Instant at, byte[] secret) {
+    byte[] data = (sessionId.value() + ":" + range + ":" + at.toEpochMilli())
+      .getBytes(StandardCharsets.UTF_8);
+    return Base64.getEncoder().encodeToString(HmacSha256.sign(secret, data));
+  }
+
+  private String signatureOf(String range, byte[] secret) {
+    return signatureOf(range, NOW, secret);
+  }
+
+  private void download(String signature, String range) throws Exception {
+    downloadAt(signature, NOW, range);
+  }
+
+  private void downloadAt(String signature, Instant at, String range)
+    throws Exception {
+    controller.download(
+      sessionId.value(),
+      signature,
+      String.valueOf(at.toEpochMilli()),
+      range,
+      request,
+      response
+    );
+  }
+
+  // ==================== ACCESS TESTS ====================
+
+  @Test
+  void shouldRefuseRequestWithoutSignature() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(null, null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void shouldRefuseRequestSignedWithAnotherSecret() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("0:", secret(2)), null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void shouldRefuseMalformedSignature() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download("not base64!", null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+  }
+
+  @Test
+  void shouldRefuseSessionWithHandshakeOnly() throws Exception {
+    // Given
+    sessions.save(handshake());
+
+    // When
+    download(signatureOf("0:", secret(1)), null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void shouldRefuseExpiredSession() throws Exception {
+    // Given
+    Session expired = new Session(
+      sessionId,
+      new SessionSecret(secret(1)),
+      new LinkId("link-a"),
+      Session.Mode.DOWNLOAD,
+      NOW.minusSeconds(600),
+      NOW.minusSeconds(1)
+    );
+    sessions.save(expired.verified(NOW.minusSeconds(300)));
+
+    // When
+    download(signatureOf("0:", secret(1)), null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+  }
+
+  @Test
+  void shouldRefuseRequestWithoutTimestamp() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    controller.download(
+      sessionId.value(),
+      signatureOf("0:", secret(1)),
+      null,
+      null,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+  }
+
+  @Test
+  void shouldRefuseReplayedSignatureOutsideSkew() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+    Instant captured = NOW.minusSeconds(20);
+
+    // When
+    downloadAt(signatureOf("0:", captured, secret(1)), captured, null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void shouldServeRequestSignedWithinSkew() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+    Instant sent = NOW.minusSeconds(19);
+
+    // When
+    downloadAt(signatureOf("0:", sent, secret(1)), sent, null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+  }
+
+  @Test
+  void shouldRefuseTimestampOtherThanSigned() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    downloadAt(
+      signatureOf("0:", NOW.minusSeconds(60), secret(1)),
+      NOW,
+      null
+    );
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+  }
+
+  @Test
+  void shouldRefuseTamperedRangeEnd() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("100:199", secret(1)), "bytes=100-999");
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void shouldRefuseBoundedSignatureForOpenEndedRange() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("100:199", secret(1)), "bytes=100-");
+
+    // Then
+    assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+  }
+
+  // ==================== DOWNLOAD TESTS ====================
+
+  @Test
+  void shouldServeWholeBlobToVerifiedSession() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("0:", secret(1)), null);
+
+    // Then
+    assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldServeRangeToVerifiedSession() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("100:199", secret(1)), "bytes=100-199");
+
+    // Then
+    assertEquals(
+      HttpServletResponse.SC_PARTIAL_CONTENT,
+      response.getStatus()
+    );
+    assertEquals(
+      "bytes 100-199/1000",
+      response.getHeader(HttpHeaders.CONTENT_RANGE)
+    );
+    byte[] expected = new byte[100];
+    System.arraycopy(bytes(1000), 100, expected, 0, 100);
+    assertArrayEquals(expected, response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldRejectRangePastEndOfBlob() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("2000:", secret(1)), "bytes=2000-");
+
+    // Then
+    assertEquals(
+      HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE,
+      response.getStatus()
+    );
+    assertEquals("bytes */1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+  }
+
+  @Test
+  void shouldServeWholeBlobForMalformedRange() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("0:", secret(1)), "bytes=-500");
+
+    // Then
+    assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldServeWholeBlobForReversedRange() throws Exception {
+    // Given
+    sessions.save(handshake().verified(NOW));
+
+    // When
+    download(signatureOf("0:", secret(1)), "bytes=500-100");
+
+    // Then
+    assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  /** Session cache keeping sessions in a map. */
+  private static final class Sessions implements SessionCachePort {
+
+    private final Map<String, Session> sessions = new HashMap<>();
+
+    @Override
+    public void save(Session session) {
+      sessions.put(session.id().value(), session);
+    }
+
+    @Override
+    public Optional<Session> get(SessionId sessionId) {
+      return Optional.ofNullable(sessions.get(sessionId.value()));
+    }
+
+    @Override
+    public void delete(SessionId sessionId) {
+      sessions.remove(sessionId.value());
+    }
+  }
+
+  /** Repository keeping files in a map. */
+  private static final class FileRepository
+    implements SecureFileRepositoryPort {
+
+    private final Map<String, SecureFile> files = new HashMap<>();
+
+    @Override
+    public void save(SecureFile file) {
+      files.put(file.linkId().value(), file);
+    }
+
+    @Override
+    public Optional<SecureFile> findByLinkId(LinkId linkId) {
+      return Optional.ofNullable(files.get(linkId.value()));
+    }
+
+    @Override
+    public void updateBlobPath(FileId fileId, PathReference blobPath) {}
+
+    @Override
+    public void delete(FileId fileId) {}
+
+    @Override
+    public List<SecureFile> findExpiredBefore(Instant timestamp) {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public List<ExpiredFile> findExpiredBefore(
+      Instant timestamp,
+      ExpiredFile after,
+      int limit
+    ) {
+      return new ArrayList<>();
+    }
+  }
+
+  /** HMAC-SHA256 over the session secret. */
+  private static final class HmacSha256 implements CryptoPort {
+
+    static byte[] sign(byte[] secret, byte[] data) {
+      try {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+        return mac.doFinal(data);
+      } catch (GeneralSecurityException exc) {
+        throw new IllegalStateException(exc);
+      }
+    }
+
+    @Override
+    public byte[] randomBytes(int length) {
+      return new byte[length];
+    }
+
+    @Override
+    public Hmac hmac(SessionSecret secret, byte[] data) {
+      return new Hmac(sign(secret.getBytes(), data));
+    }
+
+    @Override
+    public boolean verifyHmac(
+      SessionSecret secret,
+      byte[] data,
+      Hmac expectedHmac
+    ) {
+      return MessageDigest.isEqual(
+        sign(secret.getBytes(), data),
+        expectedHmac.getBytes()
+      );
+    }
+  }
+}
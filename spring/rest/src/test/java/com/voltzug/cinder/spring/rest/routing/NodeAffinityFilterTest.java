@@ -0,0 +1,247 @@
+package com.voltzug.cinder.spring.rest.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.voltzug.cinder.core.domain.valueobject.id.SessionId;
+import com.voltzug.cinder.spring.infra.cluster.ClusterProperties;
+import com.voltzug.cinder.spring.infra.cluster.ConsistentHashRing;
+import com.voltzug.cinder.spring.infra.cluster.NodeAffinity;
+import com.voltzug.cinder.spring.infra.cluster.NodeForwarder;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests for NodeAffinityFilter on node "a" of a two-node cluster whose node "b" runs
+ * in-process on loopback.
+ * Focuses on forwarding misrouted requests and on honouring the forwarded-by header only
+ * from trusted peers.
+ */
+class NodeAffinityFilterTest {
+
+  private static final String PEER = "10.0.0.2";
+  private static final String CLIENT = "203.0.113.9";
+
+  private final ConsistentHashRing ring = new ConsistentHashRing(
+    List.of("a", "b"),
+    160
+  );
+  private final AtomicInteger served = new AtomicInteger();
+  private final Map<String, String> lastHeaders = new ConcurrentHashMap<>();
+  private final List<HttpServletRequest> passed = new ArrayList<>();
+  private HttpServer owner;
+  private NodeForwarder forwarder;
+  private NodeAffinityFilter filter;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    owner.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    owner.createContext("/", this::serve);
+    owner.start();
+    Map<String, URI> nodes = new LinkedHashMap<>();
+    nodes.put("a", URI.create("http://127.0.0.1:1/"));
+    nodes.put(
+      "b",
+      URI.create("http://127.0.0.1:" + owner.getAddress().getPort() + "/")
+    );
+    forwarder = new NodeForwarder(
+      new ClusterProperties(true, "a", nodes, 160, Duration.ofSeconds(5))
+    );
+    filter = filterTrusting(Set.of(InetAddress.getByName(PEER)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    forwarder.close();
+    owner.stop(0);
+  }
+
+  private NodeAffinityFilter filterTrusting(Set<InetAddress> peers) {
+    return new NodeAffinityFilter(
+      new NodeAffinity(ring, "a"),
+      forwarder,
+      new NodeRoutingProperties(
+        List.of("/api/download/{id}/**"),
+        List.of(),
+        List.of()
+      ),
+      peers
+    );
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    served.incrementAndGet();
+    exchange
+      .getRequestHeaders()
+      .forEach((name, values) ->
+        lastHeaders.put(name.toLowerCase(), values.get(0))
+      );
+    exchange.sendResponseHeaders(200, 5);
+    try (OutputStream body = exchange.getResponseBody()) {
+      body.write("owner".getBytes());
+    }
+  }
+
+  private static MockHttpServletRequest requestFor(
+    SessionId sessionId,
+    String remoteAddress
+  ) {
+    MockHttpServletRequest request = new MockHttpServletRequest(
+      "GET",
+      "/api/download/" + sessionId.value() + "/file"
+    );
+    request.setRemoteAddr(remoteAddress);
+    return request;
+  }
+
+  private MockHttpServletResponse filter(MockHttpServletRequest request)
+    throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) ->
+      passed.add((HttpServletRequest) req)
+    );
+    return response;
+  }
+
+  // ==================== ROUTING TESTS ====================
+
+  @Test
+  void shouldServeRequestOwnedBySelf() throws Exception {
+    // Given
+    SessionId sessionId = new NodeAffinity(ring, "a").newSessionId();
+
+    // When
+    filter(requestFor(sessionId, CLIENT));
+
+    // Then
+    assertEquals(1, passed.size());
+    assertEquals(0, served.get());
+  }
+
+  @Test
+  void shouldForwardRequestOwnedByAnotherNode() throws Exception {
+    // Given
+    SessionId sessionId = new NodeAffinity(ring, "b").newSessionId();
+
+    // When
+    MockHttpServletResponse response = filter(requestFor(sessionId, CLIENT));
+
+    // Then
+    assertTrue(passed.isEmpty());
+    assertEquals(1, served.get());
+    assertEquals(200, response.getStatus());
+    assertEquals("owner", new String(response.getContentAsByteArray()));
+    assertEquals("a", lastHeaders.get("x-cinder-forwarded-by"));
+  }
+
+  // ==================== FORWARDED-BY TESTS ====================
+
+  @Test
+  void shouldServeRequestForwardedByTrustedPeer() throws Exception {
+    // Given
+    SessionId sessionId = new NodeAffinity(ring, "b").newSessionId();
+    MockHttpServletRequest request = requestFor(sessionId, PEER);
+    request.addHeader(NodeForwarder.FORWARDED_BY_HEADER, "b");
+
+    // When
+    filter(request);
+
+    // Then
+    assertEquals(1, passed.size());
+    assertEquals(
+      "b",
+      passed.get(0).getHeader(NodeForwarder.FORWARDED_BY_HEADER)
+    );
+    assertEquals(0, served.get());
+  }
+
+  @Test
+  void shouldMatchPeerWrittenInAnotherForm() throws Exception {
+    // Given
+    filter = filterTrusting(Set.of(InetAddress.getByName("::1")));
+    SessionId sessionId = new NodeAffinity(ring, "b").newSessionId();
+    MockHttpServletRequest request = requestFor(sessionId, "0:0:0:0:0:0:0:1");
+    request.addHeader(NodeForwarder.FORWARDED_BY_HEADER, "b");
+
+    // When
+    filter(request);
+
+    // Then
+    assertEquals(1, passed.size());
+    assertEquals(0, served.get());
+  }
+
+  @Test
+  void shouldForwardRequestSpoofingHeaderFromClient() throws Exception {
+    // Given
+    SessionId sessionId = new NodeAffinity(ring, "b").newSessionId();
+    MockHttpServletRequest request = requestFor(sessionId, CLIENT);
+    request.addHeader(NodeForwarder.FORWARDED_BY_HEADER, "b");
+
+    // When
+    filter(request);
+
+    // Then
+    assertTrue(passed.isEmpty());
+    assertEquals(1, served.get());
+    assertEquals("a", lastHeaders.get("x-cinder-forwarded-by"));
+  }
+
+  @Test
+  void shouldStripHeaderFromClientRequestServedLocally() throws Exception {
+    // Given
+    SessionId sessionId = new NodeAffinity(ring, "a").newSessionId();
+    MockHttpServletRequest request = requestFor(sessionId, CLIENT);
+    request.addHeader(NodeForwarder.FORWARDED_BY_HEADER, "b");
+    request.addHeader("Accept", "*/*");
+
+    // When
+    filter(request);
+
+    // Then
+    assertEquals(1, passed.size());
+    HttpServletRequest seen = passed.get(0);
+    assertNull(seen.getHeader(NodeForwarder.FORWARDED_BY_HEADER));
+    assertFalse(
+      seen.getHeaders(NodeForwarder.FORWARDED_BY_HEADER).hasMoreElements()
+    );
+    assertEquals(List.of("accept"), Collections.list(seen.getHeaderNames()));
+  }
+
+  @Test
+  void shouldTrustNoOneWithoutPeers() throws Exception {
+    // Given
+    filter = filterTrusting(Set.of());
+    SessionId sessionId = new NodeAffinity(ring, "b").newSessionId();
+    MockHttpServletRequest request = requestFor(sessionId, PEER);
+    request.addHeader(NodeForwarder.FORWARDED_BY_HEADER, "b");
+
+    // When
+    filter(request);
+
+    // Then
+    assertTrue(passed.isEmpty());
+    assertEquals(1, served.get());
+  }
+}
@@ -0,0 +1,495 @@
+package com.voltzug.cinder.spring.rest.transfer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.voltzug.cinder.core.common.valueobject.Blob;
+import com.voltzug.cinder.core.common.valueobject.BlobStream;
+import com.voltzug.cinder.core.domain.valueobject.PathReference;
+import com.voltzug.cinder.core.domain.valueobject.StoredBlob;
+import com.voltzug.cinder.core.domain.valueobject.id.FileId;
+import com.voltzug.cinder.core.exception.BlobCorruptedException;
+import com.voltzug.cinder.core.exception.RangeNotSatisfiableException;
+import com.voltzug.cinder.core.port.out.StreamingFileStorePort;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreAdapter;
+import com.voltzug.cinder.spring.infra.filestore.LocalFileStoreProperties;
+import com.voltzug.cinder.spring.rest.transfer.DownloadTransferProperties.TransferMode;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tests for BlobResponseWriter over a LocalFileStoreAdapter.
+ * Focuses on handing local files to container sendfile, copying everything else, checksum
+ * verification, and the status and headers of ranged responses.
+ */
+class BlobResponseWriterTest {
+
+  private static final String SENDFILE_SUPPORTED =
+    "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME =
+    "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START =
+    "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  @TempDir
+  Path directory;
+
+  private LocalFileStoreAdapter store;
+  private PathReference reference;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() {
+    store = storeOf(true);
+    reference = store.save(new FileId("blob"), new Blob(bytes(1000)));
+    request = new MockHttpServletRequest();
+    response = new MockHttpServletResponse();
+  }
+
+  private LocalFileStoreAdapter storeOf(boolean stablePaths) {
+    return new LocalFileStoreAdapter(
+      new LocalFileStoreProperties(
+        directory.toString(),
+        2,
+        DataSize.ofKilobytes(4),
+        LocalFileStoreProperties.ReadMode.HEAP,
+        0,
+        4,
+        LocalFileStoreProperties.WriteMode.BUFFERED,
+        stablePaths
+      )
+    );
+  }
+
+  private static BlobResponseWriter writerOf(
+    StreamingFileStorePort fileStore,
+    TransferMode mode
+  ) {
+    return new BlobResponseWriter(
+      fileStore,
+      new DownloadTransferProperties(mode, DataSize.ofBytes(64))
+    );
+  }
+
+  private static byte[] bytes(int size) {
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i * 31 + 7);
+    }
+    return data;
+  }
+
+  private static byte[] slice(byte[] data, int from, int to) {
+    byte[] slice = new byte[to - from];
+    System.arraycopy(data, from, slice, 0, slice.length);
+    return slice;
+  }
+
+  private static void corrupt(PathReference path) throws Exception {
+    try (
+      FileChannel channel = FileChannel.open(
+        Path.of(path.value()),
+        StandardOpenOption.WRITE
+      )
+    ) {
+      channel.write(ByteBuffer.wrap(new byte[] { 0 }), 0);
+    }
+  }
+
+  // ==================== SENDFILE TESTS ====================
+
+  @Test
+  void shouldHandLocalBlobToSendfile() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+
+    // When
+    boolean written = writerOf(store, TransferMode.ZERO_COPY).write(
+      reference,
+      null,
+      request,
+      response
+    );
+
+    // Then
+    assertTrue(written);
+    assertEquals(
+      Path.of(reference.value()).toRealPath().toString(),
+      request.getAttribute(SENDFILE_FILENAME)
+    );
+    assertEquals(0L, request.getAttribute(SENDFILE_START));
+    assertEquals(1000L, request.getAttribute(SENDFILE_END));
+    assertEquals(1000, response.getContentLengthLong());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void shouldSendfileBlobFoundAtItsCanonicalLocation() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+    PathReference flat = PathReference.from(
+      directory.resolve("blob").toString()
+    );
+
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).write(
+      flat,
+      null,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(
+      Path.of(reference.value()).toRealPath().toString(),
+      request.getAttribute(SENDFILE_FILENAME)
+    );
+  }
+
+  @Test
+  void shouldSendfileRangeFromItsOffset() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).writeRange(
+      reference,
+      null,
+      100,
+      50,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(100L, request.getAttribute(SENDFILE_START));
+    assertEquals(150L, request.getAttribute(SENDFILE_END));
+    assertEquals(50, response.getContentLengthLong());
+  }
+
+  // ==================== COPY TESTS ====================
+
+  @Test
+  void shouldCopyBlobWhoseStoreMayMoveItDuringTransfer() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+    LocalFileStoreAdapter unstable = storeOf(false);
+
+    // When
+    boolean written = writerOf(unstable, TransferMode.ZERO_COPY).write(
+      reference,
+      null,
+      request,
+      response
+    );
+    unstable.delete(reference);
+
+    // Then
+    assertTrue(written);
+    assertNull(request.getAttribute(SENDFILE_FILENAME));
+    assertFalse(Files.exists(Path.of(reference.value())));
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldCopyWhenSendfileUnsupported() throws Exception {
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).write(
+      reference,
+      null,
+      request,
+      response
+    );
+
+    // Then
+    assertNull(request.getAttribute(SENDFILE_FILENAME));
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldCopyInBufferedMode() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+
+    // When
+    writerOf(store, TransferMode.BUFFERED).write(
+      reference,
+      null,
+      request,
+      response
+    );
+
+    // Then
+    assertNull(request.getAttribute(SENDFILE_FILENAME));
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldCopyBlobNotReadFromLocalFile() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+
+    // When
+    writerOf(new ChannelStore(store), TransferMode.ZERO_COPY).writeRange(
+      reference,
+      null,
+      100,
+      50,
+      request,
+      response
+    );
+
+    // Then
+    assertNull(request.getAttribute(SENDFILE_FILENAME));
+    assertArrayEquals(
+      slice(bytes(1000), 100, 150),
+      response.getContentAsByteArray()
+    );
+  }
+
+  // ==================== RANGE TESTS ====================
+
+  @Test
+  void shouldWritePartialContentWithContentRange() throws Exception {
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).writeRange(
+      reference,
+      null,
+      100,
+      50,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+    assertEquals(
+      "bytes 100-149/1000",
+      response.getHeader(HttpHeaders.CONTENT_RANGE)
+    );
+    assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertArrayEquals(
+      slice(bytes(1000), 100, 150),
+      response.getContentAsByteArray()
+    );
+  }
+
+  @Test
+  void shouldClipRangeToEndOfBlob() throws Exception {
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).writeRange(
+      reference,
+      null,
+      900,
+      Long.MAX_VALUE,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+    assertEquals(
+      "bytes 900-999/1000",
+      response.getHeader(HttpHeaders.CONTENT_RANGE)
+    );
+    assertEquals(100, response.getContentLengthLong());
+  }
+
+  @Test
+  void shouldWriteWholeRangeAsOk() throws Exception {
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).writeRange(
+      reference,
+      null,
+      0,
+      Long.MAX_VALUE,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldRejectRangeBeyondEndOfBlob() {
+    // When & Then
+    assertThrows(RangeNotSatisfiableException.class, () ->
+      writerOf(store, TransferMode.ZERO_COPY).writeRange(
+        reference,
+        null,
+        1000,
+        10,
+        request,
+        response
+      )
+    );
+  }
+
+  @Test
+  void shouldReportMissingBlob() throws Exception {
+    // Given
+    PathReference missing = PathReference.from(
+      directory.resolve("missing").toString()
+    );
+    BlobResponseWriter writer = writerOf(store, TransferMode.ZERO_COPY);
+
+    // When & Then
+    assertFalse(writer.write(missing, null, request, response));
+    assertFalse(writer.writeRange(missing, null, 0, 10, request, response));
+  }
+
+  // ==================== VERIFICATION TESTS ====================
+
+  @Test
+  void shouldCopyVerifiedBlobInsteadOfSendfile() throws Exception {
+    // Given
+    request.setAttribute(SENDFILE_SUPPORTED, Boolean.TRUE);
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("checked"),
+      new Blob(bytes(1000))
+    );
+
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).write(
+      stored.path(),
+      stored.checksum(),
+      request,
+      response
+    );
+
+    // Then
+    assertNull(request.getAttribute(SENDFILE_FILENAME));
+    assertArrayEquals(bytes(1000), response.getContentAsByteArray());
+  }
+
+  @Test
+  void shouldFailCorruptedBlobBeforeItsLastBytes() throws Exception {
+    // Given
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("rotten"),
+      new Blob(bytes(1000))
+    );
+    corrupt(stored.path());
+    BlobResponseWriter writer = writerOf(store, TransferMode.ZERO_COPY);
+
+    // When & Then
+    assertThrows(BlobCorruptedException.class, () ->
+      writer.write(stored.path(), stored.checksum(), request, response)
+    );
+    assertTrue(response.getContentAsByteArray().length < 1000);
+  }
+
+  @Test
+  void shouldVerifyRangeCoveringWholeBlob() throws Exception {
+    // Given
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("rotten"),
+      new Blob(bytes(1000))
+    );
+    corrupt(stored.path());
+    BlobResponseWriter writer = writerOf(store, TransferMode.ZERO_COPY);
+
+    // When & Then
+    assertThrows(BlobCorruptedException.class, () ->
+      writer.writeRange(
+        stored.path(),
+        stored.checksum(),
+        0,
+        Long.MAX_VALUE,
+        request,
+        response
+      )
+    );
+  }
+
+  @Test
+  void shouldSendRangePastFirstByteUnverified() throws Exception {
+    // Given
+    StoredBlob stored = store.saveChecksummed(
+      new FileId("rotten"),
+      new Blob(bytes(1000))
+    );
+    corrupt(stored.path());
+
+    // When
+    writerOf(store, TransferMode.ZERO_COPY).writeRange(
+      stored.path(),
+      stored.checksum(),
+      100,
+      50,
+      request,
+      response
+    );
+
+    // Then
+    assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+    assertEquals(50, response.getContentAsByteArray().length);
+  }
+
+  /** Serves the blobs of a local store through channels that are not file channels. */
+  private static final class ChannelStore implements StreamingFileStorePort {
+
+    private final LocalFileStoreAdapter _local;
+
+    ChannelStore(LocalFileStoreAdapter local) {
+      _local = local;
+    }
+
+    @Override
+    public PathReference save(FileId fileId, Blob data) {
+      return _local.save(fileId, data);
+    }
+
+    @Override
+    public PathReference save(
+      FileId fileId,
+      ReadableByteChannel source,
+      long size
+    ) {
+      return _local.save(fileId, source, size);
+    }
+
+    @Override
+    public Optional<Blob> load(PathReference path) {
+      return _local.load(path);
+    }
+
+    @Override
+    public Optional<BlobStream> open(PathReference path) {
+      return _local
+        .load(path)
+        .map(blob -> {
+          byte[] data = new byte[blob.size()];
+          blob.getBuffer().get(data);
+          return new BlobStream(
+            Channels.newChannel(new ByteArrayInputStream(data)),
+            data.length
+          );
+        });
+    }
+
+    @Override
+    public void delete(PathReference path) {
+      _local.delete(path);
+    }
+  }
+}